@@ -61,6 +61,7 @@ dependencies {
   implementation("com.datastax.oss.quarkus:cassandra-quarkus-client")
   implementation("org.jboss.slf4j:slf4j-jboss-logmanager")
   implementation(libs.opentelemetry.api)
+  implementation(libs.micrometer.core)
 
   // javax/jakarta
   compileOnly(libs.jakarta.validation.api)
@@ -21,7 +21,11 @@ import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithConverter;
 import io.smallrye.config.WithDefault;
 import io.smallrye.config.WithName;
+import java.time.Duration;
+import java.util.Map;
+import org.projectnessie.versioned.storage.common.config.RetryBackoffPolicy;
 import org.projectnessie.versioned.storage.common.config.StoreConfig;
+import org.projectnessie.versioned.storage.common.objtypes.Compression;
 
 @StaticInitSafe
 @ConfigMapping(prefix = "nessie.version.store.persist")
@@ -61,6 +65,11 @@ public interface QuarkusStoreConfig extends StoreConfig {
   @Override
   long retryMaxSleepMillis();
 
+  @WithName(CONFIG_RETRY_BACKOFF_POLICY)
+  @WithDefault("EXPONENTIAL")
+  @Override
+  RetryBackoffPolicy retryBackoffPolicy();
+
   @WithName(CONFIG_PARENTS_PER_COMMIT)
   @WithDefault("" + DEFAULT_PARENTS_PER_COMMIT)
   @Override
@@ -81,6 +90,36 @@ public interface QuarkusStoreConfig extends StoreConfig {
   @Override
   int maxReferenceStripesPerCommit();
 
+  @WithName(CONFIG_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY)
+  @WithDefault("" + DEFAULT_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY)
+  @Override
+  int indexStripeKeyFilterBitsPerKey();
+
+  @WithName(CONFIG_INDEX_SERIALIZATION_VERSION)
+  @WithDefault("" + DEFAULT_INDEX_SERIALIZATION_VERSION)
+  @Override
+  int indexSerializationVersion();
+
+  @WithName(CONFIG_INDEX_STRIPE_READ_AHEAD)
+  @WithDefault("" + DEFAULT_INDEX_STRIPE_READ_AHEAD)
+  @Override
+  int indexStripeReadAhead();
+
+  @WithName(CONFIG_INDEX_COMPRESSION)
+  @WithDefault("NONE")
+  @Override
+  Compression indexCompression();
+
+  @WithName(CONFIG_VALUE_COMPRESSION)
+  @WithDefault("NONE")
+  @Override
+  Compression valueCompression();
+
+  @WithName(CONFIG_COMPRESSION_MIN_SIZE)
+  @WithDefault("" + DEFAULT_COMPRESSION_MIN_SIZE)
+  @Override
+  int compressionMinSize();
+
   @WithName(CONFIG_ASSUMED_WALL_CLOCK_DRIFT_MICROS)
   @WithDefault("" + DEFAULT_ASSUMED_WALL_CLOCK_DRIFT_MICROS)
   @Override
@@ -91,10 +130,74 @@ public interface QuarkusStoreConfig extends StoreConfig {
   @Override
   boolean validateNamespaces();
 
+  @WithName(CONFIG_GROUP_COMMIT_MAX_COMMITS)
+  @WithDefault("" + DEFAULT_GROUP_COMMIT_MAX_COMMITS)
+  @Override
+  int groupCommitMaxCommits();
+
+  @WithName(CONFIG_COMMIT_SEQUENCING)
+  @WithDefault("" + DEFAULT_COMMIT_SEQUENCING)
+  @Override
+  boolean commitSequencing();
+
+  @WithName(CONFIG_COMMIT_LOG_READ_AHEAD)
+  @WithDefault("" + DEFAULT_COMMIT_LOG_READ_AHEAD)
+  @Override
+  int commitLogReadAhead();
+
+  @WithName(CONFIG_MERGE_BASE_CACHE_SIZE)
+  @WithDefault("" + DEFAULT_MERGE_BASE_CACHE_SIZE)
+  @Override
+  int mergeBaseCacheSize();
+
   String CONFIG_CACHE_CAPACITY_MB = "cache-capacity-mb";
   int DEFAULT_CACHE_CAPACITY_MB = 0;
 
   @WithName(CONFIG_CACHE_CAPACITY_MB)
   @WithDefault("" + DEFAULT_CACHE_CAPACITY_MB)
   int cacheCapacityMB();
+
+  String CONFIG_CACHE_SERIALIZED = "cache-serialized";
+  boolean DEFAULT_CACHE_SERIALIZED = false;
+
+  @WithName(CONFIG_CACHE_SERIALIZED)
+  @WithDefault("" + DEFAULT_CACHE_SERIALIZED)
+  boolean cacheSerialized();
+
+  String CONFIG_CACHE_OFF_HEAP = "cache-off-heap";
+  boolean DEFAULT_CACHE_OFF_HEAP = false;
+
+  @WithName(CONFIG_CACHE_OFF_HEAP)
+  @WithDefault("" + DEFAULT_CACHE_OFF_HEAP)
+  boolean cacheOffHeap();
+
+  String CONFIG_CACHE_CAPACITY_SHARES = "cache-capacity-shares";
+
+  /**
+   * Shares of the cache capacity dedicated to object types, keyed by the lower-case object type
+   * name, for example {@code index-segments}.
+   */
+  @WithName(CONFIG_CACHE_CAPACITY_SHARES)
+  Map<String, Double> cacheCapacityShares();
+
+  String CONFIG_CACHE_SCAN_RESISTANT = "cache-scan-resistant";
+  boolean DEFAULT_CACHE_SCAN_RESISTANT = false;
+
+  @WithName(CONFIG_CACHE_SCAN_RESISTANT)
+  @WithDefault("" + DEFAULT_CACHE_SCAN_RESISTANT)
+  boolean cacheScanResistant();
+
+  String CONFIG_REFERENCE_CACHE_TTL = "reference-cache-ttl";
+  String DEFAULT_REFERENCE_CACHE_TTL = "PT0S";
+
+  @WithName(CONFIG_REFERENCE_CACHE_TTL)
+  @WithDefault(DEFAULT_REFERENCE_CACHE_TTL)
+  Duration referenceCacheTtl();
+
+  String CONFIG_NOT_FOUND_CACHE_TTL = "not-found-cache-ttl";
+  String DEFAULT_NOT_FOUND_CACHE_TTL = "PT0S";
+
+  @WithName(CONFIG_NOT_FOUND_CACHE_TTL)
+  @WithDefault(DEFAULT_NOT_FOUND_CACHE_TTL)
+  Duration notFoundCacheTtl();
 }
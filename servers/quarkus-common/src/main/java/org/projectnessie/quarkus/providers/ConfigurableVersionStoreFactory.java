@@ -15,6 +15,9 @@
  */
 package org.projectnessie.quarkus.providers;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.opentelemetry.api.trace.Tracer;
 import io.quarkus.runtime.Startup;
 import java.io.IOError;
@@ -106,7 +109,10 @@ public class ConfigurableVersionStoreFactory {
     try {
       Persist p = persist.select().get();
 
-      return new VersionStoreImpl(p);
+      // A composite registry without any registries added is a no-op registry.
+      MeterRegistry registry =
+          storeConfig.isMetricsEnabled() ? Metrics.globalRegistry : new CompositeMeterRegistry();
+      return new VersionStoreImpl(p, registry);
     } catch (RuntimeException | IOError e) {
       LOGGER.error(
           "Failed to configure/start {} version store", storeConfig.getVersionStoreType(), e);
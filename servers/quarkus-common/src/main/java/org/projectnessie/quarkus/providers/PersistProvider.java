@@ -17,9 +17,14 @@ package org.projectnessie.quarkus.providers;
 
 import static org.projectnessie.versioned.storage.common.logic.Logics.repositoryLogic;
 
+import io.micrometer.core.instrument.Metrics;
 import io.opentelemetry.api.trace.Tracer;
 import io.quarkus.runtime.Startup;
 import io.quarkus.runtime.annotations.RegisterForReflection;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.function.BiFunction;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Any;
@@ -34,8 +39,10 @@ import org.projectnessie.quarkus.config.VersionStoreConfig.VersionStoreType;
 import org.projectnessie.quarkus.providers.StoreType.Literal;
 import org.projectnessie.services.config.ServerConfig;
 import org.projectnessie.versioned.storage.cache.CacheBackend;
+import org.projectnessie.versioned.storage.cache.CacheConfig;
 import org.projectnessie.versioned.storage.cache.PersistCaches;
 import org.projectnessie.versioned.storage.common.persist.Backend;
+import org.projectnessie.versioned.storage.common.persist.ObjType;
 import org.projectnessie.versioned.storage.common.persist.Persist;
 import org.projectnessie.versioned.storage.common.persist.PersistFactory;
 import org.projectnessie.versioned.storage.telemetry.TelemetryPersistFactory;
@@ -46,7 +53,9 @@ import org.slf4j.LoggerFactory;
 @RegisterForReflection(
     classNames = {
       "com.github.benmanes.caffeine.cache.SSSMW",
-      "com.github.benmanes.caffeine.cache.PSMW"
+      "com.github.benmanes.caffeine.cache.PSMW",
+      "com.github.benmanes.caffeine.cache.SSSMSW",
+      "com.github.benmanes.caffeine.cache.PSWMS"
     })
 public class PersistProvider {
   private static final Logger LOGGER = LoggerFactory.getLogger(PersistProvider.class);
@@ -145,10 +154,31 @@ public class PersistProvider {
     String cacheInfo;
     int cacheCapacityMB = storeConfig.cacheCapacityMB();
     if (cacheCapacityMB > 0) {
-      CacheBackend cacheBackend = PersistCaches.newBackend(1024L * 1024L * cacheCapacityMB);
+      CacheBackend cacheBackend =
+          PersistCaches.newBackend(
+              CacheConfig.builder()
+                  .capacity(1024L * 1024L * cacheCapacityMB)
+                  .serialized(storeConfig.cacheSerialized())
+                  .offHeap(storeConfig.cacheOffHeap())
+                  .capacityShares(capacityShares(storeConfig.cacheCapacityShares()))
+                  .scanResistant(storeConfig.cacheScanResistant())
+                  .referenceTtl(storeConfig.referenceCacheTtl())
+                  .notFoundTtl(storeConfig.notFoundCacheTtl())
+                  .build());
+      if (versionStoreConfig.isMetricsEnabled()) {
+        cacheBackend.bindTo(Metrics.globalRegistry);
+      }
       persist = cacheBackend.wrap(persist);
       persist = wrapPersistTracing.apply(persist, "Cache");
-      cacheInfo = "with " + cacheCapacityMB + " MB objects cache";
+      cacheInfo =
+          "with "
+              + cacheCapacityMB
+              + " MB "
+              + (storeConfig.cacheOffHeap() ? "off-heap " : "")
+              + "objects cache";
+      if (storeConfig.referenceCacheTtl().compareTo(Duration.ZERO) > 0) {
+        cacheInfo += " and " + storeConfig.referenceCacheTtl() + " reference cache TTL";
+      }
     } else {
       cacheInfo = "without objects cache";
     }
@@ -159,4 +189,12 @@ public class PersistProvider {
 
     return persist;
   }
+
+  private static Map<ObjType, Double> capacityShares(Map<String, Double> shares) {
+    Map<ObjType, Double> r = new EnumMap<>(ObjType.class);
+    shares.forEach(
+        (type, share) ->
+            r.put(ObjType.valueOf(type.toUpperCase(Locale.ROOT).replace('-', '_')), share));
+    return r;
+  }
 }
@@ -16,6 +16,7 @@
 package org.projectnessie.versioned.storage.batching;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.blocking;
 
 import com.google.common.annotations.VisibleForTesting;
 import jakarta.annotation.Nonnull;
@@ -24,6 +25,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.projectnessie.versioned.storage.common.config.StoreConfig;
 import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
@@ -286,6 +289,77 @@ final class BatchingPersistImpl implements BatchingPersist, ValidatingPersist {
     return r;
   }
 
+  @Override
+  @Nonnull
+  @javax.annotation.Nonnull
+  public CompletionStage<Obj> fetchObjAsync(@Nonnull @javax.annotation.Nonnull ObjId id) {
+    readLock();
+    try {
+      Obj r = pendingObj(id);
+      if (r != null) {
+        return CompletableFuture.completedFuture(r);
+      }
+    } finally {
+      readUnlock();
+    }
+
+    return delegate().fetchObjAsync(id);
+  }
+
+  @Override
+  @Nonnull
+  @javax.annotation.Nonnull
+  public CompletionStage<Obj[]> fetchObjsAsync(@Nonnull @javax.annotation.Nonnull ObjId[] ids) {
+    ObjId[] backendIds = null;
+    Obj[] r = new Obj[ids.length];
+
+    readLock();
+    try {
+      for (int i = 0; i < ids.length; i++) {
+        ObjId id = ids[i];
+        if (id == null) {
+          continue;
+        }
+        Obj o = pendingObj(id);
+        if (o != null) {
+          r[i] = o;
+        } else {
+          if (backendIds == null) {
+            backendIds = new ObjId[ids.length];
+          }
+          backendIds[i] = id;
+        }
+      }
+    } finally {
+      readUnlock();
+    }
+
+    if (backendIds == null) {
+      return CompletableFuture.completedFuture(r);
+    }
+
+    return delegate()
+        .fetchObjsAsync(backendIds)
+        .thenApply(
+            backendResult -> {
+              for (int i = 0; i < backendResult.length; i++) {
+                Obj o = backendResult[i];
+                if (o != null) {
+                  r[i] = o;
+                }
+              }
+              return r;
+            });
+  }
+
+  @Override
+  @Nonnull
+  @javax.annotation.Nonnull
+  public CompletionStage<boolean[]> storeObjsAsync(@Nonnull @javax.annotation.Nonnull Obj[] objs) {
+    // Objects are only added to the pending batch, which does not need to wait for the delegate.
+    return blocking(() -> storeObjs(objs));
+  }
+
   @Override
   public void deleteObj(@Nonnull @javax.annotation.Nonnull ObjId id) {
     writeLock();
@@ -399,6 +473,37 @@ final class BatchingPersistImpl implements BatchingPersist, ValidatingPersist {
     return delegate().fetchReferences(names);
   }
 
+  @Override
+  @Nonnull
+  @javax.annotation.Nonnull
+  public CompletionStage<Reference> updateReferencePointerAsync(
+      @Nonnull @javax.annotation.Nonnull Reference reference,
+      @Nonnull @javax.annotation.Nonnull ObjId newPointer) {
+    return delegate().updateReferencePointerAsync(reference, newPointer);
+  }
+
+  @Override
+  @Nonnull
+  @javax.annotation.Nonnull
+  public CompletionStage<Reference> fetchReferenceAsync(
+      @Nonnull @javax.annotation.Nonnull String name) {
+    return delegate().fetchReferenceAsync(name);
+  }
+
+  @Override
+  @Nullable
+  @javax.annotation.Nullable
+  public Reference fetchReferenceForUpdate(@Nonnull @javax.annotation.Nonnull String name) {
+    return delegate().fetchReferenceForUpdate(name);
+  }
+
+  @Override
+  @Nonnull
+  @javax.annotation.Nonnull
+  public Reference[] fetchReferencesForUpdate(@Nonnull @javax.annotation.Nonnull String[] names) {
+    return delegate().fetchReferencesForUpdate(names);
+  }
+
   @Override
   @Nonnull
   @javax.annotation.Nonnull
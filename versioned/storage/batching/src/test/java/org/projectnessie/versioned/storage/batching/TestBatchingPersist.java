@@ -19,9 +19,17 @@ import static java.util.Arrays.stream;
 import static org.assertj.core.api.AssertionsForClassTypes.entry;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
 import static org.projectnessie.versioned.storage.commontests.AbstractBasePersistTests.updateObjChange;
 
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,6 +51,7 @@ import org.projectnessie.versioned.storage.common.objtypes.IndexObj;
 import org.projectnessie.versioned.storage.common.persist.Obj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
 import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.common.persist.Reference;
 import org.projectnessie.versioned.storage.commontests.AbstractBasePersistTests;
 import org.projectnessie.versioned.storage.inmemory.InmemoryBackend;
 import org.projectnessie.versioned.storage.inmemory.InmemoryBackendFactory;
@@ -217,6 +226,45 @@ public class TestBatchingPersist {
     soft.assertThat(persist.pendingUpserts()).containsExactly(entry(obj.id(), updated));
   }
 
+  @Test
+  void asyncFunctionsReachDelegate() throws Exception {
+    Persist delegate = mock(Persist.class, delegatesTo(base));
+    BatchingPersistImpl batching = batching(delegate);
+
+    List<Obj> objs = allObjectTypeSamples().limit(2).collect(Collectors.toList());
+    Obj stored = objs.get(0);
+    Obj pending = objs.get(1);
+    base.storeObj(stored);
+    batching.storeObj(pending);
+    Reference ref = base.addReference(reference("refs/heads/main", EMPTY_OBJ_ID, false));
+
+    soft.assertThat(batching.fetchObjAsync(stored.id()).toCompletableFuture().get())
+        .isEqualTo(stored);
+    soft.assertThat(batching.fetchObjAsync(pending.id()).toCompletableFuture().get())
+        .isEqualTo(pending);
+    soft.assertThat(
+            batching
+                .fetchObjsAsync(new ObjId[] {stored.id(), pending.id()})
+                .toCompletableFuture()
+                .get())
+        .containsExactly(stored, pending);
+    soft.assertThat(batching.fetchReferenceAsync(ref.name()).toCompletableFuture().get())
+        .isEqualTo(ref);
+    soft.assertThat(
+            batching.updateReferencePointerAsync(ref, stored.id()).toCompletableFuture().get())
+        .extracting(Reference::pointer)
+        .isEqualTo(stored.id());
+
+    verify(delegate).fetchObjAsync(stored.id());
+    verify(delegate).fetchObjsAsync(new ObjId[] {stored.id(), null});
+    verify(delegate).fetchReferenceAsync(ref.name());
+    verify(delegate).updateReferencePointerAsync(ref, stored.id());
+    verify(delegate, never()).fetchObj(any());
+    verify(delegate, never()).fetchObjs(any());
+    verify(delegate, never()).fetchReference(any());
+    verify(delegate, never()).updateReferencePointer(any(), any());
+  }
+
   private Persist base() {
     InmemoryBackendFactory factory = new InmemoryBackendFactory();
     @SuppressWarnings("resource")
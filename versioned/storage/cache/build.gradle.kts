@@ -20,6 +20,7 @@ plugins {
   `maven-publish`
   signing
   `nessie-conventions`
+  alias(libs.plugins.jmh)
 }
 
 extra["maven.name"] = "Nessie - Storage - Cache"
@@ -29,6 +30,7 @@ description = "Provides caching functionality, bounded by heap pressure."
 dependencies {
   implementation(project(":nessie-versioned-storage-common"))
   implementation(project(":nessie-versioned-storage-common-serialize"))
+  implementation(project(path = ":nessie-protobuf-relocated", configuration = "shadow"))
 
   // javax/jakarta
   compileOnly(libs.jakarta.validation.api)
@@ -40,6 +42,8 @@ dependencies {
 
   implementation(libs.guava)
   implementation(libs.caffeine)
+  implementation(libs.agrona)
+  implementation(libs.micrometer.core)
 
   compileOnly(libs.immutables.builder)
   compileOnly(libs.immutables.value.annotations)
@@ -51,4 +55,9 @@ dependencies {
 
   testImplementation(platform(libs.junit.bom))
   testImplementation(libs.bundles.junit.testing)
+
+  jmhImplementation(libs.jmh.core)
+  jmhAnnotationProcessor(libs.jmh.generator.annprocess)
 }
+
+tasks.named("processJmhJandexIndex") { enabled = false }
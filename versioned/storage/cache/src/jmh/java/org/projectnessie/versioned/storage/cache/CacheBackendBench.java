@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.projectnessie.versioned.storage.common.objtypes.ContentValueObj.contentValue;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+
+/**
+ * Compares cache hit latency of the on-heap and off-heap {@link CacheBackend}s with a multi-GB
+ * cache. Run with {@code -prof gc} to compare the allocation rate and garbage collection overhead.
+ */
+@Warmup(iterations = 2, time = 2000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms12g", "-Xmx12g", "-XX:MaxDirectMemorySize=8g"})
+@Threads(4)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+public class CacheBackendBench {
+  @State(Scope.Benchmark)
+  public static class BenchmarkParam {
+
+    @Param({"caffeine", "caffeine-serialized", "off-heap"})
+    public String backend;
+
+    @Param({"4000000"})
+    public int objects;
+
+    @Param({"1024"})
+    public int valueSize;
+
+    private CacheBackend cacheBackend;
+    private ObjId[] ids;
+    private ByteString data;
+
+    @Setup
+    public void init() {
+      ImmutableCacheConfig.Builder config =
+          CacheConfig.builder().capacity((long) objects * (valueSize + 512));
+      switch (backend) {
+        case "caffeine":
+          break;
+        case "caffeine-serialized":
+          config.serialized(true);
+          break;
+        case "off-heap":
+          config.offHeap(true);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown backend " + backend);
+      }
+      cacheBackend = PersistCaches.newBackend(config.build());
+
+      // Only the IDs are kept, so that the heap usage is dominated by the cache backend
+      byte[] bytes = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(bytes);
+      bytes[0] = 1;
+      data = ByteString.copyFrom(bytes);
+      ids = new ObjId[objects];
+      for (int i = 0; i < objects; i++) {
+        ids[i] = randomObjId();
+        cacheBackend.put("repo", obj(ids[i]));
+      }
+    }
+
+    Obj obj(ObjId id) {
+      return contentValue(id, "cid", 42, data);
+    }
+
+    ObjId randomId() {
+      return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+  }
+
+  @Benchmark
+  public Obj getHit(BenchmarkParam param) {
+    return param.cacheBackend.get("repo", param.randomId());
+  }
+
+  @Benchmark
+  public void put(BenchmarkParam param) {
+    param.cacheBackend.put("repo", param.obj(param.randomId()));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+/**
+ * Scan-resistant admission filter for objects that were loaded from the database on a cache miss:
+ * an object is only admitted to the cache, if it has been loaded at least once before "recently".
+ * Objects that are read only once, for example by exports, garbage collection or other walks over
+ * a lot of objects, therefore do not evict objects that are actually used.
+ *
+ * <p>"Recently" is tracked via a fixed size table of hash fingerprints, so this filter needs very
+ * little memory. A fingerprint collision just admits an object early, which is harmless.
+ * Concurrent updates of the table are not synchronized, losing an update just delays the admission
+ * of an object.
+ */
+final class CacheAdmission {
+  static final int MIN_SLOTS = 1024;
+  static final int MAX_SLOTS = 1 << 22;
+
+  /** One slot per this amount of cache capacity in bytes. */
+  static final int BYTES_PER_SLOT = 1024;
+
+  private final int[] fingerprints;
+  private final int shift;
+
+  CacheAdmission(long capacity) {
+    int slots = (int) Math.max(MIN_SLOTS, Math.min(MAX_SLOTS, capacity / BYTES_PER_SLOT));
+    slots = Integer.highestOneBit(slots);
+    this.fingerprints = new int[slots];
+    this.shift = 32 - Integer.numberOfTrailingZeros(slots);
+  }
+
+  /**
+   * Returns {@code true}, if the object for the given key shall be added to the cache, which is the
+   * case when the same key has been passed to this function before and was not displaced from the
+   * fingerprint table in the meantime.
+   */
+  boolean admit(CacheKey key) {
+    int fingerprint = key.hashCode();
+    int slot = (fingerprint * 0x9e3779b9) >>> shift;
+    if (fingerprints[slot] == fingerprint) {
+      return true;
+    }
+    fingerprints[slot] = fingerprint;
+    return false;
+  }
+}
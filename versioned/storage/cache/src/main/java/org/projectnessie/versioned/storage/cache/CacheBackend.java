@@ -15,11 +15,13 @@
  */
 package org.projectnessie.versioned.storage.cache;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.annotation.Nonnull;
 import org.projectnessie.versioned.storage.common.persist.Backend;
 import org.projectnessie.versioned.storage.common.persist.Obj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
 import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.common.persist.Reference;
 
 /**
  * Provides the cache primitives for a caching {@link Persist} facade, suitable for multiple
@@ -34,11 +36,51 @@ public interface CacheBackend {
       @Nonnull @jakarta.annotation.Nonnull String repositoryId,
       @Nonnull @jakarta.annotation.Nonnull Obj obj);
 
+  /**
+   * Adds an object that was loaded from the database on a cache miss, subject to the {@link
+   * CacheConfig#scanResistant() admission policy}.
+   */
+  void putLoaded(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull Obj obj);
+
   void remove(
       @Nonnull @jakarta.annotation.Nonnull String repositoryId,
       @Nonnull @jakarta.annotation.Nonnull ObjId id);
 
   void clear(@Nonnull @jakarta.annotation.Nonnull String repositoryId);
 
+  /**
+   * Records that the object with the given ID does not exist. The entry is removed when the object
+   * is {@link #put(String, Obj) put} or {@link #remove(String, ObjId) removed}.
+   */
+  void putNotFound(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id);
+
+  /** Whether the object with the given ID is known to not exist. */
+  boolean isNotFound(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id);
+
+  /** Returns the cached reference or {@code null}, if not cached or reference caching is off. */
+  Reference getReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull String name);
+
+  void putReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull Reference reference);
+
+  void removeReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull String name);
+
+  /**
+   * Registers meters for the cache statistics: hits and loads per object type, misses, evictions,
+   * number of cached objects, and the estimated weight and capacity of the cache (partitions).
+   */
+  void bindTo(@Nonnull @jakarta.annotation.Nonnull MeterRegistry registry);
+
   Persist wrap(@Nonnull @jakarta.annotation.Nonnull Persist perist);
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import org.immutables.value.Value;
+import org.projectnessie.versioned.storage.common.persist.ObjType;
+import org.projectnessie.versioned.storage.common.persist.Persist;
+
+/** Configuration of a {@link CacheBackend}, see {@link PersistCaches#newBackend(CacheConfig)}. */
+@Value.Immutable
+public interface CacheConfig {
+
+  /** Maximum amount of heap used by cached objects, in bytes. */
+  long capacity();
+
+  /**
+   * Shares of the {@link #capacity()} that are dedicated to objects of a specific type, each share
+   * must be greater than 0 and at most 1. Objects of these types are held in separate partitions,
+   * so that many or big objects of one type cannot evict objects of other types. Objects of all
+   * other types share the remaining capacity. Only supported for on-heap caches.
+   */
+  Map<ObjType, Double> capacityShares();
+
+  /**
+   * Whether objects that were loaded from the database on a cache miss are only added to the cache
+   * on their second access, so that bulk reads of objects that are read only once do not evict
+   * objects that are actually used. Objects that are written are always added to the cache.
+   */
+  @Value.Default
+  default boolean scanResistant() {
+    return false;
+  }
+
+  /**
+   * Whether cached objects are held in their serialized form, which is more compact but requires
+   * deserializing on every cache hit.
+   */
+  @Value.Default
+  default boolean serialized() {
+    return false;
+  }
+
+  /**
+   * Whether cached objects are held in serialized form in direct memory, outside of the Java heap.
+   * Intended for large caches, which would otherwise put a lot of pressure on the garbage
+   * collector. Implies {@link #serialized()}.
+   */
+  @Value.Default
+  default boolean offHeap() {
+    return false;
+  }
+
+  /**
+   * Duration for which {@link Persist#fetchReference(String) fetched references} are cached.
+   * Reference caching is disabled, if not present or not positive.
+   *
+   * <p>Updates via the caching {@link Persist} update or invalidate the cached references, but
+   * changes performed by other Nessie instances become visible only after the cached reference
+   * expired.
+   */
+  Optional<Duration> referenceTtl();
+
+  /**
+   * Duration for which the absence of objects is cached, to prevent repeated database lookups for
+   * objects that do not exist. Caching of absent objects is disabled, if not present or not
+   * positive.
+   *
+   * <p>Storing an object via the caching {@link Persist} invalidates the "not found" entry, but
+   * objects stored by other Nessie instances become visible only after the entry expired.
+   */
+  Optional<Duration> notFoundTtl();
+
+  /** Clock used for cache expiration, in nanoseconds, only to be changed in tests. */
+  @Value.Default
+  default LongSupplier clockNanos() {
+    return System::nanoTime;
+  }
+
+  @Value.Check
+  default void validate() {
+    double sum = 0d;
+    for (Map.Entry<ObjType, Double> share : capacityShares().entrySet()) {
+      double value = share.getValue();
+      checkArgument(
+          value > 0d && value <= 1d,
+          "Capacity share for %s must be greater than 0 and at most 1",
+          share.getKey());
+      sum += value;
+    }
+    // tolerate rounding errors
+    checkArgument(sum <= 1.000001d, "Sum of all capacity shares must not be greater than 1");
+    checkArgument(
+        !offHeap() || capacityShares().isEmpty(),
+        "Capacity shares are not supported for off-heap caches");
+  }
+
+  static ImmutableCacheConfig.Builder builder() {
+    return ImmutableCacheConfig.builder();
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2022 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static org.projectnessie.versioned.storage.cache.CaffeineCacheBackend.JAVA_OBJ_HEADER;
+
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+
+final class CacheKey {
+
+  static final int HEAP_OVERHEAD = 3 * JAVA_OBJ_HEADER;
+  final String repositoryId;
+  final ObjId id;
+
+  CacheKey(String repositoryId, ObjId id) {
+    this.repositoryId = repositoryId;
+    this.id = id;
+  }
+
+  int heapSize() {
+    return HEAP_OVERHEAD + id.size() + repositoryId.length();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CacheKey)) {
+      return false;
+    }
+    CacheKey cacheKey = (CacheKey) o;
+    return repositoryId.equals(cacheKey.repositoryId) && id.equals(cacheKey.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return repositoryId.hashCode() * 31 + id.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "CacheKey{" + repositoryId + ", " + id + '}';
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import org.projectnessie.versioned.storage.common.persist.ObjType;
+
+/**
+ * Cache statistics that are common to all {@link CacheBackend} implementations, published via
+ * {@link #bindTo(MeterRegistry)}.
+ *
+ * <p>Hits and loads are counted per {@link ObjType}, the hit ratio for an object type is {@code
+ * hits / (hits + loads)}. Misses cannot be attributed to an object type, because the type of an
+ * object that is not cached is not known.
+ */
+final class CacheMetrics {
+  static final String METER_HITS = "nessie.cache.objects.hits";
+  static final String METER_MISSES = "nessie.cache.objects.misses";
+  static final String METER_LOADS = "nessie.cache.objects.loads";
+  static final String METER_EVICTIONS = "nessie.cache.objects.evictions";
+  static final String METER_SIZE = "nessie.cache.objects.size";
+  static final String METER_WEIGHT = "nessie.cache.objects.weight";
+  static final String METER_CAPACITY = "nessie.cache.objects.capacity";
+
+  static final String TAG_TYPE = "type";
+  static final String TAG_PARTITION = "partition";
+  static final String PARTITION_SHARED = "shared";
+
+  private static final ObjType[] OBJ_TYPES = ObjType.values();
+
+  private final LongAdder[] hits = newAdders();
+  private final LongAdder[] loads = newAdders();
+  private final LongAdder misses = new LongAdder();
+
+  private static LongAdder[] newAdders() {
+    LongAdder[] adders = new LongAdder[OBJ_TYPES.length];
+    for (int i = 0; i < adders.length; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  void hit(ObjType type) {
+    hits[type.ordinal()].increment();
+  }
+
+  void miss() {
+    misses.increment();
+  }
+
+  /** Records that an object was loaded from the database after a cache miss. */
+  void load(ObjType type) {
+    loads[type.ordinal()].increment();
+  }
+
+  long hits(ObjType type) {
+    return hits[type.ordinal()].sum();
+  }
+
+  long loads(ObjType type) {
+    return loads[type.ordinal()].sum();
+  }
+
+  long misses() {
+    return misses.sum();
+  }
+
+  void bindTo(MeterRegistry registry) {
+    for (ObjType type : OBJ_TYPES) {
+      Tags typeTags = Tags.of(TAG_TYPE, typeTagValue(type));
+      LongAdder typeHits = hits[type.ordinal()];
+      LongAdder typeLoads = loads[type.ordinal()];
+      FunctionCounter.builder(METER_HITS, typeHits, LongAdder::sum)
+          .description("Number of cache hits")
+          .tags(typeTags)
+          .register(registry);
+      FunctionCounter.builder(METER_LOADS, typeLoads, LongAdder::sum)
+          .description("Number of objects loaded from the database after a cache miss")
+          .tags(typeTags)
+          .register(registry);
+    }
+    FunctionCounter.builder(METER_MISSES, misses, LongAdder::sum)
+        .description("Number of cache misses")
+        .register(registry);
+  }
+
+  static String typeTagValue(ObjType type) {
+    return type.name().toLowerCase(Locale.ROOT);
+  }
+}
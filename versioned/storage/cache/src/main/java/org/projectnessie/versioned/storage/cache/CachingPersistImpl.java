@@ -15,7 +15,16 @@
  */
 package org.projectnessie.versioned.storage.cache;
 
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.failed;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.unwrap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Nonnull;
 import org.projectnessie.versioned.storage.common.config.StoreConfig;
 import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
@@ -48,12 +57,16 @@ class CachingPersistImpl implements Persist {
     if (o != null) {
       return o;
     }
+    if (cache.isNotFound(id)) {
+      throw new ObjNotFoundException(id);
+    }
     try {
       o = persist.fetchObj(id);
-      cache.put(o);
+      cache.putLoaded(o);
       return o;
     } catch (ObjNotFoundException e) {
       cache.remove(id);
+      cache.putNotFound(id);
       throw e;
     }
   }
@@ -70,8 +83,12 @@ class CachingPersistImpl implements Persist {
         throw new ObjNotFoundException(id);
       }
     } else {
+      if (cache.isNotFound(id)) {
+        throw new ObjNotFoundException(id);
+      }
+      // Not recording "not found" here, 'fetchTypedObj' also throws if the type does not match.
       o = persist.fetchTypedObj(id, type, typeClass);
-      cache.put(o);
+      cache.putLoaded(o);
     }
     @SuppressWarnings("unchecked")
     T r = (T) o;
@@ -87,9 +104,17 @@ class CachingPersistImpl implements Persist {
     if (o != null) {
       return o.type();
     }
+    if (cache.isNotFound(id)) {
+      throw new ObjNotFoundException(id);
+    }
     // 'fetchObjType' is used to validate the object-type for objects that are not available.
     // It's not worth to eagerly fetch the whole object and add it to the cache.
-    return persist.fetchObjType(id);
+    try {
+      return persist.fetchObjType(id);
+    } catch (ObjNotFoundException e) {
+      cache.putNotFound(id);
+      throw e;
+    }
   }
 
   @Override
@@ -98,6 +123,7 @@ class CachingPersistImpl implements Persist {
   public Obj[] fetchObjs(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids)
       throws ObjNotFoundException {
     ObjId[] backendIds = null;
+    List<ObjId> notFound = null;
     Obj[] r = new Obj[ids.length];
 
     for (int i = 0; i < ids.length; i++) {
@@ -108,6 +134,11 @@ class CachingPersistImpl implements Persist {
       Obj o = cache.get(id);
       if (o != null) {
         r[i] = o;
+      } else if (cache.isNotFound(id)) {
+        if (notFound == null) {
+          notFound = new ArrayList<>();
+        }
+        notFound.add(id);
       } else {
         if (backendIds == null) {
           backendIds = new ObjId[ids.length];
@@ -117,20 +148,54 @@ class CachingPersistImpl implements Persist {
     }
 
     if (backendIds == null) {
+      if (notFound != null) {
+        throw new ObjNotFoundException(notFound);
+      }
       return r;
     }
 
-    Obj[] backendResult = persist.fetchObjs(backendIds);
+    Obj[] backendResult;
+    try {
+      backendResult = persist.fetchObjs(backendIds);
+    } catch (ObjNotFoundException e) {
+      throw backendObjsNotFound(ids, notFound, e);
+    }
     for (int i = 0; i < backendResult.length; i++) {
       Obj o = backendResult[i];
       if (o != null) {
         r[i] = o;
-        cache.put(o);
+        cache.putLoaded(o);
       }
     }
+    if (notFound != null) {
+      throw new ObjNotFoundException(notFound);
+    }
     return r;
   }
 
+  /**
+   * Records the IDs reported as not found by the backend and returns an exception for those and the
+   * IDs in {@code knownNotFound}, in the order of the requested {@code ids}.
+   */
+  private ObjNotFoundException backendObjsNotFound(
+      ObjId[] ids, List<ObjId> knownNotFound, ObjNotFoundException backendNotFound) {
+    for (ObjId id : backendNotFound.objIds()) {
+      cache.putNotFound(id);
+    }
+    if (knownNotFound == null) {
+      return backendNotFound;
+    }
+    Set<ObjId> missing = new HashSet<>(knownNotFound);
+    missing.addAll(backendNotFound.objIds());
+    List<ObjId> notFound = new ArrayList<>(missing.size());
+    for (ObjId id : ids) {
+      if (id != null && missing.remove(id)) {
+        notFound.add(id);
+      }
+    }
+    return new ObjNotFoundException(notFound);
+  }
+
   @Override
   public boolean storeObj(
       @jakarta.annotation.Nonnull @Nonnull Obj obj, boolean ignoreSoftSizeRestrictions)
@@ -139,6 +204,8 @@ class CachingPersistImpl implements Persist {
       cache.put(obj);
       return true;
     }
+    // object already exists
+    cache.remove(obj.id());
     return false;
   }
 
@@ -151,11 +218,120 @@ class CachingPersistImpl implements Persist {
     for (int i = 0; i < stored.length; i++) {
       if (stored[i]) {
         cache.put(objs[i]);
+      } else if (objs[i] != null) {
+        // object already exists
+        cache.remove(objs[i].id());
       }
     }
     return stored;
   }
 
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Obj> fetchObjAsync(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    Obj o = cache.get(id);
+    if (o != null) {
+      return CompletableFuture.completedFuture(o);
+    }
+    if (cache.isNotFound(id)) {
+      return failed(new ObjNotFoundException(id));
+    }
+    return persist
+        .fetchObjAsync(id)
+        .whenComplete(
+            (obj, e) -> {
+              if (obj != null) {
+                cache.putLoaded(obj);
+              } else if (unwrap(e) instanceof ObjNotFoundException) {
+                cache.remove(id);
+                cache.putNotFound(id);
+              }
+            });
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Obj[]> fetchObjsAsync(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids) {
+    ObjId[] backendIds = null;
+    List<ObjId> notFound = null;
+    Obj[] r = new Obj[ids.length];
+
+    for (int i = 0; i < ids.length; i++) {
+      ObjId id = ids[i];
+      if (id == null) {
+        continue;
+      }
+      Obj o = cache.get(id);
+      if (o != null) {
+        r[i] = o;
+      } else if (cache.isNotFound(id)) {
+        if (notFound == null) {
+          notFound = new ArrayList<>();
+        }
+        notFound.add(id);
+      } else {
+        if (backendIds == null) {
+          backendIds = new ObjId[ids.length];
+        }
+        backendIds[i] = id;
+      }
+    }
+
+    if (backendIds == null) {
+      return notFound != null
+          ? failed(new ObjNotFoundException(notFound))
+          : CompletableFuture.completedFuture(r);
+    }
+
+    List<ObjId> knownNotFound = notFound;
+    return persist
+        .fetchObjsAsync(backendIds)
+        .handle(
+            (backendResult, e) -> {
+              if (e != null) {
+                Throwable cause = unwrap(e);
+                if (cause instanceof ObjNotFoundException) {
+                  cause = backendObjsNotFound(ids, knownNotFound, (ObjNotFoundException) cause);
+                }
+                throw new CompletionException(cause);
+              }
+              for (int i = 0; i < backendResult.length; i++) {
+                Obj o = backendResult[i];
+                if (o != null) {
+                  r[i] = o;
+                  cache.putLoaded(o);
+                }
+              }
+              if (knownNotFound != null) {
+                throw new CompletionException(new ObjNotFoundException(knownNotFound));
+              }
+              return r;
+            });
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<boolean[]> storeObjsAsync(
+      @Nonnull @jakarta.annotation.Nonnull Obj[] objs) {
+    return persist
+        .storeObjsAsync(objs)
+        .thenApply(
+            stored -> {
+              for (int i = 0; i < stored.length; i++) {
+                if (stored[i]) {
+                  cache.put(objs[i]);
+                } else if (objs[i] != null) {
+                  // object already exists
+                  cache.remove(objs[i].id());
+                }
+              }
+              return stored;
+            });
+  }
+
   @Override
   public void upsertObj(@jakarta.annotation.Nonnull @Nonnull Obj obj) throws ObjTooLargeException {
     try {
@@ -254,7 +430,15 @@ class CachingPersistImpl implements Persist {
   @jakarta.annotation.Nonnull
   public Reference addReference(@Nonnull @jakarta.annotation.Nonnull Reference reference)
       throws RefAlreadyExistsException {
-    return persist.addReference(reference);
+    try {
+      Reference r = persist.addReference(reference);
+      cache.putReference(r);
+      return r;
+    } catch (RefAlreadyExistsException | RuntimeException e) {
+      // state of the reference is unknown
+      cache.removeReference(reference.name());
+      throw e;
+    }
   }
 
   @Override
@@ -262,13 +446,25 @@ class CachingPersistImpl implements Persist {
   @jakarta.annotation.Nonnull
   public Reference markReferenceAsDeleted(@Nonnull @jakarta.annotation.Nonnull Reference reference)
       throws RefNotFoundException, RefConditionFailedException {
-    return persist.markReferenceAsDeleted(reference);
+    try {
+      Reference r = persist.markReferenceAsDeleted(reference);
+      cache.putReference(r);
+      return r;
+    } catch (RefNotFoundException | RefConditionFailedException | RuntimeException e) {
+      // state of the reference is unknown
+      cache.removeReference(reference.name());
+      throw e;
+    }
   }
 
   @Override
   public void purgeReference(@Nonnull @jakarta.annotation.Nonnull Reference reference)
       throws RefNotFoundException, RefConditionFailedException {
-    persist.purgeReference(reference);
+    try {
+      persist.purgeReference(reference);
+    } finally {
+      cache.removeReference(reference.name());
+    }
   }
 
   @Override
@@ -278,18 +474,132 @@ class CachingPersistImpl implements Persist {
       @Nonnull @jakarta.annotation.Nonnull Reference reference,
       @Nonnull @jakarta.annotation.Nonnull ObjId newPointer)
       throws RefNotFoundException, RefConditionFailedException {
-    return persist.updateReferencePointer(reference, newPointer);
+    try {
+      Reference r = persist.updateReferencePointer(reference, newPointer);
+      cache.putReference(r);
+      return r;
+    } catch (RefNotFoundException | RefConditionFailedException | RuntimeException e) {
+      // state of the reference is unknown
+      cache.removeReference(reference.name());
+      throw e;
+    }
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Reference> updateReferencePointerAsync(
+      @Nonnull @jakarta.annotation.Nonnull Reference reference,
+      @Nonnull @jakarta.annotation.Nonnull ObjId newPointer) {
+    return persist
+        .updateReferencePointerAsync(reference, newPointer)
+        .whenComplete(
+            (r, e) -> {
+              if (e == null) {
+                cache.putReference(r);
+              } else {
+                // state of the reference is unknown
+                cache.removeReference(reference.name());
+              }
+            });
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Reference> fetchReferenceAsync(
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    Reference r = cache.getReference(name);
+    if (r != null) {
+      return CompletableFuture.completedFuture(r);
+    }
+    return persist
+        .fetchReferenceAsync(name)
+        .whenComplete(
+            (ref, e) -> {
+              if (ref != null) {
+                cache.putReference(ref);
+              }
+            });
   }
 
   @Override
   public Reference fetchReference(@Nonnull @jakarta.annotation.Nonnull String name) {
-    return persist.fetchReference(name);
+    Reference r = cache.getReference(name);
+    if (r == null) {
+      r = persist.fetchReference(name);
+      if (r != null) {
+        cache.putReference(r);
+      }
+    }
+    return r;
   }
 
   @Override
   @Nonnull
   @jakarta.annotation.Nonnull
   public Reference[] fetchReferences(@Nonnull @jakarta.annotation.Nonnull String[] names) {
-    return persist.fetchReferences(names);
+    String[] backendNames = null;
+    Reference[] r = new Reference[names.length];
+
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+      if (name == null) {
+        continue;
+      }
+      Reference ref = cache.getReference(name);
+      if (ref != null) {
+        r[i] = ref;
+      } else {
+        if (backendNames == null) {
+          backendNames = new String[names.length];
+        }
+        backendNames[i] = name;
+      }
+    }
+
+    if (backendNames == null) {
+      return r;
+    }
+
+    Reference[] backendResult = persist.fetchReferences(backendNames);
+    for (int i = 0; i < backendResult.length; i++) {
+      Reference ref = backendResult[i];
+      if (ref != null) {
+        r[i] = ref;
+        cache.putReference(ref);
+      }
+    }
+    return r;
+  }
+
+  @Override
+  public Reference fetchReferenceForUpdate(@Nonnull @jakarta.annotation.Nonnull String name) {
+    Reference r = persist.fetchReferenceForUpdate(name);
+    updateCachedReference(name, r);
+    return r;
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public Reference[] fetchReferencesForUpdate(
+      @Nonnull @jakarta.annotation.Nonnull String[] names) {
+    Reference[] r = persist.fetchReferencesForUpdate(names);
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null) {
+        updateCachedReference(names[i], r[i]);
+      }
+    }
+    return r;
+  }
+
+  /** Puts the current state of a reference into the cache or removes it, if it does not exist. */
+  private void updateCachedReference(String name, Reference current) {
+    if (current != null) {
+      cache.putReference(current);
+    } else {
+      cache.removeReference(name);
+    }
   }
 }
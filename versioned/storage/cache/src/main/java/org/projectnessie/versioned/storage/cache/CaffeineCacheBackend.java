@@ -15,16 +15,33 @@
  */
 package org.projectnessie.versioned.storage.cache;
 
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_CAPACITY;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_EVICTIONS;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_SIZE;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_WEIGHT;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.PARTITION_SHARED;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.TAG_PARTITION;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.typeTagValue;
 import static org.projectnessie.versioned.storage.serialize.ProtoSerialization.serializeObj;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.immutables.value.Value;
 import org.projectnessie.versioned.storage.common.exceptions.ObjTooLargeException;
 import org.projectnessie.versioned.storage.common.persist.Obj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.ObjType;
 import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.common.persist.Reference;
 import org.projectnessie.versioned.storage.serialize.ProtoSerialization;
 
 @Value.Immutable
@@ -36,29 +53,124 @@ abstract class CaffeineCacheBackend implements CacheBackend {
     return ImmutableCaffeineCacheBackend.builder();
   }
 
-  abstract long capacity();
+  abstract CacheConfig config();
 
+  /**
+   * Holds either the deserialized {@link Obj} or, if {@link CacheConfig#serialized()} is {@code
+   * true}, the serialized representation as a {@code byte[]}, for all object types that do not
+   * have their own {@link #partitions() partition}.
+   */
   @Value.Derived
-  Cache<CacheKey, byte[]> cache() {
+  Cache<CacheKey, Object> cache() {
+    double shares = 0d;
+    for (double share : config().capacityShares().values()) {
+      shares += share;
+    }
+    return newCache(Math.max(0L, (long) (config().capacity() * (1d - shares))));
+  }
+
+  /**
+   * Caches for the object types that have a dedicated {@link CacheConfig#capacityShares() share}
+   * of the capacity.
+   */
+  @Value.Derived
+  Map<ObjType, Cache<CacheKey, Object>> partitions() {
+    Map<ObjType, Cache<CacheKey, Object>> partitions = new EnumMap<>(ObjType.class);
+    long capacity = config().capacity();
+    config()
+        .capacityShares()
+        .forEach((type, share) -> partitions.put(type, newCache((long) (capacity * share))));
+    return partitions;
+  }
+
+  @Value.Derived
+  @Nullable
+  @jakarta.annotation.Nullable
+  CacheAdmission admission() {
+    return config().scanResistant() ? new CacheAdmission(config().capacity()) : null;
+  }
+
+  private Cache<CacheKey, Object> newCache(long capacity) {
     // IMPORTANT!
     // When changing the configuration of the Caffeine cache, make sure to run the
     // _native_ Quarkus tests and adopt the `@ReflectionConfig` in
     // org.projectnessie.quarkus.providers.PersistProvider.
     return Caffeine.newBuilder()
-        .maximumWeight(capacity())
+        .maximumWeight(capacity)
         .recordStats()
         .weigher(this::weigher)
         .build();
   }
 
+  private Cache<CacheKey, Object> cache(ObjType type) {
+    Cache<CacheKey, Object> partition = partitions().get(type);
+    return partition != null ? partition : cache();
+  }
+
+  @Value.Derived
+  ExpiringCaches expiringCaches() {
+    return new ExpiringCaches(config());
+  }
+
+  @Value.Derived
+  CacheMetrics metrics() {
+    return new CacheMetrics();
+  }
+
+  @Override
+  public void bindTo(@Nonnull @jakarta.annotation.Nonnull MeterRegistry registry) {
+    metrics().bindTo(registry);
+    FunctionCounter.builder(
+            METER_EVICTIONS,
+            this,
+            b -> b.allCaches().mapToLong(c -> c.stats().evictionCount()).sum())
+        .description("Number of evicted objects")
+        .register(registry);
+    Gauge.builder(METER_SIZE, this, b -> b.allCaches().mapToLong(Cache::estimatedSize).sum())
+        .description("Estimated number of cached objects")
+        .register(registry);
+    bindPartitionGauges(registry, PARTITION_SHARED, cache());
+    partitions().forEach((type, cache) -> bindPartitionGauges(registry, typeTagValue(type), cache));
+  }
+
+  private static void bindPartitionGauges(
+      MeterRegistry registry, String partition, Cache<CacheKey, Object> cache) {
+    Gauge.builder(
+            METER_WEIGHT,
+            cache,
+            c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+        .description("Estimated heap used by cached objects")
+        .tag(TAG_PARTITION, partition)
+        .baseUnit(BaseUnits.BYTES)
+        .register(registry);
+    Gauge.builder(
+            METER_CAPACITY,
+            cache,
+            c -> c.policy().eviction().map(e -> e.getMaximum()).orElse(0L))
+        .description("Maximum heap used by cached objects")
+        .tag(TAG_PARTITION, partition)
+        .baseUnit(BaseUnits.BYTES)
+        .register(registry);
+  }
+
+  private Stream<Cache<CacheKey, Object>> allCaches() {
+    return Stream.concat(Stream.of(cache()), partitions().values().stream());
+  }
+
   @Override
   public Persist wrap(@Nonnull @jakarta.annotation.Nonnull Persist persist) {
     ObjCacheImpl cache = new ObjCacheImpl(this, persist.config().repositoryId());
     return new CachingPersistImpl(persist, cache);
   }
 
-  private int weigher(CacheKey key, byte[] data) {
-    return key.heapSize() + JAVA_OBJ_HEADER + data.length;
+  private int weigher(CacheKey key, Object value) {
+    int size = key.heapSize() + JAVA_OBJ_HEADER;
+    if (value instanceof byte[]) {
+      size += ((byte[]) value).length;
+    } else {
+      size += ObjSizes.objHeapSize((Obj) value);
+    }
+    return size;
   }
 
   @Override
@@ -66,17 +178,55 @@ abstract class CaffeineCacheBackend implements CacheBackend {
       @Nonnull @jakarta.annotation.Nonnull String repositoryId,
       @Nonnull @jakarta.annotation.Nonnull ObjId id) {
     CacheKey key = cacheKey(repositoryId, id);
-    byte[] bytes = cache().getIfPresent(key);
-    return bytes != null ? ProtoSerialization.deserializeObj(id, bytes) : null;
+    Object value = cache().getIfPresent(key);
+    if (value == null) {
+      for (Cache<CacheKey, Object> partition : partitions().values()) {
+        value = partition.getIfPresent(key);
+        if (value != null) {
+          break;
+        }
+      }
+    }
+    if (value == null) {
+      metrics().miss();
+      return null;
+    }
+    Obj obj =
+        value instanceof byte[]
+            ? ProtoSerialization.deserializeObj(id, (byte[]) value)
+            : (Obj) value;
+    metrics().hit(obj.type());
+    return obj;
   }
 
   @Override
   public void put(
       @Nonnull @jakarta.annotation.Nonnull String repositoryId,
       @Nonnull @jakarta.annotation.Nonnull Obj obj) {
+    put(cacheKey(repositoryId, obj.id()), obj);
+  }
+
+  @Override
+  public void putLoaded(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull Obj obj) {
+    metrics().load(obj.type());
     CacheKey key = cacheKey(repositoryId, obj.id());
+    CacheAdmission admission = admission();
+    if (admission == null || admission.admit(key)) {
+      put(key, obj);
+    }
+  }
+
+  private void put(CacheKey key, Obj obj) {
+    expiringCaches().invalidateNotFound(key);
+    Cache<CacheKey, Object> cache = cache(obj.type());
+    if (!config().serialized()) {
+      cache.put(key, obj);
+      return;
+    }
     try {
-      cache().put(key, serializeObj(obj, Integer.MAX_VALUE, Integer.MAX_VALUE));
+      cache.put(key, serializeObj(obj, Integer.MAX_VALUE, Integer.MAX_VALUE));
     } catch (ObjTooLargeException e) {
       // this should never happen
       throw new RuntimeException(e);
@@ -89,52 +239,57 @@ abstract class CaffeineCacheBackend implements CacheBackend {
       @Nonnull @jakarta.annotation.Nonnull ObjId id) {
     CacheKey key = cacheKey(repositoryId, id);
     cache().invalidate(key);
+    for (Cache<CacheKey, Object> partition : partitions().values()) {
+      partition.invalidate(key);
+    }
+    expiringCaches().invalidateNotFound(key);
   }
 
   @Override
-  public void clear(@Nonnull @jakarta.annotation.Nonnull String repositoryId) {
-    cache().asMap().keySet().removeIf(k -> k.repositoryId.equals(repositoryId));
+  public void putNotFound(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    expiringCaches().putNotFound(repositoryId, id);
   }
 
-  private CacheKey cacheKey(String repositoryId, ObjId id) {
-    return new CacheKey(repositoryId, id);
+  @Override
+  public boolean isNotFound(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    return expiringCaches().isNotFound(repositoryId, id);
   }
 
-  static final class CacheKey {
-
-    static final int HEAP_OVERHEAD = 3 * JAVA_OBJ_HEADER;
-    final String repositoryId;
-    final ObjId id;
-
-    CacheKey(String repositoryId, ObjId id) {
-      this.repositoryId = repositoryId;
-      this.id = id;
+  @Override
+  public void clear(@Nonnull @jakarta.annotation.Nonnull String repositoryId) {
+    cache().asMap().keySet().removeIf(k -> k.repositoryId.equals(repositoryId));
+    for (Cache<CacheKey, Object> partition : partitions().values()) {
+      partition.asMap().keySet().removeIf(k -> k.repositoryId.equals(repositoryId));
     }
+    expiringCaches().clear(repositoryId);
+  }
 
-    int heapSize() {
-      return HEAP_OVERHEAD + id.size() + repositoryId.length();
-    }
+  @Override
+  public Reference getReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    return expiringCaches().getReference(repositoryId, name);
+  }
 
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (!(o instanceof CacheKey)) {
-        return false;
-      }
-      CacheKey cacheKey = (CacheKey) o;
-      return repositoryId.equals(cacheKey.repositoryId) && id.equals(cacheKey.id);
-    }
+  @Override
+  public void putReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull Reference reference) {
+    expiringCaches().putReference(repositoryId, reference);
+  }
 
-    @Override
-    public int hashCode() {
-      return repositoryId.hashCode() * 31 + id.hashCode();
-    }
+  @Override
+  public void removeReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    expiringCaches().removeReference(repositoryId, name);
+  }
 
-    @Override
-    public String toString() {
-      return "CacheKey{" + repositoryId + ", " + id + '}';
-    }
+  private CacheKey cacheKey(String repositoryId, ObjId id) {
+    return new CacheKey(repositoryId, id);
   }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.Reference;
+
+/**
+ * Short-lived, size-bounded caches for {@link CacheConfig#referenceTtl() references} and {@link
+ * CacheConfig#notFoundTtl() absent objects}, shared by the {@link CacheBackend} implementations.
+ */
+final class ExpiringCaches {
+
+  /** Maximum number of cached references. */
+  static final int REFERENCE_CACHE_MAX_SIZE = 10_000;
+
+  /** Maximum number of cached "not found" object IDs. */
+  static final int NOT_FOUND_CACHE_MAX_SIZE = 10_000;
+
+  /** Cached references, {@code null} if reference caching is disabled. */
+  final Cache<RefCacheKey, Reference> referenceCache;
+
+  /** IDs of objects that do not exist, {@code null} if "not found" caching is disabled. */
+  final Cache<CacheKey, Boolean> notFoundCache;
+
+  ExpiringCaches(CacheConfig config) {
+    this.referenceCache =
+        expiringCache(config.referenceTtl(), REFERENCE_CACHE_MAX_SIZE, config.clockNanos());
+    this.notFoundCache =
+        expiringCache(config.notFoundTtl(), NOT_FOUND_CACHE_MAX_SIZE, config.clockNanos());
+  }
+
+  private static <K, V> Cache<K, V> expiringCache(
+      Optional<Duration> optionalTtl, int maxSize, LongSupplier clock) {
+    Duration ttl = optionalTtl.orElse(Duration.ZERO);
+    if (ttl.isZero() || ttl.isNegative()) {
+      return null;
+    }
+    // IMPORTANT!
+    // When changing the configuration of the Caffeine cache, make sure to run the
+    // _native_ Quarkus tests and adopt the `@ReflectionConfig` in
+    // org.projectnessie.quarkus.providers.PersistProvider.
+    return Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .ticker(clock::getAsLong)
+        .recordStats()
+        .build();
+  }
+
+  Reference getReference(String repositoryId, String name) {
+    return referenceCache != null
+        ? referenceCache.getIfPresent(new RefCacheKey(repositoryId, name))
+        : null;
+  }
+
+  void putReference(String repositoryId, Reference reference) {
+    if (referenceCache != null) {
+      referenceCache.put(new RefCacheKey(repositoryId, reference.name()), reference);
+    }
+  }
+
+  void removeReference(String repositoryId, String name) {
+    if (referenceCache != null) {
+      referenceCache.invalidate(new RefCacheKey(repositoryId, name));
+    }
+  }
+
+  void putNotFound(String repositoryId, ObjId id) {
+    if (notFoundCache != null) {
+      notFoundCache.put(new CacheKey(repositoryId, id), Boolean.TRUE);
+    }
+  }
+
+  boolean isNotFound(String repositoryId, ObjId id) {
+    return notFoundCache != null
+        && notFoundCache.getIfPresent(new CacheKey(repositoryId, id)) != null;
+  }
+
+  void invalidateNotFound(CacheKey key) {
+    if (notFoundCache != null) {
+      notFoundCache.invalidate(key);
+    }
+  }
+
+  void clear(String repositoryId) {
+    if (referenceCache != null) {
+      referenceCache.asMap().keySet().removeIf(k -> k.repositoryId.equals(repositoryId));
+    }
+    if (notFoundCache != null) {
+      notFoundCache.asMap().keySet().removeIf(k -> k.repositoryId.equals(repositoryId));
+    }
+  }
+
+  static final class RefCacheKey {
+    final String repositoryId;
+    final String name;
+
+    RefCacheKey(String repositoryId, String name) {
+      this.repositoryId = repositoryId;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof RefCacheKey)) {
+        return false;
+      }
+      RefCacheKey refCacheKey = (RefCacheKey) o;
+      return repositoryId.equals(refCacheKey.repositoryId) && name.equals(refCacheKey.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return repositoryId.hashCode() * 31 + name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return "RefCacheKey{" + repositoryId + ", " + name + '}';
+    }
+  }
+}
@@ -19,6 +19,7 @@ import javax.annotation.Nonnull;
 import org.projectnessie.versioned.storage.common.persist.Obj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
 import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.common.persist.Reference;
 
 /** Cache primitives for a specific repository ID, used for one {@link Persist} instance. */
 public interface ObjCache {
@@ -27,7 +28,20 @@ public interface ObjCache {
 
   void put(@Nonnull @jakarta.annotation.Nonnull Obj obj);
 
+  /** Adds an object that was loaded from the database on a cache miss. */
+  void putLoaded(@Nonnull @jakarta.annotation.Nonnull Obj obj);
+
   void remove(@Nonnull @jakarta.annotation.Nonnull ObjId id);
 
   void clear();
+
+  void putNotFound(@Nonnull @jakarta.annotation.Nonnull ObjId id);
+
+  boolean isNotFound(@Nonnull @jakarta.annotation.Nonnull ObjId id);
+
+  Reference getReference(@Nonnull @jakarta.annotation.Nonnull String name);
+
+  void putReference(@Nonnull @jakarta.annotation.Nonnull Reference reference);
+
+  void removeReference(@Nonnull @jakarta.annotation.Nonnull String name);
 }
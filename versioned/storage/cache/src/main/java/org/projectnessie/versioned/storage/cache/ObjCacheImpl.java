@@ -18,6 +18,7 @@ package org.projectnessie.versioned.storage.cache;
 import javax.annotation.Nonnull;
 import org.projectnessie.versioned.storage.common.persist.Obj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.Reference;
 
 final class ObjCacheImpl implements ObjCache {
   private final CacheBackend backend;
@@ -38,6 +39,11 @@ final class ObjCacheImpl implements ObjCache {
     backend.put(repositoryId, obj);
   }
 
+  @Override
+  public void putLoaded(@Nonnull @jakarta.annotation.Nonnull Obj obj) {
+    backend.putLoaded(repositoryId, obj);
+  }
+
   @Override
   public void remove(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
     backend.remove(repositoryId, id);
@@ -47,4 +53,29 @@ final class ObjCacheImpl implements ObjCache {
   public void clear() {
     backend.clear(repositoryId);
   }
+
+  @Override
+  public void putNotFound(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    backend.putNotFound(repositoryId, id);
+  }
+
+  @Override
+  public boolean isNotFound(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    return backend.isNotFound(repositoryId, id);
+  }
+
+  @Override
+  public Reference getReference(@Nonnull @jakarta.annotation.Nonnull String name) {
+    return backend.getReference(repositoryId, name);
+  }
+
+  @Override
+  public void putReference(@Nonnull @jakarta.annotation.Nonnull Reference reference) {
+    backend.putReference(repositoryId, reference);
+  }
+
+  @Override
+  public void removeReference(@Nonnull @jakarta.annotation.Nonnull String name) {
+    backend.removeReference(repositoryId, name);
+  }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import java.util.List;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.indexes.StoreKey;
+import org.projectnessie.versioned.storage.common.objtypes.CommitHeaders;
+import org.projectnessie.versioned.storage.common.objtypes.CommitObj;
+import org.projectnessie.versioned.storage.common.objtypes.ContentValueObj;
+import org.projectnessie.versioned.storage.common.objtypes.IndexObj;
+import org.projectnessie.versioned.storage.common.objtypes.IndexSegmentsObj;
+import org.projectnessie.versioned.storage.common.objtypes.IndexStripe;
+import org.projectnessie.versioned.storage.common.objtypes.RefObj;
+import org.projectnessie.versioned.storage.common.objtypes.StringObj;
+import org.projectnessie.versioned.storage.common.objtypes.TagObj;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+
+/**
+ * Estimates the retained heap size of deserialized {@link Obj} instances, used as the weight of
+ * cached objects.
+ *
+ * <p>Estimates assume a 64-bit JVM with compressed oops and compact strings (12 byte object
+ * headers, 16 byte array headers, 4 byte references, 8 byte alignment). Instances that are shared
+ * between objects, like empty collections or constant values, are not accounted.
+ */
+final class ObjSizes {
+  private ObjSizes() {}
+
+  static final int OBJECT_HEADER = 12;
+  static final int ARRAY_HEADER = 16;
+  static final int REFERENCE = 4;
+
+  /** {@code java.lang.String}: header, {@code value} reference, {@code hash}, {@code coder} etc. */
+  static final int STRING_SHALLOW = 24;
+
+  /** {@code LiteralByteString}: header, {@code bytes} reference, {@code hash}. */
+  static final int BYTE_STRING_SHALLOW = 24;
+
+  /** {@code ObjId256}: header plus 4 {@code long}s. */
+  static final int OBJ_ID_256 = 48;
+
+  /** {@code ObjIdGeneric}: header, {@code ByteBuffer} reference, plus the {@code ByteBuffer}. */
+  static final int OBJ_ID_GENERIC_SHALLOW = 16 + 48;
+
+  /** Per-entry overhead of a hash-map, including the entry node. */
+  static final int MAP_ENTRY = 40;
+
+  static int objHeapSize(Obj obj) {
+    switch (obj.type()) {
+      case COMMIT:
+        return commitHeapSize((CommitObj) obj);
+      case REF:
+        RefObj ref = (RefObj) obj;
+        return shallow(3, 8)
+            + objIdHeapSize(ref.id())
+            + stringHeapSize(ref.name())
+            + objIdHeapSize(ref.initialPointer());
+      case VALUE:
+        ContentValueObj value = (ContentValueObj) obj;
+        return shallow(3, 4)
+            + objIdHeapSize(value.id())
+            + stringHeapSize(value.contentId())
+            + byteStringHeapSize(value.data());
+      case INDEX_SEGMENTS:
+        IndexSegmentsObj segments = (IndexSegmentsObj) obj;
+        return shallow(2, 0)
+            + objIdHeapSize(segments.id())
+            + stripesHeapSize(segments.stripes());
+      case INDEX:
+        IndexObj index = (IndexObj) obj;
+        return shallow(2, 0) + objIdHeapSize(index.id()) + byteStringHeapSize(index.index());
+      case TAG:
+        TagObj tag = (TagObj) obj;
+        return shallow(5, 0)
+            + objIdHeapSize(tag.id())
+            + objIdHeapSize(tag.commitId())
+            + stringHeapSize(tag.message())
+            + headersHeapSize(tag.headers())
+            + byteStringHeapSize(tag.signature());
+      case STRING:
+        StringObj string = (StringObj) obj;
+        return shallow(6, 0)
+            + objIdHeapSize(string.id())
+            + stringHeapSize(string.contentType())
+            + stringHeapSize(string.filename())
+            + objIdsHeapSize(string.predecessors())
+            + byteStringHeapSize(string.text());
+      default:
+        throw new IllegalArgumentException("Unknown object type " + obj.type());
+    }
+  }
+
+  static int commitHeapSize(CommitObj commit) {
+    return shallow(9, 8 + 8 + 1)
+        + objIdHeapSize(commit.id())
+        + objIdsHeapSize(commit.tail())
+        + objIdsHeapSize(commit.secondaryParents())
+        + headersHeapSize(commit.headers())
+        + stringHeapSize(commit.message())
+        + objIdHeapSize(commit.referenceIndex())
+        + stripesHeapSize(commit.referenceIndexStripes())
+        + byteStringHeapSize(commit.incrementalIndex());
+  }
+
+  static int stripesHeapSize(List<IndexStripe> stripes) {
+    int size = listHeapSize(stripes.size());
+    for (IndexStripe stripe : stripes) {
+      size +=
+          shallow(4, 0)
+              + storeKeyHeapSize(stripe.firstKey())
+              + storeKeyHeapSize(stripe.lastKey())
+              + objIdHeapSize(stripe.segment())
+              + byteStringHeapSize(stripe.keyFilter());
+    }
+    return size;
+  }
+
+  static int headersHeapSize(CommitHeaders headers) {
+    if (headers == null) {
+      return 0;
+    }
+    int size = shallow(1, 0) + shallow(4, 12) + align(ARRAY_HEADER + 16 * REFERENCE);
+    for (String key : headers.keySet()) {
+      List<String> values = headers.getAll(key);
+      size += MAP_ENTRY + stringHeapSize(key) + listHeapSize(values.size());
+      for (String value : values) {
+        size += stringHeapSize(value);
+      }
+    }
+    return size;
+  }
+
+  static int objIdsHeapSize(List<ObjId> ids) {
+    int size = listHeapSize(ids.size());
+    for (ObjId id : ids) {
+      size += objIdHeapSize(id);
+    }
+    return size;
+  }
+
+  static int objIdHeapSize(ObjId id) {
+    if (id == null) {
+      return 0;
+    }
+    int size = id.size();
+    return size == 32 ? OBJ_ID_256 : OBJ_ID_GENERIC_SHALLOW + align(ARRAY_HEADER + size);
+  }
+
+  static int storeKeyHeapSize(StoreKey key) {
+    return shallow(1, 0) + stringHeapSize(key.rawString());
+  }
+
+  static int stringHeapSize(String s) {
+    if (s == null) {
+      return 0;
+    }
+    return STRING_SHALLOW + align(ARRAY_HEADER + s.length());
+  }
+
+  static int byteStringHeapSize(ByteString bytes) {
+    if (bytes == null || bytes.isEmpty()) {
+      return 0;
+    }
+    return BYTE_STRING_SHALLOW + align(ARRAY_HEADER + bytes.size());
+  }
+
+  static int listHeapSize(int elements) {
+    if (elements == 0) {
+      return 0;
+    }
+    return shallow(1, 0) + align(ARRAY_HEADER + elements * REFERENCE);
+  }
+
+  static int shallow(int references, int primitiveBytes) {
+    return align(OBJECT_HEADER + references * REFERENCE + primitiveBytes);
+  }
+
+  static int align(int size) {
+    return (size + 7) & ~7;
+  }
+}
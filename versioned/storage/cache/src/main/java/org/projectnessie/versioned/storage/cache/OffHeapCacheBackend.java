@@ -0,0 +1,705 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_CAPACITY;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_EVICTIONS;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_SIZE;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_WEIGHT;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.PARTITION_SHARED;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.TAG_PARTITION;
+import static org.projectnessie.versioned.storage.serialize.ProtoSerialization.serializeObj;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import javax.annotation.Nonnull;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.projectnessie.versioned.storage.common.exceptions.ObjTooLargeException;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.common.persist.Reference;
+import org.projectnessie.versioned.storage.serialize.ProtoSerialization;
+
+/**
+ * {@link CacheBackend} that holds serialized objects in direct memory, outside of the Java heap, to
+ * allow large caches without putting pressure on the garbage collector.
+ *
+ * <p>The capacity is split into {@link Segment segments}, each protected by its own lock and backed
+ * by lazily allocated direct buffers for the entries and for the index of the entries. A segment's
+ * entry buffer is used as a ring buffer: new entries are appended at the tail, space for new
+ * entries is made by evicting the oldest entries. Entries that are read while they are close to the
+ * eviction point are re-appended at the tail, so frequently read entries stay in the cache,
+ * approximating LRU without having to maintain an access order for every read.
+ *
+ * <p>Both the serialized objects and the key-to-position index live in direct memory, there is no
+ * per-entry bookkeeping on the Java heap. Repository IDs are mapped to numbers, which are stored
+ * in the entries instead of the repository ID strings. The JVM must be allowed to allocate direct
+ * memory of at least the configured {@link CacheConfig#capacity() capacity}, see {@code
+ * -XX:MaxDirectMemorySize}.
+ */
+final class OffHeapCacheBackend implements CacheBackend {
+
+  /** Minimum size of a segment, used to determine the number of segments for small caches. */
+  static final long MIN_SEGMENT_SIZE = 4L * 1024L * 1024L;
+
+  /** Maximum size of a segment, must be addressable with an {@code int}. */
+  static final long MAX_SEGMENT_SIZE = 1024L * 1024L * 1024L;
+
+  /** Maximum number of segments to reduce lock contention, more are only used for huge caches. */
+  static final int CONCURRENCY_SEGMENTS = 64;
+
+  /**
+   * Entries that are read while they are located in this fraction of the segment next to the
+   * eviction point are re-appended at the tail.
+   */
+  static final int PROMOTION_DIVISOR = 4;
+
+  /**
+   * Assumed average size of an entry, used to size a segment's index, which takes {@code 1/32} of
+   * a segment's capacity.
+   */
+  static final int AVERAGE_ENTRY_SIZE = 256;
+
+  private final Segment[] segments;
+  private final int segmentMask;
+  private final ExpiringCaches expiringCaches;
+  private final CacheAdmission admission;
+  private final CacheMetrics metrics = new CacheMetrics();
+  private final Map<String, Integer> repositories = new ConcurrentHashMap<>();
+  private final AtomicInteger repositoryCounter = new AtomicInteger();
+
+  OffHeapCacheBackend(CacheConfig config) {
+    long capacity = config.capacity();
+    checkArgument(capacity >= 0L, "Capacity must not be negative");
+    int segmentCount = segmentCount(capacity);
+    int segmentCapacity = (int) (capacity / segmentCount);
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment(segmentCapacity);
+    }
+    this.segmentMask = segmentCount - 1;
+    this.expiringCaches = new ExpiringCaches(config);
+    this.admission = config.scanResistant() ? new CacheAdmission(capacity) : null;
+  }
+
+  static int segmentCount(long capacity) {
+    long count = Math.max(1L, Math.min(CONCURRENCY_SEGMENTS, capacity / MIN_SEGMENT_SIZE));
+    int segmentCount = Integer.highestOneBit((int) count);
+    while (capacity / segmentCount > MAX_SEGMENT_SIZE) {
+      segmentCount <<= 1;
+    }
+    return segmentCount;
+  }
+
+  private Segment segment(int hash) {
+    return segments[hash & segmentMask];
+  }
+
+  /** Returns the number of the given repository ID or {@code -1}, if it has not been used yet. */
+  private int repository(String repositoryId) {
+    Integer repository = repositories.get(repositoryId);
+    return repository != null ? repository : -1;
+  }
+
+  private int repositoryForPut(String repositoryId) {
+    return repositories.computeIfAbsent(repositoryId, r -> repositoryCounter.getAndIncrement());
+  }
+
+  /**
+   * Hash of a cache key, the lower bits select the segment, the upper bits the slot in a segment's
+   * index. Spreads the bits, because hash codes of object IDs are taken from the leading bytes.
+   */
+  static int hash(int repository, ObjId id) {
+    int h = id.hashCode() * 31 + repository;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+
+  @Override
+  public Persist wrap(@Nonnull @jakarta.annotation.Nonnull Persist persist) {
+    ObjCacheImpl cache = new ObjCacheImpl(this, persist.config().repositoryId());
+    return new CachingPersistImpl(persist, cache);
+  }
+
+  @Override
+  public Obj get(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    int repository = repository(repositoryId);
+    byte[] bytes = null;
+    if (repository != -1) {
+      int hash = hash(repository, id);
+      bytes = segment(hash).get(repository, id.asByteArray(), hash);
+    }
+    if (bytes == null) {
+      metrics.miss();
+      return null;
+    }
+    Obj obj = ProtoSerialization.deserializeObj(id, bytes);
+    metrics.hit(obj.type());
+    return obj;
+  }
+
+  @Override
+  public void put(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull Obj obj) {
+    put(new CacheKey(repositoryId, obj.id()), obj);
+  }
+
+  @Override
+  public void putLoaded(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull Obj obj) {
+    metrics.load(obj.type());
+    CacheKey key = new CacheKey(repositoryId, obj.id());
+    if (admission == null || admission.admit(key)) {
+      put(key, obj);
+    }
+  }
+
+  private void put(CacheKey key, Obj obj) {
+    expiringCaches.invalidateNotFound(key);
+    byte[] bytes;
+    try {
+      bytes = serializeObj(obj, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    } catch (ObjTooLargeException e) {
+      // this should never happen
+      throw new RuntimeException(e);
+    }
+    int repository = repositoryForPut(key.repositoryId);
+    int hash = hash(repository, key.id);
+    segment(hash).put(repository, key.id.asByteArray(), hash, bytes);
+  }
+
+  @Override
+  public void remove(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    int repository = repository(repositoryId);
+    if (repository != -1) {
+      int hash = hash(repository, id);
+      segment(hash).remove(repository, id.asByteArray(), hash);
+    }
+    expiringCaches.invalidateNotFound(new CacheKey(repositoryId, id));
+  }
+
+  @Override
+  public void clear(@Nonnull @jakarta.annotation.Nonnull String repositoryId) {
+    int repository = repository(repositoryId);
+    if (repository != -1) {
+      for (Segment segment : segments) {
+        segment.clear(repository);
+      }
+    }
+    expiringCaches.clear(repositoryId);
+  }
+
+  @Override
+  public void putNotFound(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    expiringCaches.putNotFound(repositoryId, id);
+  }
+
+  @Override
+  public boolean isNotFound(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    return expiringCaches.isNotFound(repositoryId, id);
+  }
+
+  @Override
+  public Reference getReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    return expiringCaches.getReference(repositoryId, name);
+  }
+
+  @Override
+  public void putReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull Reference reference) {
+    expiringCaches.putReference(repositoryId, reference);
+  }
+
+  @Override
+  public void removeReference(
+      @Nonnull @jakarta.annotation.Nonnull String repositoryId,
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    expiringCaches.removeReference(repositoryId, name);
+  }
+
+  @Override
+  public void bindTo(@Nonnull @jakarta.annotation.Nonnull MeterRegistry registry) {
+    metrics.bindTo(registry);
+    FunctionCounter.builder(METER_EVICTIONS, this, OffHeapCacheBackend::evictions)
+        .description("Number of evicted objects")
+        .register(registry);
+    Gauge.builder(METER_SIZE, this, OffHeapCacheBackend::size)
+        .description("Number of cached objects")
+        .register(registry);
+    Gauge.builder(METER_WEIGHT, this, OffHeapCacheBackend::weight)
+        .description("Direct memory used by cached objects")
+        .tag(TAG_PARTITION, PARTITION_SHARED)
+        .baseUnit(BaseUnits.BYTES)
+        .register(registry);
+    Gauge.builder(METER_CAPACITY, this, OffHeapCacheBackend::capacity)
+        .description("Maximum direct memory used by cached objects")
+        .tag(TAG_PARTITION, PARTITION_SHARED)
+        .baseUnit(BaseUnits.BYTES)
+        .register(registry);
+  }
+
+  /** Number of cached objects. */
+  long size() {
+    long size = 0L;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /** Number of bytes used by cached objects. */
+  long weight() {
+    long weight = 0L;
+    for (Segment segment : segments) {
+      weight += segment.weight();
+    }
+    return weight;
+  }
+
+  long capacity() {
+    return (long) segments.length * segments[0].capacity;
+  }
+
+  long evictions() {
+    long evictions = 0L;
+    for (Segment segment : segments) {
+      evictions += segment.evictions();
+    }
+    return evictions;
+  }
+
+  /**
+   * A ring buffer for the entries plus an open-addressing hash index of the live entries, both in
+   * direct memory.
+   *
+   * <p>Each entry in the ring buffer starts at an 8-byte aligned offset with a header, consisting
+   * of the entry length, the key hash, the repository number and the object ID, followed by the
+   * serialized object. The oldest entry marks the eviction point ("head"), new entries are appended
+   * at the tail. An entry length of {@code 0} marks the wrap-around to the beginning of the buffer.
+   *
+   * <p>Each slot of the index is a {@code long} holding the key hash in the upper 32 bits and the
+   * entry offset plus one in the lower 32 bits, {@code 0} denotes an empty slot. Collisions are
+   * resolved via linear probing, removals shift the following slots backwards, so there are no
+   * tombstones. An entry is live, if an index slot refers to it. Entries that were replaced or
+   * removed stay in the ring buffer until they are reached by the eviction point.
+   *
+   * <p>Modifications happen under the exclusive lock. Reads are optimistic: the index lookup, the
+   * key check against the entry header and copying the serialized object happen without locking,
+   * followed by a {@link StampedLock#validate(long) validation} that no modification happened in
+   * the meantime. Only if a modification happened, the read is repeated under the read lock.
+   */
+  static final class Segment {
+    private static final int OFF_LENGTH = 0;
+    private static final int OFF_HASH = 4;
+    private static final int OFF_REPOSITORY = 8;
+    private static final int OFF_ID_LENGTH = 12;
+    private static final int HEADER_SIZE = 16;
+    private static final int ALIGNMENT = 8;
+    private static final int SLOT_SIZE = Long.BYTES;
+    private static final int MIN_SLOTS = 16;
+
+    private final int capacity;
+    private final int dataCapacity;
+    private final int slots;
+    private final int maxEntries;
+    private final StampedLock lock = new StampedLock();
+    private UnsafeBuffer data;
+    private UnsafeBuffer index;
+    private int head;
+    private int tail;
+    private int used;
+    private int size;
+    private long weight;
+    private long evictions;
+
+    Segment(int capacity) {
+      this.capacity = capacity;
+      this.slots = Math.max(MIN_SLOTS, Integer.highestOneBit(capacity / AVERAGE_ENTRY_SIZE));
+      this.maxEntries = slots - (slots >>> 2);
+      this.dataCapacity = Math.max(0, capacity - slots * SLOT_SIZE) & -ALIGNMENT;
+    }
+
+    byte[] get(int repository, byte[] id, int hash) {
+      long stamp = lock.tryOptimisticRead();
+      if (stamp != 0L) {
+        int offset = find(repository, id, hash);
+        int length = offset != -1 ? payloadLength(offset) : -1;
+        if (lock.validate(stamp)) {
+          if (offset == -1) {
+            return null;
+          }
+          // offset + length are consistent, but the copied bytes must be validated as well
+          byte[] bytes = payload(offset, id.length, length);
+          boolean promote = closeToHead(offset);
+          if (lock.validate(stamp)) {
+            if (promote) {
+              promote(repository, id, hash, offset, bytes);
+            }
+            return bytes;
+          }
+        }
+      }
+
+      // concurrent modification, read again under the read lock
+      byte[] bytes;
+      int offset;
+      boolean promote;
+      stamp = lock.readLock();
+      try {
+        offset = find(repository, id, hash);
+        if (offset == -1) {
+          return null;
+        }
+        bytes = payload(offset, id.length, payloadLength(offset));
+        promote = closeToHead(offset);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+      if (promote) {
+        promote(repository, id, hash, offset, bytes);
+      }
+      return bytes;
+    }
+
+    /**
+     * Re-appends an entry that is close to the eviction point at the tail, unless another thread
+     * holds the lock or the entry has been modified in the meantime.
+     */
+    private void promote(int repository, byte[] id, int hash, int offset, byte[] bytes) {
+      long stamp = lock.tryWriteLock();
+      if (stamp != 0L) {
+        try {
+          if (find(repository, id, hash) == offset) {
+            putLocked(repository, id, hash, bytes);
+          }
+        } finally {
+          lock.unlockWrite(stamp);
+        }
+      }
+    }
+
+    void put(int repository, byte[] id, int hash, byte[] bytes) {
+      long stamp = lock.writeLock();
+      try {
+        putLocked(repository, id, hash, bytes);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    void remove(int repository, byte[] id, int hash) {
+      long stamp = lock.writeLock();
+      try {
+        removeLocked(repository, id, hash);
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    void clear(int repository) {
+      long stamp = lock.writeLock();
+      try {
+        UnsafeBuffer data = this.data;
+        int offset = head;
+        for (int remaining = used; remaining > 0; ) {
+          if (offset == dataCapacity || data.getInt(offset + OFF_LENGTH) == 0) {
+            remaining -= dataCapacity - offset;
+            offset = 0;
+            continue;
+          }
+          int length = data.getInt(offset + OFF_LENGTH);
+          if (data.getInt(offset + OFF_REPOSITORY) == repository) {
+            removeSlotOf(offset);
+          }
+          offset += align(length);
+          remaining -= align(length);
+        }
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    int size() {
+      long stamp = lock.readLock();
+      try {
+        return size;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    long weight() {
+      long stamp = lock.readLock();
+      try {
+        return weight;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    long evictions() {
+      long stamp = lock.readLock();
+      try {
+        return evictions;
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    private void putLocked(int repository, byte[] id, int hash, byte[] bytes) {
+      removeLocked(repository, id, hash);
+      if (bytes.length > dataCapacity - HEADER_SIZE - id.length) {
+        return;
+      }
+      if (data == null) {
+        data = new UnsafeBuffer(ByteBuffer.allocateDirect(dataCapacity));
+        index = new UnsafeBuffer(ByteBuffer.allocateDirect(slots * SLOT_SIZE));
+      }
+      while (size >= maxEntries) {
+        evictOldest();
+      }
+
+      int length = HEADER_SIZE + id.length + bytes.length;
+      int offset = allocate(align(length));
+      UnsafeBuffer data = this.data;
+      data.putInt(offset + OFF_LENGTH, length);
+      data.putInt(offset + OFF_HASH, hash);
+      data.putInt(offset + OFF_REPOSITORY, repository);
+      data.putInt(offset + OFF_ID_LENGTH, id.length);
+      data.putBytes(offset + HEADER_SIZE, id);
+      data.putBytes(offset + HEADER_SIZE + id.length, bytes);
+
+      UnsafeBuffer index = this.index;
+      int mask = slots - 1;
+      int slot = home(hash);
+      while (index.getLong(slot * SLOT_SIZE) != 0L) {
+        slot = (slot + 1) & mask;
+      }
+      index.putLong(slot * SLOT_SIZE, ((long) hash << 32) | (offset + 1));
+      size++;
+      weight += bytes.length;
+    }
+
+    private void removeLocked(int repository, byte[] id, int hash) {
+      int offset = find(repository, id, hash);
+      if (offset != -1) {
+        removeSlotOf(offset);
+      }
+    }
+
+    /**
+     * Returns the offset of the live entry for the given key or {@code -1}. Must tolerate
+     * inconsistent state when called without a lock.
+     */
+    private int find(int repository, byte[] id, int hash) {
+      UnsafeBuffer index = this.index;
+      if (index == null) {
+        return -1;
+      }
+      int mask = slots - 1;
+      int slot = home(hash);
+      for (int i = 0; i < slots; i++, slot = (slot + 1) & mask) {
+        long value = index.getLong(slot * SLOT_SIZE);
+        if (value == 0L) {
+          return -1;
+        }
+        if ((int) (value >>> 32) == hash) {
+          int offset = (int) value - 1;
+          if (matches(offset, repository, id)) {
+            return offset;
+          }
+        }
+      }
+      return -1;
+    }
+
+    private boolean matches(int offset, int repository, byte[] id) {
+      UnsafeBuffer data = this.data;
+      if (data == null || offset < 0 || offset > dataCapacity - HEADER_SIZE - id.length) {
+        return false;
+      }
+      if (data.getInt(offset + OFF_REPOSITORY) != repository
+          || data.getInt(offset + OFF_ID_LENGTH) != id.length) {
+        return false;
+      }
+      int idOffset = offset + HEADER_SIZE;
+      for (int i = 0; i < id.length; i++) {
+        if (data.getByte(idOffset + i) != id[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Returns the length of the serialized object of the entry at the given offset, or {@code -1}
+     * if the entry header is not consistent, which can only happen when called without a lock.
+     */
+    private int payloadLength(int offset) {
+      UnsafeBuffer data = this.data;
+      int length = data.getInt(offset + OFF_LENGTH);
+      int payloadLength = length - HEADER_SIZE - data.getInt(offset + OFF_ID_LENGTH);
+      return payloadLength >= 0 && length <= dataCapacity - offset ? payloadLength : -1;
+    }
+
+    private byte[] payload(int offset, int idLength, int length) {
+      byte[] bytes = new byte[length];
+      data.getBytes(offset + HEADER_SIZE + idLength, bytes);
+      return bytes;
+    }
+
+    private boolean closeToHead(int offset) {
+      int distance = offset - head;
+      if (distance < 0) {
+        distance += dataCapacity;
+      }
+      return distance < dataCapacity / PROMOTION_DIVISOR;
+    }
+
+    /** Removes the index slot that refers to the entry at the given offset, if any. */
+    private void removeSlotOf(int offset) {
+      UnsafeBuffer index = this.index;
+      int mask = slots - 1;
+      int slot = home(data.getInt(offset + OFF_HASH));
+      for (int i = 0; i < slots; i++, slot = (slot + 1) & mask) {
+        long value = index.getLong(slot * SLOT_SIZE);
+        if (value == 0L) {
+          return;
+        }
+        if ((int) value == offset + 1) {
+          removeSlot(slot);
+          size--;
+          weight -= payloadLength(offset);
+          return;
+        }
+      }
+    }
+
+    /** Backward-shift deletion for linear probing. */
+    private void removeSlot(int slot) {
+      UnsafeBuffer index = this.index;
+      int mask = slots - 1;
+      int next = slot;
+      while (true) {
+        next = (next + 1) & mask;
+        long value = index.getLong(next * SLOT_SIZE);
+        if (value == 0L) {
+          break;
+        }
+        int home = home((int) (value >>> 32));
+        // the slot at 'next' can stay, if its home is cyclically in (slot, next]
+        boolean stays = slot <= next ? slot < home && home <= next : slot < home || home <= next;
+        if (!stays) {
+          index.putLong(slot * SLOT_SIZE, value);
+          slot = next;
+        }
+      }
+      index.putLong(slot * SLOT_SIZE, 0L);
+    }
+
+    private int home(int hash) {
+      return Integer.reverse(hash) & (slots - 1);
+    }
+
+    /**
+     * Returns the offset for a new entry of the given aligned length, evicting the oldest entries
+     * until the free space between the tail and the head is big enough.
+     */
+    private int allocate(int length) {
+      while (true) {
+        if (used == 0) {
+          head = 0;
+          tail = 0;
+        }
+        if (used == 0 || tail > head) {
+          // free space is between the tail and the end of the buffer plus before the head
+          if (tail + length <= dataCapacity) {
+            return claim(length);
+          }
+          if (length <= head) {
+            if (tail < dataCapacity) {
+              data.putInt(tail + OFF_LENGTH, 0);
+            }
+            used += dataCapacity - tail;
+            tail = 0;
+            return claim(length);
+          }
+        } else if (tail < head) {
+          // wrapped around, free space is between the tail and the head
+          if (tail + length <= head) {
+            return claim(length);
+          }
+        }
+        evictOldest();
+      }
+    }
+
+    private int claim(int length) {
+      int offset = tail;
+      tail += length;
+      used += length;
+      return offset;
+    }
+
+    private void evictOldest() {
+      UnsafeBuffer data = this.data;
+      if (head == dataCapacity || data.getInt(head + OFF_LENGTH) == 0) {
+        // wrap-around marker
+        used -= dataCapacity - head;
+        head = 0;
+        return;
+      }
+      int sizeBefore = size;
+      removeSlotOf(head);
+      if (size != sizeBefore) {
+        evictions++;
+      }
+      int length = align(data.getInt(head + OFF_LENGTH));
+      head += length;
+      used -= length;
+    }
+
+    private static int align(int length) {
+      return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+  }
+}
@@ -18,8 +18,18 @@ package org.projectnessie.versioned.storage.cache;
 public final class PersistCaches {
   private PersistCaches() {}
 
-  /** Produces a {@link CacheBackend} with the given maximum capacity. */
+  /**
+   * Produces a {@link CacheBackend} with the given maximum capacity, holding deserialized objects.
+   */
   public static CacheBackend newBackend(long capacity) {
-    return CaffeineCacheBackend.builder().capacity(capacity).build();
+    return newBackend(CacheConfig.builder().capacity(capacity).build());
+  }
+
+  /** Produces a {@link CacheBackend} using the given configuration. */
+  public static CacheBackend newBackend(CacheConfig config) {
+    if (config.offHeap()) {
+      return new OffHeapCacheBackend(config);
+    }
+    return CaffeineCacheBackend.builder().config(config).build();
   }
 }
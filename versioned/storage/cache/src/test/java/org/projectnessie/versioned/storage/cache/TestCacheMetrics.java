@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_CAPACITY;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_HITS;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_LOADS;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_MISSES;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_SIZE;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.METER_WEIGHT;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.PARTITION_SHARED;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.TAG_PARTITION;
+import static org.projectnessie.versioned.storage.cache.CacheMetrics.TAG_TYPE;
+import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+import org.projectnessie.versioned.storage.common.persist.ObjType;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestCacheMetrics {
+  @InjectSoftAssertions protected SoftAssertions soft;
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void meters(boolean offHeap) {
+    CacheBackend backend =
+        PersistCaches.newBackend(
+            CacheConfig.builder()
+                .capacity(1024 * 1024)
+                .offHeap(offHeap)
+                .capacityShares(offHeap ? emptyMap() : singletonMap(ObjType.COMMIT, 0.5d))
+                .build());
+    MeterRegistry registry = new SimpleMeterRegistry();
+    backend.bindTo(registry);
+
+    Obj obj = ref("foo", randomObjId(), 42L);
+    soft.assertThat(backend.get("repo", obj.id())).isNull();
+    backend.putLoaded("repo", obj);
+    soft.assertThat(backend.get("repo", obj.id())).isEqualTo(obj);
+    soft.assertThat(backend.get("repo", obj.id())).isEqualTo(obj);
+    if (!offHeap) {
+      ((CaffeineCacheBackend) backend).cache().cleanUp();
+    }
+
+    String ref = CacheMetrics.typeTagValue(ObjType.REF);
+    String commit = CacheMetrics.typeTagValue(ObjType.COMMIT);
+    soft.assertThat(registry.get(METER_HITS).tag(TAG_TYPE, ref).functionCounter().count())
+        .isEqualTo(2d);
+    soft.assertThat(registry.get(METER_HITS).tag(TAG_TYPE, commit).functionCounter().count())
+        .isEqualTo(0d);
+    soft.assertThat(registry.get(METER_LOADS).tag(TAG_TYPE, ref).functionCounter().count())
+        .isEqualTo(1d);
+    soft.assertThat(registry.get(METER_MISSES).functionCounter().count()).isEqualTo(1d);
+    soft.assertThat(registry.get(METER_SIZE).gauge().value()).isEqualTo(1d);
+    soft.assertThat(
+            registry.get(METER_WEIGHT).tag(TAG_PARTITION, PARTITION_SHARED).gauge().value())
+        .isGreaterThan(0d);
+    if (offHeap) {
+      soft.assertThat(
+              registry.get(METER_CAPACITY).tag(TAG_PARTITION, PARTITION_SHARED).gauge().value())
+          .isEqualTo(1024d * 1024d);
+    } else {
+      soft.assertThat(
+              registry.get(METER_CAPACITY).tag(TAG_PARTITION, PARTITION_SHARED).gauge().value())
+          .isEqualTo(512d * 1024d);
+      soft.assertThat(registry.get(METER_CAPACITY).tag(TAG_PARTITION, commit).gauge().value())
+          .isEqualTo(512d * 1024d);
+    }
+  }
+}
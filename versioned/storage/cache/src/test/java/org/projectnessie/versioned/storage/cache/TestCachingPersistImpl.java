@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.failed;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
+import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.Persist;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestCachingPersistImpl {
+  @InjectSoftAssertions protected SoftAssertions soft;
+
+  AtomicLong clock;
+  Persist backend;
+  Persist persist;
+
+  @BeforeEach
+  void setup() {
+    clock = new AtomicLong();
+    backend = mock(Persist.class);
+    when(backend.config()).thenReturn(StoreConfig.Adjustable.empty());
+    persist =
+        PersistCaches.newBackend(
+                CacheConfig.builder()
+                    .capacity(1024 * 1024)
+                    .notFoundTtl(Duration.ofSeconds(1))
+                    .clockNanos(clock::get)
+                    .build())
+            .wrap(backend);
+  }
+
+  @Test
+  public void notFound() throws Exception {
+    ObjId id = randomObjId();
+    when(backend.fetchObj(id)).thenThrow(new ObjNotFoundException(id));
+
+    soft.assertThatThrownBy(() -> persist.fetchObj(id)).isInstanceOf(ObjNotFoundException.class);
+    soft.assertThatThrownBy(() -> persist.fetchObj(id)).isInstanceOf(ObjNotFoundException.class);
+    soft.assertThatThrownBy(() -> persist.fetchObjs(new ObjId[] {id}))
+        .isInstanceOf(ObjNotFoundException.class);
+    soft.assertThatThrownBy(() -> persist.fetchObjType(id))
+        .isInstanceOf(ObjNotFoundException.class);
+    verify(backend, times(1)).fetchObj(id);
+    verify(backend, times(0)).fetchObjs(any());
+    verify(backend, times(0)).fetchObjType(any());
+
+    // expired
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    soft.assertThatThrownBy(() -> persist.fetchObj(id)).isInstanceOf(ObjNotFoundException.class);
+    verify(backend, times(2)).fetchObj(id);
+  }
+
+  @Test
+  public void notFoundInvalidatedByStore() throws Exception {
+    Obj obj = ref("foo", randomObjId(), 42L);
+    ObjId id = obj.id();
+    when(backend.fetchObj(id)).thenThrow(new ObjNotFoundException(id));
+    when(backend.storeObj(obj, false)).thenReturn(true);
+
+    soft.assertThatThrownBy(() -> persist.fetchObj(id)).isInstanceOf(ObjNotFoundException.class);
+
+    persist.storeObj(obj, false);
+    soft.assertThat(persist.fetchObj(id)).isEqualTo(obj);
+    verify(backend, times(1)).fetchObj(id);
+
+    // upsert invalidates
+    persist.upsertObj(obj);
+    soft.assertThatThrownBy(() -> persist.fetchObj(id)).isInstanceOf(ObjNotFoundException.class);
+    persist.upsertObj(obj);
+    soft.assertThatThrownBy(() -> persist.fetchObj(id)).isInstanceOf(ObjNotFoundException.class);
+    verify(backend, times(3)).fetchObj(id);
+  }
+
+  @Test
+  public void fetchObjsPartiallyNotFound() throws Exception {
+    Obj obj = ref("foo", randomObjId(), 42L);
+    ObjId missing = randomObjId();
+    when(backend.fetchObj(missing)).thenThrow(new ObjNotFoundException(missing));
+    when(backend.storeObj(obj, false)).thenReturn(true);
+
+    persist.storeObj(obj, false);
+    soft.assertThatThrownBy(() -> persist.fetchObj(missing))
+        .isInstanceOf(ObjNotFoundException.class);
+
+    soft.assertThatThrownBy(() -> persist.fetchObjs(new ObjId[] {obj.id(), missing}))
+        .isInstanceOf(ObjNotFoundException.class)
+        .extracting(e -> ((ObjNotFoundException) e).objIds())
+        .asList()
+        .containsExactly(missing);
+    verify(backend, times(0)).fetchObjs(any());
+  }
+
+  @Test
+  public void fetchObjsKnownNotFoundNotFetched() throws Exception {
+    ObjId known = randomObjId();
+    ObjId unknown = randomObjId();
+    ObjId unknownAsync = randomObjId();
+    when(backend.fetchObj(known)).thenThrow(new ObjNotFoundException(known));
+    when(backend.fetchObjs(any())).thenThrow(new ObjNotFoundException(unknown));
+    when(backend.fetchObjsAsync(any()))
+        .thenReturn(failed(new ObjNotFoundException(unknownAsync)));
+
+    soft.assertThatThrownBy(() -> persist.fetchObj(known))
+        .isInstanceOf(ObjNotFoundException.class);
+
+    soft.assertThatThrownBy(() -> persist.fetchObjs(new ObjId[] {unknown, known}))
+        .isInstanceOf(ObjNotFoundException.class)
+        .extracting(e -> ((ObjNotFoundException) e).objIds())
+        .asList()
+        .containsExactly(unknown, known);
+    soft.assertThat(persist.fetchObjsAsync(new ObjId[] {known, unknownAsync}).toCompletableFuture())
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableOfType(ExecutionException.class)
+        .extracting(e -> ((ObjNotFoundException) e.getCause()).objIds())
+        .asList()
+        .containsExactly(known, unknownAsync);
+
+    // The known not-found ID is never passed to the backend
+    verify(backend).fetchObjs(new ObjId[] {unknown, null});
+    verify(backend).fetchObjsAsync(new ObjId[] {null, unknownAsync});
+  }
+
+  @Test
+  public void scanResistant() throws Exception {
+    Persist scanResistant =
+        PersistCaches.newBackend(
+                CacheConfig.builder().capacity(1024 * 1024).scanResistant(true).build())
+            .wrap(backend);
+
+    Obj obj = ref("foo", randomObjId(), 42L);
+    when(backend.fetchObj(obj.id())).thenReturn(obj);
+
+    soft.assertThat(scanResistant.fetchObj(obj.id())).isEqualTo(obj);
+    soft.assertThat(scanResistant.fetchObj(obj.id())).isEqualTo(obj);
+    soft.assertThat(scanResistant.fetchObj(obj.id())).isEqualTo(obj);
+    // admitted to the cache on the second access
+    verify(backend, times(2)).fetchObj(obj.id());
+  }
+}
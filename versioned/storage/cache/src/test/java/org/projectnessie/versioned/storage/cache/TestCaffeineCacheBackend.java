@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static org.projectnessie.versioned.storage.common.objtypes.ContentValueObj.contentValue;
+import static org.projectnessie.versioned.storage.common.objtypes.IndexObj.index;
+import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.objtypes.ContentValueObj;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+import org.projectnessie.versioned.storage.common.persist.ObjType;
+import org.projectnessie.versioned.storage.common.persist.Reference;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestCaffeineCacheBackend {
+  @InjectSoftAssertions protected SoftAssertions soft;
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void putGetRemove(boolean serialized) {
+    CaffeineCacheBackend backend =
+        CaffeineCacheBackend.builder()
+            .config(CacheConfig.builder().capacity(1024 * 1024).serialized(serialized).build())
+            .build();
+
+    Obj obj = ref("foo", randomObjId(), 42L);
+    backend.put("repo", obj);
+
+    Obj cached = backend.get("repo", obj.id());
+    soft.assertThat(cached).isEqualTo(obj);
+    if (serialized) {
+      soft.assertThat(cached).isNotSameAs(obj);
+      soft.assertThat(backend.cache().getIfPresent(cacheKey("repo", obj)))
+          .isInstanceOf(byte[].class);
+    } else {
+      soft.assertThat(cached).isSameAs(obj);
+    }
+    soft.assertThat(backend.get("other", obj.id())).isNull();
+
+    backend.remove("repo", obj.id());
+    soft.assertThat(backend.get("repo", obj.id())).isNull();
+
+    backend.put("repo", obj);
+    backend.put("other", obj);
+    backend.clear("repo");
+    soft.assertThat(backend.get("repo", obj.id())).isNull();
+    soft.assertThat(backend.get("other", obj.id())).isEqualTo(obj);
+  }
+
+  @Test
+  public void references() {
+    AtomicLong clock = new AtomicLong();
+    CaffeineCacheBackend backend =
+        CaffeineCacheBackend.builder()
+            .config(
+                CacheConfig.builder()
+                    .capacity(1024 * 1024)
+                    .referenceTtl(Duration.ofSeconds(1))
+                    .clockNanos(clock::get)
+                    .build())
+            .build();
+
+    Reference ref = reference("refs/heads/main", randomObjId(), false);
+    backend.putReference("repo", ref);
+    soft.assertThat(backend.getReference("repo", ref.name())).isEqualTo(ref);
+    soft.assertThat(backend.getReference("other", ref.name())).isNull();
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+    soft.assertThat(backend.getReference("repo", ref.name())).isEqualTo(ref);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+    soft.assertThat(backend.getReference("repo", ref.name())).isNull();
+
+    backend.putReference("repo", ref);
+    backend.removeReference("repo", ref.name());
+    soft.assertThat(backend.getReference("repo", ref.name())).isNull();
+
+    backend.putReference("repo", ref);
+    backend.putReference("other", ref);
+    backend.clear("repo");
+    soft.assertThat(backend.getReference("repo", ref.name())).isNull();
+    soft.assertThat(backend.getReference("other", ref.name())).isEqualTo(ref);
+
+    // reference caching disabled
+    CaffeineCacheBackend noRefs =
+        CaffeineCacheBackend.builder()
+            .config(CacheConfig.builder().capacity(1024 * 1024).build())
+            .build();
+    soft.assertThat(noRefs.expiringCaches().referenceCache).isNull();
+    noRefs.putReference("repo", ref);
+    soft.assertThat(noRefs.getReference("repo", ref.name())).isNull();
+  }
+
+  @Test
+  public void partitions() {
+    CaffeineCacheBackend backend =
+        CaffeineCacheBackend.builder()
+            .config(
+                CacheConfig.builder()
+                    .capacity(1024 * 1024)
+                    .putCapacityShares(ObjType.INDEX, 0.25d)
+                    .build())
+            .build();
+
+    List<Obj> refs = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Obj ref = ref("ref-" + i, randomObjId(), 42L);
+      refs.add(ref);
+      backend.put("repo", ref);
+    }
+    List<Obj> indexes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Obj index = index(randomObjId(), ByteString.copyFrom(new byte[10_000]));
+      indexes.add(index);
+      backend.put("repo", index);
+    }
+    backend.cache().cleanUp();
+    backend.partitions().values().forEach(Cache::cleanUp);
+
+    // big index objects only evict other index objects
+    for (Obj ref : refs) {
+      soft.assertThat(backend.get("repo", ref.id())).isSameAs(ref);
+    }
+    soft.assertThat(indexes.stream().filter(i -> backend.get("repo", i.id()) != null).count())
+        .isGreaterThan(0L)
+        .isLessThanOrEqualTo(25L);
+    soft.assertThat(backend.partitions()).containsOnlyKeys(ObjType.INDEX);
+    soft.assertThat(backend.cache().asMap()).hasSize(refs.size());
+
+    backend.remove("repo", indexes.get(99).id());
+    soft.assertThat(backend.get("repo", indexes.get(99).id())).isNull();
+    backend.clear("repo");
+    soft.assertThat(backend.partitions().get(ObjType.INDEX).asMap()).isEmpty();
+  }
+
+  @Test
+  public void capacitySharesValidation() {
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(
+            () -> CacheConfig.builder().capacity(1).putCapacityShares(ObjType.INDEX, 0d).build());
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(
+            () ->
+                CacheConfig.builder()
+                    .capacity(1)
+                    .putCapacityShares(ObjType.INDEX, 0.6d)
+                    .putCapacityShares(ObjType.COMMIT, 0.6d)
+                    .build());
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(
+            () ->
+                CacheConfig.builder()
+                    .capacity(1)
+                    .offHeap(true)
+                    .putCapacityShares(ObjType.INDEX, 0.5d)
+                    .build());
+    soft.assertThatCode(
+            () ->
+                CacheConfig.builder()
+                    .capacity(1)
+                    .putCapacityShares(ObjType.INDEX, 0.1d)
+                    .putCapacityShares(ObjType.COMMIT, 0.2d)
+                    .putCapacityShares(ObjType.VALUE, 0.7d)
+                    .build())
+        .doesNotThrowAnyException();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void scanResistant(boolean scanResistant) {
+    CaffeineCacheBackend backend =
+        CaffeineCacheBackend.builder()
+            .config(
+                CacheConfig.builder().capacity(1024 * 1024).scanResistant(scanResistant).build())
+            .build();
+
+    Obj loaded = ref("loaded", randomObjId(), 42L);
+    backend.putLoaded("repo", loaded);
+    if (scanResistant) {
+      // only admitted on the second access
+      soft.assertThat(backend.get("repo", loaded.id())).isNull();
+      backend.putLoaded("repo", loaded);
+    }
+    soft.assertThat(backend.get("repo", loaded.id())).isSameAs(loaded);
+
+    // written objects are always admitted
+    Obj written = ref("written", randomObjId(), 42L);
+    backend.put("repo", written);
+    soft.assertThat(backend.get("repo", written.id())).isSameAs(written);
+  }
+
+  @Test
+  public void heapSizes() {
+    ContentValueObj small =
+        contentValue(randomObjId(), "cid", 1, ByteString.copyFrom(new byte[10]));
+    ContentValueObj large =
+        contentValue(randomObjId(), "cid", 1, ByteString.copyFrom(new byte[10_000]));
+
+    int smallSize = ObjSizes.objHeapSize(small);
+    int largeSize = ObjSizes.objHeapSize(large);
+    soft.assertThat(smallSize).isGreaterThan(10);
+    soft.assertThat(largeSize).isGreaterThan(10_000).isLessThan(10_000 + smallSize);
+    soft.assertThat(largeSize - smallSize).isBetween(9_900, 10_100);
+
+    soft.assertThat(ObjSizes.stringHeapSize("")).isEqualTo(ObjSizes.STRING_SHALLOW + 16);
+    soft.assertThat(ObjSizes.stringHeapSize("12345678")).isEqualTo(ObjSizes.STRING_SHALLOW + 24);
+    soft.assertThat(ObjSizes.byteStringHeapSize(ByteString.EMPTY)).isEqualTo(0);
+    soft.assertThat(ObjSizes.objIdHeapSize(randomObjId())).isEqualTo(ObjSizes.OBJ_ID_256);
+    soft.assertThat(ObjSizes.listHeapSize(0)).isEqualTo(0);
+    soft.assertThat(ObjSizes.align(13)).isEqualTo(16);
+    soft.assertThat(ObjSizes.align(16)).isEqualTo(16);
+  }
+
+  private static CacheKey cacheKey(String repositoryId, Obj obj) {
+    return new CacheKey(repositoryId, obj.id());
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.cache;
+
+import static org.projectnessie.versioned.storage.cache.OffHeapCacheBackend.MAX_SEGMENT_SIZE;
+import static org.projectnessie.versioned.storage.cache.OffHeapCacheBackend.MIN_SEGMENT_SIZE;
+import static org.projectnessie.versioned.storage.cache.OffHeapCacheBackend.segmentCount;
+import static org.projectnessie.versioned.storage.common.objtypes.ContentValueObj.contentValue;
+import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.objtypes.ContentValueObj;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestOffHeapCacheBackend {
+  @InjectSoftAssertions protected SoftAssertions soft;
+
+  @Test
+  public void putGetRemove() {
+    OffHeapCacheBackend backend =
+        new OffHeapCacheBackend(CacheConfig.builder().capacity(1024 * 1024).offHeap(true).build());
+
+    Obj obj = ref("foo", randomObjId(), 42L);
+    backend.put("repo", obj);
+
+    soft.assertThat(backend.get("repo", obj.id())).isEqualTo(obj).isNotSameAs(obj);
+    soft.assertThat(backend.get("other", obj.id())).isNull();
+
+    backend.remove("repo", obj.id());
+    soft.assertThat(backend.get("repo", obj.id())).isNull();
+
+    backend.put("repo", obj);
+    backend.put("other", obj);
+    backend.clear("repo");
+    soft.assertThat(backend.get("repo", obj.id())).isNull();
+    soft.assertThat(backend.get("other", obj.id())).isEqualTo(obj);
+
+    // replace an existing entry
+    backend.put("other", obj);
+    soft.assertThat(backend.get("other", obj.id())).isEqualTo(obj);
+    soft.assertThat(backend.size()).isEqualTo(1L);
+  }
+
+  @Test
+  public void eviction() {
+    OffHeapCacheBackend backend =
+        new OffHeapCacheBackend(CacheConfig.builder().capacity(64 * 1024).offHeap(true).build());
+
+    List<ContentValueObj> values = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      ContentValueObj value = value(1000);
+      values.add(value);
+      backend.put("repo", value);
+    }
+
+    // only the most recently added objects fit into the cache
+    soft.assertThat(backend.size()).isBetween(50L, 64L);
+    soft.assertThat(backend.get("repo", values.get(0).id())).isNull();
+    soft.assertThat(backend.get("repo", values.get(199).id())).isEqualTo(values.get(199));
+    for (ContentValueObj value : values) {
+      Obj cached = backend.get("repo", value.id());
+      if (cached != null) {
+        soft.assertThat(cached).isEqualTo(value);
+      }
+    }
+  }
+
+  @Test
+  public void promotion() {
+    OffHeapCacheBackend backend =
+        new OffHeapCacheBackend(CacheConfig.builder().capacity(64 * 1024).offHeap(true).build());
+
+    ContentValueObj hot = value(1000);
+    backend.put("repo", hot);
+
+    // the frequently read object is re-appended when it approaches the eviction point
+    for (int i = 0; i < 1000; i++) {
+      backend.put("repo", value(1000));
+      soft.assertThat(backend.get("repo", hot.id())).isEqualTo(hot);
+    }
+  }
+
+  @Test
+  public void oversized() {
+    OffHeapCacheBackend backend =
+        new OffHeapCacheBackend(CacheConfig.builder().capacity(16 * 1024).offHeap(true).build());
+
+    ContentValueObj small = value(100);
+    ContentValueObj huge = value(32 * 1024);
+    backend.put("repo", small);
+    backend.put("repo", huge);
+
+    soft.assertThat(backend.get("repo", huge.id())).isNull();
+    soft.assertThat(backend.get("repo", small.id())).isEqualTo(small);
+  }
+
+  @Test
+  public void indexCapacity() {
+    OffHeapCacheBackend backend =
+        new OffHeapCacheBackend(CacheConfig.builder().capacity(64 * 1024).offHeap(true).build());
+
+    // many small objects are limited by the number of index slots, not by the segment's capacity
+    List<Obj> objs = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      Obj obj = ref("ref-" + i, randomObjId(), 42L);
+      objs.add(obj);
+      backend.put("repo", obj);
+    }
+    soft.assertThat(backend.size()).isEqualTo(192L);
+    soft.assertThat(backend.evictions()).isEqualTo(1000L - 192L);
+    for (int i = 0; i < objs.size(); i++) {
+      soft.assertThat(backend.get("repo", objs.get(i).id()))
+          .isEqualTo(i < 1000 - 192 ? null : objs.get(i));
+    }
+  }
+
+  @Test
+  public void concurrentReadsAndWrites() throws Exception {
+    OffHeapCacheBackend backend =
+        new OffHeapCacheBackend(CacheConfig.builder().capacity(64 * 1024).offHeap(true).build());
+
+    List<ContentValueObj> values = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      values.add(value(100 + i * 5));
+    }
+
+    // readers see either no object or the complete object, although writers keep evicting entries
+    // and overwriting the memory of evicted entries
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  int mismatches = 0;
+                  ThreadLocalRandom random = ThreadLocalRandom.current();
+                  for (int i = 0; i < 20_000; i++) {
+                    ContentValueObj value = values.get(random.nextInt(values.size()));
+                    if (random.nextInt(4) == 0) {
+                      backend.put("repo", value);
+                    } else {
+                      Obj cached = backend.get("repo", value.id());
+                      if (cached != null && !cached.equals(value)) {
+                        mismatches++;
+                      }
+                    }
+                  }
+                  return mismatches;
+                }));
+      }
+      for (Future<Integer> future : futures) {
+        soft.assertThat(future.get()).isEqualTo(0);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void segments() {
+    soft.assertThat(segmentCount(0L)).isEqualTo(1);
+    soft.assertThat(segmentCount(MIN_SEGMENT_SIZE)).isEqualTo(1);
+    soft.assertThat(segmentCount(3 * MIN_SEGMENT_SIZE)).isEqualTo(2);
+    soft.assertThat(segmentCount(1024 * MIN_SEGMENT_SIZE)).isEqualTo(64);
+    soft.assertThat(segmentCount(256 * MAX_SEGMENT_SIZE)).isEqualTo(256);
+  }
+
+  private static ContentValueObj value(int size) {
+    byte[] data = new byte[size];
+    data[0] = 1;
+    return contentValue(randomObjId(), "cid", 42, ByteString.copyFrom(data));
+  }
+}
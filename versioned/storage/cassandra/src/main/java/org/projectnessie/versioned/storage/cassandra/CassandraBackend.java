@@ -40,6 +40,7 @@ import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.T
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.TABLE_REFS;
 import static org.projectnessie.versioned.storage.cassandra.CqlColumnType.NAME;
 import static org.projectnessie.versioned.storage.cassandra.CqlColumnType.OBJ_ID;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.unwrap;
 
 import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
@@ -64,6 +65,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -324,6 +327,39 @@ final class CassandraBackend implements Backend {
     return session.executeAsync(buildStatement(cql, values));
   }
 
+  /**
+   * Asynchronous variant of {@link #executeCas(String, Object...)}, a {@link
+   * CASWriteUnknownException} yields {@code false}.
+   */
+  CompletionStage<Boolean> executeCasAsync(String cql, Object... values) {
+    return executeAsync(cql, values)
+        .handle(
+            (rs, e) -> {
+              if (e != null) {
+                e = unwrap(e);
+                if (e instanceof DriverException) {
+                  handleDriverException((DriverException) e);
+                  return false;
+                }
+                throw new CompletionException(e);
+              }
+              return rs.wasApplied();
+            });
+  }
+
+  /** Collects the rows of all pages of an asynchronous result set without blocking. */
+  static CompletionStage<List<Row>> allRows(CompletionStage<AsyncResultSet> resultSet) {
+    List<Row> rows = new ArrayList<>();
+    return resultSet.thenCompose(rs -> collectRows(rs, rows));
+  }
+
+  private static CompletionStage<List<Row>> collectRows(AsyncResultSet rs, List<Row> rows) {
+    rs.currentPage().forEach(rows::add);
+    return rs.hasMorePages()
+        ? rs.fetchNextPage().thenCompose(next -> collectRows(next, rows))
+        : CompletableFuture.completedFuture(rows);
+  }
+
   void handleDriverException(DriverException e) {
     if (e instanceof CASWriteUnknownException) {
       logCASWriteUnknown((CASWriteUnknownException) e);
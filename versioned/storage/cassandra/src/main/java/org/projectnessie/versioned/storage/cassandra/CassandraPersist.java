@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static org.projectnessie.nessie.relocated.protobuf.UnsafeByteOperations.unsafeWrap;
+import static org.projectnessie.versioned.storage.cassandra.CassandraBackend.allRows;
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.ADD_REFERENCE;
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.COL_COMMIT_CREATED;
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.COL_COMMIT_HEADERS;
@@ -65,6 +66,7 @@ import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.M
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.MAX_CONCURRENT_STORES;
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.PURGE_REFERENCE;
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.SCAN_OBJS;
+import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.SELECT_BATCH_SIZE;
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.STORE_OBJ_SUFFIX;
 import static org.projectnessie.versioned.storage.cassandra.CassandraConstants.UPDATE_REFERENCE_POINTER;
 import static org.projectnessie.versioned.storage.common.indexes.StoreKey.keyFromString;
@@ -75,6 +77,9 @@ import static org.projectnessie.versioned.storage.common.objtypes.IndexStripe.in
 import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
 import static org.projectnessie.versioned.storage.common.objtypes.StringObj.stringData;
 import static org.projectnessie.versioned.storage.common.objtypes.TagObj.tag;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.failed;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.compressObj;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.decompressObj;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.objIdFromByteBuffer;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.objIdFromString;
 import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
@@ -83,15 +88,20 @@ import com.datastax.oss.driver.api.core.DriverException;
 import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Lists;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -261,6 +271,48 @@ public class CassandraPersist implements Persist {
     return reference(reference.name(), newPointer, false);
   }
 
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public CompletionStage<Reference> fetchReferenceAsync(
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    return allRows(
+            backend.executeAsync(FIND_REFERENCES, config.repositoryId(), singletonList(name)))
+        .thenApply(rows -> rows.isEmpty() ? null : deserializeReference(rows.get(0)));
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public CompletionStage<Reference> updateReferencePointerAsync(
+      @Nonnull @jakarta.annotation.Nonnull Reference reference,
+      @Nonnull @jakarta.annotation.Nonnull ObjId newPointer) {
+    return backend
+        .executeCasAsync(
+            UPDATE_REFERENCE_POINTER,
+            serializeObjId(newPointer),
+            config().repositoryId(),
+            reference.name(),
+            serializeObjId(reference.pointer()),
+            false)
+        .thenCompose(
+            applied ->
+                applied
+                    ? CompletableFuture.completedFuture(
+                        reference(reference.name(), newPointer, false))
+                    : referenceConditionFailed(reference));
+  }
+
+  private CompletionStage<Reference> referenceConditionFailed(Reference reference) {
+    return fetchReferenceAsync(reference.name())
+        .thenCompose(
+            ref ->
+                failed(
+                    ref == null
+                        ? new RefNotFoundException(reference)
+                        : new RefConditionFailedException(ref)));
+  }
+
   @SuppressWarnings("unused")
   @Override
   @Nonnull
@@ -360,13 +412,69 @@ public class CassandraPersist implements Persist {
     return r;
   }
 
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public CompletionStage<Obj> fetchObjAsync(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    return fetchObjsAsync(new ObjId[] {id}).thenApply(objs -> objs[0]);
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public CompletionStage<Obj[]> fetchObjsAsync(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids) {
+    List<String> queryIds =
+        Arrays.stream(ids)
+            .filter(Objects::nonNull)
+            .distinct()
+            .map(ObjId::toString)
+            .collect(Collectors.toList());
+
+    Map<ObjId, Obj> found = new ConcurrentHashMap<>();
+    List<CompletableFuture<?>> queries = new ArrayList<>();
+    for (List<String> batch : Lists.partition(queryIds, SELECT_BATCH_SIZE)) {
+      queries.add(
+          allRows(backend.executeAsync(FIND_OBJS, config.repositoryId(), batch))
+              .thenAccept(
+                  rows -> {
+                    for (Row row : rows) {
+                      Obj obj = deserializeObj(row, ObjType.valueOf(row.getString(1)));
+                      found.put(obj.id(), obj);
+                    }
+                  })
+              .toCompletableFuture());
+    }
+
+    return CompletableFuture.allOf(queries.toArray(new CompletableFuture<?>[0]))
+        .thenCompose(
+            x -> {
+              Obj[] r = new Obj[ids.length];
+              List<ObjId> notFound = null;
+              for (int i = 0; i < ids.length; i++) {
+                ObjId id = ids[i];
+                if (id != null) {
+                  r[i] = found.get(id);
+                  if (r[i] == null) {
+                    if (notFound == null) {
+                      notFound = new ArrayList<>();
+                    }
+                    notFound.add(id);
+                  }
+                }
+              }
+              return notFound != null
+                  ? failed(new ObjNotFoundException(notFound))
+                  : CompletableFuture.completedFuture(r);
+            });
+  }
+
   private Obj deserializeObj(Row row, ObjType type) {
     ObjId id = deserializeObjId(row.getString(0));
 
     @SuppressWarnings("rawtypes")
     StoreObjDesc objDesc = STORE_OBJ_TYPE.get(type);
     checkState(objDesc != null, "Cannot deserialize object type %s", type);
-    return objDesc.deserialize(row, id);
+    return decompressObj(objDesc.deserialize(row, id));
   }
 
   @Override
@@ -387,6 +495,48 @@ public class CassandraPersist implements Persist {
     return persistObjs(objs, true);
   }
 
+  /**
+   * Stores the given objects in waves of at most {@link CassandraConstants#MAX_CONCURRENT_STORES}
+   * concurrent requests, each wave is started when the previous one has completed.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public CompletionStage<boolean[]> storeObjsAsync(
+      @Nonnull @jakarta.annotation.Nonnull Obj[] objs) {
+    boolean[] results = new boolean[objs.length];
+    CompletionStage<Void> stores = CompletableFuture.completedFuture(null);
+    for (int start = 0; start < objs.length; start += MAX_CONCURRENT_STORES) {
+      int from = start;
+      int to = Math.min(objs.length, start + MAX_CONCURRENT_STORES);
+      stores = stores.thenCompose(x -> storeObjsWave(objs, from, to, results));
+    }
+    return stores.thenApply(x -> results);
+  }
+
+  private CompletionStage<Void> storeObjsWave(Obj[] objs, int from, int to, boolean[] results) {
+    List<CompletableFuture<?>> wave = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      Obj o = objs[i];
+      if (o == null) {
+        continue;
+      }
+      int idx = i;
+      try {
+        wave.add(
+            writeSingleObj(
+                    o,
+                    false,
+                    (storeObj, values) -> backend.executeCasAsync(storeObj.cql(true), values))
+                .thenAccept(applied -> results[idx] = applied)
+                .toCompletableFuture());
+      } catch (ObjTooLargeException e) {
+        return failed(e);
+      }
+    }
+    return CompletableFuture.allOf(wave.toArray(new CompletableFuture<?>[0]));
+  }
+
   @Override
   public void upsertObj(@Nonnull @jakarta.annotation.Nonnull Obj obj) throws ObjTooLargeException {
     writeSingleObj(obj, false, (storeObj, values) -> backend.execute(storeObj.cql(false), values));
@@ -464,6 +614,7 @@ public class CassandraPersist implements Persist {
     ObjType type = obj.type();
 
     StoreObjDesc<Obj> storeObj = storeObjForObj(type);
+    obj = compressObj(obj, config);
 
     List<Object> values = new ArrayList<>();
     values.add(config.repositoryId());
@@ -566,12 +717,7 @@ public class CassandraPersist implements Persist {
 
             Stripes.Builder b = Stripes.newBuilder();
             obj.referenceIndexStripes().stream()
-                .map(
-                    s ->
-                        Stripe.newBuilder()
-                            .setFirstKey(s.firstKey().rawString())
-                            .setLastKey(s.lastKey().rawString())
-                            .setSegment(s.segment().asBytes()))
+                .map(CassandraPersist::serializeStripe)
                 .forEach(b::addStripes);
             values.accept(b.build().toByteString().asReadOnlyByteBuffer());
 
@@ -620,12 +766,7 @@ public class CassandraPersist implements Persist {
               Stripes stripes =
                   Stripes.parseFrom(row.getByteBuffer(COL_COMMIT_REFERENCE_INDEX_STRIPES));
               stripes.getStripesList().stream()
-                  .map(
-                      s ->
-                          indexStripe(
-                              keyFromString(s.getFirstKey()),
-                              keyFromString(s.getLastKey()),
-                              objIdFromByteBuffer(s.getSegment().asReadOnlyByteBuffer())))
+                  .map(CassandraPersist::deserializeStripe)
                   .forEach(b::addReferenceIndexStripes);
             } catch (IOException e) {
               throw new RuntimeException(e);
@@ -692,12 +833,7 @@ public class CassandraPersist implements Persist {
               int maxSerializedIndexSize) {
             Stripes.Builder b = Stripes.newBuilder();
             obj.stripes().stream()
-                .map(
-                    s ->
-                        Stripe.newBuilder()
-                            .setFirstKey(s.firstKey().rawString())
-                            .setLastKey(s.lastKey().rawString())
-                            .setSegment(s.segment().asBytes()))
+                .map(CassandraPersist::serializeStripe)
                 .forEach(b::addStripes);
             values.accept(b.build().toByteString().asReadOnlyByteBuffer());
           }
@@ -708,12 +844,7 @@ public class CassandraPersist implements Persist {
               Stripes stripes = Stripes.parseFrom(row.getByteBuffer(COL_SEGMENTS_STRIPES));
               List<IndexStripe> stripeList =
                   stripes.getStripesList().stream()
-                      .map(
-                          s ->
-                              indexStripe(
-                                  keyFromString(s.getFirstKey()),
-                                  keyFromString(s.getLastKey()),
-                                  objIdFromByteBuffer(s.getSegment().asReadOnlyByteBuffer())))
+                      .map(CassandraPersist::deserializeStripe)
                       .collect(Collectors.toList());
               return indexSegments(id, stripeList);
             } catch (IOException e) {
@@ -864,6 +995,28 @@ public class CassandraPersist implements Persist {
         : null;
   }
 
+  private static Stripe serializeStripe(IndexStripe s) {
+    Stripe.Builder b =
+        Stripe.newBuilder()
+            .setFirstKey(s.firstKey().rawString())
+            .setLastKey(s.lastKey().rawString())
+            .setSegment(s.segment().asBytes());
+    ByteString keyFilter = s.keyFilter();
+    if (keyFilter != null) {
+      b.setKeyFilter(keyFilter);
+    }
+    return b.build();
+  }
+
+  private static IndexStripe deserializeStripe(Stripe s) {
+    ByteString keyFilter = s.getKeyFilter();
+    return indexStripe(
+        keyFromString(s.getFirstKey()),
+        keyFromString(s.getLastKey()),
+        objIdFromByteBuffer(s.getSegment().asReadOnlyByteBuffer()),
+        keyFilter.isEmpty() ? null : keyFilter);
+  }
+
   private class ScanAllObjectsIterator extends AbstractIterator<Obj>
       implements CloseableIterator<Obj> {
 
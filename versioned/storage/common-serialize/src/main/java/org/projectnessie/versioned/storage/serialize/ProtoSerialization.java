@@ -211,11 +211,7 @@ public final class ProtoSerialization {
       b.referenceIndex(deserializeObjId(commit.getReferenceIndex()));
     }
     for (Stripe s : commit.getReferenceIndexStripesList()) {
-      b.addReferenceIndexStripes(
-          indexStripe(
-              keyFromString(s.getFirstKey()),
-              keyFromString(s.getLastKey()),
-              deserializeObjId(s.getSegment())));
+      b.addReferenceIndexStripes(deserializeStripe(s));
     }
     return b.build();
   }
@@ -240,11 +236,29 @@ public final class ProtoSerialization {
       b.setReferenceIndex(serializeObjId(referenceIndexId));
     }
     for (IndexStripe indexStripe : obj.referenceIndexStripes()) {
-      b.addReferenceIndexStripes(
-          Stripe.newBuilder()
-              .setFirstKey(indexStripe.firstKey().rawString())
-              .setLastKey(indexStripe.lastKey().rawString())
-              .setSegment(serializeObjId(indexStripe.segment())));
+      b.addReferenceIndexStripes(serializeStripe(indexStripe));
+    }
+    return b;
+  }
+
+  private static IndexStripe deserializeStripe(Stripe s) {
+    ByteString keyFilter = s.getKeyFilter();
+    return indexStripe(
+        keyFromString(s.getFirstKey()),
+        keyFromString(s.getLastKey()),
+        deserializeObjId(s.getSegment()),
+        keyFilter.isEmpty() ? null : keyFilter);
+  }
+
+  private static Stripe.Builder serializeStripe(IndexStripe indexStripe) {
+    Stripe.Builder b =
+        Stripe.newBuilder()
+            .setFirstKey(indexStripe.firstKey().rawString())
+            .setLastKey(indexStripe.lastKey().rawString())
+            .setSegment(serializeObjId(indexStripe.segment()));
+    ByteString keyFilter = indexStripe.keyFilter();
+    if (keyFilter != null) {
+      b.setKeyFilter(keyFilter);
     }
     return b;
   }
@@ -295,11 +309,7 @@ public final class ProtoSerialization {
       ObjId id, IndexSegmentsProto indexSegments) {
     List<IndexStripe> stripes = new ArrayList<>(indexSegments.getStripesCount());
     for (Stripe s : indexSegments.getStripesList()) {
-      stripes.add(
-          indexStripe(
-              keyFromString(s.getFirstKey()),
-              keyFromString(s.getLastKey()),
-              deserializeObjId(s.getSegment())));
+      stripes.add(deserializeStripe(s));
     }
     return indexSegments(id, stripes);
   }
@@ -307,11 +317,7 @@ public final class ProtoSerialization {
   private static IndexSegmentsProto.Builder serializeIndexSegments(IndexSegmentsObj obj) {
     IndexSegmentsProto.Builder b = IndexSegmentsProto.newBuilder();
     for (IndexStripe indexStripe : obj.stripes()) {
-      b.addStripes(
-          Stripe.newBuilder()
-              .setFirstKey(indexStripe.firstKey().rawString())
-              .setLastKey(indexStripe.lastKey().rawString())
-              .setSegment(serializeObjId(indexStripe.segment())));
+      b.addStripes(serializeStripe(indexStripe));
     }
     return b;
   }
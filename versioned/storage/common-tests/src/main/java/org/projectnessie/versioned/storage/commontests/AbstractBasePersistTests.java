@@ -28,9 +28,12 @@ import static org.assertj.core.api.Assumptions.assumeThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
 import static org.projectnessie.nessie.relocated.protobuf.ByteString.copyFromUtf8;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMPRESSION_MIN_SIZE;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_INDEX_COMPRESSION;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MAX_INCREMENTAL_INDEX_SIZE;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MAX_SERIALIZED_INDEX_SIZE;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_REPOSITORY_ID;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_VALUE_COMPRESSION;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.newStoreIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
@@ -66,6 +69,7 @@ import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -509,6 +513,89 @@ public class AbstractBasePersistTests {
         .containsExactly(obj1, obj2, obj3, obj4, obj5);
   }
 
+  @Test
+  public void asyncStoreAndFetch() {
+    List<TagObj> objects =
+        IntStream.range(0, 123)
+            .mapToObj(i -> tag(randomObjId(), randomObjId(), null, null, ByteString.EMPTY))
+            .collect(Collectors.toList());
+    Obj[] objs = objects.toArray(new Obj[0]);
+    ObjId[] ids = objects.stream().map(Obj::id).toArray(ObjId[]::new);
+
+    soft.assertThat(persist.storeObjsAsync(objs).toCompletableFuture().join())
+        .hasSize(objects.size())
+        .containsOnly(true);
+    soft.assertThat(persist.storeObjsAsync(objs).toCompletableFuture().join())
+        .hasSize(objects.size())
+        .containsOnly(false);
+
+    soft.assertThat(persist.fetchObjsAsync(ids).toCompletableFuture().join())
+        .containsExactlyElementsOf(objects);
+    soft.assertThat(persist.fetchObjAsync(ids[42]).toCompletableFuture().join())
+        .isEqualTo(objects.get(42));
+    soft.assertThat(persist.fetchObjsAsync(new ObjId[] {null, ids[1]}).toCompletableFuture().join())
+        .containsExactly(null, objects.get(1));
+
+    ObjId id = randomObjId();
+    soft.assertThatThrownBy(() -> persist.fetchObjAsync(id).toCompletableFuture().join())
+        .isInstanceOf(CompletionException.class)
+        .cause()
+        .isInstanceOf(ObjNotFoundException.class)
+        .asInstanceOf(type(ObjNotFoundException.class))
+        .extracting(ObjNotFoundException::objIds, list(ObjId.class))
+        .containsExactly(id);
+    soft.assertThatThrownBy(
+            () -> persist.fetchObjsAsync(new ObjId[] {ids[0], id}).toCompletableFuture().join())
+        .isInstanceOf(CompletionException.class)
+        .cause()
+        .isInstanceOf(ObjNotFoundException.class)
+        .asInstanceOf(type(ObjNotFoundException.class))
+        .extracting(ObjNotFoundException::objIds, list(ObjId.class))
+        .containsExactly(id);
+  }
+
+  @Test
+  public void asyncUpdateReference() throws Exception {
+    ObjId initialPointer = objIdFromString("0000");
+    ObjId pointer1 = objIdFromString("0001");
+
+    Reference create = reference("some-reference-name", initialPointer, false);
+    Reference assigned1 = reference("some-reference-name", pointer1, false);
+
+    soft.assertThat(persist.fetchReferenceAsync("some-reference-name").toCompletableFuture().join())
+        .isNull();
+    persist.addReference(create);
+    soft.assertThat(persist.fetchReferenceAsync("some-reference-name").toCompletableFuture().join())
+        .isEqualTo(create);
+
+    // Wrong current pointer
+    soft.assertThatThrownBy(
+            () ->
+                persist
+                    .updateReferencePointerAsync(assigned1, initialPointer)
+                    .toCompletableFuture()
+                    .join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(RefConditionFailedException.class);
+
+    // Correct current pointer
+    soft.assertThat(
+            persist.updateReferencePointerAsync(create, pointer1).toCompletableFuture().join())
+        .isEqualTo(assigned1);
+    soft.assertThat(persist.fetchReference("some-reference-name")).isEqualTo(assigned1);
+
+    // Some other name - must not create a reference for it
+    soft.assertThatThrownBy(
+            () ->
+                persist
+                    .updateReferencePointerAsync(
+                        reference("other-reference-name", initialPointer, false), pointer1)
+                    .toCompletableFuture()
+                    .join())
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(RefNotFoundException.class);
+  }
+
   @Test
   public void fetchEmptyObjId() {
     soft.assertThatThrownBy(() -> persist.fetchObj(EMPTY_OBJ_ID))
@@ -588,6 +675,53 @@ public class AbstractBasePersistTests {
     verifyObjSizeLimit(persist, index);
   }
 
+  @Test
+  public void storeAndFetchCompressed(
+      @NessieStoreConfig(name = CONFIG_INDEX_COMPRESSION, value = "DEFLATE")
+          @NessieStoreConfig(name = CONFIG_VALUE_COMPRESSION, value = "GZIP")
+          @NessieStoreConfig(name = CONFIG_COMPRESSION_MIN_SIZE, value = "64")
+          @NessiePersist
+          Persist compressing)
+      throws Exception {
+    StoreIndex<CommitOp> index = newStoreIndex(COMMIT_OP_SERIALIZER);
+    for (int i = 0; i < 100; i++) {
+      index.add(indexElement(key("foo-" + i, "bar", "baz"), commitOp(ADD, 42, randomObjId())));
+    }
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      value.append("content value ").append(i).append('\n');
+    }
+
+    // Objects stored via 'compressing' are compressed, objects stored via 'persist' are not.
+    Obj[] compressed = {
+      index(randomObjId(), index.serialize()),
+      contentValue(randomObjId(), "cid", 1, copyFromUtf8(value.toString()))
+    };
+    Obj[] uncompressed = {
+      index(randomObjId(), index.serialize()),
+      contentValue(randomObjId(), "cid", 1, copyFromUtf8(value.toString()))
+    };
+    soft.assertThat(compressing.storeObjs(compressed)).containsOnly(true);
+    soft.assertThat(persist.storeObjs(uncompressed)).containsOnly(true);
+
+    for (Obj[] objs : asList(compressed, uncompressed)) {
+      ObjId[] ids = stream(objs).map(Obj::id).toArray(ObjId[]::new);
+      for (Persist p : asList(compressing, persist)) {
+        soft.assertThat(p.fetchObjs(ids)).containsExactly(objs);
+        soft.assertThat(p.fetchObj(ids[0])).isEqualTo(objs[0]);
+        soft.assertThat(p.fetchTypedObj(ids[1], VALUE, ContentValueObj.class)).isEqualTo(objs[1]);
+      }
+    }
+
+    compressing.upsertObjs(uncompressed);
+    soft.assertThat(persist.fetchObjs(stream(uncompressed).map(Obj::id).toArray(ObjId[]::new)))
+        .containsExactly(uncompressed);
+
+    try (CloseableIterator<Obj> scan = persist.scanAllObjects(EnumSet.of(INDEX, VALUE))) {
+      soft.assertThat(newArrayList(scan)).contains(compressed).contains(uncompressed);
+    }
+  }
+
   private void verifyObjSizeLimit(Persist persist, StoreIndex<CommitOp> index) {
     soft.assertThatThrownBy(() -> persist.storeObj(index(randomObjId(), index.serialize())))
         .isInstanceOf(ObjTooLargeException.class);
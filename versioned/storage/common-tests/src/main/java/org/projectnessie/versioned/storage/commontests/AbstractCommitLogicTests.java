@@ -27,6 +27,8 @@ import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_LOG_READ_AHEAD;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_PARENTS_PER_COMMIT;
 import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
 import static org.projectnessie.versioned.storage.common.logic.CommitConflict.ConflictType.VALUE_DIFFERS;
 import static org.projectnessie.versioned.storage.common.logic.CommitLogQuery.commitLogQuery;
@@ -42,6 +44,7 @@ import static org.projectnessie.versioned.storage.common.logic.Logics.indexesLog
 import static org.projectnessie.versioned.storage.common.logic.Logics.referenceLogic;
 import static org.projectnessie.versioned.storage.common.logic.PagingToken.emptyPagingToken;
 import static org.projectnessie.versioned.storage.common.objtypes.CommitHeaders.EMPTY_COMMIT_HEADERS;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitObj.commitBuilder;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.objIdFromString;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
@@ -88,6 +91,7 @@ import org.projectnessie.versioned.storage.common.persist.ObjId;
 import org.projectnessie.versioned.storage.common.persist.Persist;
 import org.projectnessie.versioned.storage.common.persist.Reference;
 import org.projectnessie.versioned.storage.testextension.NessiePersist;
+import org.projectnessie.versioned.storage.testextension.NessieStoreConfig;
 import org.projectnessie.versioned.storage.testextension.PersistExtension;
 
 /** {@link CommitLogic} related tests to be run against every {@link Persist} implementation. */
@@ -129,6 +133,44 @@ public class AbstractCommitLogicTests {
         .containsExactly(commitId, STD_MESSAGE);
   }
 
+  @Test
+  public void fetchCommits() throws Exception {
+    CommitLogic commitLogic = commitLogic(persist);
+
+    ObjId commitId1 = requireNonNull(commitLogic.doCommit(stdCommit().build(), emptyList())).id();
+    ObjId commitId2 =
+        requireNonNull(
+                commitLogic.doCommit(stdCommit().parentCommitId(commitId1).build(), emptyList()))
+            .id();
+    TagObj tag = TagObj.tag(randomObjId(), commitId1, null, null, ByteString.EMPTY);
+    TagObj emptyTag = TagObj.tag(randomObjId(), EMPTY_OBJ_ID, null, null, ByteString.EMPTY);
+    soft.assertThat(persist.storeObjs(new Obj[] {tag, emptyTag})).containsExactly(true, true);
+
+    CommitObj[] commits =
+        commitLogic.fetchCommits(
+            new ObjId[] {
+              commitId1,
+              null,
+              EMPTY_OBJ_ID,
+              requireNonNull(tag.id()),
+              requireNonNull(emptyTag.id()),
+              commitId2,
+              commitId1
+            });
+    soft.assertThat(commits)
+        .extracting(c -> c != null ? c.id() : null)
+        .containsExactly(commitId1, null, null, commitId1, null, commitId2, commitId1);
+
+    soft.assertThat(commitLogic.fetchCommits(new ObjId[0])).isEmpty();
+
+    ObjId missing = randomObjId();
+    soft.assertThatThrownBy(() -> commitLogic.fetchCommits(new ObjId[] {commitId1, missing}))
+        .isInstanceOf(ObjNotFoundException.class)
+        .asInstanceOf(type(ObjNotFoundException.class))
+        .extracting(ObjNotFoundException::objIds, list(ObjId.class))
+        .containsExactly(missing);
+  }
+
   @Test
   public void commonAncestor() throws Exception {
     CommitLogic commitLogic = commitLogic(persist);
@@ -176,6 +218,127 @@ public class AbstractCommitLogicTests {
     }
   }
 
+  @Test
+  public void commonAncestorDeepHistory(
+      @NessieStoreConfig(name = CONFIG_PARENTS_PER_COMMIT, value = "4") @NessiePersist
+          Persist persist)
+      throws Exception {
+    CommitLogic commitLogic = commitLogic(persist);
+
+    // Commits on the "trunk", index == seq - 1
+    List<ObjId> trunk = new ArrayList<>();
+    ObjId tip = EMPTY_OBJ_ID;
+    for (int i = 0; i < 30; i++) {
+      tip =
+          requireNonNull(
+                  commitLogic.doCommit(
+                      stdCommit().parentCommitId(tip).message("trunk #" + i).build(),
+                      emptyList()))
+              .id();
+      trunk.add(tip);
+    }
+
+    // Branches forking off at different trunk commits with different lengths, so that both the
+    // "jump via tail" and the "compare tails" paths are exercised.
+    int[][] forks = {{3, 17}, {3, 2}, {11, 0}, {11, 9}, {20, 1}, {29, 13}};
+    ObjId[] branchHeads = new ObjId[forks.length];
+    for (int b = 0; b < forks.length; b++) {
+      ObjId head = trunk.get(forks[b][0]);
+      for (int i = 0; i < forks[b][1]; i++) {
+        head =
+            requireNonNull(
+                    commitLogic.doCommit(
+                        stdCommit()
+                            .parentCommitId(head)
+                            .message("branch " + b + " #" + i)
+                            .build(),
+                        emptyList()))
+                .id();
+      }
+      branchHeads[b] = head;
+    }
+
+    for (int b = 0; b < forks.length; b++) {
+      for (int t = 0; t < trunk.size(); t++) {
+        ObjId expected = trunk.get(Math.min(t, forks[b][0]));
+        soft.assertThat(commitLogic.findCommonAncestor(branchHeads[b], trunk.get(t)))
+            .describedAs("branch %d / trunk %d", b, t)
+            .isEqualTo(expected);
+        soft.assertThat(commitLogic.findCommonAncestor(trunk.get(t), branchHeads[b]))
+            .describedAs("trunk %d / branch %d", t, b)
+            .isEqualTo(expected);
+      }
+      for (int o = 0; o < forks.length; o++) {
+        ObjId expected = b == o ? branchHeads[b] : trunk.get(Math.min(forks[b][0], forks[o][0]));
+        soft.assertThat(commitLogic.findCommonAncestor(branchHeads[b], branchHeads[o]))
+            .describedAs("branch %d / branch %d", b, o)
+            .isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void commonAncestorInconsistentSeq(
+      @NessieStoreConfig(name = CONFIG_PARENTS_PER_COMMIT, value = "4") @NessiePersist
+          Persist persist)
+      throws Exception {
+    CommitLogic commitLogic = commitLogic(persist);
+
+    // Imported commits do not necessarily have a sequence number that is one higher than the one of
+    // their parent, simulate that by storing some commits with a shifted sequence number.
+    List<ObjId> trunk = new ArrayList<>();
+    ObjId tip = EMPTY_OBJ_ID;
+    for (int i = 0; i < 30; i++) {
+      int seqShift = i == 8 ? 10 : i == 19 ? -15 : 0;
+      tip = commitWithSeqShift(commitLogic, tip, "trunk #" + i, seqShift);
+      trunk.add(tip);
+    }
+
+    // {fork point on trunk, number of commits, index of the commit with a shifted seq}
+    int[][] forks = {{3, 17, 0}, {3, 2, -1}, {11, 0, -1}, {11, 9, 5}, {20, 1, 0}, {29, 13, 12}};
+    ObjId[] branchHeads = new ObjId[forks.length];
+    for (int b = 0; b < forks.length; b++) {
+      ObjId head = trunk.get(forks[b][0]);
+      for (int i = 0; i < forks[b][1]; i++) {
+        int seqShift = i == forks[b][2] ? 7 : 0;
+        head = commitWithSeqShift(commitLogic, head, "branch " + b + " #" + i, seqShift);
+      }
+      branchHeads[b] = head;
+    }
+
+    for (int b = 0; b < forks.length; b++) {
+      for (int t = 0; t < trunk.size(); t++) {
+        ObjId expected = trunk.get(Math.min(t, forks[b][0]));
+        soft.assertThat(commitLogic.findCommonAncestor(branchHeads[b], trunk.get(t)))
+            .describedAs("branch %d / trunk %d", b, t)
+            .isEqualTo(expected);
+        soft.assertThat(commitLogic.findCommonAncestor(trunk.get(t), branchHeads[b]))
+            .describedAs("trunk %d / branch %d", t, b)
+            .isEqualTo(expected);
+      }
+      for (int o = 0; o < forks.length; o++) {
+        ObjId expected = b == o ? branchHeads[b] : trunk.get(Math.min(forks[b][0], forks[o][0]));
+        soft.assertThat(commitLogic.findCommonAncestor(branchHeads[b], branchHeads[o]))
+            .describedAs("branch %d / branch %d", b, o)
+            .isEqualTo(expected);
+      }
+    }
+  }
+
+  private static ObjId commitWithSeqShift(
+      CommitLogic commitLogic, ObjId parent, String message, int seqShift) throws Exception {
+    CommitObj commit =
+        commitLogic.buildCommitObj(
+            stdCommit().parentCommitId(parent).message(message).build(),
+            c -> CONFLICT,
+            (k, v) -> {},
+            NO_VALUE_REPLACEMENT,
+            NO_VALUE_REPLACEMENT);
+    commit = commitBuilder().from(commit).seq(commit.seq() + seqShift).build();
+    checkState(commitLogic.storeCommit(commit, emptyList()));
+    return commit.id();
+  }
+
   @Test
   public void noCommonAncestor() throws Exception {
     CommitLogic commitLogic = commitLogic(persist);
@@ -259,6 +422,47 @@ public class AbstractCommitLogicTests {
         .hasMessage("Commit '1111111111111111' not found");
   }
 
+  @Test
+  public void commitLogReadAhead(
+      @NessieStoreConfig(name = CONFIG_PARENTS_PER_COMMIT, value = "3")
+          @NessieStoreConfig(name = CONFIG_COMMIT_LOG_READ_AHEAD, value = "2")
+          @NessiePersist
+          Persist persist)
+      throws Exception {
+    CommitLogic commitLogic = commitLogic(persist);
+
+    soft.assertThatThrownBy(
+            () -> newArrayList(commitLogic.commitLog(commitLogQuery(randomObjId()))))
+        .isInstanceOf(NoSuchElementException.class);
+
+    List<ObjId> commits = new ArrayList<>();
+    ObjId tip = EMPTY_OBJ_ID;
+    for (int i = 0; i < 25; i++) {
+      tip =
+          requireNonNull(
+                  commitLogic.doCommit(
+                      stdCommit().parentCommitId(tip).message("commit #" + i).build(),
+                      emptyList()))
+              .id();
+      commits.add(0, tip);
+    }
+
+    soft.assertThat(newArrayList(commitLogic.commitLog(commitLogQuery(tip))))
+        .extracting(CommitObj::id)
+        .containsExactlyElementsOf(commits);
+
+    // Stop in the middle of a batch of parent commits
+    soft.assertThat(newArrayList(commitLogic.commitLog(commitLogQuery(null, tip, commits.get(7)))))
+        .extracting(CommitObj::id)
+        .containsExactlyElementsOf(commits.subList(0, 8));
+
+    // Consumer abandons the iteration early
+    PagedResult<CommitObj, ObjId> iter = commitLogic.commitLog(commitLogQuery(tip));
+    for (int i = 0; i < 4; i++) {
+      soft.assertThat(iter.next()).extracting(CommitObj::id).isEqualTo(commits.get(i));
+    }
+  }
+
   @Test
   public void commitLog() throws Exception {
     CommitLogic commitLogic = commitLogic(persist);
@@ -20,6 +20,7 @@ import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_INDEX_SERIALIZATION_VERSION;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.emptyImmutableIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.indexFromStripes;
@@ -38,6 +39,8 @@ import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.COMMI
 import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.commitOp;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+import static org.projectnessie.versioned.storage.common.persist.ObjType.INDEX;
+import static org.projectnessie.versioned.storage.common.persist.ObjType.INDEX_SEGMENTS;
 import static org.projectnessie.versioned.storage.commontests.KeyIndexTestSet.basicIndexTestSet;
 
 import java.util.Optional;
@@ -54,9 +57,12 @@ import org.projectnessie.versioned.storage.common.logic.CommitLogic;
 import org.projectnessie.versioned.storage.common.logic.IndexesLogic;
 import org.projectnessie.versioned.storage.common.objtypes.CommitObj;
 import org.projectnessie.versioned.storage.common.objtypes.CommitOp;
+import org.projectnessie.versioned.storage.common.objtypes.IndexObj;
+import org.projectnessie.versioned.storage.common.objtypes.IndexSegmentsObj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
 import org.projectnessie.versioned.storage.common.persist.Persist;
 import org.projectnessie.versioned.storage.testextension.NessiePersist;
+import org.projectnessie.versioned.storage.testextension.NessieStoreConfig;
 import org.projectnessie.versioned.storage.testextension.PersistExtension;
 
 /** {@link IndexesLogic} related tests to be run against every {@link Persist} implementation. */
@@ -209,6 +215,54 @@ public class AbstractIndexesLogicTests {
         .containsExactlyElementsOf(striped.asKeyList());
   }
 
+  @Test
+  public void referenceIndexSerializationVersion1() throws Exception {
+    IndexesLogic indexesLogic = indexesLogic(persist);
+
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    StoreIndex<CommitOp> striped = indexFromStripes(indexTestSet.keyIndex().divide(5));
+
+    ObjId referenceIndexId = indexesLogic.persistStripedIndex(striped);
+
+    // Without explicit configuration, reference index segments are written exactly like before
+    // the "version 2" serialization was introduced.
+    IndexSegmentsObj segments =
+        persist.fetchTypedObj(referenceIndexId, INDEX_SEGMENTS, IndexSegmentsObj.class);
+    soft.assertThat(segments.stripes()).hasSize(striped.stripes().size());
+    for (int i = 0; i < segments.stripes().size(); i++) {
+      IndexObj segment =
+          persist.fetchTypedObj(segments.stripes().get(i).segment(), INDEX, IndexObj.class);
+      soft.assertThat(segment.index())
+          .describedAs("Segment #%d", i)
+          .isEqualTo(striped.stripes().get(i).serialize());
+    }
+  }
+
+  @Test
+  public void referenceIndexSerializationVersion2(
+      @NessieStoreConfig(name = CONFIG_INDEX_SERIALIZATION_VERSION, value = "2") @NessiePersist
+          Persist persist)
+      throws Exception {
+    IndexesLogic indexesLogic = indexesLogic(persist);
+
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    StoreIndex<CommitOp> striped = indexFromStripes(indexTestSet.keyIndex().divide(5));
+
+    ObjId referenceIndexId = indexesLogic.persistStripedIndex(striped);
+
+    IndexSegmentsObj segments =
+        persist.fetchTypedObj(referenceIndexId, INDEX_SEGMENTS, IndexSegmentsObj.class);
+    for (int i = 0; i < segments.stripes().size(); i++) {
+      IndexObj segment =
+          persist.fetchTypedObj(segments.stripes().get(i).segment(), INDEX, IndexObj.class);
+      soft.assertThat(segment.index().byteAt(0)).describedAs("Segment #%d", i).isEqualTo((byte) 2);
+    }
+
+    StoreIndex<CommitOp> loadedIndex =
+        indexesLogic.buildReferenceIndexOnly(referenceIndexId, EMPTY_OBJ_ID);
+    soft.assertThat(newArrayList(loadedIndex)).containsExactlyElementsOf(newArrayList(striped));
+  }
+
   @Test
   public void buildIndexFromCommitWithReferenceIndex() throws Exception {
     IndexesLogic indexesLogic = indexesLogic(persist);
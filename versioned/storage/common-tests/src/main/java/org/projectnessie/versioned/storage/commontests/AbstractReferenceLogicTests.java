@@ -20,9 +20,17 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static java.util.stream.IntStream.rangeClosed;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
+import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.projectnessie.nessie.relocated.protobuf.ByteString.copyFromUtf8;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_TIMEOUT_MILLIS;
 import static org.projectnessie.versioned.storage.common.logic.CommitLogQuery.commitLogQuery;
@@ -307,6 +315,42 @@ public class AbstractReferenceLogicTests {
     }
   }
 
+  /**
+   * Verifies that listing references resolves the references in chunks and runs the
+   * resume/recovery process for references that are in the middle of a create or delete operation.
+   */
+  @Test
+  public void referencesQueryBatched() throws Exception {
+    // Not a spy, the bulk operations of a spied Persist may call the single-object operations.
+    Persist persistSpy = mock(Persist.class, delegatesTo(persist));
+    ReferenceLogic refLogic = referenceLogic(persistSpy);
+
+    List<Reference> created = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      created.add(refLogic.createReference(String.format("ref-%10d", i), randomObjId()));
+    }
+
+    // Delete-reference operation that stopped after marking the reference as deleted
+    Reference deleted = created.get(7);
+    persist.markReferenceAsDeleted(deleted);
+    // Create-reference operation that stopped after committing to the references index
+    Reference unfinished = created.get(77);
+    persist.purgeReference(persist.markReferenceAsDeleted(unfinished));
+
+    clearInvocations(persistSpy);
+
+    soft.assertThat(newArrayList(refLogic.queryReferences(referencesQuery("ref-"))))
+        .containsExactlyElementsOf(
+            created.stream().filter(r -> r != deleted).collect(Collectors.toList()));
+
+    verify(persistSpy, never()).fetchReference(startsWith("ref-"));
+    verify(persistSpy, times(3))
+        .fetchReferences(argThat(names -> names.length > 0 && names[0].startsWith("ref-")));
+
+    soft.assertThat(persist.fetchReference(deleted.name())).isNull();
+    soft.assertThat(persist.fetchReference(unfinished.name())).isEqualTo(unfinished);
+  }
+
   /**
    * Exercises a bunch of reference names that can be problematic, if the database uses collators
    * that for example collapse adjacent spaces.
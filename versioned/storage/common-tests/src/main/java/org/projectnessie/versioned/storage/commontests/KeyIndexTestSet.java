@@ -17,8 +17,10 @@ package org.projectnessie.versioned.storage.commontests;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.deserializeReadOnlyStoreIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.deserializeStoreIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.newStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.serializeWithRestartPoints;
 import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
 import static org.projectnessie.versioned.storage.common.indexes.StoreKey.keyFromString;
 import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.Action.ADD;
@@ -68,6 +70,14 @@ public interface KeyIndexTestSet<ELEMENT> {
 
   StoreIndex<ELEMENT> keyIndex();
 
+  /** Serialization version used for {@link #serialized()}, either {@code 1} or {@code 2}. */
+  int serializationVersion();
+
+  ElementSerializer<ELEMENT> elementSerializer();
+
+  /** Whether {@link #keyIndex()} and {@link #deserialize()} use read-only index implementations. */
+  boolean readOnly();
+
   static <ELEMENT> ImmutableIndexTestSetGenerator.Builder<ELEMENT> newGenerator() {
     return ImmutableIndexTestSetGenerator.builder();
   }
@@ -205,6 +215,24 @@ public interface KeyIndexTestSet<ELEMENT> {
       return ImmutableRealisticKeySet.builder().build();
     }
 
+    /**
+     * Serialization version, {@code 1} uses {@link StoreIndex#serialize()}, {@code 2} uses {@code
+     * StoreIndexes.serializeWithRestartPoints()}.
+     */
+    @Value.Default
+    public int serializationVersion() {
+      return 1;
+    }
+
+    /**
+     * Use the read-only index implementations via {@code
+     * StoreIndexes.deserializeReadOnlyStoreIndex()}.
+     */
+    @Value.Default
+    public boolean readOnly() {
+      return false;
+    }
+
     public final KeyIndexTestSet<ELEMENT> generateIndexTestSet() {
       StoreIndex<ELEMENT> index = newStoreIndex(elementSerializer());
 
@@ -214,15 +242,24 @@ public interface KeyIndexTestSet<ELEMENT> {
         index.add(elementSupplier().apply(key));
       }
 
-      ByteString serialized = index.serialize();
+      ByteString serialized =
+          serializationVersion() == 2
+              ? serializeWithRestartPoints(index, elementSerializer())
+              : index.serialize();
 
       // Re-serialize to have "clean" internal values in KeyIndexImpl
-      StoreIndex<ELEMENT> keyIndex = deserializeStoreIndex(serialized, elementSerializer());
+      StoreIndex<ELEMENT> keyIndex =
+          readOnly()
+              ? deserializeReadOnlyStoreIndex(serialized, elementSerializer())
+              : deserializeStoreIndex(serialized, elementSerializer());
 
       return ImmutableKeyIndexTestSet.<ELEMENT>builder()
           .keys(keys)
           .serialized(keyIndex.serialize())
           .keyIndex(keyIndex)
+          .serializationVersion(serializationVersion())
+          .elementSerializer(elementSerializer())
+          .readOnly(readOnly())
           .build();
     }
   }
@@ -238,11 +275,15 @@ public interface KeyIndexTestSet<ELEMENT> {
   }
 
   default ByteString serialize() {
-    return keyIndex().serialize();
+    return serializationVersion() == 2
+        ? serializeWithRestartPoints(keyIndex(), elementSerializer())
+        : keyIndex().serialize();
   }
 
   default StoreIndex<CommitOp> deserialize() {
-    return deserializeStoreIndex(serialized(), COMMIT_OP_SERIALIZER);
+    return readOnly()
+        ? deserializeReadOnlyStoreIndex(serialized(), COMMIT_OP_SERIALIZER)
+        : deserializeStoreIndex(serialized(), COMMIT_OP_SERIALIZER);
   }
 
   default StoreIndexElement<ELEMENT> randomGetKey() {
@@ -250,6 +291,11 @@ public interface KeyIndexTestSet<ELEMENT> {
     return keyIndex().get(key);
   }
 
+  default StoreIndexElement<CommitOp> deserializeRandomGetKey() {
+    StoreKey key = randomKey();
+    return deserialize().get(key);
+  }
+
   class Words {
     private static final List<String> WORDS = new ArrayList<>();
 
@@ -37,8 +37,11 @@ dependencies {
   compileOnly(libs.errorprone.annotations)
   implementation(libs.agrona)
   implementation(libs.guava)
+  implementation(libs.lz4.java)
+  implementation(libs.micrometer.core)
   implementation(project(path = ":nessie-protobuf-relocated", configuration = "shadow"))
   implementation(libs.slf4j.api)
+  implementation(libs.zstd.jni)
 
   compileOnly(libs.immutables.builder)
   compileOnly(libs.immutables.value.annotations)
@@ -61,6 +64,7 @@ dependencies {
 
   jmhImplementation(libs.jmh.core)
   jmhImplementation(project(":nessie-versioned-storage-common-tests"))
+  jmhImplementation(project(":nessie-versioned-storage-inmemory"))
   jmhAnnotationProcessor(libs.jmh.generator.annprocess)
 }
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.indexes;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.projectnessie.versioned.storage.common.indexes.KeyBloomFilter.keyBloomFilter;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.commitOp;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.projectnessie.versioned.storage.common.objtypes.CommitOp;
+import org.projectnessie.versioned.storage.common.objtypes.CommitOp.Action;
+import org.projectnessie.versioned.storage.commontests.ImmutableRealisticKeySet;
+import org.projectnessie.versioned.storage.commontests.KeyIndexTestSet;
+
+/**
+ * Compares negative key lookups via {@link KeyBloomFilter} against deserializing the index stripe
+ * and looking up the key, using the same realistic key sets as {@link
+ * RealisticKeyIndexImplBench}.
+ */
+@Warmup(iterations = 2, time = 2000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(1)
+@Threads(4)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+public class KeyBloomFilterBench {
+  @State(Scope.Benchmark)
+  public static class BenchmarkParam {
+
+    @Param({"3", "5"})
+    public int namespaceLevels;
+
+    @Param({"25", "50"})
+    public int tablesPerNamespace;
+
+    @Param({"8", "10"})
+    public int bitsPerKey;
+
+    private KeyIndexTestSet<CommitOp> keyIndexTestSet;
+    private KeyBloomFilter keyFilter;
+    private List<StoreKey> missingKeys;
+
+    @Setup
+    public void init() {
+      this.keyIndexTestSet =
+          KeyIndexTestSet.<CommitOp>newGenerator()
+              .keySet(
+                  ImmutableRealisticKeySet.builder()
+                      .namespaceLevels(namespaceLevels)
+                      .foldersPerLevel(2)
+                      .tablesPerNamespace(tablesPerNamespace)
+                      .deterministic(true)
+                      .build())
+              .elementSupplier(key -> indexElement(key, commitOp(Action.ADD, 1, randomObjId())))
+              .elementSerializer(CommitOp.COMMIT_OP_SERIALIZER)
+              .build()
+              .generateIndexTestSet();
+
+      this.keyFilter = keyBloomFilter(keyIndexTestSet.keyIndex(), bitsPerKey);
+
+      this.missingKeys = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        missingKeys.add(key("missing", UUID.randomUUID().toString()));
+      }
+
+      long falsePositives = missingKeys.stream().filter(keyFilter::mightContain).count();
+      System.err.printf(
+          "%nNumber of tables: %d%nSerialized index size: %d%nKey filter size: %d%n"
+              + "False positives: %d / %d%n",
+          keyIndexTestSet.keys().size(),
+          keyIndexTestSet.serialized().size(),
+          keyFilter.serializedSize(),
+          falsePositives,
+          missingKeys.size());
+    }
+
+    StoreKey randomMissingKey() {
+      return missingKeys.get(ThreadLocalRandom.current().nextInt(missingKeys.size()));
+    }
+  }
+
+  @Benchmark
+  public boolean missingKeyViaFilter(BenchmarkParam param) {
+    return param.keyFilter.mightContain(param.randomMissingKey());
+  }
+
+  @Benchmark
+  public boolean missingKeyViaLoadedIndex(BenchmarkParam param) {
+    return param.keyIndexTestSet.keyIndex().contains(param.randomMissingKey());
+  }
+
+  @Benchmark
+  public boolean missingKeyViaDeserializedIndex(BenchmarkParam param) {
+    return param.keyIndexTestSet.deserialize().contains(param.randomMissingKey());
+  }
+
+  @Benchmark
+  public KeyBloomFilter buildFilter(BenchmarkParam param) {
+    return keyBloomFilter(param.keyIndexTestSet.keyIndex(), param.bitsPerKey);
+  }
+}
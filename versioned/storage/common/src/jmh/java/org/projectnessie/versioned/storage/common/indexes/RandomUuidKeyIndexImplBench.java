@@ -55,6 +55,12 @@ public class RandomUuidKeyIndexImplBench {
     @Param({"1000", "10000", "100000", "200000"})
     public int keys;
 
+    @Param({"1", "2"})
+    public int serializationVersion;
+
+    @Param({"false", "true"})
+    public boolean readOnly;
+
     private KeyIndexTestSet<CommitOp> keyIndexTestSet;
 
     @Setup
@@ -64,6 +70,8 @@ public class RandomUuidKeyIndexImplBench {
               .keySet(ImmutableRandomUuidKeySet.builder().numKeys(keys).build())
               .elementSupplier(key -> indexElement(key, commitOp(Action.ADD, 1, randomObjId())))
               .elementSerializer(CommitOp.COMMIT_OP_SERIALIZER)
+              .serializationVersion(serializationVersion)
+              .readOnly(readOnly)
               .build();
 
       this.keyIndexTestSet = builder.generateIndexTestSet();
@@ -88,4 +96,9 @@ public class RandomUuidKeyIndexImplBench {
   public void randomGetKey(BenchmarkParam param, Blackhole bh) {
     bh.consume(param.keyIndexTestSet.randomGetKey());
   }
+
+  @Benchmark
+  public void deserializeRandomGetKey(BenchmarkParam param, Blackhole bh) {
+    bh.consume(param.keyIndexTestSet.deserializeRandomGetKey());
+  }
 }
@@ -63,6 +63,12 @@ public class RealisticKeyIndexImplBench {
     @Param({"false", "true"})
     public boolean deterministic;
 
+    @Param({"1", "2"})
+    public int serializationVersion;
+
+    @Param({"false", "true"})
+    public boolean readOnly;
+
     private KeyIndexTestSet<CommitOp> keyIndexTestSet;
 
     @Setup
@@ -78,6 +84,8 @@ public class RealisticKeyIndexImplBench {
                       .build())
               .elementSupplier(key -> indexElement(key, commitOp(Action.ADD, 1, randomObjId())))
               .elementSerializer(CommitOp.COMMIT_OP_SERIALIZER)
+              .serializationVersion(serializationVersion)
+              .readOnly(readOnly)
               .build();
 
       this.keyIndexTestSet = builder.generateIndexTestSet();
@@ -102,4 +110,9 @@ public class RealisticKeyIndexImplBench {
   public void randomGetKey(BenchmarkParam param, Blackhole bh) {
     bh.consume(param.keyIndexTestSet.randomGetKey());
   }
+
+  @Benchmark
+  public void deserializeRandomGetKey(BenchmarkParam param, Blackhole bh) {
+    bh.consume(param.keyIndexTestSet.deserializeRandomGetKey());
+  }
 }
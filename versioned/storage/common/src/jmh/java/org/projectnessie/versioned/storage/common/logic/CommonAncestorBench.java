@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.logic;
+
+import static java.util.Collections.emptyList;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.projectnessie.versioned.storage.common.logic.CommitLogQuery.commitLogQuery;
+import static org.projectnessie.versioned.storage.common.logic.CreateCommit.newCommitBuilder;
+import static org.projectnessie.versioned.storage.common.logic.Logics.commitLogic;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitHeaders.EMPTY_COMMIT_HEADERS;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.inmemory.InmemoryBackendFactory;
+
+/**
+ * Compares {@link CommitLogic#findCommonAncestor(ObjId, ObjId)} against walking both commit logs
+ * one commit at a time, for two branches that share a deep history and forked some commits ago.
+ */
+@Warmup(iterations = 2, time = 2000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 3, time = 1000, timeUnit = MILLISECONDS)
+@Fork(1)
+@Threads(4)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+public class CommonAncestorBench {
+  @State(Scope.Benchmark)
+  public static class BenchmarkParam {
+
+    @Param({"100", "10000"})
+    public int sharedCommits;
+
+    @Param({"10", "1000"})
+    public int commitsSinceFork;
+
+    private CommitLogic commitLogic;
+    private ObjId forkPoint;
+    private ObjId head1;
+    private ObjId head2;
+
+    @Setup
+    public void init() throws Exception {
+      InmemoryBackendFactory factory = new InmemoryBackendFactory();
+      Persist persist =
+          factory
+              .buildBackend(factory.newConfigInstance())
+              .createFactory()
+              .newPersist(StoreConfig.Adjustable.empty());
+      commitLogic = commitLogic(persist);
+
+      forkPoint = commits(EMPTY_OBJ_ID, "shared", sharedCommits);
+      head1 = commits(forkPoint, "branch1", commitsSinceFork);
+      head2 = commits(forkPoint, "branch2", commitsSinceFork);
+
+      if (!forkPoint.equals(commitLogic.findCommonAncestor(head1, head2))
+          || !forkPoint.equals(alternatingWalk(commitLogic, head1, head2))) {
+        throw new IllegalStateException("Unexpected common ancestor");
+      }
+    }
+
+    private ObjId commits(ObjId parent, String prefix, int num) throws Exception {
+      for (int i = 0; i < num; i++) {
+        parent =
+            requireNonNull(
+                    commitLogic.doCommit(
+                        newCommitBuilder()
+                            .parentCommitId(parent)
+                            .headers(EMPTY_COMMIT_HEADERS)
+                            .message(prefix + " #" + i)
+                            .build(),
+                        emptyList()))
+                .id();
+      }
+      return parent;
+    }
+  }
+
+  @Benchmark
+  public ObjId findCommonAncestor(BenchmarkParam param) {
+    return param.commitLogic.findCommonAncestor(param.head1, param.head2);
+  }
+
+  @Benchmark
+  public ObjId alternatingWalk(BenchmarkParam param) {
+    return alternatingWalk(param.commitLogic, param.head1, param.head2);
+  }
+
+  /** Walks both commit logs alternately, one commit at a time, until a commit is seen twice. */
+  static ObjId alternatingWalk(CommitLogic commitLogic, ObjId headId, ObjId otherId) {
+    PagedResult<ObjId, ObjId> log1 = commitLogic.commitIdLog(commitLogQuery(headId));
+    PagedResult<ObjId, ObjId> log2 = commitLogic.commitIdLog(commitLogQuery(otherId));
+    Set<ObjId> commits1 = new HashSet<>();
+    Set<ObjId> commits2 = new HashSet<>();
+    while (log1.hasNext() || log2.hasNext()) {
+      if (log1.hasNext()) {
+        ObjId id = log1.next();
+        if (commits2.contains(id)) {
+          return id;
+        }
+        commits1.add(id);
+      }
+      if (log2.hasNext()) {
+        ObjId id = log2.next();
+        if (commits1.contains(id)) {
+          return id;
+        }
+        commits2.add(id);
+      }
+    }
+    throw new IllegalStateException("No common ancestor");
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.config;
+
+/** Strategies to compute the sleep time between commit retries, see {@link StoreConfig}. */
+public enum RetryBackoffPolicy {
+  /**
+   * Every commit retry loop starts with a random sleep time between {@link
+   * StoreConfig#retryInitialSleepMillisLower()} and {@link
+   * StoreConfig#retryInitialSleepMillisUpper()}, both bounds are doubled for every retry until
+   * {@link StoreConfig#retryMaxSleepMillis()} is reached.
+   */
+  EXPONENTIAL,
+  /**
+   * Like {@link #EXPONENTIAL}, but the initial sleep time bounds of a commit retry loop adapt to
+   * the recently observed contention on the reference being updated: every failed reference update
+   * doubles the initial lower bound for that reference (up to {@link
+   * StoreConfig#retryMaxSleepMillis()}), every successful update decreases it by {@link
+   * StoreConfig#retryInitialSleepMillisLower()} again (multiplicative increase, additive decrease).
+   */
+  ADAPTIVE
+}
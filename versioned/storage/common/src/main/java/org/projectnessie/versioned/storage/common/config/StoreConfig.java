@@ -20,9 +20,11 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.time.Clock;
 import java.time.Instant;
+import java.util.Locale;
 import java.util.function.Function;
 import org.immutables.value.Value;
 import org.projectnessie.versioned.storage.common.objtypes.CommitObj;
+import org.projectnessie.versioned.storage.common.objtypes.Compression;
 import org.projectnessie.versioned.storage.common.objtypes.IndexObj;
 import org.projectnessie.versioned.storage.common.objtypes.IndexSegmentsObj;
 import org.projectnessie.versioned.storage.common.persist.Persist;
@@ -50,6 +52,9 @@ public interface StoreConfig {
   String CONFIG_RETRY_MAX_SLEEP_MILLIS = "retry-max-sleep-millis";
   int DEFAULT_RETRY_MAX_SLEEP_MILLIS = 250;
 
+  String CONFIG_RETRY_BACKOFF_POLICY = "retry-backoff-policy";
+  RetryBackoffPolicy DEFAULT_RETRY_BACKOFF_POLICY = RetryBackoffPolicy.EXPONENTIAL;
+
   String CONFIG_MAX_INCREMENTAL_INDEX_SIZE = "max-incremental-index-size";
   int DEFAULT_MAX_INCREMENTAL_INDEX_SIZE = 50 * 1024;
 
@@ -59,12 +64,42 @@ public interface StoreConfig {
   String CONFIG_MAX_REFERENCE_STRIPES_PER_COMMIT = "max-reference-stripes-per-commit";
   int DEFAULT_MAX_REFERENCE_STRIPES_PER_COMMIT = 50;
 
+  String CONFIG_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY = "index-stripe-key-filter-bits-per-key";
+  int DEFAULT_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY = 8;
+
+  String CONFIG_INDEX_SERIALIZATION_VERSION = "index-serialization-version";
+  int DEFAULT_INDEX_SERIALIZATION_VERSION = 1;
+
+  String CONFIG_INDEX_STRIPE_READ_AHEAD = "index-stripe-read-ahead";
+  int DEFAULT_INDEX_STRIPE_READ_AHEAD = 4;
+
+  String CONFIG_INDEX_COMPRESSION = "index-compression";
+  Compression DEFAULT_INDEX_COMPRESSION = Compression.NONE;
+
+  String CONFIG_VALUE_COMPRESSION = "value-compression";
+  Compression DEFAULT_VALUE_COMPRESSION = Compression.NONE;
+
+  String CONFIG_COMPRESSION_MIN_SIZE = "compression-min-size";
+  int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+
   String CONFIG_ASSUMED_WALL_CLOCK_DRIFT_MICROS = "assumed-wall-clock-drift-micros";
   long DEFAULT_ASSUMED_WALL_CLOCK_DRIFT_MICROS = 5_000_000L;
 
   String CONFIG_NAMESPACE_VALIDATION = "namespace-validation";
   boolean DEFAULT_NAMESPACE_VALIDATION = true;
 
+  String CONFIG_GROUP_COMMIT_MAX_COMMITS = "group-commit-max-commits";
+  int DEFAULT_GROUP_COMMIT_MAX_COMMITS = 0;
+
+  String CONFIG_COMMIT_SEQUENCING = "commit-sequencing";
+  boolean DEFAULT_COMMIT_SEQUENCING = false;
+
+  String CONFIG_COMMIT_LOG_READ_AHEAD = "commit-log-read-ahead";
+  int DEFAULT_COMMIT_LOG_READ_AHEAD = 0;
+
+  String CONFIG_MERGE_BASE_CACHE_SIZE = "merge-base-cache-size";
+  int DEFAULT_MERGE_BASE_CACHE_SIZE = 10_000;
+
   /**
    * Committing operations by default enforce that all (parent) namespaces exist.
    *
@@ -172,6 +207,20 @@ public interface StoreConfig {
     return DEFAULT_RETRY_MAX_SLEEP_MILLIS;
   }
 
+  /**
+   * The strategy to compute the sleep times between commit retries, defaults to {@link
+   * RetryBackoffPolicy#EXPONENTIAL}. {@link RetryBackoffPolicy#ADAPTIVE} adapts the initial sleep
+   * time to the recently observed contention on the updated reference.
+   *
+   * @see #retryInitialSleepMillisLower()
+   * @see #retryInitialSleepMillisUpper()
+   * @see #retryMaxSleepMillis()
+   */
+  @Value.Default
+  default RetryBackoffPolicy retryBackoffPolicy() {
+    return DEFAULT_RETRY_BACKOFF_POLICY;
+  }
+
   /**
    * The number of parent-commit-hashes stored in {@link CommitObj#tail()}. Defaults to {@value
    * #DEFAULT_PARENTS_PER_COMMIT}.
@@ -222,6 +271,95 @@ public interface StoreConfig {
     return DEFAULT_MAX_REFERENCE_STRIPES_PER_COMMIT;
   }
 
+  /**
+   * Number of bits per key used for the {@link
+   * org.projectnessie.versioned.storage.common.indexes.KeyBloomFilter bloom filters} that are
+   * stored alongside each {@link org.projectnessie.versioned.storage.common.objtypes.IndexStripe
+   * reference index stripe}. A negative answer from a stripe's key filter saves loading the stripe.
+   * 8 bits per key yield roughly 2% false positives. Setting this value to {@code 0} disables key
+   * filters for new stripes, defaults to {@value #DEFAULT_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY}.
+   *
+   * <p>The total size of the key filters is limited to a quarter of the {@link
+   * #maxIncrementalIndexSize()} for stripes stored inside a commit, and to a quarter of the {@link
+   * #maxSerializedIndexSize()} for stripes stored in an {@link IndexSegmentsObj}, stripes beyond
+   * that budget do not get a key filter.
+   */
+  @Value.Default
+  default int indexStripeKeyFilterBitsPerKey() {
+    return DEFAULT_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY;
+  }
+
+  /**
+   * Serialization version used when writing {@link IndexObj reference index segments}, defaults to
+   * {@value #DEFAULT_INDEX_SERIALIZATION_VERSION}. Version {@code 2} adds restart points to each
+   * segment, which allow point lookups without decoding the whole segment.
+   *
+   * <p>Both versions are always readable by this Nessie version, but Nessie versions that do not
+   * support version {@code 2} fail to read such segments. Only set this value to {@code 2} once all
+   * Nessie instances accessing the repository support it, and do not roll back to an older version
+   * afterwards.
+   */
+  @Value.Default
+  default int indexSerializationVersion() {
+    return DEFAULT_INDEX_SERIALIZATION_VERSION;
+  }
+
+  /**
+   * Number of {@link org.projectnessie.versioned.storage.common.objtypes.IndexStripe reference
+   * index stripes} following the current stripe that are fetched ahead during range iterations over
+   * a reference index, for example when listing entries. Setting this value to {@code 0} fetches
+   * each stripe individually when the iteration reaches it, defaults to {@value
+   * #DEFAULT_INDEX_STRIPE_READ_AHEAD}.
+   *
+   * <p>Read-ahead stripes are fetched {@linkplain
+   * org.projectnessie.versioned.storage.common.persist.Persist#fetchObjsAsync asynchronously} when
+   * the iteration enters a stripe, the iteration only waits for a stripe when it reaches it.
+   */
+  @Value.Default
+  default int indexStripeReadAhead() {
+    return DEFAULT_INDEX_STRIPE_READ_AHEAD;
+  }
+
+  /**
+   * Compression applied to the serialized key index of {@link IndexObj reference index segments}
+   * when those are persisted, defaults to {@link Compression#NONE}. Supported values are {@link
+   * Compression#NONE}, {@link Compression#DEFLATE}, {@link Compression#GZIP}, {@link
+   * Compression#ZSTD} and {@link Compression#LZ4}.
+   *
+   * <p>Objects that have been persisted without compression remain readable after enabling
+   * compression. Compressed objects however cannot be read by Nessie versions that do not support
+   * compression.
+   *
+   * @see #compressionMinSize()
+   */
+  @Value.Default
+  default Compression indexCompression() {
+    return DEFAULT_INDEX_COMPRESSION;
+  }
+
+  /**
+   * Compression applied to the serialized content of {@link
+   * org.projectnessie.versioned.storage.common.objtypes.ContentValueObj content values} when
+   * those are persisted, defaults to {@link Compression#NONE}. Supported values are the same as for
+   * {@link #indexCompression()}.
+   *
+   * @see #compressionMinSize()
+   */
+  @Value.Default
+  default Compression valueCompression() {
+    return DEFAULT_VALUE_COMPRESSION;
+  }
+
+  /**
+   * Minimum size in bytes of a payload to be compressed, see {@link #indexCompression()} and {@link
+   * #valueCompression()}, defaults to {@value #DEFAULT_COMPRESSION_MIN_SIZE}. Compressed payloads
+   * are only persisted if they are smaller than the uncompressed payload.
+   */
+  @Value.Default
+  default int compressionMinSize() {
+    return DEFAULT_COMPRESSION_MIN_SIZE;
+  }
+
   /**
    * The assumed wall-clock drift between multiple Nessie instances in microseconds, defaults to
    * {@value #DEFAULT_ASSUMED_WALL_CLOCK_DRIFT_MICROS}.
@@ -231,6 +369,63 @@ public interface StoreConfig {
     return DEFAULT_ASSUMED_WALL_CLOCK_DRIFT_MICROS;
   }
 
+  /**
+   * Maximum number of concurrent commits to the same branch that are applied together by one Nessie
+   * instance, defaults to {@value #DEFAULT_GROUP_COMMIT_MAX_COMMITS}, values less than {@code 2}
+   * disable group commits.
+   *
+   * <p>With group commits, concurrent commits to the same branch are queued. One of the committing
+   * threads applies all queued commits one after another as a chain of commits and then updates
+   * the branch's HEAD once, instead of letting all commits compete for the reference update.
+   */
+  @Value.Default
+  default int groupCommitMaxCommits() {
+    return DEFAULT_GROUP_COMMIT_MAX_COMMITS;
+  }
+
+  /**
+   * Whether committing operations against the same branch are sequenced within one Nessie instance,
+   * defaults to {@value #DEFAULT_COMMIT_SEQUENCING}.
+   *
+   * <p>When enabled, only one committing operation per branch is in flight at any time, other
+   * operations wait in a fair queue. Commit retries then only happen because of concurrent changes
+   * from other Nessie instances.
+   */
+  @Value.Default
+  default boolean commitSequencing() {
+    return DEFAULT_COMMIT_SEQUENCING;
+  }
+
+  /**
+   * Number of batches of parent commits that are fetched ahead while walking the commit log,
+   * defaults to {@value #DEFAULT_COMMIT_LOG_READ_AHEAD}, which fetches the next batch only when the
+   * current batch has been consumed.
+   *
+   * <p>The IDs of the next batch are known as soon as the last commit of a batch has been fetched,
+   * so up to this number of batches are requested {@link
+   * org.projectnessie.versioned.storage.common.persist.Persist#fetchObjsAsync asynchronously}
+   * without waiting for the consumer.
+   * Only backends with a native asynchronous implementation benefit from this setting, for other
+   * backends read-ahead only adds fetches of commits that might not be consumed.
+   */
+  @Value.Default
+  default int commitLogReadAhead() {
+    return DEFAULT_COMMIT_LOG_READ_AHEAD;
+  }
+
+  /**
+   * Maximum number of commit pairs for which the common ancestor is cached, defaults to {@value
+   * #DEFAULT_MERGE_BASE_CACHE_SIZE}, {@code 0} disables the cache.
+   *
+   * <p>The cache is used when listing references with the common ancestor or ahead/behind
+   * information, so that repeated listings do not have to walk the commit logs again. Commits are
+   * immutable, so cached entries never become stale.
+   */
+  @Value.Default
+  default int mergeBaseCacheSize() {
+    return DEFAULT_MERGE_BASE_CACHE_SIZE;
+  }
+
   /** The {@link Clock} to use, do not change for production. */
   @Value.Default
   default Clock clock() {
@@ -289,6 +484,10 @@ public interface StoreConfig {
       if (v != null) {
         a = a.withRetryMaxSleepMillis(Long.parseLong(v.trim()));
       }
+      v = configFunction.apply(CONFIG_RETRY_BACKOFF_POLICY);
+      if (v != null) {
+        a = a.withRetryBackoffPolicy(RetryBackoffPolicy.valueOf(v.trim().toUpperCase(Locale.ROOT)));
+      }
       v = configFunction.apply(CONFIG_PARENTS_PER_COMMIT);
       if (v != null) {
         a = a.withParentsPerCommit(Integer.parseInt(v.trim()));
@@ -305,6 +504,30 @@ public interface StoreConfig {
       if (v != null) {
         a = a.withMaxReferenceStripesPerCommit(Integer.parseInt(v.trim()));
       }
+      v = configFunction.apply(CONFIG_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY);
+      if (v != null) {
+        a = a.withIndexStripeKeyFilterBitsPerKey(Integer.parseInt(v.trim()));
+      }
+      v = configFunction.apply(CONFIG_INDEX_SERIALIZATION_VERSION);
+      if (v != null) {
+        a = a.withIndexSerializationVersion(Integer.parseInt(v.trim()));
+      }
+      v = configFunction.apply(CONFIG_INDEX_STRIPE_READ_AHEAD);
+      if (v != null) {
+        a = a.withIndexStripeReadAhead(Integer.parseInt(v.trim()));
+      }
+      v = configFunction.apply(CONFIG_INDEX_COMPRESSION);
+      if (v != null) {
+        a = a.withIndexCompression(Compression.valueOf(v.trim().toUpperCase(Locale.ROOT)));
+      }
+      v = configFunction.apply(CONFIG_VALUE_COMPRESSION);
+      if (v != null) {
+        a = a.withValueCompression(Compression.valueOf(v.trim().toUpperCase(Locale.ROOT)));
+      }
+      v = configFunction.apply(CONFIG_COMPRESSION_MIN_SIZE);
+      if (v != null) {
+        a = a.withCompressionMinSize(Integer.parseInt(v.trim()));
+      }
       v = configFunction.apply(CONFIG_ASSUMED_WALL_CLOCK_DRIFT_MICROS);
       if (v != null) {
         a = a.withAssumedWallClockDriftMicros(Integer.parseInt(v.trim()));
@@ -313,6 +536,22 @@ public interface StoreConfig {
       if (v != null) {
         a = a.withValidateNamespaces(Boolean.parseBoolean(v.trim()));
       }
+      v = configFunction.apply(CONFIG_GROUP_COMMIT_MAX_COMMITS);
+      if (v != null) {
+        a = a.withGroupCommitMaxCommits(Integer.parseInt(v.trim()));
+      }
+      v = configFunction.apply(CONFIG_COMMIT_SEQUENCING);
+      if (v != null) {
+        a = a.withCommitSequencing(Boolean.parseBoolean(v.trim()));
+      }
+      v = configFunction.apply(CONFIG_COMMIT_LOG_READ_AHEAD);
+      if (v != null) {
+        a = a.withCommitLogReadAhead(Integer.parseInt(v.trim()));
+      }
+      v = configFunction.apply(CONFIG_MERGE_BASE_CACHE_SIZE);
+      if (v != null) {
+        a = a.withMergeBaseCacheSize(Integer.parseInt(v.trim()));
+      }
       return a;
     }
 
@@ -334,6 +573,9 @@ public interface StoreConfig {
     /** See {@link StoreConfig#retryMaxSleepMillis()}. */
     Adjustable withRetryMaxSleepMillis(long retryMaxSleepMillis);
 
+    /** See {@link StoreConfig#retryBackoffPolicy()}. */
+    Adjustable withRetryBackoffPolicy(RetryBackoffPolicy retryBackoffPolicy);
+
     /** See {@link StoreConfig#parentsPerCommit()}. */
     Adjustable withParentsPerCommit(int parentsPerCommit);
 
@@ -346,12 +588,42 @@ public interface StoreConfig {
     /** See {@link StoreConfig#maxReferenceStripesPerCommit()}. */
     Adjustable withMaxReferenceStripesPerCommit(int maxReferenceStripesPerCommit);
 
+    /** See {@link StoreConfig#indexStripeKeyFilterBitsPerKey()}. */
+    Adjustable withIndexStripeKeyFilterBitsPerKey(int indexStripeKeyFilterBitsPerKey);
+
+    /** See {@link StoreConfig#indexSerializationVersion()}. */
+    Adjustable withIndexSerializationVersion(int indexSerializationVersion);
+
+    /** See {@link StoreConfig#indexStripeReadAhead()}. */
+    Adjustable withIndexStripeReadAhead(int indexStripeReadAhead);
+
+    /** See {@link StoreConfig#indexCompression()}. */
+    Adjustable withIndexCompression(Compression indexCompression);
+
+    /** See {@link StoreConfig#valueCompression()}. */
+    Adjustable withValueCompression(Compression valueCompression);
+
+    /** See {@link StoreConfig#compressionMinSize()}. */
+    Adjustable withCompressionMinSize(int compressionMinSize);
+
     /** See {@link StoreConfig#assumedWallClockDriftMicros()}. */
     Adjustable withAssumedWallClockDriftMicros(long assumedWallClockDriftMicros);
 
     /** See {@link StoreConfig#validateNamespaces ()} ()}. */
     Adjustable withValidateNamespaces(boolean validateNamespaces);
 
+    /** See {@link StoreConfig#groupCommitMaxCommits()}. */
+    Adjustable withGroupCommitMaxCommits(int groupCommitMaxCommits);
+
+    /** See {@link StoreConfig#commitSequencing()}. */
+    Adjustable withCommitSequencing(boolean commitSequencing);
+
+    /** See {@link StoreConfig#commitLogReadAhead()}. */
+    Adjustable withCommitLogReadAhead(int commitLogReadAhead);
+
+    /** See {@link StoreConfig#mergeBaseCacheSize()}. */
+    Adjustable withMergeBaseCacheSize(int mergeBaseCacheSize);
+
     /** See {@link StoreConfig#clock()}. */
     Adjustable withClock(Clock clock);
   }
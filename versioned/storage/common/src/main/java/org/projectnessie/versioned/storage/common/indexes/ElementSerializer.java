@@ -28,4 +28,12 @@ public interface ElementSerializer<V> {
    * ByteBuffer} only contains data for the value to deserialize, other data likely follows.
    */
   V deserialize(ByteBuffer buffer);
+
+  /**
+   * Skips over a serialized value in {@code buffer}, used by lookups that operate directly on the
+   * serialized representation of an index. The default implementation deserializes the value.
+   */
+  default void skip(ByteBuffer buffer) {
+    deserialize(buffer);
+  }
 }
@@ -0,0 +1,441 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.indexes;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.singletonList;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexImpl.MAX_KEY_BYTES;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexImpl.newKeyBuffer;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.findPositionAfterKey;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.keyFromString;
+
+import com.google.common.collect.AbstractIterator;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.util.Ser;
+
+/**
+ * Read-only implementation of {@link StoreIndex} that keeps all keys and values in flat arrays,
+ * intended for index segments that are only read, like reference index segments using the
+ * "version 1" serialization.
+ *
+ * <p>{@link StoreIndexImpl} holds a {@link StoreIndexElement} with a {@link StoreKey}, its {@link
+ * String} and a deserialized value per element. This implementation holds the UTF-8 encoded keys in
+ * a single {@code byte[]} and the serialized values in another {@code byte[]}, plus one {@code
+ * int[]} offsets array for each. {@link StoreIndexElement}s are only created when accessed.
+ *
+ * <p>UTF-8 encoded keys do not sort like {@link StoreKey#compareTo(StoreKey)}, which compares
+ * UTF-16 code units: supplementary characters sort before {@code U+E000..U+FFFF} in UTF-16, but
+ * after those in UTF-8. The binary search therefore decodes the UTF-8 bytes to UTF-16 code units
+ * while comparing, which keeps the key storage compact without creating {@link StoreKey}
+ * instances.
+ *
+ * <p>Modifications are not supported, {@link #asMutableIndex()} decodes the whole segment into a
+ * {@link StoreIndexImpl}.
+ */
+final class FlatIndexImpl<V> implements StoreIndex<V> {
+
+  private final ElementSerializer<V> serializer;
+  private final int elementCount;
+  private final byte[] keyBytes;
+
+  /** Offsets of the keys in {@link #keyBytes}, has {@code elementCount + 1} elements. */
+  private final int[] keyOffsets;
+
+  private final byte[] values;
+
+  /** Offsets of the serialized values in {@link #values}, has {@code elementCount + 1} elements. */
+  private final int[] valueOffsets;
+
+  private final int serializedSize;
+
+  private ObjId objId;
+
+  private FlatIndexImpl(
+      ElementSerializer<V> serializer,
+      int elementCount,
+      byte[] keyBytes,
+      int[] keyOffsets,
+      byte[] values,
+      int[] valueOffsets,
+      int serializedSize) {
+    this.serializer = serializer;
+    this.elementCount = elementCount;
+    this.keyBytes = keyBytes;
+    this.keyOffsets = keyOffsets;
+    this.values = values;
+    this.valueOffsets = valueOffsets;
+    this.serializedSize = serializedSize;
+  }
+
+  /** Deserializes a key-index-segment using the "version 1" serialization. */
+  static <V> StoreIndex<V> deserializeFlatIndex(ByteBuffer serialized, ElementSerializer<V> ser) {
+    byte version = serialized.get();
+    checkArgument(version == 1, "Unsupported serialized representation of KeyIndexSegment");
+
+    int posPre = serialized.position();
+
+    // Assume an average element size of 64 bytes for the initial array sizes. Keys are prefix
+    // compressed in the serialized form, so start with twice its size for the key bytes. The arrays
+    // are grown as needed and trimmed at the end.
+    int estimatedElements = Math.max(serialized.remaining() / 64, 8);
+    byte[] keyBytes = new byte[Math.max(serialized.remaining() * 2, 64)];
+    int[] keyOffsets = new int[estimatedElements + 1];
+    byte[] values = new byte[serialized.remaining()];
+    int[] valueOffsets = new int[estimatedElements + 1];
+
+    // This buffer holds the previous key, reused.
+    ByteBuffer previousKey = newKeyBuffer();
+
+    int count = 0;
+    int keyPos = 0;
+    int valuePos = 0;
+    while (serialized.remaining() > 0) {
+      int strip = count == 0 ? 0 : Ser.readVarInt(serialized);
+
+      // strip
+      previousKey.position(previousKey.position() - strip);
+      previousKey.limit(MAX_KEY_BYTES);
+      // add
+      int limitSave = serialized.limit();
+      previousKey.put(serialized.limit(findPositionAfterKey(serialized)));
+      serialized.limit(limitSave);
+      // read key, without the trailing two 0 bytes of the serialized key
+      previousKey.flip();
+      int keyLen = previousKey.remaining() - 2;
+
+      if (count + 1 >= keyOffsets.length) {
+        int newLength = keyOffsets.length * 2;
+        keyOffsets = Arrays.copyOf(keyOffsets, newLength);
+        valueOffsets = Arrays.copyOf(valueOffsets, newLength);
+      }
+      if (keyPos + keyLen > keyBytes.length) {
+        keyBytes = Arrays.copyOf(keyBytes, Math.max(keyBytes.length * 2, keyPos + keyLen));
+      }
+      previousKey.get(keyBytes, keyPos, keyLen);
+      previousKey.position(previousKey.limit());
+      keyPos += keyLen;
+
+      // copy serialized value
+      int valueStart = serialized.position();
+      ser.skip(serialized);
+      int valueLen = serialized.position() - valueStart;
+      serialized.position(valueStart);
+      serialized.get(values, valuePos, valueLen);
+      valuePos += valueLen;
+
+      count++;
+      keyOffsets[count] = keyPos;
+      valueOffsets[count] = valuePos;
+    }
+
+    int len = serialized.position() - posPre;
+    return new FlatIndexImpl<>(
+        ser,
+        count,
+        Arrays.copyOf(keyBytes, keyPos),
+        Arrays.copyOf(keyOffsets, count + 1),
+        Arrays.copyOf(values, valuePos),
+        Arrays.copyOf(valueOffsets, count + 1),
+        len);
+  }
+
+  @Override
+  public boolean isModified() {
+    return false;
+  }
+
+  @Override
+  public ObjId getObjId() {
+    return objId;
+  }
+
+  @Override
+  public StoreIndex<V> setObjId(ObjId objId) {
+    this.objId = objId;
+    return this;
+  }
+
+  @Override
+  public StoreIndex<V> loadIfNecessary(Set<StoreKey> keys) {
+    return this;
+  }
+
+  @Override
+  public boolean isLoaded() {
+    return true;
+  }
+
+  @Override
+  public StoreIndex<V> asMutableIndex() {
+    List<StoreIndexElement<V>> elements = new ArrayList<>(elementCount);
+    for (int i = 0; i < elementCount; i++) {
+      elements.add(element(i));
+    }
+    return new StoreIndexImpl<>(elements, serializedSize, serializer, false).setObjId(objId);
+  }
+
+  @Override
+  public boolean isMutable() {
+    return false;
+  }
+
+  @Override
+  public List<StoreIndex<V>> divide(int parts) {
+    return asMutableIndex().divide(parts);
+  }
+
+  @Override
+  public List<StoreIndex<V>> stripes() {
+    return singletonList(this);
+  }
+
+  @Override
+  public int elementCount() {
+    return elementCount;
+  }
+
+  @Override
+  public int estimatedSerializedSize() {
+    return serializedSize + 1;
+  }
+
+  @Override
+  public boolean add(@Nonnull @jakarta.annotation.Nonnull StoreIndexElement<V> element) {
+    throw unsupported();
+  }
+
+  @Override
+  public void updateAll(Function<StoreIndexElement<V>, V> updater) {
+    throw unsupported();
+  }
+
+  @Override
+  public boolean remove(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    throw unsupported();
+  }
+
+  @Override
+  public boolean contains(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    return search(key) >= 0;
+  }
+
+  @Nullable
+  @jakarta.annotation.Nullable
+  @Override
+  public StoreIndexElement<V> get(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    int idx = search(key);
+    if (idx < 0) {
+      return null;
+    }
+    return indexElement(key, value(idx));
+  }
+
+  @Nullable
+  @jakarta.annotation.Nullable
+  @Override
+  public StoreKey first() {
+    return elementCount == 0 ? null : key(0);
+  }
+
+  @Nullable
+  @jakarta.annotation.Nullable
+  @Override
+  public StoreKey last() {
+    return elementCount == 0 ? null : key(elementCount - 1);
+  }
+
+  @Override
+  public List<StoreKey> asKeyList() {
+    return new AbstractList<StoreKey>() {
+      @Override
+      public StoreKey get(int index) {
+        return key(index);
+      }
+
+      @Override
+      public int size() {
+        return elementCount;
+      }
+    };
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public Iterator<StoreIndexElement<V>> iterator(
+      @Nullable @jakarta.annotation.Nullable StoreKey begin,
+      @Nullable @jakarta.annotation.Nullable StoreKey end,
+      boolean prefetch) {
+    boolean prefix = begin != null && begin.equals(end);
+    int fromIdx = begin != null ? iteratorIndex(begin, 0) : 0;
+    int toIdx = !prefix && end != null ? iteratorIndex(end, 1) : elementCount;
+
+    checkArgument(toIdx >= fromIdx, "'to' must be greater than 'from'");
+
+    if (fromIdx == toIdx) {
+      return emptyIterator();
+    }
+
+    return new AbstractIterator<StoreIndexElement<V>>() {
+      int idx = fromIdx;
+
+      @Override
+      protected StoreIndexElement<V> computeNext() {
+        if (idx >= toIdx) {
+          return endOfData();
+        }
+        StoreKey key = key(idx);
+        if (prefix && !key.startsWith(begin)) {
+          return endOfData();
+        }
+        return indexElement(key, value(idx++));
+      }
+    };
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public ByteString serialize() {
+    return asMutableIndex().serialize();
+  }
+
+  @Override
+  public String toString() {
+    StoreKey f = first();
+    StoreKey l = last();
+    String fk = f != null ? f.toString() : "";
+    String lk = l != null ? l.toString() : "";
+    return "FlatIndexImpl{size=" + elementCount + ", first=" + fk + ", last=" + lk + "}";
+  }
+
+  private StoreIndexElement<V> element(int idx) {
+    return indexElement(key(idx), value(idx));
+  }
+
+  private StoreKey key(int idx) {
+    int off = keyOffsets[idx];
+    return keyFromString(new String(keyBytes, off, keyOffsets[idx + 1] - off, UTF_8));
+  }
+
+  private V value(int idx) {
+    int off = valueOffsets[idx];
+    return serializer.deserialize(ByteBuffer.wrap(values, off, valueOffsets[idx + 1] - off));
+  }
+
+  private int iteratorIndex(StoreKey from, int exactAdd) {
+    int fromIdx = search(from);
+    if (fromIdx < 0) {
+      fromIdx = -fromIdx - 1;
+    } else {
+      fromIdx += exactAdd;
+    }
+    return fromIdx;
+  }
+
+  /**
+   * Binary search over the keys, same contract as {@link java.util.Collections#binarySearch(List,
+   * Object)}.
+   */
+  private int search(StoreKey key) {
+    String k = key.rawString();
+    int low = 0;
+    int high = elementCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compareKey(mid, k);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Compares the key at the given index with {@code key}, returns a value with the same sign as
+   * {@link String#compareTo}. Decodes the UTF-8 bytes of the key at the given index to UTF-16 code
+   * units, see the class javadoc.
+   */
+  private int compareKey(int idx, String key) {
+    byte[] bytes = keyBytes;
+    int p = keyOffsets[idx];
+    int end = keyOffsets[idx + 1];
+    int keyLen = key.length();
+    int i = 0;
+    // Low surrogate of a decoded supplementary character, never 0 when pending.
+    char pendingLow = 0;
+    while (true) {
+      boolean more = pendingLow != 0 || p < end;
+      if (!more || i == keyLen) {
+        return more ? 1 : (i == keyLen ? 0 : -1);
+      }
+
+      char c;
+      if (pendingLow != 0) {
+        c = pendingLow;
+        pendingLow = 0;
+      } else {
+        int b = bytes[p] & 0xff;
+        if (b < 0x80) {
+          c = (char) b;
+          p++;
+        } else if (b < 0xe0) {
+          c = (char) ((b & 0x1f) << 6 | (bytes[p + 1] & 0x3f));
+          p += 2;
+        } else if (b < 0xf0) {
+          c = (char) ((b & 0x0f) << 12 | (bytes[p + 1] & 0x3f) << 6 | (bytes[p + 2] & 0x3f));
+          p += 3;
+        } else {
+          int codePoint =
+              (b & 0x07) << 18
+                  | (bytes[p + 1] & 0x3f) << 12
+                  | (bytes[p + 2] & 0x3f) << 6
+                  | (bytes[p + 3] & 0x3f);
+          c = Character.highSurrogate(codePoint);
+          pendingLow = Character.lowSurrogate(codePoint);
+          p += 4;
+        }
+      }
+
+      char k = key.charAt(i++);
+      if (c != k) {
+        return c - k;
+      }
+    }
+  }
+
+  private static UnsupportedOperationException unsupported() {
+    return new UnsupportedOperationException("Flat indexes do not support this operation");
+  }
+}
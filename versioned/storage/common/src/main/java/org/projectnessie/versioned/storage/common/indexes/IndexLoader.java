@@ -15,6 +15,9 @@
  */
 package org.projectnessie.versioned.storage.common.indexes;
 
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.blocking;
+
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Nonnull;
 
 @FunctionalInterface
@@ -36,4 +39,16 @@ public interface IndexLoader<V> {
   @Nonnull
   @jakarta.annotation.Nonnull
   StoreIndex<V>[] loadIndexes(@Nonnull @jakarta.annotation.Nonnull StoreIndex<V>[] indexes);
+
+  /**
+   * Asynchronous variant of {@link #loadIndexes(StoreIndex[])}, used to read ahead stripes of a
+   * striped index while a range iteration still consumes the current stripe. The default
+   * implementation loads the indexes synchronously in the calling thread.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default CompletionStage<StoreIndex<V>[]> loadIndexesAsync(
+      @Nonnull @jakarta.annotation.Nonnull StoreIndex<V>[] indexes) {
+    return blocking(() -> loadIndexes(indexes));
+  }
 }
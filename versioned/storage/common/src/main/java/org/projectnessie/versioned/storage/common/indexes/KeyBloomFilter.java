@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.indexes;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import javax.annotation.Nonnull;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+
+/**
+ * Compact bloom filter over the {@link StoreKey}s of an index stripe, used to answer "key does not
+ * exist" without loading the stripe.
+ *
+ * <p>The serialized form consists of one byte holding the number of hash functions, followed by
+ * the bit set. Instances are backed by the serialized form. Hashes are derived from the 128-bit
+ * murmur3 hash of {@link StoreKey#rawString()} using double hashing, so the serialized form is
+ * stable across releases.
+ */
+public final class KeyBloomFilter {
+
+  @SuppressWarnings("UnstableApiUsage")
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private static final int MIN_BITS = 64;
+  private static final int MAX_HASHES = 16;
+
+  private final ByteString serialized;
+  private final int numHashes;
+  private final long numBits;
+
+  private KeyBloomFilter(ByteString serialized) {
+    this.serialized = serialized;
+    this.numHashes = serialized.byteAt(0);
+    this.numBits = (long) (serialized.size() - 1) * 8;
+  }
+
+  /**
+   * Builds a bloom filter containing all keys of the given index.
+   *
+   * @param index the (loaded) index to build the filter for
+   * @param bitsPerKey the number of bits per key, determines the false-positive-probability, 10
+   *     bits per key yield roughly 1% false positives
+   */
+  public static KeyBloomFilter keyBloomFilter(
+      @Nonnull @jakarta.annotation.Nonnull StoreIndex<?> index, int bitsPerKey) {
+    checkArgument(bitsPerKey > 0, "bitsPerKey must be positive");
+    int numKeys = index.elementCount();
+    int numBits = Math.max(MIN_BITS, numKeys * bitsPerKey);
+    int numHashes = Math.max(1, Math.min(MAX_HASHES, (int) Math.round(bitsPerKey * Math.log(2))));
+
+    byte[] bytes = new byte[(numBits + 7) / 8 + 1];
+    bytes[0] = (byte) numHashes;
+    long bitCount = (long) (bytes.length - 1) * 8;
+    for (StoreIndexElement<?> el : index) {
+      ByteBuffer hash = hash(el.key());
+      long combined = hash.getLong(0);
+      long h2 = hash.getLong(8);
+      for (int i = 0; i < numHashes; i++) {
+        long bit = (combined & Long.MAX_VALUE) % bitCount;
+        bytes[1 + (int) (bit >>> 3)] |= (byte) (1 << (bit & 7));
+        combined += h2;
+      }
+    }
+    return new KeyBloomFilter(ByteString.copyFrom(bytes));
+  }
+
+  /** Wraps the serialized representation of a key bloom filter, does not copy the data. */
+  public static KeyBloomFilter deserializeKeyBloomFilter(
+      @Nonnull @jakarta.annotation.Nonnull ByteString serialized) {
+    checkArgument(serialized.size() > 1, "Serialized key bloom filter too short");
+    int numHashes = serialized.byteAt(0);
+    checkArgument(
+        numHashes > 0 && numHashes <= MAX_HASHES,
+        "Illegal number of hashes in serialized key bloom filter: %s",
+        numHashes);
+    return new KeyBloomFilter(serialized);
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public ByteString serialize() {
+    return serialized;
+  }
+
+  public int serializedSize() {
+    return serialized.size();
+  }
+
+  /**
+   * Returns {@code false}, if the given key is definitely not contained in the index that this
+   * filter was built for, or {@code true}, if the key might be contained.
+   */
+  public boolean mightContain(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    ByteString bits = serialized;
+    ByteBuffer hash = hash(key);
+    long combined = hash.getLong(0);
+    long h2 = hash.getLong(8);
+    for (int i = 0; i < numHashes; i++) {
+      long bit = (combined & Long.MAX_VALUE) % numBits;
+      if ((bits.byteAt(1 + (int) (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+        return false;
+      }
+      combined += h2;
+    }
+    return true;
+  }
+
+  private static ByteBuffer hash(StoreKey key) {
+    return ByteBuffer.wrap(HASH_FUNCTION.hashString(key.rawString(), UTF_8).asBytes())
+        .order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -32,6 +32,7 @@ final class LazyIndexImpl<V> implements StoreIndex<V> {
   private final Supplier<StoreIndex<V>> loader;
   private boolean loaded;
   private ObjId objId;
+  private KeyBloomFilter keyFilter;
   private final StoreKey firstKey;
   private final StoreKey lastKey;
 
@@ -64,6 +65,26 @@ final class LazyIndexImpl<V> implements StoreIndex<V> {
     return this;
   }
 
+  @Override
+  public KeyBloomFilter getKeyFilter() {
+    return keyFilter;
+  }
+
+  @Override
+  public StoreIndex<V> setKeyFilter(KeyBloomFilter keyFilter) {
+    this.keyFilter = keyFilter;
+    return this;
+  }
+
+  /**
+   * Returns {@code true}, if this index has not been loaded yet and its key filter tells that the
+   * given key is definitely not contained in it.
+   */
+  private boolean definitelyNotContained(StoreKey key) {
+    KeyBloomFilter filter = keyFilter;
+    return !loaded && filter != null && !filter.mightContain(key);
+  }
+
   @Override
   public boolean isModified() {
     if (!loaded) {
@@ -74,6 +95,18 @@ final class LazyIndexImpl<V> implements StoreIndex<V> {
 
   @Override
   public StoreIndex<V> loadIfNecessary(Set<StoreKey> keys) {
+    if (keyFilter != null && !loaded) {
+      boolean any = false;
+      for (StoreKey key : keys) {
+        if (!definitelyNotContained(key)) {
+          any = true;
+          break;
+        }
+      }
+      if (!any) {
+        return this;
+      }
+    }
     return loaded().loadIfNecessary(keys);
   }
 
@@ -132,6 +165,9 @@ final class LazyIndexImpl<V> implements StoreIndex<V> {
     if (!loaded && (key.equals(firstKey) || key.equals(lastKey))) {
       return true;
     }
+    if (definitelyNotContained(key)) {
+      return false;
+    }
     return loaded().contains(key);
   }
 
@@ -139,6 +175,9 @@ final class LazyIndexImpl<V> implements StoreIndex<V> {
   @Nullable
   @jakarta.annotation.Nullable
   public StoreIndexElement<V> get(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    if (definitelyNotContained(key)) {
+      return null;
+    }
     return loaded().get(key);
   }
 
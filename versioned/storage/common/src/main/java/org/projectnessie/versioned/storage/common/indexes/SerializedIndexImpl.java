@@ -0,0 +1,484 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.indexes;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.singletonList;
+import static org.projectnessie.nessie.relocated.protobuf.UnsafeByteOperations.unsafeWrap;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexImpl.MAX_KEY_BYTES;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexImpl.newKeyBuffer;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.deserializeKey;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.findPositionAfterKey;
+import static org.projectnessie.versioned.storage.common.util.Ser.putVarInt;
+import static org.projectnessie.versioned.storage.common.util.Ser.readVarInt;
+
+import com.google.common.collect.AbstractIterator;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+
+/**
+ * Read-only implementation of {@link StoreIndex} that operates directly on the "version 2
+ * serialization" of key-index-segments, without decoding the whole segment.
+ *
+ * <p>"Version 2" uses the same diff-like key encoding and value serialization as "version 1", see
+ * {@link StoreIndexImpl}, but adds "restart points" like the data blocks of LevelDB/RocksDB: the
+ * key of every {@value #RESTART_INTERVAL}th element is written in its entirety, omitting the
+ * var-int that represents the number of bytes to "strip" from the previous key. The positions of
+ * those elements are written at the end of the serialized representation, so a lookup can
+ * binary-search over the restart points and only has to decode the elements between the nearest
+ * restart point and the requested key.
+ *
+ * <p>Serialized layout:
+ *
+ * <ul>
+ *   <li>1 byte: serialization version, {@code 2}
+ *   <li>1 byte: restart interval, number of elements per restart point
+ *   <li>4 bytes: number of elements
+ *   <li>serialized elements, same encoding as in "version 1", except that keys at restart points
+ *       are written in their entirety
+ *   <li>4 bytes per restart point: position of the element at the restart point
+ * </ul>
+ *
+ * <p>Modifications are not supported, {@link #asMutableIndex()} decodes the whole segment into a
+ * {@link StoreIndexImpl}.
+ */
+final class SerializedIndexImpl<V> implements StoreIndex<V> {
+
+  static final byte VERSION = 2;
+
+  static final int RESTART_INTERVAL = 16;
+
+  /** 1 byte version, 1 byte restart interval, 4 bytes number of elements. */
+  private static final int HEADER_SIZE = 1 + 1 + 4;
+
+  /** Assumed additional size of a full key written at a restart point. */
+  private static final int ASSUMED_RESTART_KEY_SIZE = 128;
+
+  private final ByteString serialized;
+  private final ByteBuffer buffer;
+  private final ElementSerializer<V> serializer;
+  private final int restartInterval;
+  private final int elementCount;
+  private final int numRestarts;
+  private final int restartsOffset;
+
+  private ObjId objId;
+
+  private SerializedIndexImpl(ByteString serialized, ElementSerializer<V> serializer) {
+    this.serialized = serialized;
+    this.serializer = serializer;
+
+    ByteBuffer buffer = serialized.asReadOnlyByteBuffer().slice();
+    checkArgument(
+        buffer.remaining() >= HEADER_SIZE && buffer.get(0) == VERSION,
+        "Unsupported serialized representation of KeyIndexSegment");
+    this.restartInterval = buffer.get(1) & 0xff;
+    this.elementCount = buffer.getInt(2);
+    checkArgument(
+        restartInterval > 0 && elementCount >= 0,
+        "Invalid serialized representation of KeyIndexSegment");
+    this.numRestarts = (elementCount + restartInterval - 1) / restartInterval;
+    this.restartsOffset = buffer.limit() - numRestarts * 4;
+    checkArgument(
+        restartsOffset >= HEADER_SIZE, "Invalid serialized representation of KeyIndexSegment");
+    this.buffer = buffer;
+  }
+
+  static <V> StoreIndex<V> deserializeSerializedIndex(
+      ByteString serialized, ElementSerializer<V> ser) {
+    return new SerializedIndexImpl<>(serialized, ser);
+  }
+
+  static <V> ByteString serializeWithRestartPoints(
+      StoreIndex<V> index, ElementSerializer<V> ser) {
+    int elementCount = index.elementCount();
+    int numRestarts = (elementCount + RESTART_INTERVAL - 1) / RESTART_INTERVAL;
+    int capacity =
+        index.estimatedSerializedSize()
+            + HEADER_SIZE
+            + numRestarts * (4 + ASSUMED_RESTART_KEY_SIZE);
+    while (true) {
+      try {
+        return serialize(index, ser, elementCount, numRestarts, ByteBuffer.allocate(capacity));
+      } catch (BufferOverflowException e) {
+        // The estimated serialized size does not account for restart points, which can be
+        // significantly bigger for long keys, retry with a bigger buffer.
+        capacity *= 2;
+      }
+    }
+  }
+
+  private static <V> ByteString serialize(
+      StoreIndex<V> index,
+      ElementSerializer<V> ser,
+      int elementCount,
+      int numRestarts,
+      ByteBuffer target) {
+    int[] restarts = new int[numRestarts];
+
+    target.put(VERSION);
+    target.put((byte) RESTART_INTERVAL);
+    target.putInt(elementCount);
+
+    ByteBuffer previousKey = newKeyBuffer();
+    ByteBuffer serializationBuffer = newKeyBuffer();
+
+    int i = 0;
+    for (StoreIndexElement<V> el : index) {
+      ByteBuffer keyBuf = el.key().serialize(serializationBuffer);
+      int keyPos = keyBuf.position();
+      if (i % RESTART_INTERVAL == 0) {
+        restarts[i / RESTART_INTERVAL] = target.position();
+      } else {
+        int mismatch = previousKey.mismatch(keyBuf);
+        checkState(mismatch != -1, "Previous and current keys must not be equal");
+        int strip = previousKey.remaining() - mismatch;
+        putVarInt(target, strip);
+        keyBuf.position(keyPos + mismatch);
+      }
+      target.put(keyBuf);
+
+      previousKey.clear();
+      keyBuf.position(keyPos);
+      previousKey.put(keyBuf);
+      previousKey.flip();
+
+      ser.serialize(el.content(), target);
+      i++;
+    }
+    checkState(i == elementCount, "Number of serialized elements does not match element count");
+
+    for (int restart : restarts) {
+      target.putInt(restart);
+    }
+
+    target.flip();
+    return unsafeWrap(target);
+  }
+
+  @Override
+  public boolean isModified() {
+    return false;
+  }
+
+  @Override
+  public ObjId getObjId() {
+    return objId;
+  }
+
+  @Override
+  public StoreIndex<V> setObjId(ObjId objId) {
+    this.objId = objId;
+    return this;
+  }
+
+  @Override
+  public StoreIndex<V> loadIfNecessary(Set<StoreKey> keys) {
+    return this;
+  }
+
+  @Override
+  public boolean isLoaded() {
+    return true;
+  }
+
+  @Override
+  public StoreIndex<V> asMutableIndex() {
+    List<StoreIndexElement<V>> elements = new ArrayList<>(elementCount);
+    for (StoreIndexElement<V> el : this) {
+      elements.add(el);
+    }
+    return new StoreIndexImpl<>(elements, serialized.size(), serializer, false).setObjId(objId);
+  }
+
+  @Override
+  public boolean isMutable() {
+    return false;
+  }
+
+  @Override
+  public List<StoreIndex<V>> divide(int parts) {
+    return asMutableIndex().divide(parts);
+  }
+
+  @Override
+  public List<StoreIndex<V>> stripes() {
+    return singletonList(this);
+  }
+
+  @Override
+  public int elementCount() {
+    return elementCount;
+  }
+
+  @Override
+  public int estimatedSerializedSize() {
+    return serialized.size();
+  }
+
+  @Override
+  public boolean add(@Nonnull @jakarta.annotation.Nonnull StoreIndexElement<V> element) {
+    throw unsupported();
+  }
+
+  @Override
+  public void updateAll(Function<StoreIndexElement<V>, V> updater) {
+    throw unsupported();
+  }
+
+  @Override
+  public boolean remove(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    throw unsupported();
+  }
+
+  @Override
+  public boolean contains(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    StoreKey found = new Cursor().seek(key);
+    return key.equals(found);
+  }
+
+  @Nullable
+  @jakarta.annotation.Nullable
+  @Override
+  public StoreIndexElement<V> get(@Nonnull @jakarta.annotation.Nonnull StoreKey key) {
+    Cursor cursor = new Cursor();
+    StoreKey found = cursor.seek(key);
+    if (!key.equals(found)) {
+      return null;
+    }
+    return indexElement(found, cursor.readValue());
+  }
+
+  @Nullable
+  @jakarta.annotation.Nullable
+  @Override
+  public StoreKey first() {
+    if (elementCount == 0) {
+      return null;
+    }
+    Cursor cursor = new Cursor();
+    cursor.seekRestart(0);
+    return cursor.readKey();
+  }
+
+  @Nullable
+  @jakarta.annotation.Nullable
+  @Override
+  public StoreKey last() {
+    if (elementCount == 0) {
+      return null;
+    }
+    Cursor cursor = new Cursor();
+    cursor.seekRestart(numRestarts - 1);
+    while (true) {
+      StoreKey key = cursor.readKey();
+      if (!cursor.hasNext()) {
+        return key;
+      }
+      cursor.skipValue();
+    }
+  }
+
+  @Override
+  public List<StoreKey> asKeyList() {
+    List<StoreKey> keys = new ArrayList<>(elementCount);
+    if (elementCount > 0) {
+      Cursor cursor = new Cursor();
+      cursor.seekRestart(0);
+      while (cursor.hasNext()) {
+        keys.add(cursor.readKey());
+        cursor.skipValue();
+      }
+    }
+    return keys;
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public Iterator<StoreIndexElement<V>> iterator(
+      @Nullable @jakarta.annotation.Nullable StoreKey begin,
+      @Nullable @jakarta.annotation.Nullable StoreKey end,
+      boolean prefetch) {
+    if (elementCount == 0) {
+      return emptyIterator();
+    }
+
+    boolean prefix = begin != null && begin.equals(end);
+    checkArgument(
+        prefix || begin == null || end == null || begin.compareTo(end) <= 0,
+        "'to' must be greater than 'from'");
+
+    Cursor cursor = new Cursor();
+    StoreKey startKey;
+    if (begin != null) {
+      startKey = cursor.seek(begin);
+      if (startKey == null) {
+        return emptyIterator();
+      }
+    } else {
+      cursor.seekRestart(0);
+      startKey = null;
+    }
+
+    Predicate<StoreKey> endCheck =
+        prefix ? k -> !k.startsWith(begin) : (end != null ? k -> end.compareTo(k) < 0 : k -> false);
+
+    return new AbstractIterator<StoreIndexElement<V>>() {
+      StoreKey pending = startKey;
+
+      @Override
+      protected StoreIndexElement<V> computeNext() {
+        StoreKey key = pending;
+        if (key != null) {
+          pending = null;
+        } else {
+          if (!cursor.hasNext()) {
+            return endOfData();
+          }
+          key = cursor.readKey();
+        }
+        if (endCheck.test(key)) {
+          return endOfData();
+        }
+        return indexElement(key, cursor.readValue());
+      }
+    };
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public ByteString serialize() {
+    return serialized;
+  }
+
+  @Override
+  public String toString() {
+    StoreKey f = first();
+    StoreKey l = last();
+    String fk = f != null ? f.toString() : "";
+    String lk = l != null ? l.toString() : "";
+    return "SerializedIndexImpl{size=" + elementCount + ", first=" + fk + ", last=" + lk + "}";
+  }
+
+  private static UnsupportedOperationException unsupported() {
+    return new UnsupportedOperationException("Serialized indexes do not support this operation");
+  }
+
+  /**
+   * Sequential reader over the serialized elements, always starts at a restart point. Reading an
+   * element is split into {@link #readKey()} followed by either {@link #readValue()} or {@link
+   * #skipValue()}.
+   */
+  private final class Cursor {
+    private final ByteBuffer buf = buffer.duplicate();
+
+    /** Holds the previous key, needed to reconstruct prefix-compressed keys. */
+    private final ByteBuffer previousKey = newKeyBuffer();
+
+    /** Index of the element whose key is read by the next call to {@link #readKey()}. */
+    private int next;
+
+    void seekRestart(int restart) {
+      buf.position(buffer.getInt(restartsOffset + restart * 4));
+      next = restart * restartInterval;
+    }
+
+    boolean hasNext() {
+      return next < elementCount;
+    }
+
+    StoreKey readKey() {
+      ByteBuffer key = previousKey;
+      if (next % restartInterval == 0) {
+        key.clear();
+      } else {
+        int strip = readVarInt(buf);
+        key.position(key.position() - strip);
+        key.limit(MAX_KEY_BYTES);
+      }
+      int limitSave = buf.limit();
+      key.put(buf.limit(findPositionAfterKey(buf)));
+      buf.limit(limitSave);
+      key.flip();
+      next++;
+      return deserializeKey(key);
+    }
+
+    V readValue() {
+      return serializer.deserialize(buf);
+    }
+
+    void skipValue() {
+      serializer.skip(buf);
+    }
+
+    /**
+     * Positions this cursor at the first element having a key that is greater than or equal to the
+     * given key. Returns the key of that element, the value of that element is read next, or
+     * {@code null} if there is no such element.
+     */
+    StoreKey seek(StoreKey key) {
+      if (elementCount == 0) {
+        return null;
+      }
+
+      // Find the last restart point having a key less than or equal to the given key.
+      int restart = 0;
+      int low = 0;
+      int high = numRestarts - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        seekRestart(mid);
+        StoreKey k = readKey();
+        int cmp = k.compareTo(key);
+        if (cmp == 0) {
+          return k;
+        }
+        if (cmp < 0) {
+          restart = mid;
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+
+      seekRestart(restart);
+      while (hasNext()) {
+        StoreKey k = readKey();
+        if (k.compareTo(key) >= 0) {
+          return k;
+        }
+        skipValue();
+      }
+      return null;
+    }
+  }
+}
@@ -43,6 +43,21 @@ public interface StoreIndex<V> extends Iterable<StoreIndexElement<V>> {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Optional key filter of a lazily loaded index stripe, used to skip loading the stripe for keys
+   * that are definitely not contained in it.
+   */
+  @Nullable
+  @jakarta.annotation.Nullable
+  default KeyBloomFilter getKeyFilter() {
+    return null;
+  }
+
+  default StoreIndex<V> setKeyFilter(
+      @Nullable @jakarta.annotation.Nullable KeyBloomFilter keyFilter) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Load the index, if this instance represents a lazily loaded index instance.
    *
@@ -70,6 +70,9 @@ import org.projectnessie.versioned.storage.common.util.Ser;
  * <p>The serialized key-index does not write any length information of the individual elements or
  * parts (like the {@link StoreKey} or value) to reduce the space required for serialization.
  *
+ * <p>{@link SerializedIndexImpl} implements "version 2", which extends this format with restart
+ * points to allow lookups directly on the serialized representation.
+ *
  * <h2>This implementation</h2>
  *
  * <p>This implementation is just an idea, not an actual proposal.
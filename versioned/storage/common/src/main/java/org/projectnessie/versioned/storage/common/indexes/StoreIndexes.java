@@ -36,11 +36,49 @@ public final class StoreIndexes {
     return new StoreIndexImpl<>(serializer);
   }
 
+  /**
+   * Deserializes a key-index-segment. Segments using the "version 1" serialization are fully
+   * decoded into a mutable index, segments using the "version 2" serialization are represented by a
+   * read-only index that operates directly on the serialized representation.
+   */
   public static <V> StoreIndex<V> deserializeStoreIndex(
       ByteString serialized, ElementSerializer<V> ser) {
+    if (!serialized.isEmpty() && serialized.byteAt(0) == SerializedIndexImpl.VERSION) {
+      return SerializedIndexImpl.deserializeSerializedIndex(serialized, ser);
+    }
     return StoreIndexImpl.deserializeStoreIndex(serialized.asReadOnlyByteBuffer(), ser);
   }
 
+  /**
+   * Deserializes a key-index-segment into a read-only index with a compact heap representation,
+   * intended for segments that are only read, like reference index segments. Segments using the
+   * "version 1" serialization are decoded into a {@link FlatIndexImpl}, segments using the "version
+   * 2" serialization are represented by a {@link SerializedIndexImpl}.
+   *
+   * <p>Use {@link StoreIndex#asMutableIndex()} to get a modifiable index.
+   */
+  public static <V> StoreIndex<V> deserializeReadOnlyStoreIndex(
+      ByteString serialized, ElementSerializer<V> ser) {
+    if (!serialized.isEmpty() && serialized.byteAt(0) == SerializedIndexImpl.VERSION) {
+      return SerializedIndexImpl.deserializeSerializedIndex(serialized, ser);
+    }
+    return FlatIndexImpl.deserializeFlatIndex(serialized.asReadOnlyByteBuffer(), ser);
+  }
+
+  /**
+   * Serializes the given index using the "version 2" serialization, which contains restart points
+   * that allow lookups without decoding the whole segment, see {@link SerializedIndexImpl}.
+   *
+   * <p>Used to serialize reference index segments, which are read far more often than they are
+   * written, if {@link
+   * org.projectnessie.versioned.storage.common.config.StoreConfig#indexSerializationVersion()} is
+   * set to {@code 2}.
+   */
+  public static <V> ByteString serializeWithRestartPoints(
+      StoreIndex<V> index, ElementSerializer<V> ser) {
+    return SerializedIndexImpl.serializeWithRestartPoints(index, ser);
+  }
+
   /**
    * Returns a {@link StoreIndex} that calls the supplier upon the first use, useful to load an
    * index only when it is needed.
@@ -85,7 +123,7 @@ public final class StoreIndexes {
       firstLastKeys[i * 2 + 1] = last;
     }
 
-    return new StripedIndexImpl<>(stripesArr, firstLastKeys, notLoading());
+    return new StripedIndexImpl<>(stripesArr, firstLastKeys, notLoading(), 0);
   }
 
   /**
@@ -104,9 +142,25 @@ public final class StoreIndexes {
       @Nonnull @jakarta.annotation.Nonnull List<StoreIndex<V>> stripes,
       @Nonnull @jakarta.annotation.Nonnull List<StoreKey> firstLastKeys,
       IndexLoader<V> indexLoader) {
+    return indexFromSplits(stripes, firstLastKeys, indexLoader, 0);
+  }
+
+  /**
+   * Same as {@link #indexFromSplits(List, List, IndexLoader)}, but range iterations that are not
+   * prefetching load up to {@code readAhead} stripes following a not yet loaded stripe via the same
+   * {@link IndexLoader#loadIndexes(StoreIndex[])} invocation.
+   *
+   * @param readAhead number of stripes to load in addition to a not yet loaded stripe, {@code 0}
+   *     loads only the stripe that is needed
+   */
+  public static <V> StoreIndex<V> indexFromSplits(
+      @Nonnull @jakarta.annotation.Nonnull List<StoreIndex<V>> stripes,
+      @Nonnull @jakarta.annotation.Nonnull List<StoreKey> firstLastKeys,
+      IndexLoader<V> indexLoader,
+      int readAhead) {
     @SuppressWarnings("unchecked")
     StoreIndex<V>[] stripesArr = stripes.toArray(new StoreIndex[0]);
     StoreKey[] firstLastKeysArr = firstLastKeys.toArray(new StoreKey[0]);
-    return new StripedIndexImpl<>(stripesArr, firstLastKeysArr, indexLoader);
+    return new StripedIndexImpl<>(stripesArr, firstLastKeysArr, indexLoader, readAhead);
   }
 }
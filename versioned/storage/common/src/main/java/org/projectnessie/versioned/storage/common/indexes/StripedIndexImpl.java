@@ -18,12 +18,15 @@ package org.projectnessie.versioned.storage.common.indexes;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Arrays.asList;
 import static java.util.Arrays.binarySearch;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.unwrap;
 
 import com.google.common.collect.AbstractIterator;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import javax.annotation.Nonnull;
@@ -35,12 +38,16 @@ final class StripedIndexImpl<V> implements StoreIndex<V> {
   private final StoreIndex<V>[] stripes;
   private final StoreKey[] firstLastKeys;
   private final IndexLoader<V> indexLoader;
+  private final int readAhead;
+  private CompletableFuture<StoreIndex<V>>[] pendingStripes;
 
   StripedIndexImpl(
       @Nonnull @jakarta.annotation.Nonnull StoreIndex<V>[] stripes,
       @Nonnull @jakarta.annotation.Nonnull StoreKey[] firstLastKeys,
-      IndexLoader<V> indexLoader) {
+      IndexLoader<V> indexLoader,
+      int readAhead) {
     checkArgument(stripes.length > 1);
+    checkArgument(readAhead >= 0, "readAhead must not be negative");
     checkArgument(
         stripes.length * 2 == firstLastKeys.length,
         "Number of stripes (%s) must match number of first-last-keys (%s)",
@@ -52,6 +59,7 @@ final class StripedIndexImpl<V> implements StoreIndex<V> {
     this.stripes = stripes;
     this.firstLastKeys = firstLastKeys;
     this.indexLoader = indexLoader;
+    this.readAhead = readAhead;
   }
 
   @Override
@@ -77,7 +85,12 @@ final class StripedIndexImpl<V> implements StoreIndex<V> {
         continue;
       }
       StoreIndex<V> index = stripes[idx];
-      if (!index.isLoaded()) {
+      if (!index.isLoaded() && indexesToLoad[idx] == null) {
+        KeyBloomFilter keyFilter = index.getKeyFilter();
+        if (keyFilter != null && !keyFilter.mightContain(key)) {
+          // Key definitely not in the stripe, no need to load it
+          continue;
+        }
         indexesToLoad[idx] = index;
         cnt++;
       }
@@ -231,6 +244,8 @@ final class StripedIndexImpl<V> implements StoreIndex<V> {
 
     if (prefetch) {
       loadStripes(start, stop);
+    } else {
+      readAhead(start, stop);
     }
 
     Predicate<StoreKey> endCheck =
@@ -238,7 +253,8 @@ final class StripedIndexImpl<V> implements StoreIndex<V> {
 
     return new AbstractIterator<StoreIndexElement<V>>() {
       int stripe = start;
-      Iterator<StoreIndexElement<V>> current = s[start].iterator(begin, null, prefetch);
+      Iterator<StoreIndexElement<V>> current =
+          stripeForIteration(start).iterator(begin, null, prefetch);
 
       @Override
       protected StoreIndexElement<V> computeNext() {
@@ -257,12 +273,87 @@ final class StripedIndexImpl<V> implements StoreIndex<V> {
           if (stripe > stop) {
             return endOfData();
           }
-          current = s[stripe].iterator();
+          readAhead(stripe, stop);
+          current = stripeForIteration(stripe).iterator();
         }
       }
     };
   }
 
+  /**
+   * Starts loading up to {@code readAhead} stripes following the stripe at {@code stripe}, but not
+   * beyond {@code stop}, asynchronously via a single {@link
+   * IndexLoader#loadIndexesAsync(StoreIndex[]) bulk-load}, if those are neither loaded nor already
+   * being loaded. Range iterations call this function when entering a stripe, so the database
+   * round-trips for the following stripes overlap with consuming the current stripe.
+   */
+  private void readAhead(int stripe, int stop) {
+    if (readAhead == 0) {
+      return;
+    }
+
+    StoreIndex<V>[] stripes = this.stripes;
+    CompletableFuture<StoreIndex<V>>[] pending = pendingStripes;
+    if (pending == null) {
+      @SuppressWarnings("unchecked")
+      CompletableFuture<StoreIndex<V>>[] p = new CompletableFuture[stripes.length];
+      pendingStripes = pending = p;
+    }
+
+    @SuppressWarnings("unchecked")
+    StoreIndex<V>[] indexesToLoad = new StoreIndex[stripes.length];
+    int first = stripe + 1;
+    int last = Math.min(stop, stripe + readAhead);
+    int cnt = 0;
+    for (int idx = first; idx <= last; idx++) {
+      StoreIndex<V> index = stripes[idx];
+      if (!index.isLoaded() && pending[idx] == null) {
+        indexesToLoad[idx] = index;
+        cnt++;
+      }
+    }
+
+    if (cnt > 0) {
+      CompletableFuture<StoreIndex<V>[]> loading =
+          indexLoader.loadIndexesAsync(indexesToLoad).toCompletableFuture();
+      for (int idx = first; idx <= last; idx++) {
+        if (indexesToLoad[idx] != null) {
+          int i = idx;
+          pending[idx] = loading.thenApply(loaded -> loaded[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the stripe at {@code stripe}, waits for its asynchronous {@link #readAhead(int, int)
+   * read-ahead}, if one has been started.
+   */
+  private StoreIndex<V> stripeForIteration(int stripe) {
+    CompletableFuture<StoreIndex<V>>[] pending = pendingStripes;
+    if (pending != null) {
+      CompletableFuture<StoreIndex<V>> loading = pending[stripe];
+      if (loading != null) {
+        pending[stripe] = null;
+        StoreIndex<V> loaded;
+        try {
+          loaded = loading.join();
+        } catch (CompletionException e) {
+          Throwable cause = unwrap(e);
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          throw new RuntimeException(cause);
+        }
+        // Do not replace a stripe that has been loaded or modified in the meantime.
+        if (loaded != null && !stripes[stripe].isLoaded()) {
+          stripes[stripe] = loaded;
+        }
+      }
+    }
+    return stripes[stripe];
+  }
+
   @Nonnull
   @jakarta.annotation.Nonnull
   @Override
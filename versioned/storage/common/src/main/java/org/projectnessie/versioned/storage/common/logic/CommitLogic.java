@@ -36,6 +36,7 @@ import org.projectnessie.versioned.storage.common.objtypes.CommitType;
 import org.projectnessie.versioned.storage.common.objtypes.ContentValueObj;
 import org.projectnessie.versioned.storage.common.persist.Obj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.Persist;
 import org.projectnessie.versioned.storage.common.persist.Reference;
 
 /** Logic to read commits and perform commits including conflict checks. */
@@ -198,6 +199,17 @@ public interface CommitLogic {
       @Nonnull @jakarta.annotation.Nonnull ObjId otherId)
       throws NoSuchElementException;
 
+  /**
+   * Variant of {@link #findCommonAncestor(ObjId, ObjId)} for commits that have already been
+   * fetched, saves the round trip to fetch the given commits.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  ObjId findCommonAncestor(
+      @Nonnull @jakarta.annotation.Nonnull CommitObj head,
+      @Nonnull @jakarta.annotation.Nonnull CommitObj other)
+      throws NoSuchElementException;
+
   /**
    * Retrieves the {@link CommitOp commit object} referenced by {@code commitId}. Resolves a {@link
    * CommitObjReference}, if necessary.
@@ -207,6 +219,20 @@ public interface CommitLogic {
   CommitObj fetchCommit(@Nonnull @jakarta.annotation.Nonnull ObjId commitId)
       throws ObjNotFoundException;
 
+  /**
+   * Bulk version of {@link #fetchCommit(ObjId)}, retrieves the {@link CommitObj commit objects}
+   * referenced by {@code commitIds} using at most two {@link Persist#fetchObjs(ObjId[])} calls.
+   *
+   * @return array of the same length as {@code commitIds}. Elements are {@code null}, if the
+   *     corresponding element in {@code commitIds} is {@code null}, {@link ObjId#EMPTY_OBJ_ID} or
+   *     a {@link CommitObjReference} pointing to {@link ObjId#EMPTY_OBJ_ID}.
+   * @throws ObjNotFoundException with the IDs for which no {@link Obj objects} exist
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  CommitObj[] fetchCommits(@Nonnull @jakarta.annotation.Nonnull ObjId[] commitIds)
+      throws ObjNotFoundException;
+
   /**
    * Applies the changes between {@code base} and {@code mostRecent} to the commit builder.
    *
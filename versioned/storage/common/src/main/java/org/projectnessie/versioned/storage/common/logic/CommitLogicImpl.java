@@ -23,9 +23,11 @@ import static java.util.Collections.emptyIterator;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.projectnessie.nessie.relocated.protobuf.ByteString.copyFromUtf8;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.indexFromStripes;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.layeredIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.newStoreIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreKey.keyFromString;
 import static org.projectnessie.versioned.storage.common.logic.CommitConflict.ConflictType.CONTENT_ID_DIFFERS;
@@ -51,13 +53,16 @@ import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.commi
 import static org.projectnessie.versioned.storage.common.objtypes.Hashes.hashAsObjId;
 import static org.projectnessie.versioned.storage.common.objtypes.Hashes.hashCommitHeaders;
 import static org.projectnessie.versioned.storage.common.objtypes.Hashes.newHasher;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.unwrap;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
 import static org.projectnessie.versioned.storage.common.persist.ObjType.COMMIT;
 
 import com.google.common.collect.AbstractIterator;
 import com.google.common.hash.Hasher;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -69,6 +74,9 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -126,64 +134,124 @@ final class CommitLogicImpl implements CommitLogic {
     return new CommitLogIter(startCommitId, commitLogQuery.endCommitId().orElse(null));
   }
 
+  /**
+   * Iterates over the commit log in batches of {@link CommitObj#tail()} commits. The IDs of the
+   * next batch are known as soon as the last commit of the current batch has been fetched, so up to
+   * {@link StoreConfig#commitLogReadAhead()} batches are fetched ahead using {@link
+   * Persist#fetchObjsAsync(ObjId[])}, while the consumer still processes the current batch.
+   */
   private final class CommitLogIter extends AbstractIterator<CommitObj>
       implements PagedResult<CommitObj, ObjId> {
+    private final ObjId startCommitId;
     private final ObjId endCommitId;
+    private final int readAhead;
+
+    /** Batches that have been requested but not yet consumed, in commit log order. */
+    private final Deque<CompletableFuture<Obj[]>> batches = new ArrayDeque<>();
+
+    /** The most recently requested batch, subsequent batches are chained to this one. */
+    private CompletableFuture<Obj[]> lastRequested;
 
     private Iterator<Obj> batch;
-    private List<ObjId> next;
+    private boolean done;
 
     CommitLogIter(ObjId startCommitId, ObjId endCommitId) {
-      this.next = singletonList(startCommitId);
+      this.startCommitId = startCommitId;
       this.endCommitId = endCommitId;
+      this.readAhead = Math.max(0, persist.config().commitLogReadAhead());
     }
 
     @Override
     protected CommitObj computeNext() {
       while (true) {
+        if (done) {
+          return endOfData();
+        }
+
         Iterator<Obj> b = batch;
         if (b == null || !b.hasNext()) {
-          List<ObjId> n = next;
-          next = null;
-
-          if (n == null) {
-            return endOfData();
-          }
-          int i = n.indexOf(EMPTY_OBJ_ID);
-          if (i != -1) {
-            n = n.subList(0, i);
+          if (batches.isEmpty()) {
+            requestNextBatch();
           }
-          if (n.isEmpty()) {
-            return endOfData();
+          CompletableFuture<Obj[]> current = batches.removeFirst();
+          while (batches.size() < readAhead) {
+            requestNextBatch();
           }
 
-          try {
-            b = batch = Arrays.asList(persist.fetchObjs(n.toArray(new ObjId[0]))).iterator();
-          } catch (ObjNotFoundException e) {
-            throw new NoSuchElementException(
-                "Commit(s) "
-                    + e.objIds().stream().map(ObjId::toString).collect(Collectors.joining(", "))
-                    + " not found");
+          Obj[] objs = awaitBatch(current);
+          if (objs.length == 0) {
+            done = true;
+            continue;
           }
+          b = batch = Arrays.asList(objs).iterator();
         }
 
-        if (b.hasNext()) {
-          CommitObj c = (CommitObj) b.next();
+        CommitObj c = (CommitObj) b.next();
 
-          if (c == null) {
-            // oops, commit not found...
-            return endOfData();
-          }
+        if (c == null) {
+          // oops, commit not found...
+          done = true;
+          continue;
+        }
 
-          if (c.id().equals(endCommitId)) {
-            batch = emptyIterator();
-            next = null;
-          } else if (!b.hasNext()) {
-            next = c.tail();
-          }
+        if (c.id().equals(endCommitId)) {
+          done = true;
+        }
 
-          return c;
+        return c;
+      }
+    }
+
+    private void requestNextBatch() {
+      CompletableFuture<Obj[]> prev = lastRequested;
+      CompletableFuture<Obj[]> next =
+          prev == null
+              ? fetchBatch(singletonList(startCommitId))
+              : prev.thenCompose(this::fetchFollowingBatch);
+      batches.addLast(next);
+      lastRequested = next;
+    }
+
+    /** Fetches the tail of the last commit in the given batch, unless the log ends in the batch. */
+    private CompletionStage<Obj[]> fetchFollowingBatch(Obj[] objs) {
+      if (objs.length == 0) {
+        return completedFuture(objs);
+      }
+      for (Obj obj : objs) {
+        if (obj == null || obj.id().equals(endCommitId)) {
+          return completedFuture(new Obj[0]);
+        }
+      }
+      return fetchBatch(((CommitObj) objs[objs.length - 1]).tail());
+    }
+
+    private CompletableFuture<Obj[]> fetchBatch(List<ObjId> ids) {
+      int i = ids.indexOf(EMPTY_OBJ_ID);
+      if (i != -1) {
+        ids = ids.subList(0, i);
+      }
+      if (ids.isEmpty()) {
+        return completedFuture(new Obj[0]);
+      }
+      return persist.fetchObjsAsync(ids.toArray(new ObjId[0])).toCompletableFuture();
+    }
+
+    private Obj[] awaitBatch(CompletableFuture<Obj[]> batch) {
+      try {
+        return batch.join();
+      } catch (CompletionException e) {
+        Throwable cause = unwrap(e);
+        if (cause instanceof ObjNotFoundException) {
+          throw new NoSuchElementException(
+              "Commit(s) "
+                  + ((ObjNotFoundException) cause)
+                      .objIds().stream().map(ObjId::toString).collect(Collectors.joining(", "))
+                  + " not found");
         }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new RuntimeException(cause);
       }
     }
 
@@ -295,13 +363,28 @@ final class CommitLogicImpl implements CommitLogic {
       @Nonnull @jakarta.annotation.Nonnull CommitObj commit,
       @Nonnull @jakarta.annotation.Nonnull List<Obj> additionalObjects) {
     int numAdditional = additionalObjects.size();
-    try {
-      Obj[] allObjs = additionalObjects.toArray(new Obj[numAdditional + 1]);
-      allObjs[numAdditional] = commit;
+    List<Obj> allObjs = new ArrayList<>(numAdditional + 1);
+    allObjs.addAll(additionalObjects);
+
+    boolean indexSpilled = false;
+    if (incrementalIndexTooBig(commit)) {
+      // The incremental index is too big - spill out the INCREMENTAL_* operations to the reference
+      // index and store the new index stripes in the same batch as the commit.
+      commit = indexTooBigStoreUpdate(commit, allObjs::add);
+      indexSpilled = true;
+    }
 
-      boolean[] stored = persist.storeObjs(allObjs);
-      return stored[numAdditional];
+    allObjs.add(commit);
+
+    try {
+      boolean[] stored = persist.storeObjs(allObjs.toArray(new Obj[0]));
+      return stored[stored.length - 1];
     } catch (ObjTooLargeException e) {
+      if (indexSpilled) {
+        // Hit the "Hard database object size limit"
+        throw new RuntimeException(e);
+      }
+
       // The incremental index became too big - need to spill out the INCREMENTAL_* operations to
       // the reference index.
 
@@ -324,6 +407,9 @@ final class CommitLogicImpl implements CommitLogic {
 
   @Override
   public CommitObj updateCommit(@Nonnull @jakarta.annotation.Nonnull CommitObj commit) {
+    if (incrementalIndexTooBig(commit)) {
+      commit = indexTooBigStoreUpdate(commit);
+    }
     try {
       persist.upsertObj(commit);
     } catch (ObjTooLargeException e) {
@@ -341,30 +427,53 @@ final class CommitLogicImpl implements CommitLogic {
     return commit;
   }
 
+  /**
+   * Checks whether the serialized incremental index of the given commit exceeds the limit, which
+   * would let {@link Persist#storeObjs(Obj[])} fail with an {@link ObjTooLargeException}.
+   */
+  private boolean incrementalIndexTooBig(CommitObj commit) {
+    return commit.incrementalIndex().size() > persist.effectiveIncrementalIndexSizeLimit();
+  }
+
   private CommitObj indexTooBigStoreUpdate(CommitObj commit) {
-    StoreIndex<CommitOp> newIncremental = newStoreIndex(COMMIT_OP_SERIALIZER);
-    StoreIndex<CommitOp> referenceIndex = createReferenceIndexForCommit(commit, newIncremental);
+    List<Obj> toStore = new ArrayList<>();
+    commit = indexTooBigStoreUpdate(commit, toStore::add);
 
     try {
-      commit = persistReferenceIndexForCommit(commit, newIncremental, referenceIndex);
+      if (!toStore.isEmpty()) {
+        persist.storeObjs(toStore.toArray(new Obj[0]));
+      }
     } catch (ObjTooLargeException ex) {
       throw new RuntimeException(ex);
     }
     return commit;
   }
 
-  private CommitObj persistReferenceIndexForCommit(
-      CommitObj commit, StoreIndex<CommitOp> newIncremental, StoreIndex<CommitOp> referenceIndex)
-      throws ObjTooLargeException {
+  /**
+   * Spills out the incremental index of the given commit to its reference index. New index objects
+   * are passed to {@code toStore}, but not persisted.
+   */
+  private CommitObj indexTooBigStoreUpdate(CommitObj commit, Consumer<Obj> toStore) {
+    StoreIndex<CommitOp> newIncremental = newStoreIndex(COMMIT_OP_SERIALIZER);
+    StoreIndex<CommitOp> referenceIndex = createReferenceIndexForCommit(commit, newIncremental);
+
+    return buildReferenceIndexForCommit(commit, newIncremental, referenceIndex, toStore);
+  }
+
+  private CommitObj buildReferenceIndexForCommit(
+      CommitObj commit,
+      StoreIndex<CommitOp> newIncremental,
+      StoreIndex<CommitOp> referenceIndex,
+      Consumer<Obj> toStore) {
     IndexesLogic indexesLogic = indexesLogic(persist);
     ObjId referenceIndexId = null;
     List<IndexStripe> referenceIndexStripes = emptyList();
     // 'referenceIndex' can be null, if it became empty (aka all keys have been deleted)
     if (referenceIndex != null) {
       if (referenceIndex.stripes().size() <= persist.config().maxReferenceStripesPerCommit()) {
-        referenceIndexStripes = indexesLogic.persistIndexStripesFromIndex(referenceIndex);
+        referenceIndexStripes = indexesLogic.buildIndexStripesFromIndex(referenceIndex, toStore);
       } else {
-        referenceIndexId = indexesLogic.persistStripedIndex(referenceIndex);
+        referenceIndexId = indexesLogic.buildStripedIndex(referenceIndex, toStore);
       }
     }
     commit =
@@ -820,6 +929,21 @@ final class CommitLogicImpl implements CommitLogic {
     return existing != null && existing.content().action().exists() ? existing : null;
   }
 
+  /**
+   * Finds the common ancestor of two commits by following their direct parents.
+   *
+   * <p>{@link CommitObj#seq()} acts as a generation number: it is incremented by one for every
+   * direct parent, so the {@link CommitObj#tail() tail} entry at index {@code i} has the sequence
+   * number {@code seq - 1 - i}. The commit with the higher sequence number is advanced directly to
+   * the ancestor with the other commit's sequence number, using as many tail entries as available.
+   * Commits with the same sequence number are compared pairwise via their tails, which yields the
+   * common ancestor without fetching it. This way only one commit per {@link
+   * StoreConfig#parentsPerCommit()} ancestors needs to be fetched.
+   *
+   * <p>Sequence numbers of imported commits do not necessarily follow that rule. The sequence number
+   * of every fetched ancestor is therefore compared against the expected one, if those differ, the
+   * common ancestor is determined by walking the parents of both commits.
+   */
   @Nonnull
   @jakarta.annotation.Nonnull
   @Override
@@ -827,21 +951,119 @@ final class CommitLogicImpl implements CommitLogic {
       @Nonnull @jakarta.annotation.Nonnull ObjId headId,
       @Nonnull @jakarta.annotation.Nonnull ObjId otherId)
       throws NoSuchElementException {
+    boolean headEmpty = EMPTY_OBJ_ID.equals(headId);
+    boolean otherEmpty = EMPTY_OBJ_ID.equals(otherId);
+
+    CommitObj[] commits =
+        fetchCommonAncestorCommits(headEmpty ? null : headId, otherEmpty ? null : otherId);
+    if (headEmpty || otherEmpty) {
+      throw noCommonAncestor(headId, otherId);
+    }
+    return findCommonAncestor(commits[0], commits[1]);
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public ObjId findCommonAncestor(
+      @Nonnull @jakarta.annotation.Nonnull CommitObj head,
+      @Nonnull @jakarta.annotation.Nonnull CommitObj other)
+      throws NoSuchElementException {
+    ObjId headId = head.id();
+    ObjId otherId = other.id();
+    CommitObj[] commits;
+
+    while (true) {
+      if (head.id().equals(other.id())) {
+        return head.id();
+      }
+
+      long headSeq = head.seq();
+      long otherSeq = other.seq();
+      if (headSeq > otherSeq) {
+        int steps = stepsTowards(head, otherSeq);
+        if (steps == 0) {
+          return findCommonAncestorViaParents(headId, otherId);
+        }
+        ObjId ancestor = head.tail().get(steps - 1);
+        if (ancestor.equals(other.id())) {
+          return ancestor;
+        }
+        head = fetchCommonAncestorCommits(ancestor, null)[0];
+        if (head.seq() != headSeq - steps) {
+          return findCommonAncestorViaParents(headId, otherId);
+        }
+      } else if (otherSeq > headSeq) {
+        int steps = stepsTowards(other, headSeq);
+        if (steps == 0) {
+          return findCommonAncestorViaParents(headId, otherId);
+        }
+        ObjId ancestor = other.tail().get(steps - 1);
+        if (ancestor.equals(head.id())) {
+          return ancestor;
+        }
+        other = fetchCommonAncestorCommits(null, ancestor)[1];
+        if (other.seq() != otherSeq - steps) {
+          return findCommonAncestorViaParents(headId, otherId);
+        }
+      } else {
+        List<ObjId> headTail = head.tail();
+        List<ObjId> otherTail = other.tail();
+        int n = Math.min(headTail.size(), otherTail.size());
+        for (int i = 0; i < n; i++) {
+          ObjId h = headTail.get(i);
+          ObjId o = otherTail.get(i);
+          boolean headEnd = EMPTY_OBJ_ID.equals(h);
+          boolean otherEnd = EMPTY_OBJ_ID.equals(o);
+          if (headEnd && otherEnd) {
+            throw noCommonAncestor(headId, otherId);
+          }
+          if (headEnd || otherEnd) {
+            return findCommonAncestorViaParents(headId, otherId);
+          }
+          if (h.equals(o)) {
+            return h;
+          }
+        }
+        if (n == 0) {
+          throw noCommonAncestor(headId, otherId);
+        }
+        commits = fetchCommonAncestorCommits(headTail.get(n - 1), otherTail.get(n - 1));
+        head = commits[0];
+        other = commits[1];
+        if (head.seq() != headSeq - n || other.seq() != otherSeq - n) {
+          return findCommonAncestorViaParents(headId, otherId);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of steps from {@code commit} towards its ancestor with the sequence number
+   * {@code targetSeq}, limited to the size of the commit's tail, or {@code 0} if the tail ends
+   * before, which means that the sequence numbers are not consistent.
+   */
+  private static int stepsTowards(CommitObj commit, long targetSeq) {
+    List<ObjId> tail = commit.tail();
+    long distance = commit.seq() - targetSeq;
+    int steps = (int) Math.min(distance, tail.size());
+    if (steps <= 0 || EMPTY_OBJ_ID.equals(tail.get(steps - 1))) {
+      return 0;
+    }
+    return steps;
+  }
+
+  /**
+   * Finds the common ancestor by walking the direct parents of both commits alternately, without
+   * relying on {@link CommitObj#seq()}.
+   */
+  private ObjId findCommonAncestorViaParents(ObjId headId, ObjId otherId) {
     PagedResult<ObjId, ObjId> log1 = commitIdLog(commitLogQuery(headId));
     PagedResult<ObjId, ObjId> log2 = commitIdLog(commitLogQuery(otherId));
 
     ObjectHashSet<ObjId> commits1 = new ObjectHashSet<>();
     ObjectHashSet<ObjId> commits2 = new ObjectHashSet<>();
 
-    if (!log2.hasNext() && !EMPTY_OBJ_ID.equals(otherId)) {
-      // this is a race, commit deleted in the meantime
-      throw commonAncestorCommitNotFound(otherId);
-    }
-    if (!log1.hasNext() && !EMPTY_OBJ_ID.equals(headId)) {
-      // this is a race, commit deleted in the meantime
-      throw commonAncestorCommitNotFound(headId);
-    }
-
     while (true) {
       ObjId current1 = log1.hasNext() ? log1.next() : EMPTY_OBJ_ID;
       ObjId current2 = log2.hasNext() ? log2.next() : EMPTY_OBJ_ID;
@@ -869,6 +1091,23 @@ final class CommitLogicImpl implements CommitLogic {
     }
   }
 
+  /** Fetches the given head and other commits in a single request, {@code null} IDs are skipped. */
+  private CommitObj[] fetchCommonAncestorCommits(ObjId headId, ObjId otherId) {
+    CommitObj[] commits = new CommitObj[2];
+    if (headId == null && otherId == null) {
+      return commits;
+    }
+    try {
+      Obj[] objs = persist.fetchObjs(new ObjId[] {headId, otherId});
+      commits[0] = (CommitObj) objs[0];
+      commits[1] = (CommitObj) objs[1];
+      return commits;
+    } catch (ObjNotFoundException e) {
+      // If both commits do not exist, the "other" commit is reported.
+      throw commonAncestorCommitNotFound(e.objIds().contains(otherId) ? otherId : headId);
+    }
+  }
+
   private static NoSuchElementException commonAncestorCommitNotFound(ObjId id) {
     return new NoSuchElementException("Commit '" + id + "' not found");
   }
@@ -899,6 +1138,71 @@ final class CommitLogicImpl implements CommitLogic {
     return (CommitObj) obj;
   }
 
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public CommitObj[] fetchCommits(@Nonnull @jakarta.annotation.Nonnull ObjId[] commitIds)
+      throws ObjNotFoundException {
+    Obj[] objs = fetchDistinctObjs(commitIds);
+
+    ObjId[] refCommitIds = null;
+    for (int i = 0; i < objs.length; i++) {
+      Obj obj = objs[i];
+      if (obj instanceof CommitObjReference) {
+        if (refCommitIds == null) {
+          refCommitIds = new ObjId[objs.length];
+        }
+        refCommitIds[i] = ((CommitObjReference) obj).commitId();
+        objs[i] = null;
+      }
+    }
+    if (refCommitIds != null) {
+      Obj[] refCommits = fetchDistinctObjs(refCommitIds);
+      for (int i = 0; i < refCommits.length; i++) {
+        if (refCommits[i] != null) {
+          objs[i] = refCommits[i];
+        }
+      }
+    }
+
+    CommitObj[] commits = new CommitObj[objs.length];
+    for (int i = 0; i < objs.length; i++) {
+      Obj obj = objs[i];
+      if (obj != null) {
+        checkState(obj instanceof CommitObj, "Expected a Commit object, but got %s", obj);
+        commits[i] = (CommitObj) obj;
+      }
+    }
+    return commits;
+  }
+
+  /**
+   * Fetches the objects for the given IDs, requesting each distinct ID only once. {@code null} and
+   * {@link ObjId#EMPTY_OBJ_ID} elements yield {@code null} elements.
+   */
+  private Obj[] fetchDistinctObjs(ObjId[] ids) throws ObjNotFoundException {
+    Map<ObjId, Obj> distinct = new HashMap<>();
+    for (ObjId id : ids) {
+      if (id != null && !EMPTY_OBJ_ID.equals(id)) {
+        distinct.put(id, null);
+      }
+    }
+    if (!distinct.isEmpty()) {
+      ObjId[] fetchIds = distinct.keySet().toArray(new ObjId[0]);
+      Obj[] fetched = persist.fetchObjs(fetchIds);
+      for (int i = 0; i < fetchIds.length; i++) {
+        distinct.put(fetchIds[i], fetched[i]);
+      }
+    }
+
+    Obj[] objs = new Obj[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      ObjId id = ids[i];
+      objs[i] = id != null ? distinct.get(id) : null;
+    }
+    return objs;
+  }
+
   @Nonnull
   @jakarta.annotation.Nonnull
   @Override
@@ -913,8 +1217,60 @@ final class CommitLogicImpl implements CommitLogic {
             .orElse(diffQuery.start());
     StoreKey end = diffQuery.end();
 
-    StoreIndex<CommitOp> fromIndex = indexesLogic.buildCompleteIndexOrEmpty(diffQuery.fromCommit());
-    StoreIndex<CommitOp> toIndex = indexesLogic.buildCompleteIndexOrEmpty(diffQuery.toCommit());
+    CommitObj fromCommit = diffQuery.fromCommit();
+    CommitObj toCommit = diffQuery.toCommit();
+
+    StoreIndex<CommitOp> fromIndex = null;
+    StoreIndex<CommitOp> toIndex = null;
+    if (fromCommit != null
+        && toCommit != null
+        && !fromCommit.incompleteIndex()
+        && !toCommit.incompleteIndex()) {
+      // Structural diff: reference index stripes that are shared by both commits contain the same
+      // elements, so only the stripes that differ need to be loaded and walked.
+      List<IndexStripe> fromStripes = indexesLogic.referenceIndexStripes(fromCommit);
+      List<IndexStripe> toStripes = indexesLogic.referenceIndexStripes(toCommit);
+      Set<ObjId> toSegments = newHashSetWithExpectedSize(toStripes.size());
+      for (IndexStripe stripe : toStripes) {
+        toSegments.add(stripe.segment());
+      }
+      List<IndexStripe> sharedStripes = new ArrayList<>();
+      for (IndexStripe stripe : fromStripes) {
+        if (toSegments.contains(stripe.segment())) {
+          sharedStripes.add(stripe);
+        }
+      }
+
+      if (!sharedStripes.isEmpty()) {
+        StoreIndex<CommitOp> fromIncremental = indexesLogic.incrementalIndexFromCommit(fromCommit);
+        StoreIndex<CommitOp> toIncremental = indexesLogic.incrementalIndexFromCommit(toCommit);
+        StoreIndex<CommitOp> sharedIndex =
+            indexesLogic.referenceIndexFromStripes(sharedStripes, fromCommit.id());
+        fromIndex =
+            structuralDiffIndex(
+                indexesLogic,
+                fromCommit,
+                fromStripes,
+                fromIncremental,
+                toIncremental,
+                sharedStripes,
+                sharedIndex);
+        toIndex =
+            structuralDiffIndex(
+                indexesLogic,
+                toCommit,
+                toStripes,
+                toIncremental,
+                fromIncremental,
+                sharedStripes,
+                sharedIndex);
+      }
+    }
+
+    if (fromIndex == null) {
+      fromIndex = indexesLogic.buildCompleteIndexOrEmpty(fromCommit);
+      toIndex = indexesLogic.buildCompleteIndexOrEmpty(toCommit);
+    }
 
     Iterator<StoreIndexElement<CommitOp>> fromIter =
         fromIndex.iterator(start, end, diffQuery.prefetch());
@@ -924,6 +1280,80 @@ final class CommitLogicImpl implements CommitLogic {
     return new DiffEntryIter(fromIter, toIter);
   }
 
+  /**
+   * Builds the index of one side of a structural diff, which consists of the commit's reference
+   * index stripes that are not shared with the other side, layered with the commit's incremental
+   * index.
+   *
+   * <p>Elements in the shared stripes are equal on both sides, unless a key is overridden by the
+   * incremental index of one side. Keys that are only present in the incremental index of the
+   * other side are therefore looked up in the shared stripes, which only loads the shared stripes
+   * that contain those keys.
+   */
+  private static StoreIndex<CommitOp> structuralDiffIndex(
+      IndexesLogic indexesLogic,
+      CommitObj commit,
+      List<IndexStripe> stripes,
+      StoreIndex<CommitOp> incremental,
+      StoreIndex<CommitOp> otherIncremental,
+      List<IndexStripe> sharedStripes,
+      StoreIndex<CommitOp> sharedIndex) {
+    Set<ObjId> sharedSegments = newHashSetWithExpectedSize(sharedStripes.size());
+    for (IndexStripe stripe : sharedStripes) {
+      sharedSegments.add(stripe.segment());
+    }
+    List<IndexStripe> ownStripes = new ArrayList<>(stripes.size() - sharedStripes.size());
+    for (IndexStripe stripe : stripes) {
+      if (!sharedSegments.contains(stripe.segment())) {
+        ownStripes.add(stripe);
+      }
+    }
+    StoreIndex<CommitOp> reference =
+        indexesLogic.referenceIndexFromStripes(ownStripes, commit.id());
+
+    Set<StoreKey> sharedKeys = new HashSet<>();
+    for (StoreIndexElement<CommitOp> el : otherIncremental) {
+      StoreKey key = el.key();
+      if (!incremental.contains(key) && inStripes(sharedStripes, key)) {
+        sharedKeys.add(key);
+      }
+    }
+
+    StoreIndex<CommitOp> updates = incremental;
+    if (!sharedKeys.isEmpty()) {
+      sharedIndex.loadIfNecessary(sharedKeys);
+      StoreIndex<CommitOp> fromShared = newStoreIndex(COMMIT_OP_SERIALIZER);
+      for (StoreKey key : sharedKeys) {
+        StoreIndexElement<CommitOp> el = sharedIndex.get(key);
+        if (el != null) {
+          fromShared.add(el);
+        }
+      }
+      if (fromShared.elementCount() > 0) {
+        updates = layeredIndex(fromShared, incremental);
+      }
+    }
+
+    return layeredIndex(reference, updates);
+  }
+
+  private static boolean inStripes(List<IndexStripe> stripes, StoreKey key) {
+    int low = 0;
+    int high = stripes.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      IndexStripe stripe = stripes.get(mid);
+      if (stripe.lastKey().compareTo(key) < 0) {
+        low = mid + 1;
+      } else if (stripe.firstKey().compareTo(key) > 0) {
+        high = mid - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private static final class DiffEntryIter extends AbstractIterator<DiffEntry>
       implements PagedResult<DiffEntry, StoreKey> {
     private final Iterator<StoreIndexElement<CommitOp>> fromIter;
@@ -23,6 +23,8 @@ import com.google.common.annotations.VisibleForTesting;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.projectnessie.versioned.storage.common.config.RetryBackoffPolicy;
 import org.projectnessie.versioned.storage.common.config.StoreConfig;
 import org.projectnessie.versioned.storage.common.exceptions.CommitConflictException;
 import org.projectnessie.versioned.storage.common.exceptions.CommitWrappedException;
@@ -31,6 +33,9 @@ import org.projectnessie.versioned.storage.common.persist.Persist;
 
 public class CommitRetry {
 
+  /** Reference name used for {@link CommitRetryMetrics metrics}, if the name is not known. */
+  public static final String UNKNOWN_REFERENCE = "unknown";
+
   private CommitRetry() {}
 
   public static <T> T commitRetry(Persist persist, CommitAttempt<T> attempt)
@@ -38,6 +43,23 @@ public class CommitRetry {
     return commitRetry(persist, attempt, newTryLoopState(persist));
   }
 
+  /**
+   * Performs the given commit attempt and retries it as long as it throws a {@link
+   * RetryException}, within the limits configured in {@link StoreConfig}.
+   *
+   * @param referenceName name of the reference that is updated by the commit attempt, used for the
+   *     {@link RetryBackoffPolicy#ADAPTIVE adaptive backoff} and as a metrics tag
+   * @param metrics meters to record retries to, {@code null} to not record any metrics
+   */
+  public static <T> T commitRetry(
+      Persist persist,
+      String referenceName,
+      @Nullable @jakarta.annotation.Nullable CommitRetryMetrics metrics,
+      CommitAttempt<T> attempt)
+      throws CommitWrappedException, CommitConflictException, RetryTimeoutException {
+    return commitRetry(persist, attempt, newTryLoopState(persist, referenceName, metrics));
+  }
+
   @VisibleForTesting
   static <T> T commitRetry(Persist persist, CommitAttempt<T> attempt, TryLoopState tls)
       throws CommitWrappedException, CommitConflictException, RetryTimeoutException {
@@ -47,9 +69,12 @@ public class CommitRetry {
     long t1 = t0;
     for (int i = 0; true; i++, t1 = tls.currentNanos()) {
       try {
-        return attempt.attempt(persist, retryState);
+        T result = attempt.attempt(persist, retryState);
+        tls.success();
+        return result;
       } catch (RetryException e) {
         if (!tls.retry(t1)) {
+          tls.timeout();
           throw new RetryTimeoutException(i, tls.currentNanos() - t0);
         }
         retryState = e.retryState();
@@ -92,6 +117,9 @@ public class CommitRetry {
   static final class TryLoopState {
 
     private final MonotonicClock monotonicClock;
+    private final String referenceName;
+    @Nullable private final RetryContention contention;
+    @Nullable private final CommitRetryMetrics metrics;
     private final long t0;
     private final long maxTime;
     private final int maxRetries;
@@ -102,18 +130,52 @@ public class CommitRetry {
     private boolean unsuccessful;
 
     TryLoopState(StoreConfig config, MonotonicClock monotonicClock) {
+      this(config, monotonicClock, UNKNOWN_REFERENCE, null, null);
+    }
+
+    TryLoopState(
+        StoreConfig config,
+        MonotonicClock monotonicClock,
+        String referenceName,
+        @Nullable RetryContention contention,
+        @Nullable CommitRetryMetrics metrics) {
       this.maxTime = MILLISECONDS.toNanos(config.commitTimeoutMillis());
       this.maxRetries = config.commitRetries();
       this.monotonicClock = monotonicClock;
+      this.referenceName = referenceName;
+      this.contention = contention;
+      this.metrics = metrics;
       this.t0 = monotonicClock.currentNanos();
-      this.lowerBound = config.retryInitialSleepMillisLower();
-      this.upperBound = config.retryInitialSleepMillisUpper();
       this.maxSleep = config.retryMaxSleepMillis();
+      long lower = config.retryInitialSleepMillisLower();
+      long upper = config.retryInitialSleepMillisUpper();
+      if (contention != null) {
+        // Shift the initial sleep time bounds by the recently observed contention
+        long initial = contention.initialSleepMillis();
+        if (initial > lower) {
+          upper = Math.max(initial, Math.min(maxSleep, upper + initial - lower));
+          lower = initial;
+        }
+      }
+      this.lowerBound = lower;
+      this.upperBound = upper;
     }
 
     public static TryLoopState newTryLoopState(Persist persist) {
+      return newTryLoopState(persist, UNKNOWN_REFERENCE, null);
+    }
+
+    public static TryLoopState newTryLoopState(
+        Persist persist,
+        String referenceName,
+        @Nullable @jakarta.annotation.Nullable CommitRetryMetrics metrics) {
+      StoreConfig config = persist.config();
+      RetryContention contention =
+          config.retryBackoffPolicy() == RetryBackoffPolicy.ADAPTIVE
+              ? RetryContention.forReference(config, referenceName)
+              : null;
       return new TryLoopState(
-          persist.config(),
+          config,
           new MonotonicClock() {
             @Override
             public long currentNanos() {
@@ -128,7 +190,10 @@ public class CommitRetry {
                 Thread.currentThread().interrupt();
               }
             }
-          });
+          },
+          referenceName,
+          contention,
+          metrics);
     }
 
     long currentNanos() {
@@ -142,6 +207,10 @@ public class CommitRetry {
 
       retries++;
 
+      if (contention != null) {
+        contention.contended();
+      }
+
       long current = currentNanos();
       long totalElapsed = current - t0;
       long attemptElapsed = timeAttemptStarted - current;
@@ -151,11 +220,28 @@ public class CommitRetry {
         return false;
       }
 
+      if (metrics != null) {
+        metrics.retried(referenceName);
+      }
       sleepAndBackoff(totalElapsed, attemptElapsed);
 
       return true;
     }
 
+    /** Called when the commit attempt succeeded. */
+    void success() {
+      if (contention != null) {
+        contention.uncontended();
+      }
+    }
+
+    /** Called when the commit attempt gave up, because of the configured retry limits. */
+    void timeout() {
+      if (metrics != null) {
+        metrics.timedOut(referenceName);
+      }
+    }
+
     private void sleepAndBackoff(long totalElapsed, long attemptElapsed) {
       long lower = lowerBound;
       long upper = upperBound;
@@ -169,6 +255,9 @@ public class CommitRetry {
       sleepMillis = Math.max(1L, sleepMillis - NANOSECONDS.toMillis(attemptElapsed));
 
       monotonicClock.sleepMillis(sleepMillis);
+      if (metrics != null) {
+        metrics.slept(referenceName, sleepMillis);
+      }
 
       upper = upper * 2;
       long max = maxSleep;
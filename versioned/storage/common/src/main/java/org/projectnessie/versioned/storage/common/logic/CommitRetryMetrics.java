@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.logic;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+
+/**
+ * Micrometer meters for {@link CommitRetry}, tagged with the name of the updated reference.
+ *
+ * <p>To bound the number of time series in repositories with many references, at most {@value
+ * #MAX_TAGGED_REFERENCES} reference names get their own tag value at the same time, meters for all
+ * other references use the tag value {@value #OTHER_REFERENCES}. A reference name that had no
+ * commit retries for {@link #TAGGED_REFERENCE_EXPIRY} is dropped, including its meters, which frees
+ * its slot for another reference.
+ *
+ * <p>Meters are registered in the {@link MeterRegistry} given to the constructor, callers that
+ * have metrics disabled pass a no-op registry.
+ */
+public final class CommitRetryMetrics {
+
+  /** Maximum number of distinct reference names used as the {@code reference} tag value. */
+  public static final int MAX_TAGGED_REFERENCES = 100;
+
+  /** Duration after which an unused reference name is no longer used as a tag value. */
+  public static final Duration TAGGED_REFERENCE_EXPIRY = Duration.ofMinutes(15);
+
+  /** Tag value for references beyond {@link #MAX_TAGGED_REFERENCES}. */
+  public static final String OTHER_REFERENCES = "other";
+
+  private final MeterRegistry registry;
+  private final int maxTagged;
+  private final Cache<String, ReferenceMeters> taggedReferences;
+  private volatile ReferenceMeters otherReferences;
+
+  public CommitRetryMetrics(@Nonnull @jakarta.annotation.Nonnull MeterRegistry registry) {
+    this(registry, MAX_TAGGED_REFERENCES, TAGGED_REFERENCE_EXPIRY, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  CommitRetryMetrics(MeterRegistry registry, int maxTagged, Duration expiry, Ticker ticker) {
+    this.registry = registry;
+    this.maxTagged = maxTagged;
+    this.taggedReferences =
+        CacheBuilder.newBuilder()
+            .expireAfterAccess(expiry)
+            .ticker(ticker)
+            .removalListener(
+                (RemovalListener<String, ReferenceMeters>) n -> n.getValue().remove(registry))
+            .build();
+  }
+
+  void retried(@Nonnull @jakarta.annotation.Nonnull String reference) {
+    meters(reference).retries.increment();
+  }
+
+  void slept(@Nonnull @jakarta.annotation.Nonnull String reference, long millis) {
+    meters(reference).sleep.record(millis, MILLISECONDS);
+  }
+
+  void timedOut(@Nonnull @jakarta.annotation.Nonnull String reference) {
+    meters(reference).timeouts.increment();
+  }
+
+  @VisibleForTesting
+  String referenceTag(String reference) {
+    return meters(reference).tag;
+  }
+
+  private ReferenceMeters meters(String reference) {
+    ReferenceMeters meters = taggedReferences.getIfPresent(reference);
+    if (meters != null) {
+      return meters;
+    }
+    synchronized (this) {
+      if (taggedReferences.size() >= maxTagged) {
+        // evict expired references before giving up
+        taggedReferences.cleanUp();
+      }
+      if (taggedReferences.size() < maxTagged) {
+        try {
+          return taggedReferences.get(reference, () -> new ReferenceMeters(registry, reference));
+        } catch (ExecutionException e) {
+          throw new RuntimeException(e.getCause());
+        }
+      }
+      meters = otherReferences;
+      if (meters == null) {
+        otherReferences = meters = new ReferenceMeters(registry, OTHER_REFERENCES);
+      }
+      return meters;
+    }
+  }
+
+  private static final class ReferenceMeters {
+    final String tag;
+    final Counter retries;
+    final Timer sleep;
+    final Counter timeouts;
+
+    ReferenceMeters(MeterRegistry registry, String tag) {
+      this.tag = tag;
+      this.retries =
+          Counter.builder("nessie.storage.commit-retry.retries")
+              .tag("reference", tag)
+              .register(registry);
+      this.sleep =
+          Timer.builder("nessie.storage.commit-retry.sleep")
+              .tag("reference", tag)
+              .register(registry);
+      this.timeouts =
+          Counter.builder("nessie.storage.commit-retry.timeouts")
+              .tag("reference", tag)
+              .register(registry);
+    }
+
+    void remove(MeterRegistry registry) {
+      registry.remove(retries);
+      registry.remove(sleep);
+      registry.remove(timeouts);
+    }
+  }
+}
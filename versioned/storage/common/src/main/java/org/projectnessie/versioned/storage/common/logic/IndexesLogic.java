@@ -20,6 +20,7 @@ import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.COMMI
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -71,6 +72,27 @@ public interface IndexesLogic {
       @Nonnull @jakarta.annotation.Nonnull ObjId indexId,
       @Nonnull @jakarta.annotation.Nonnull ObjId commitId);
 
+  /**
+   * Returns the stripes of the reference index of the given commit, either directly from {@link
+   * CommitObj#referenceIndexStripes()} or from the {@link
+   * org.projectnessie.versioned.storage.common.objtypes.IndexSegmentsObj} referenced via {@link
+   * CommitObj#referenceIndex()}. Returns an empty list, if the commit has no reference index or if
+   * the reference index is not striped.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  List<IndexStripe> referenceIndexStripes(@Nonnull @jakarta.annotation.Nonnull CommitObj commit);
+
+  /**
+   * Builds a lazily loaded reference index from the given stripes, stripes are bulk-loaded when
+   * needed. Returns an empty index, if {@code stripes} is empty.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  StoreIndex<CommitOp> referenceIndexFromStripes(
+      @Nonnull @jakarta.annotation.Nonnull List<IndexStripe> stripes,
+      @Nonnull @jakarta.annotation.Nonnull ObjId commitId);
+
   @Nonnull
   @jakarta.annotation.Nonnull
   StoreIndex<CommitOp> incrementalIndexForUpdate(
@@ -110,6 +132,27 @@ public interface IndexesLogic {
       @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex)
       throws ObjTooLargeException;
 
+  /**
+   * Like {@link #persistStripedIndex(StoreIndex)}, but passes the objects that need to be stored to
+   * {@code toStore} instead of persisting those, so the caller can store them in a single batch.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  ObjId buildStripedIndex(
+      @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex,
+      @Nonnull @jakarta.annotation.Nonnull Consumer<Obj> toStore);
+
+  /**
+   * Like {@link #persistIndexStripesFromIndex(StoreIndex)}, but passes the objects that need to be
+   * stored to {@code toStore} instead of persisting those, so the caller can store them in a single
+   * batch.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  List<IndexStripe> buildIndexStripesFromIndex(
+      @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex,
+      @Nonnull @jakarta.annotation.Nonnull Consumer<Obj> toStore);
+
   /**
    * Updates, if necessary, all commits in the given commit and all its predecessors to contain
    * {@link CommitObj#incompleteIndex() complete indexes}.
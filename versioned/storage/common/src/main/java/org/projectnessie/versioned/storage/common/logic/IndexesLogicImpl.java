@@ -18,12 +18,18 @@ package org.projectnessie.versioned.storage.common.logic;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
+import static org.projectnessie.versioned.storage.common.indexes.KeyBloomFilter.deserializeKeyBloomFilter;
+import static org.projectnessie.versioned.storage.common.indexes.KeyBloomFilter.keyBloomFilter;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.deserializeReadOnlyStoreIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.deserializeStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.emptyImmutableIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.indexFromSplits;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.layeredIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.lazyStoreIndex;
 import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.newStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.serializeWithRestartPoints;
 import static org.projectnessie.versioned.storage.common.logic.CommitLogQuery.commitLogQuery;
 import static org.projectnessie.versioned.storage.common.logic.Logics.commitLogic;
 import static org.projectnessie.versioned.storage.common.objtypes.CommitObj.commitBuilder;
@@ -34,6 +40,7 @@ import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.commi
 import static org.projectnessie.versioned.storage.common.objtypes.IndexObj.index;
 import static org.projectnessie.versioned.storage.common.objtypes.IndexSegmentsObj.indexSegments;
 import static org.projectnessie.versioned.storage.common.objtypes.IndexStripe.indexStripe;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.unwrap;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
 import static org.projectnessie.versioned.storage.common.persist.ObjType.COMMIT;
 import static org.projectnessie.versioned.storage.common.persist.ObjType.INDEX;
@@ -48,14 +55,18 @@ import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
 import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
 import org.projectnessie.versioned.storage.common.exceptions.ObjTooLargeException;
 import org.projectnessie.versioned.storage.common.indexes.IndexLoader;
+import org.projectnessie.versioned.storage.common.indexes.KeyBloomFilter;
 import org.projectnessie.versioned.storage.common.indexes.StoreIndex;
 import org.projectnessie.versioned.storage.common.indexes.StoreIndexElement;
 import org.projectnessie.versioned.storage.common.indexes.StoreKey;
@@ -258,7 +269,8 @@ final class IndexesLogicImpl implements IndexesLogic {
         referenceIndex = referenceIndexFromStripes(indexStripes, commitId);
         break;
       case INDEX:
-        referenceIndex = deserializeIndex(((IndexObj) keyIndex).index()).setObjId(keyIndex.id());
+        referenceIndex =
+            deserializeIndexSegment(((IndexObj) keyIndex).index()).setObjId(keyIndex.id());
         break;
       default:
         throw new IllegalStateException(
@@ -272,6 +284,10 @@ final class IndexesLogicImpl implements IndexesLogic {
     return deserializeStoreIndex(serialized, COMMIT_OP_SERIALIZER);
   }
 
+  static StoreIndex<CommitOp> deserializeIndexSegment(ByteString serialized) {
+    return deserializeReadOnlyStoreIndex(serialized, COMMIT_OP_SERIALIZER);
+  }
+
   private StoreIndex<CommitOp> loadIndexSegment(
       @Nonnull @jakarta.annotation.Nonnull ObjId indexId) {
     IndexObj index;
@@ -281,30 +297,78 @@ final class IndexesLogicImpl implements IndexesLogic {
       throw new IllegalStateException(
           format("Commit %s references a reference index, which does not exist", indexId));
     }
-    return deserializeIndex(index.index()).setObjId(indexId);
+    return deserializeIndexSegment(index.index()).setObjId(indexId);
   }
 
   private StoreIndex<CommitOp>[] loadIndexSegments(
       @Nonnull @jakarta.annotation.Nonnull ObjId[] indexes) {
     try {
-      Obj[] objs = persist.fetchObjs(indexes);
-      @SuppressWarnings("unchecked")
-      StoreIndex<CommitOp>[] r = new StoreIndex[indexes.length];
-      for (int i = 0; i < objs.length; i++) {
-        Obj obj = objs[i];
-        if (obj != null) {
-          IndexObj index = (IndexObj) obj;
-          r[i] = deserializeIndex(index.index()).setObjId(indexes[i]);
-        }
+      return deserializeIndexSegments(indexes, persist.fetchObjs(indexes));
+    } catch (ObjNotFoundException e) {
+      throw segmentsNotFound(e);
+    }
+  }
+
+  private static StoreIndex<CommitOp>[] deserializeIndexSegments(ObjId[] indexes, Obj[] objs) {
+    @SuppressWarnings("unchecked")
+    StoreIndex<CommitOp>[] r = new StoreIndex[indexes.length];
+    for (int i = 0; i < objs.length; i++) {
+      Obj obj = objs[i];
+      if (obj != null) {
+        IndexObj index = (IndexObj) obj;
+        r[i] = deserializeIndexSegment(index.index()).setObjId(indexes[i]);
       }
-      return r;
+    }
+    return r;
+  }
+
+  private static RuntimeException segmentsNotFound(Throwable failure) {
+    if (failure instanceof ObjNotFoundException) {
+      return new IllegalStateException(
+          format(
+              "Reference index segments %s not found", ((ObjNotFoundException) failure).objIds()));
+    }
+    if (failure instanceof RuntimeException) {
+      return (RuntimeException) failure;
+    }
+    return new RuntimeException(failure);
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public List<IndexStripe> referenceIndexStripes(
+      @Nonnull @jakarta.annotation.Nonnull CommitObj commit) {
+    List<IndexStripe> commitStripes = commit.referenceIndexStripes();
+    if (!commitStripes.isEmpty()) {
+      return commitStripes;
+    }
+    ObjId referenceIndexId = commit.referenceIndex();
+    if (referenceIndexId == null) {
+      return emptyList();
+    }
+    Obj keyIndex;
+    try {
+      keyIndex = persist.fetchObj(referenceIndexId);
     } catch (ObjNotFoundException e) {
-      throw new IllegalStateException(format("Reference index segments %s not found", e.objIds()));
+      throw new IllegalStateException(
+          format("Commit %s references a reference index, which does not exist", commit.id()));
     }
+    return keyIndex instanceof IndexSegmentsObj
+        ? ((IndexSegmentsObj) keyIndex).stripes()
+        : emptyList();
   }
 
-  private StoreIndex<CommitOp> referenceIndexFromStripes(
-      List<IndexStripe> indexStripes, ObjId commitId) {
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public StoreIndex<CommitOp> referenceIndexFromStripes(
+      @Nonnull @jakarta.annotation.Nonnull List<IndexStripe> indexStripes,
+      @Nonnull @jakarta.annotation.Nonnull ObjId commitId) {
+    if (indexStripes.isEmpty()) {
+      return emptyImmutableIndex(COMMIT_OP_SERIALIZER);
+    }
+
     List<StoreIndex<CommitOp>> stripes = new ArrayList<>(indexStripes.size());
     List<StoreKey> firstLastKeys = new ArrayList<>(indexStripes.size() * 2);
 
@@ -331,7 +395,8 @@ final class IndexesLogicImpl implements IndexesLogic {
                   },
                   s.firstKey(),
                   s.lastKey())
-              .setObjId(s.segment()));
+              .setObjId(s.segment())
+              .setKeyFilter(keyFilter(s)));
       firstLastKeys.add(s.firstKey());
       firstLastKeys.add(s.lastKey());
     }
@@ -340,40 +405,75 @@ final class IndexesLogicImpl implements IndexesLogic {
     }
 
     IndexLoader<CommitOp> indexLoader =
-        indexesToLoad -> {
-          checkArgument(indexesToLoad.length == loaded.length);
-          ObjId[] ids = new ObjId[indexesToLoad.length];
-          int cnt = 0;
-          for (int i = 0; i < indexesToLoad.length; i++) {
-            StoreIndex<CommitOp> idx = indexesToLoad[i];
-            if (idx != null) {
-              ObjId segmentId = idx.getObjId();
-              if (segmentId != null) {
-                ids[i] = idx.getObjId();
-                cnt++;
-              } else {
-                LOGGER.warn("Reference index Segment #{} has no objId for commit {}", i, commitId);
+        new IndexLoader<CommitOp>() {
+          @Nonnull
+          @jakarta.annotation.Nonnull
+          @Override
+          public StoreIndex<CommitOp>[] loadIndexes(
+              @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp>[] indexesToLoad) {
+            ObjId[] ids = segmentIds(indexesToLoad);
+            return segmentsLoaded(ids, loadIndexSegments(ids));
+          }
+
+          @Nonnull
+          @jakarta.annotation.Nonnull
+          @Override
+          public CompletionStage<StoreIndex<CommitOp>[]> loadIndexesAsync(
+              @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp>[] indexesToLoad) {
+            ObjId[] ids = segmentIds(indexesToLoad);
+            return persist
+                .fetchObjsAsync(ids)
+                .handle(
+                    (objs, failure) -> {
+                      if (failure != null) {
+                        throw segmentsNotFound(unwrap(failure));
+                      }
+                      return segmentsLoaded(ids, deserializeIndexSegments(ids, objs));
+                    });
+          }
+
+          private ObjId[] segmentIds(StoreIndex<CommitOp>[] indexesToLoad) {
+            checkArgument(indexesToLoad.length == loaded.length);
+            ObjId[] ids = new ObjId[indexesToLoad.length];
+            int cnt = 0;
+            for (int i = 0; i < indexesToLoad.length; i++) {
+              StoreIndex<CommitOp> idx = indexesToLoad[i];
+              if (idx != null) {
+                ObjId segmentId = idx.getObjId();
+                if (segmentId != null) {
+                  ids[i] = idx.getObjId();
+                  cnt++;
+                } else {
+                  LOGGER.warn(
+                      "Reference index Segment #{} has no objId for commit {}", i, commitId);
+                }
               }
             }
+            LOGGER.debug(
+                "Fetching {} of {} index segments for commit {}", cnt, ids.length, commitId);
+            return ids;
           }
-          LOGGER.debug("Fetching {} of {} index segments for commit {}", cnt, ids.length, commitId);
-          StoreIndex<CommitOp>[] indexes = loadIndexSegments(ids);
-          for (int i = 0; i < indexes.length; i++) {
-            StoreIndex<CommitOp> idx = indexes[i];
-            if (idx != null) {
-              loaded[i] = idx;
-            } else if (ids[i] != null) {
-              LOGGER.warn(
-                  "Reference index Segment #{} has with id {} not loaded for commit {}",
-                  i,
-                  ids[i],
-                  commitId);
+
+          private StoreIndex<CommitOp>[] segmentsLoaded(
+              ObjId[] ids, StoreIndex<CommitOp>[] indexes) {
+            for (int i = 0; i < indexes.length; i++) {
+              StoreIndex<CommitOp> idx = indexes[i];
+              if (idx != null) {
+                loaded[i] = idx;
+              } else if (ids[i] != null) {
+                LOGGER.warn(
+                    "Reference index Segment #{} has with id {} not loaded for commit {}",
+                    i,
+                    ids[i],
+                    commitId);
+              }
             }
+            return indexes;
           }
-          return indexes;
         };
 
-    return indexFromSplits(stripes, firstLastKeys, indexLoader);
+    return indexFromSplits(
+        stripes, firstLastKeys, indexLoader, persist.config().indexStripeReadAhead());
   }
 
   @Nonnull
@@ -382,21 +482,43 @@ final class IndexesLogicImpl implements IndexesLogic {
   public ObjId persistStripedIndex(
       @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex)
       throws ObjTooLargeException {
+    List<Obj> toStore = new ArrayList<>();
+    ObjId id = buildStripedIndex(stripedIndex, toStore::add);
+    storeObjs(toStore);
+    return id;
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public List<IndexStripe> persistIndexStripesFromIndex(
+      @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex)
+      throws ObjTooLargeException {
+    List<Obj> toStore = new ArrayList<>();
+    List<IndexStripe> indexStripes = buildIndexStripesFromIndex(stripedIndex, toStore::add);
+    storeObjs(toStore);
+    return indexStripes;
+  }
+
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  @Override
+  public ObjId buildStripedIndex(
+      @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex,
+      @Nonnull @jakarta.annotation.Nonnull Consumer<Obj> toStore) {
     List<StoreIndex<CommitOp>> stripes = stripedIndex.stripes();
     if (stripes.isEmpty()) {
-      return persistIndex(stripedIndex);
+      return buildIndex(stripedIndex, toStore);
     }
     if (stripes.size() == 1) {
-      return persistIndex(stripes.get(0));
+      return buildIndex(stripes.get(0), toStore);
     }
 
-    List<Obj> toStore = new ArrayList<>();
-    List<IndexStripe> indexStripes = buildIndexStripes(stripes, toStore);
+    List<IndexStripe> indexStripes =
+        buildIndexStripes(stripes, toStore, persist.config().maxSerializedIndexSize() / 4);
 
     IndexSegmentsObj referenceIndex = indexSegments(indexStripes);
-    toStore.add(referenceIndex);
-
-    persist.storeObjs(toStore.toArray(new Obj[0]));
+    toStore.accept(referenceIndex);
 
     return requireNonNull(referenceIndex.id());
   }
@@ -404,18 +526,29 @@ final class IndexesLogicImpl implements IndexesLogic {
   @Nonnull
   @jakarta.annotation.Nonnull
   @Override
-  public List<IndexStripe> persistIndexStripesFromIndex(
-      @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex)
-      throws ObjTooLargeException {
-    List<StoreIndex<CommitOp>> stripes = stripedIndex.stripes();
-    List<Obj> toStore = new ArrayList<>();
-    List<IndexStripe> indexStripes = buildIndexStripes(stripes, toStore);
-    persist.storeObjs(toStore.toArray(new Obj[0]));
-    return indexStripes;
+  public List<IndexStripe> buildIndexStripesFromIndex(
+      @Nonnull @jakarta.annotation.Nonnull StoreIndex<CommitOp> stripedIndex,
+      @Nonnull @jakarta.annotation.Nonnull Consumer<Obj> toStore) {
+    return buildIndexStripes(
+        stripedIndex.stripes(), toStore, persist.config().maxIncrementalIndexSize() / 4);
+  }
+
+  private void storeObjs(List<Obj> toStore) throws ObjTooLargeException {
+    if (!toStore.isEmpty()) {
+      persist.storeObjs(toStore.toArray(new Obj[0]));
+    }
+  }
+
+  private static KeyBloomFilter keyFilter(IndexStripe stripe) {
+    ByteString keyFilter = stripe.keyFilter();
+    return keyFilter != null ? deserializeKeyBloomFilter(keyFilter) : null;
   }
 
   private List<IndexStripe> buildIndexStripes(
-      List<StoreIndex<CommitOp>> stripes, List<Obj> toStore) {
+      List<StoreIndex<CommitOp>> stripes, Consumer<Obj> toStore, int keyFiltersBudget) {
+    int bitsPerKey = persist.config().indexStripeKeyFilterBitsPerKey();
+    int keyFiltersSize = 0;
+
     List<IndexStripe> indexStripes = new ArrayList<>(stripes.size());
     for (StoreIndex<CommitOp> indexSegment : stripes) {
       ObjId segId;
@@ -424,8 +557,8 @@ final class IndexesLogicImpl implements IndexesLogic {
             requireNonNull(
                 indexSegment.getObjId(), "Loaded index segment does not contain its ObjId");
       } else {
-        IndexObj segment = index(indexSegment.serialize());
-        toStore.add(segment);
+        IndexObj segment = index(serializeIndexSegment(indexSegment));
+        toStore.accept(segment);
         segId = segment.id();
       }
 
@@ -433,22 +566,51 @@ final class IndexesLogicImpl implements IndexesLogic {
       StoreKey last = indexSegment.last();
       checkState(first != null && last != null);
 
-      indexStripes.add(indexStripe(first, last, segId));
+      // Reuse the key filter of an unchanged stripe, build it for new and loaded stripes.
+      ByteString keyFilter = null;
+      if (bitsPerKey > 0 && keyFiltersSize < keyFiltersBudget) {
+        KeyBloomFilter filter = indexSegment.getKeyFilter();
+        if (filter == null && indexSegment.isLoaded()) {
+          filter = keyBloomFilter(indexSegment, bitsPerKey);
+        }
+        if (filter != null && keyFiltersSize + filter.serializedSize() <= keyFiltersBudget) {
+          keyFilter = filter.serialize();
+          keyFiltersSize += filter.serializedSize();
+        }
+      }
+
+      indexStripes.add(indexStripe(first, last, segId, keyFilter));
     }
 
     return indexStripes;
   }
 
-  private ObjId persistIndex(StoreIndex<CommitOp> indexSegment) throws ObjTooLargeException {
+  private ObjId buildIndex(StoreIndex<CommitOp> indexSegment, Consumer<Obj> toStore) {
     if (!indexSegment.isModified()) {
       return requireNonNull(
           indexSegment.getObjId(), "Loaded index segment does not contain its ObjId");
     }
-    IndexObj segment = index(indexSegment.serialize());
-    persist.storeObj(segment);
+    IndexObj segment = index(serializeIndexSegment(indexSegment));
+    toStore.accept(segment);
     return segment.id();
   }
 
+  /**
+   * Serializes a reference index segment using the configured {@link
+   * StoreConfig#indexSerializationVersion() serialization version}.
+   */
+  private ByteString serializeIndexSegment(StoreIndex<CommitOp> indexSegment) {
+    int version = persist.config().indexSerializationVersion();
+    switch (version) {
+      case 1:
+        return indexSegment.serialize();
+      case 2:
+        return serializeWithRestartPoints(indexSegment, COMMIT_OP_SERIALIZER);
+      default:
+        throw new IllegalArgumentException("Unsupported index serialization version " + version);
+    }
+  }
+
   @Override
   public void completeIndexesInCommitChain(
       @Nonnull @jakarta.annotation.Nonnull ObjId commitId, Runnable progressCallback)
@@ -52,6 +52,29 @@ public interface ReferenceLogic {
     return ref;
   }
 
+  /**
+   * Like {@link #getReferences(List)}, but always returns the current state of the references,
+   * bypassing any reference cache. Used when references are about to be updated and for reads that
+   * must observe the latest state of a reference.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  List<Reference> getReferencesForUpdate(
+      @Nonnull @jakarta.annotation.Nonnull List<String> references);
+
+  /** Like {@link #getReference(String)}, but bypasses any reference cache. */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default Reference getReferenceForUpdate(@Nonnull @jakarta.annotation.Nonnull String name)
+      throws RefNotFoundException {
+    List<Reference> refs = getReferencesForUpdate(Collections.singletonList(name));
+    Reference ref = refs.get(0);
+    if (ref == null) {
+      throw new RefNotFoundException(name);
+    }
+    return ref;
+  }
+
   /**
    * Performs the query against existing references according to the given {@link ReferencesQuery},
    * which should really depend on the serialized result of the query result in a "public API".
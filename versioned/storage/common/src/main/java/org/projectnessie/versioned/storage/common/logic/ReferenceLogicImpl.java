@@ -48,7 +48,9 @@ import static org.projectnessie.versioned.storage.common.persist.Reference.refer
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.AbstractIterator;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
@@ -169,6 +171,12 @@ import org.projectnessie.versioned.storage.common.persist.Reference;
  */
 final class ReferenceLogicImpl implements ReferenceLogic {
 
+  /**
+   * Number of reference names read ahead from {@link InternalRef#REF_REFS} and resolved via a
+   * single {@link Persist#fetchReferences(String[])} call when listing references.
+   */
+  static final int QUERY_REFERENCES_BATCH_SIZE = 50;
+
   private final Persist persist;
 
   ReferenceLogicImpl(Persist persist) {
@@ -180,7 +188,21 @@ final class ReferenceLogicImpl implements ReferenceLogic {
   @jakarta.annotation.Nonnull
   public List<Reference> getReferences(
       @Nonnull @jakarta.annotation.Nonnull List<String> references) {
-    Reference[] refs = persist.fetchReferences(references.toArray(new String[0]));
+    return getReferences(references, false);
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public List<Reference> getReferencesForUpdate(
+      @Nonnull @jakarta.annotation.Nonnull List<String> references) {
+    return getReferences(references, true);
+  }
+
+  private List<Reference> getReferences(List<String> references, boolean forUpdate) {
+    String[] names = references.toArray(new String[0]);
+    Reference[] refs =
+        forUpdate ? persist.fetchReferencesForUpdate(names) : persist.fetchReferences(names);
     List<Reference> r = new ArrayList<>(refs.length);
 
     Supplier<StoreIndex<CommitOp>> refsIndexSupplier = createRefsIndexSupplier();
@@ -225,6 +247,8 @@ final class ReferenceLogicImpl implements ReferenceLogic {
     private final StoreIndex<CommitOp> index;
     private final Iterator<StoreIndexElement<CommitOp>> base;
     private final StoreKey prefix;
+    private final Deque<Reference> batch = new ArrayDeque<>(QUERY_REFERENCES_BATCH_SIZE);
+    private boolean exhausted;
 
     private QueryIter(
         StoreIndex<CommitOp> index, StoreKey prefix, StoreKey begin, boolean prefetch) {
@@ -235,20 +259,44 @@ final class ReferenceLogicImpl implements ReferenceLogic {
 
     @Override
     protected Reference computeNext() {
-      while (true) {
-        if (!base.hasNext()) {
+      while (batch.isEmpty()) {
+        if (exhausted) {
           return endOfData();
         }
+        fetchNextBatch();
+      }
+      return batch.removeFirst();
+    }
+
+    /**
+     * Reads up to {@link #QUERY_REFERENCES_BATCH_SIZE} reference names from the index and resolves
+     * those with a single {@link Persist#fetchReferences(String[])} call.
+     */
+    private void fetchNextBatch() {
+      List<String> names = new ArrayList<>(QUERY_REFERENCES_BATCH_SIZE);
+      while (names.size() < QUERY_REFERENCES_BATCH_SIZE) {
+        if (!base.hasNext()) {
+          exhausted = true;
+          break;
+        }
 
-        StoreIndexElement<CommitOp> el = base.next();
-        StoreKey k = el.key();
+        StoreKey k = base.next().key();
         if (prefix != null && !k.startsWith(prefix)) {
-          return endOfData();
+          exhausted = true;
+          break;
         }
-        String name = k.rawString();
-        Reference r = maybeRecover(name, persist.fetchReference(el.key().rawString()), () -> index);
+        names.add(k.rawString());
+      }
+
+      if (names.isEmpty()) {
+        return;
+      }
+
+      Reference[] refs = persist.fetchReferences(names.toArray(new String[0]));
+      for (int i = 0; i < refs.length; i++) {
+        Reference r = maybeRecover(names.get(i), refs[i], () -> index);
         if (r != null) {
-          return r;
+          batch.addLast(r);
         }
       }
     }
@@ -313,7 +361,7 @@ final class ReferenceLogicImpl implements ReferenceLogic {
       throws RefNotFoundException, RefConditionFailedException, RetryTimeoutException {
     checkArgument(!isInternalReferenceName(name));
 
-    Reference reference = persist.fetchReference(name);
+    Reference reference = persist.fetchReferenceForUpdate(name);
     if (reference == null) {
       StoreKey nameKey = key(name);
       Supplier<StoreIndex<CommitOp>> indexSupplier = createRefsIndexSupplier();
@@ -379,8 +427,10 @@ final class ReferenceLogicImpl implements ReferenceLogic {
     try {
       return commitRetry(
           persist,
+          REF_REFS.name(),
+          null,
           (p, retryState) -> {
-            Reference refRefs = requireNonNull(p.fetchReference(REF_REFS.name()));
+            Reference refRefs = requireNonNull(p.fetchReferenceForUpdate(REF_REFS.name()));
             long created = p.config().currentTimeMicros();
             RefObj ref = ref(name, pointer, created);
             try {
@@ -422,7 +472,7 @@ final class ReferenceLogicImpl implements ReferenceLogic {
       StoreIndexElement<CommitOp> el = indexSupplier.get().get(key(name));
       checkNotNull(el, "Key %s missing in index", name);
 
-      Reference existing = persist.fetchReference(name);
+      Reference existing = persist.fetchReferenceForUpdate(name);
 
       if (existing != null) {
         return new CommitReferenceResult(existing, REF_ROW_EXISTS);
@@ -455,8 +505,10 @@ final class ReferenceLogicImpl implements ReferenceLogic {
     try {
       commitRetry(
           persist,
+          REF_REFS.name(),
+          null,
           (p, retryState) -> {
-            Reference refRefs = requireNonNull(p.fetchReference(REF_REFS.name()));
+            Reference refRefs = requireNonNull(p.fetchReferenceForUpdate(REF_REFS.name()));
             CommitObj commit;
             try {
               commit = p.fetchTypedObj(refRefs.pointer(), COMMIT, CommitObj.class);
@@ -629,7 +681,7 @@ final class ReferenceLogicImpl implements ReferenceLogic {
     return indexesLogic(persist)
         .createIndexSupplier(
             () -> {
-              Reference ref = persist.fetchReference(REF_REFS.name());
+              Reference ref = persist.fetchReferenceForUpdate(REF_REFS.name());
               return ref != null ? ref.pointer() : EMPTY_OBJ_ID;
             });
   }
@@ -182,7 +182,7 @@ final class RepositoryLogicImpl implements RepositoryLogic {
   @SuppressWarnings({"JavaTimeDefaultTimeZone"})
   private void initializeInternalRef(
       InternalRef internalRef, Consumer<CreateCommit.Builder> commitEnhancer) {
-    Reference reference = persist.fetchReference(internalRef.name());
+    Reference reference = persist.fetchReferenceForUpdate(internalRef.name());
 
     if (reference == null) {
       CreateCommit.Builder c =
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.logic;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+import com.google.common.cache.CacheBuilder;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.projectnessie.versioned.storage.common.config.RetryBackoffPolicy;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
+
+/**
+ * Recently observed contention on a reference, used by {@link RetryBackoffPolicy#ADAPTIVE} to
+ * compute the initial sleep time of a commit retry loop.
+ *
+ * <p>Every failed reference update doubles the initial sleep time, every successful update
+ * decreases it by {@link StoreConfig#retryInitialSleepMillisLower()}, bounded by that value and
+ * {@link StoreConfig#retryMaxSleepMillis()}.
+ */
+final class RetryContention {
+
+  private static final ConcurrentMap<String, RetryContention> CONTENTIONS =
+      CacheBuilder.newBuilder()
+          .expireAfterAccess(5, MINUTES)
+          .maximumSize(10_000)
+          .<String, RetryContention>build()
+          .asMap();
+
+  private final long minSleepMillis;
+  private final long maxSleepMillis;
+  private final AtomicLong initialSleepMillis;
+
+  RetryContention(long minSleepMillis, long maxSleepMillis) {
+    this.minSleepMillis = Math.max(1L, minSleepMillis);
+    this.maxSleepMillis = Math.max(this.minSleepMillis, maxSleepMillis);
+    this.initialSleepMillis = new AtomicLong(this.minSleepMillis);
+  }
+
+  static RetryContention forReference(StoreConfig config, String referenceName) {
+    return CONTENTIONS.computeIfAbsent(
+        config.repositoryId() + '\u0000' + referenceName,
+        k ->
+            new RetryContention(
+                config.retryInitialSleepMillisLower(), config.retryMaxSleepMillis()));
+  }
+
+  long initialSleepMillis() {
+    return initialSleepMillis.get();
+  }
+
+  /** Called when a reference update failed due to a concurrent change. */
+  void contended() {
+    initialSleepMillis.updateAndGet(v -> Math.min(maxSleepMillis, v * 2));
+  }
+
+  /** Called when a reference update succeeded. */
+  void uncontended() {
+    initialSleepMillis.updateAndGet(v -> Math.max(minSleepMillis, v - minSleepMillis));
+  }
+}
@@ -184,6 +184,18 @@ public interface CommitOp {
       UUID contentId = (msb != 0L || lsb != 0L) ? new UUID(msb, lsb) : null;
       return commitOp(operation, payload, id, contentId);
     }
+
+    @Override
+    public void skip(ByteBuffer buffer) {
+      // action
+      buffer.get();
+      // payload
+      readVarInt(buffer);
+      // value
+      int idLen = readVarInt(buffer);
+      // value + content-ID
+      buffer.position(buffer.position() + idLen + 16);
+    }
   }
 
   /**
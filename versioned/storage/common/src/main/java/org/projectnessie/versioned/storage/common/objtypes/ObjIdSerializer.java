@@ -16,6 +16,7 @@
 package org.projectnessie.versioned.storage.common.objtypes;
 
 import static org.projectnessie.versioned.storage.common.persist.ObjId.deserializeObjId;
+import static org.projectnessie.versioned.storage.common.util.Ser.readVarInt;
 
 import java.nio.ByteBuffer;
 import org.projectnessie.versioned.storage.common.indexes.ElementSerializer;
@@ -40,4 +41,10 @@ public final class ObjIdSerializer implements ElementSerializer<ObjId> {
   public ObjId deserialize(ByteBuffer buffer) {
     return deserializeObjId(buffer);
   }
+
+  @Override
+  public void skip(ByteBuffer buffer) {
+    int len = readVarInt(buffer);
+    buffer.position(buffer.position() + len);
+  }
 }
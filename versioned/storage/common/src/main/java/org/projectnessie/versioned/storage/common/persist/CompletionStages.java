@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.persist;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/** Helpers for the asynchronous functions of {@link Persist}. */
+public final class CompletionStages {
+  private CompletionStages() {}
+
+  /**
+   * Runs the given blocking call in the current thread and returns its result as a completed stage.
+   * Exceptions thrown by the call, including checked ones like {@link
+   * org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException}, complete the
+   * returned stage exceptionally.
+   */
+  public static <T> CompletionStage<T> blocking(Callable<T> call) {
+    try {
+      return CompletableFuture.completedFuture(call.call());
+    } catch (Exception e) {
+      return failed(e);
+    }
+  }
+
+  public static <T> CompletionStage<T> failed(Throwable failure) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    future.completeExceptionally(failure);
+    return future;
+  }
+
+  /**
+   * Returns the cause of a {@link CompletionException}, which wraps exceptions thrown by dependent
+   * stages, or the given throwable itself.
+   */
+  public static Throwable unwrap(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause()
+        : failure;
+  }
+}
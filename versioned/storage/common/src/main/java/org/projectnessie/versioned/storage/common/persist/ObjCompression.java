@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.persist;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static org.projectnessie.versioned.storage.common.objtypes.ContentValueObj.contentValue;
+import static org.projectnessie.versioned.storage.common.objtypes.IndexObj.index;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+import javax.annotation.Nonnull;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.nessie.relocated.protobuf.CodedInputStream;
+import org.projectnessie.nessie.relocated.protobuf.CodedOutputStream;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
+import org.projectnessie.versioned.storage.common.objtypes.Compression;
+import org.projectnessie.versioned.storage.common.objtypes.ContentValueObj;
+import org.projectnessie.versioned.storage.common.objtypes.IndexObj;
+
+/**
+ * Transparent compression of the binary payloads of {@link IndexObj#index() index segments} and
+ * {@link ContentValueObj#data() content values}, to be used by {@link Persist} implementations in
+ * their store and fetch paths.
+ *
+ * <p>A compressed payload starts with a 3-byte magic ({@code 0x00 'N' 'c'}), followed by the {@link
+ * Compression#value() compression type}, the var-int encoded size of the uncompressed payload and
+ * the compressed bytes. Payloads that do not start with the magic are returned as they are by
+ * {@link #decompressObj(Obj)}, so rows that have been written without compression remain readable.
+ * Serialized indexes start with their (non-zero) serialization version, serialized content values
+ * are either protobuf messages, which never start with a zero byte, or text.
+ *
+ * <p>Object IDs are always computed from the uncompressed payload, compression does not change
+ * object IDs.
+ */
+public final class ObjCompression {
+
+  static final byte[] MAGIC = {0, 'N', 'c'};
+  private static final int HEADER_SIZE = MAGIC.length + 1;
+
+  private ObjCompression() {}
+
+  /**
+   * Returns an object with a compressed payload, if compression is configured for the object's
+   * type, the payload is at least {@link StoreConfig#compressionMinSize()} bytes big and the
+   * compressed payload is smaller than the uncompressed one. Otherwise, returns {@code obj}.
+   */
+  public static Obj compressObj(
+      @Nonnull @jakarta.annotation.Nonnull Obj obj,
+      @Nonnull @jakarta.annotation.Nonnull StoreConfig config) {
+    switch (obj.type()) {
+      case INDEX:
+        IndexObj index = (IndexObj) obj;
+        ByteString compressedIndex =
+            maybeCompress(config.indexCompression(), config.compressionMinSize(), index.index());
+        return compressedIndex != null ? index(index.id(), compressedIndex) : obj;
+      case VALUE:
+        ContentValueObj value = (ContentValueObj) obj;
+        ByteString compressedValue =
+            maybeCompress(config.valueCompression(), config.compressionMinSize(), value.data());
+        return compressedValue != null
+            ? contentValue(value.id(), value.contentId(), value.payload(), compressedValue)
+            : obj;
+      default:
+        return obj;
+    }
+  }
+
+  /**
+   * Returns an object with the uncompressed payload, if the payload of the given object is
+   * compressed. Otherwise, returns {@code obj}.
+   */
+  public static Obj decompressObj(Obj obj) {
+    if (obj == null) {
+      return null;
+    }
+    switch (obj.type()) {
+      case INDEX:
+        IndexObj index = (IndexObj) obj;
+        return isCompressed(index.index()) ? index(index.id(), decompress(index.index())) : obj;
+      case VALUE:
+        ContentValueObj value = (ContentValueObj) obj;
+        return isCompressed(value.data())
+            ? contentValue(value.id(), value.contentId(), value.payload(), decompress(value.data()))
+            : obj;
+      default:
+        return obj;
+    }
+  }
+
+  /** Applies {@link #decompressObj(Obj)} to all elements of the given array, in place. */
+  public static Obj[] decompressObjs(@Nonnull @jakarta.annotation.Nonnull Obj[] objs) {
+    for (int i = 0; i < objs.length; i++) {
+      objs[i] = decompressObj(objs[i]);
+    }
+    return objs;
+  }
+
+  static ByteString maybeCompress(Compression compression, int minSize, ByteString data) {
+    if (compression == Compression.NONE || data.size() < minSize) {
+      return null;
+    }
+    ByteString compressed = compress(compression, data);
+    return compressed.size() < data.size() ? compressed : null;
+  }
+
+  static boolean isCompressed(ByteString data) {
+    if (data.size() < HEADER_SIZE) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (data.byteAt(i) != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static ByteString compress(Compression compression, ByteString data) {
+    ByteString.Output output = ByteString.newOutput(data.size() / 2 + 16);
+    try {
+      output.write(MAGIC);
+      output.write(compression.value());
+      CodedOutputStream coded = CodedOutputStream.newInstance(output, 16);
+      coded.writeUInt32NoTag(data.size());
+      coded.flush();
+      try (OutputStream out = compressingStream(compression, output)) {
+        data.writeTo(out);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return output.toByteString();
+  }
+
+  static ByteString decompress(ByteString data) {
+    checkArgument(isCompressed(data), "Data is not compressed");
+    Compression compression = Compression.fromValue((char) data.byteAt(MAGIC.length));
+    try {
+      InputStream input = data.substring(HEADER_SIZE).newInput();
+      int size = CodedInputStream.readRawVarint32(input.read(), input);
+      checkArgument(size >= 0, "Illegal uncompressed size %s", size);
+      try (InputStream in = decompressingStream(compression, input)) {
+        return ByteString.readFrom(in, Math.max(size, 256));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static OutputStream compressingStream(Compression compression, OutputStream output)
+      throws IOException {
+    switch (compression) {
+      case DEFLATE:
+        return new DeflaterOutputStream(output);
+      case GZIP:
+        return new GZIPOutputStream(output);
+      case ZSTD:
+        return new ZstdOutputStream(output);
+      case LZ4:
+        return new LZ4FrameOutputStream(output);
+      default:
+        throw new IllegalArgumentException("Unsupported compression " + compression);
+    }
+  }
+
+  private static InputStream decompressingStream(Compression compression, InputStream input)
+      throws IOException {
+    switch (compression) {
+      case DEFLATE:
+        return new InflaterInputStream(input);
+      case GZIP:
+        return new GZIPInputStream(input);
+      case ZSTD:
+        return new ZstdInputStream(input);
+      case LZ4:
+        return new LZ4FrameInputStream(input);
+      default:
+        throw new IllegalArgumentException("Unsupported compression " + compression);
+    }
+  }
+}
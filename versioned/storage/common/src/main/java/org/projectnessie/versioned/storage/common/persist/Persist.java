@@ -15,7 +15,10 @@
  */
 package org.projectnessie.versioned.storage.common.persist;
 
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.blocking;
+
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.projectnessie.versioned.storage.common.config.StoreConfig;
@@ -147,6 +150,36 @@ public interface Persist {
   @jakarta.annotation.Nonnull
   Reference[] fetchReferences(@Nonnull @jakarta.annotation.Nonnull String[] names);
 
+  /**
+   * Like {@link #fetchReference(String)}, but always returns the current state of the reference
+   * from the database, bypassing any reference cache. Used when the reference is about to be
+   * updated and for reads that must observe the latest state, like reads pinned to a commit hash.
+   *
+   * <p><em>Do not use this function from service implementations, use {@link ReferenceLogic}
+   * instead!</em>
+   *
+   * @return the reference or {@code null}, if it does not exist
+   */
+  @Nullable
+  @jakarta.annotation.Nullable
+  default Reference fetchReferenceForUpdate(@Nonnull @jakarta.annotation.Nonnull String name) {
+    return fetchReference(name);
+  }
+
+  /**
+   * Like {@link #fetchReferences(String[])}, but bypasses any reference cache, see {@link
+   * #fetchReferenceForUpdate(String)}.
+   *
+   * <p><em>Do not use this function from service implementations, use {@link ReferenceLogic}
+   * instead!</em>
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default Reference[] fetchReferencesForUpdate(
+      @Nonnull @jakarta.annotation.Nonnull String[] names) {
+    return fetchReferences(names);
+  }
+
   // Objects
 
   /**
@@ -330,4 +363,75 @@ public interface Persist {
    * can lead to a <em>very</em> long runtime of this method.
    */
   void erase();
+
+  // Asynchronous variants
+
+  /**
+   * Asynchronous variant of {@link #fetchReference(String)}.
+   *
+   * <p>The default implementation delegates to the blocking function, backends that use an
+   * asynchronous database driver should override it.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default CompletionStage<Reference> fetchReferenceAsync(
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    return blocking(() -> fetchReference(name));
+  }
+
+  /**
+   * Asynchronous variant of {@link #updateReferencePointer(Reference, ObjId)}, the returned stage
+   * completes exceptionally with a {@link RefNotFoundException} or {@link
+   * RefConditionFailedException}.
+   *
+   * <p>The default implementation delegates to the blocking function, backends that use an
+   * asynchronous database driver should override it.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default CompletionStage<Reference> updateReferencePointerAsync(
+      @Nonnull @jakarta.annotation.Nonnull Reference reference,
+      @Nonnull @jakarta.annotation.Nonnull ObjId newPointer) {
+    return blocking(() -> updateReferencePointer(reference, newPointer));
+  }
+
+  /**
+   * Asynchronous variant of {@link #fetchObj(ObjId)}, the returned stage completes exceptionally
+   * with an {@link ObjNotFoundException}.
+   *
+   * <p>The default implementation delegates to the blocking function, backends that use an
+   * asynchronous database driver should override it.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default CompletionStage<Obj> fetchObjAsync(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    return blocking(() -> fetchObj(id));
+  }
+
+  /**
+   * Asynchronous variant of {@link #fetchObjs(ObjId[])}, the returned stage completes
+   * exceptionally with an {@link ObjNotFoundException}.
+   *
+   * <p>The default implementation delegates to the blocking function, backends that use an
+   * asynchronous database driver should override it.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default CompletionStage<Obj[]> fetchObjsAsync(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids) {
+    return blocking(() -> fetchObjs(ids));
+  }
+
+  /**
+   * Asynchronous variant of {@link #storeObjs(Obj[])}, the returned stage completes exceptionally
+   * with an {@link ObjTooLargeException}.
+   *
+   * <p>The default implementation delegates to the blocking function, backends that use an
+   * asynchronous database driver should override it.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  default CompletionStage<boolean[]> storeObjsAsync(
+      @Nonnull @jakarta.annotation.Nonnull Obj[] objs) {
+    return blocking(() -> storeObjs(objs));
+  }
 }
@@ -19,17 +19,25 @@ import static java.util.Collections.singletonMap;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_ASSUMED_WALL_CLOCK_DRIFT_MICROS;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_LOG_READ_AHEAD;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_RETRIES;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_TIMEOUT_MILLIS;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMPRESSION_MIN_SIZE;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_INDEX_COMPRESSION;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_INDEX_SERIALIZATION_VERSION;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_INDEX_STRIPE_READ_AHEAD;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MAX_INCREMENTAL_INDEX_SIZE;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MAX_REFERENCE_STRIPES_PER_COMMIT;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MAX_SERIALIZED_INDEX_SIZE;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MERGE_BASE_CACHE_SIZE;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_NAMESPACE_VALIDATION;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_PARENTS_PER_COMMIT;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_REPOSITORY_ID;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_RETRY_INITIAL_SLEEP_MILLIS_LOWER;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_RETRY_INITIAL_SLEEP_MILLIS_UPPER;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_RETRY_MAX_SLEEP_MILLIS;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_VALUE_COMPRESSION;
 
 import java.time.Clock;
 import java.time.Instant;
@@ -46,6 +54,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.projectnessie.versioned.storage.common.config.StoreConfig.Adjustable;
+import org.projectnessie.versioned.storage.common.objtypes.Compression;
 
 @ExtendWith(SoftAssertionsExtension.class)
 public class TestStoreConfig {
@@ -106,6 +115,36 @@ public class TestStoreConfig {
             "123654",
             (Function<Adjustable, StoreConfig>) e -> e.withMaxReferenceStripesPerCommit(123654),
             (Predicate<StoreConfig>) c -> c.maxReferenceStripesPerCommit() == 123654),
+        arguments(
+            CONFIG_INDEX_STRIPE_KEY_FILTER_BITS_PER_KEY,
+            "12",
+            (Function<Adjustable, StoreConfig>) e -> e.withIndexStripeKeyFilterBitsPerKey(12),
+            (Predicate<StoreConfig>) c -> c.indexStripeKeyFilterBitsPerKey() == 12),
+        arguments(
+            CONFIG_INDEX_SERIALIZATION_VERSION,
+            "2",
+            (Function<Adjustable, StoreConfig>) e -> e.withIndexSerializationVersion(2),
+            (Predicate<StoreConfig>) c -> c.indexSerializationVersion() == 2),
+        arguments(
+            CONFIG_INDEX_STRIPE_READ_AHEAD,
+            "7",
+            (Function<Adjustable, StoreConfig>) e -> e.withIndexStripeReadAhead(7),
+            (Predicate<StoreConfig>) c -> c.indexStripeReadAhead() == 7),
+        arguments(
+            CONFIG_INDEX_COMPRESSION,
+            "deflate",
+            (Function<Adjustable, StoreConfig>) e -> e.withIndexCompression(Compression.DEFLATE),
+            (Predicate<StoreConfig>) c -> c.indexCompression() == Compression.DEFLATE),
+        arguments(
+            CONFIG_VALUE_COMPRESSION,
+            "GZIP",
+            (Function<Adjustable, StoreConfig>) e -> e.withValueCompression(Compression.GZIP),
+            (Predicate<StoreConfig>) c -> c.valueCompression() == Compression.GZIP),
+        arguments(
+            CONFIG_COMPRESSION_MIN_SIZE,
+            "4321",
+            (Function<Adjustable, StoreConfig>) e -> e.withCompressionMinSize(4321),
+            (Predicate<StoreConfig>) c -> c.compressionMinSize() == 4321),
         arguments(
             CONFIG_ASSUMED_WALL_CLOCK_DRIFT_MICROS,
             "1234567",
@@ -116,6 +155,16 @@ public class TestStoreConfig {
             "false",
             (Function<Adjustable, StoreConfig>) e -> e.withValidateNamespaces(false),
             (Predicate<StoreConfig>) c -> !c.validateNamespaces()),
+        arguments(
+            CONFIG_COMMIT_LOG_READ_AHEAD,
+            "3",
+            (Function<Adjustable, StoreConfig>) e -> e.withCommitLogReadAhead(3),
+            (Predicate<StoreConfig>) c -> c.commitLogReadAhead() == 3),
+        arguments(
+            CONFIG_MERGE_BASE_CACHE_SIZE,
+            "1234",
+            (Function<Adjustable, StoreConfig>) e -> e.withMergeBaseCacheSize(1234),
+            (Predicate<StoreConfig>) c -> c.mergeBaseCacheSize() == 1234),
         // default methods (current time in micros + hasher)
         arguments(
             "x",
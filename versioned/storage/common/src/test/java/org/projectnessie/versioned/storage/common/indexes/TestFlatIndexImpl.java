@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.indexes;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.emptySet;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.deserializeReadOnlyStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.newStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.serializeWithRestartPoints;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.keyFromString;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.Action.ADD;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.COMMIT_OP_SERIALIZER;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.commitOp;
+import static org.projectnessie.versioned.storage.common.objtypes.ObjIdSerializer.OBJ_ID_SERIALIZER;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+import static org.projectnessie.versioned.storage.commontests.KeyIndexTestSet.basicIndexTestSet;
+
+import java.util.List;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.projectnessie.versioned.storage.common.objtypes.CommitOp;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.commontests.KeyIndexTestSet;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestFlatIndexImpl {
+  @InjectSoftAssertions SoftAssertions soft;
+
+  @Test
+  public void readOnlyDeserialization() {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    StoreIndex<CommitOp> index = indexTestSet.keyIndex();
+
+    StoreIndex<CommitOp> fromV1 =
+        deserializeReadOnlyStoreIndex(index.serialize(), COMMIT_OP_SERIALIZER);
+    StoreIndex<CommitOp> fromV2 =
+        deserializeReadOnlyStoreIndex(
+            serializeWithRestartPoints(index, COMMIT_OP_SERIALIZER), COMMIT_OP_SERIALIZER);
+
+    soft.assertThat(fromV1).isInstanceOf(FlatIndexImpl.class);
+    soft.assertThat(fromV2).isInstanceOf(SerializedIndexImpl.class);
+
+    soft.assertThat(newArrayList(fromV1)).containsExactlyElementsOf(newArrayList(index));
+    soft.assertThat(fromV1.asKeyList()).containsExactlyElementsOf(index.asKeyList());
+    soft.assertThat(fromV1.elementCount()).isEqualTo(index.elementCount());
+    soft.assertThat(fromV1.serialize()).isEqualTo(index.serialize());
+  }
+
+  @Test
+  public void lookups() {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    StoreIndex<CommitOp> index = indexTestSet.keyIndex();
+    StoreIndex<CommitOp> flat =
+        deserializeReadOnlyStoreIndex(index.serialize(), COMMIT_OP_SERIALIZER);
+
+    soft.assertThat(flat.first()).isEqualTo(index.first());
+    soft.assertThat(flat.last()).isEqualTo(index.last());
+
+    for (StoreKey key : indexTestSet.keys()) {
+      soft.assertThat(flat.contains(key)).describedAs("%s", key).isTrue();
+      soft.assertThat(flat.get(key)).describedAs("%s", key).isEqualTo(index.get(key));
+
+      StoreKey before =
+          keyFromString(key.rawString().substring(0, key.rawString().length() - 1));
+      soft.assertThat(flat.contains(before)).isEqualTo(index.contains(before));
+      StoreKey after = keyFromString(key.rawString() + "x");
+      soft.assertThat(flat.contains(after)).isEqualTo(index.contains(after));
+      soft.assertThat(flat.get(after)).isEqualTo(index.get(after));
+    }
+  }
+
+  @Test
+  public void nonAsciiKeys() {
+    StoreIndex<ObjId> index = newStoreIndex(OBJ_ID_SERIALIZER);
+    List<StoreKey> keys =
+        newArrayList(
+            key("a", "b"),
+            key("\u00e4", "\u00f6"),
+            key("\u20ac", "x"),
+            key("\ud83d\ude00", "smile"),
+            key("\uffe0", "fullwidth"));
+    for (StoreKey key : keys) {
+      index.add(indexElement(key, randomObjId()));
+    }
+
+    StoreIndex<ObjId> flat = deserializeReadOnlyStoreIndex(index.serialize(), OBJ_ID_SERIALIZER);
+    soft.assertThat(flat.asKeyList()).containsExactlyElementsOf(index.asKeyList());
+    for (StoreKey key : keys) {
+      soft.assertThat(flat.get(key)).isEqualTo(index.get(key));
+    }
+
+    // Supplementary characters sort before U+E000..U+FFFF in UTF-16, but after those in UTF-8.
+    List<StoreKey> probes =
+        newArrayList(
+            key("\u00e4"),
+            key("\ud83d\ude00"),
+            key("\ud83d\ude01", "x"),
+            key("\ue000", "x"),
+            key("\uffe0"),
+            key("\uffff", "x"));
+    for (StoreKey probe : probes) {
+      soft.assertThat(flat.contains(probe)).describedAs("%s", probe).isFalse();
+      soft.assertThat(newArrayList(flat.iterator(probe, null, false)))
+          .describedAs("begin %s", probe)
+          .containsExactlyElementsOf(newArrayList(index.iterator(probe, null, false)));
+      soft.assertThat(newArrayList(flat.iterator(probe, probe, false)))
+          .describedAs("prefix %s", probe)
+          .containsExactlyElementsOf(newArrayList(index.iterator(probe, probe, false)));
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 15, 16, 17, 100})
+  public void iterator(int numElements) {
+    StoreIndex<ObjId> index = newStoreIndex(OBJ_ID_SERIALIZER);
+    for (int i = 0; i < numElements; i++) {
+      index.add(indexElement(key(String.format("k%03d", i), "t"), randomObjId()));
+    }
+    StoreIndex<ObjId> flat = deserializeReadOnlyStoreIndex(index.serialize(), OBJ_ID_SERIALIZER);
+
+    soft.assertThat(flat.elementCount()).isEqualTo(numElements);
+    soft.assertThat(flat.first()).isEqualTo(index.first());
+    soft.assertThat(flat.last()).isEqualTo(index.last());
+    soft.assertThat(newArrayList(flat)).containsExactlyElementsOf(newArrayList(index));
+
+    List<StoreKey> probes = newArrayList(key("a"), key("k"), key("k0"), key("z"));
+    for (int i = 0; i < numElements; i++) {
+      probes.add(key(String.format("k%03d", i)));
+      probes.add(key(String.format("k%03d", i), "t"));
+      probes.add(key(String.format("k%03d", i), "u"));
+    }
+
+    for (StoreKey begin : probes) {
+      soft.assertThat(newArrayList(flat.iterator(begin, null, false)))
+          .describedAs("begin %s", begin)
+          .containsExactlyElementsOf(newArrayList(index.iterator(begin, null, false)));
+      soft.assertThat(newArrayList(flat.iterator(null, begin, false)))
+          .describedAs("end %s", begin)
+          .containsExactlyElementsOf(newArrayList(index.iterator(null, begin, false)));
+      soft.assertThat(newArrayList(flat.iterator(begin, begin, false)))
+          .describedAs("prefix %s", begin)
+          .containsExactlyElementsOf(newArrayList(index.iterator(begin, begin, false)));
+    }
+  }
+
+  @Test
+  public void stateRelated() {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    ObjId id = randomObjId();
+    StoreIndex<CommitOp> index =
+        deserializeReadOnlyStoreIndex(indexTestSet.serialized(), COMMIT_OP_SERIALIZER)
+            .setObjId(id);
+
+    soft.assertThat(index.isMutable()).isFalse();
+    soft.assertThat(index.isModified()).isFalse();
+    soft.assertThat(index.isLoaded()).isTrue();
+    soft.assertThat(index.getObjId()).isEqualTo(id);
+    soft.assertThat(index.loadIfNecessary(emptySet())).isSameAs(index);
+    soft.assertThat(index.stripes()).containsExactly(index);
+
+    soft.assertThatThrownBy(() -> index.add(indexElement(key("foo"), commitOp(ADD, 1, null))))
+        .isInstanceOf(UnsupportedOperationException.class);
+    soft.assertThatThrownBy(() -> index.remove(key("foo")))
+        .isInstanceOf(UnsupportedOperationException.class);
+    soft.assertThatThrownBy(() -> index.updateAll(el -> null))
+        .isInstanceOf(UnsupportedOperationException.class);
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(() -> index.iterator(key("z"), key("a"), false));
+
+    StoreIndex<CommitOp> mutable = index.asMutableIndex();
+    soft.assertThat(mutable).isInstanceOf(StoreIndexImpl.class).isEqualTo(indexTestSet.keyIndex());
+    soft.assertThat(mutable.isModified()).isFalse();
+    soft.assertThat(mutable.getObjId()).isEqualTo(id);
+  }
+}
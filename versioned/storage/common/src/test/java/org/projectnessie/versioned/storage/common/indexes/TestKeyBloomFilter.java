@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.indexes;
+
+import static java.util.Collections.singleton;
+import static org.projectnessie.versioned.storage.common.indexes.KeyBloomFilter.deserializeKeyBloomFilter;
+import static org.projectnessie.versioned.storage.common.indexes.KeyBloomFilter.keyBloomFilter;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.lazyStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.newStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.COMMIT_OP_SERIALIZER;
+import static org.projectnessie.versioned.storage.commontests.KeyIndexTestSet.basicIndexTestSet;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.objtypes.CommitOp;
+import org.projectnessie.versioned.storage.commontests.KeyIndexTestSet;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestKeyBloomFilter {
+
+  @InjectSoftAssertions SoftAssertions soft;
+
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 8, 10, 16})
+  public void noFalseNegatives(int bitsPerKey) {
+    KeyIndexTestSet<CommitOp> testSet = basicIndexTestSet();
+    KeyBloomFilter filter = keyBloomFilter(testSet.keyIndex(), bitsPerKey);
+
+    soft.assertThat(testSet.keys()).allMatch(filter::mightContain);
+
+    KeyBloomFilter deserialized = deserializeKeyBloomFilter(filter.serialize());
+    soft.assertThat(deserialized.serializedSize()).isEqualTo(filter.serializedSize());
+    soft.assertThat(testSet.keys()).allMatch(deserialized::mightContain);
+  }
+
+  @Test
+  public void falsePositiveRate() {
+    KeyIndexTestSet<CommitOp> testSet = basicIndexTestSet();
+    KeyBloomFilter filter = keyBloomFilter(testSet.keyIndex(), 10);
+
+    int numProbes = 10_000;
+    long falsePositives =
+        IntStream.range(0, numProbes)
+            .mapToObj(i -> key("not", "in", "index", Integer.toString(i)))
+            .filter(filter::mightContain)
+            .count();
+    // ~1% expected for 10 bits per key, leave some headroom
+    soft.assertThat(falsePositives).isLessThan(numProbes / 20);
+  }
+
+  @Test
+  public void emptyIndex() {
+    KeyBloomFilter filter = keyBloomFilter(newStoreIndex(COMMIT_OP_SERIALIZER), 8);
+    soft.assertThat(filter.mightContain(key("foo"))).isFalse();
+  }
+
+  @Test
+  public void illegalSerialized() {
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(() -> deserializeKeyBloomFilter(ByteString.EMPTY));
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(() -> deserializeKeyBloomFilter(ByteString.copyFrom(new byte[] {0, 0})));
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(() -> deserializeKeyBloomFilter(ByteString.copyFrom(new byte[] {17, 0})));
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(() -> keyBloomFilter(newStoreIndex(COMMIT_OP_SERIALIZER), 0));
+  }
+
+  @Test
+  public void lazyIndexNotLoadedForMissingKeys() {
+    KeyIndexTestSet<CommitOp> testSet = basicIndexTestSet();
+    AtomicInteger loads = new AtomicInteger();
+    StoreIndex<CommitOp> lazyIndex =
+        lazyStoreIndex(
+            () -> {
+              loads.incrementAndGet();
+              return testSet.keyIndex();
+            });
+    lazyIndex.setKeyFilter(keyBloomFilter(testSet.keyIndex(), 10));
+
+    StoreKey missing =
+        IntStream.range(0, 1000)
+            .mapToObj(i -> key("not", "in", "index", Integer.toString(i)))
+            .filter(k -> !lazyIndex.getKeyFilter().mightContain(k))
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+
+    soft.assertThat(lazyIndex.contains(missing)).isFalse();
+    soft.assertThat(lazyIndex.get(missing)).isNull();
+    soft.assertThat(lazyIndex.loadIfNecessary(singleton(missing))).isSameAs(lazyIndex);
+    soft.assertThat(loads).hasValue(0);
+
+    StoreKey existing = testSet.keys().get(0);
+    soft.assertThat(lazyIndex.contains(existing)).isTrue();
+    soft.assertThat(loads).hasValue(1);
+  }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.indexes;
+
+import static com.google.common.collect.Lists.newArrayList;
+import static java.util.Collections.emptySet;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexElement.indexElement;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.deserializeStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.newStoreIndex;
+import static org.projectnessie.versioned.storage.common.indexes.StoreIndexes.serializeWithRestartPoints;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
+import static org.projectnessie.versioned.storage.common.indexes.StoreKey.keyFromString;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.Action.ADD;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.COMMIT_OP_SERIALIZER;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitOp.commitOp;
+import static org.projectnessie.versioned.storage.common.objtypes.ObjIdSerializer.OBJ_ID_SERIALIZER;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+import static org.projectnessie.versioned.storage.commontests.KeyIndexTestSet.basicIndexTestSet;
+
+import com.google.common.base.Strings;
+import java.util.List;
+import java.util.stream.Stream;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.objtypes.CommitOp;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.commontests.KeyIndexTestSet;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestSerializedIndexImpl {
+  @InjectSoftAssertions SoftAssertions soft;
+
+  @Test
+  public void versions() {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    StoreIndex<CommitOp> index = indexTestSet.keyIndex();
+
+    ByteString v1 = index.serialize();
+    ByteString v2 = serializeWithRestartPoints(index, COMMIT_OP_SERIALIZER);
+
+    soft.assertThat(v1.byteAt(0)).isEqualTo((byte) 1);
+    soft.assertThat(v2.byteAt(0)).isEqualTo(SerializedIndexImpl.VERSION);
+
+    StoreIndex<CommitOp> fromV1 = deserializeStoreIndex(v1, COMMIT_OP_SERIALIZER);
+    StoreIndex<CommitOp> fromV2 = deserializeStoreIndex(v2, COMMIT_OP_SERIALIZER);
+    soft.assertThat(fromV1).isInstanceOf(StoreIndexImpl.class);
+    soft.assertThat(fromV2).isInstanceOf(SerializedIndexImpl.class);
+
+    soft.assertThat(newArrayList(fromV2)).containsExactlyElementsOf(newArrayList(fromV1));
+    soft.assertThat(fromV2.asKeyList()).containsExactlyElementsOf(index.asKeyList());
+    soft.assertThat(fromV2.elementCount()).isEqualTo(fromV1.elementCount());
+    soft.assertThat(fromV2.serialize()).isEqualTo(v2);
+
+    // re-serializing the serialized index yields the same result
+    soft.assertThat(serializeWithRestartPoints(fromV2, COMMIT_OP_SERIALIZER)).isEqualTo(v2);
+  }
+
+  @Test
+  public void lookups() {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    StoreIndex<CommitOp> index = indexTestSet.keyIndex();
+    StoreIndex<CommitOp> serialized =
+        deserializeStoreIndex(
+            serializeWithRestartPoints(index, COMMIT_OP_SERIALIZER), COMMIT_OP_SERIALIZER);
+
+    soft.assertThat(serialized.first()).isEqualTo(index.first());
+    soft.assertThat(serialized.last()).isEqualTo(index.last());
+
+    for (StoreKey key : indexTestSet.keys()) {
+      soft.assertThat(serialized.contains(key)).describedAs("%s", key).isTrue();
+      soft.assertThat(serialized.get(key)).describedAs("%s", key).isEqualTo(index.get(key));
+
+      StoreKey before =
+          keyFromString(key.rawString().substring(0, key.rawString().length() - 1));
+      soft.assertThat(serialized.contains(before)).isEqualTo(index.contains(before));
+      StoreKey after = keyFromString(key.rawString() + "x");
+      soft.assertThat(serialized.contains(after)).isEqualTo(index.contains(after));
+      soft.assertThat(serialized.get(after)).isEqualTo(index.get(after));
+    }
+
+    soft.assertThat(serialized.contains(key("0"))).isEqualTo(index.contains(key("0")));
+    soft.assertThat(serialized.get(key("zzzzzzzzzzzzzzzzzz"))).isNull();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 15, 16, 17, 31, 32, 33, 100})
+  public void iterator(int numElements) {
+    StoreIndex<ObjId> index = newStoreIndex(OBJ_ID_SERIALIZER);
+    for (int i = 0; i < numElements; i++) {
+      index.add(indexElement(key(String.format("k%03d", i), "t"), randomObjId()));
+    }
+    StoreIndex<ObjId> serialized =
+        deserializeStoreIndex(
+            serializeWithRestartPoints(index, OBJ_ID_SERIALIZER), OBJ_ID_SERIALIZER);
+
+    soft.assertThat(serialized.elementCount()).isEqualTo(numElements);
+    soft.assertThat(serialized.first()).isEqualTo(index.first());
+    soft.assertThat(serialized.last()).isEqualTo(index.last());
+    soft.assertThat(newArrayList(serialized)).containsExactlyElementsOf(newArrayList(index));
+
+    List<StoreKey> probes = newArrayList(key("a"), key("k"), key("k0"), key("z"));
+    for (int i = 0; i < numElements; i++) {
+      probes.add(key(String.format("k%03d", i)));
+      probes.add(key(String.format("k%03d", i), "t"));
+      probes.add(key(String.format("k%03d", i), "u"));
+    }
+
+    for (StoreKey begin : probes) {
+      soft.assertThat(newArrayList(serialized.iterator(begin, null, false)))
+          .describedAs("begin %s", begin)
+          .containsExactlyElementsOf(newArrayList(index.iterator(begin, null, false)));
+      soft.assertThat(newArrayList(serialized.iterator(null, begin, false)))
+          .describedAs("end %s", begin)
+          .containsExactlyElementsOf(newArrayList(index.iterator(null, begin, false)));
+      soft.assertThat(newArrayList(serialized.iterator(begin, begin, false)))
+          .describedAs("prefix %s", begin)
+          .containsExactlyElementsOf(newArrayList(index.iterator(begin, begin, false)));
+    }
+
+    if (numElements > 10) {
+      StoreKey begin = key("k002", "t");
+      StoreKey end = key("k009");
+      soft.assertThat(newArrayList(serialized.iterator(begin, end, false)))
+          .containsExactlyElementsOf(newArrayList(index.iterator(begin, end, false)))
+          .hasSize(7);
+    }
+  }
+
+  @Test
+  public void longKeys() {
+    StoreIndex<CommitOp> index = newStoreIndex(COMMIT_OP_SERIALIZER);
+    @SuppressWarnings("InlineMeInliner")
+    String suffix = Strings.repeat("1234567890", 45);
+    for (int i = 0; i < 100; i++) {
+      index.add(indexElement(key(String.format("%04x", i), suffix), commitOp(ADD, 1, null)));
+    }
+
+    ByteString serialized = serializeWithRestartPoints(index, COMMIT_OP_SERIALIZER);
+    StoreIndex<CommitOp> deserialized = deserializeStoreIndex(serialized, COMMIT_OP_SERIALIZER);
+    soft.assertThat(newArrayList(deserialized)).containsExactlyElementsOf(newArrayList(index));
+  }
+
+  @Test
+  public void emptyIndex() {
+    StoreIndex<CommitOp> index =
+        deserializeStoreIndex(
+            serializeWithRestartPoints(newStoreIndex(COMMIT_OP_SERIALIZER), COMMIT_OP_SERIALIZER),
+            COMMIT_OP_SERIALIZER);
+
+    soft.assertThat(index.elementCount()).isEqualTo(0);
+    soft.assertThat(index.first()).isNull();
+    soft.assertThat(index.last()).isNull();
+    soft.assertThat(index.asKeyList()).isEmpty();
+    soft.assertThat(index).isEmpty();
+    soft.assertThat(index.iterator(key("a"), null, false)).isExhausted();
+    soft.assertThat(index.contains(key("a"))).isFalse();
+    soft.assertThat(index.get(key("a"))).isNull();
+  }
+
+  @Test
+  public void stateRelated() {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    ObjId id = randomObjId();
+    StoreIndex<CommitOp> index =
+        deserializeStoreIndex(
+                serializeWithRestartPoints(indexTestSet.keyIndex(), COMMIT_OP_SERIALIZER),
+                COMMIT_OP_SERIALIZER)
+            .setObjId(id);
+
+    soft.assertThat(index.isMutable()).isFalse();
+    soft.assertThat(index.isModified()).isFalse();
+    soft.assertThat(index.isLoaded()).isTrue();
+    soft.assertThat(index.getObjId()).isEqualTo(id);
+    soft.assertThat(index.loadIfNecessary(emptySet())).isSameAs(index);
+    soft.assertThat(index.stripes()).containsExactly(index);
+
+    soft.assertThatThrownBy(() -> index.add(indexElement(key("foo"), commitOp(ADD, 1, null))))
+        .isInstanceOf(UnsupportedOperationException.class);
+    soft.assertThatThrownBy(() -> index.remove(key("foo")))
+        .isInstanceOf(UnsupportedOperationException.class);
+    soft.assertThatThrownBy(() -> index.updateAll(el -> null))
+        .isInstanceOf(UnsupportedOperationException.class);
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(() -> index.iterator(key("z"), key("a"), false));
+
+    StoreIndex<CommitOp> mutable = index.asMutableIndex();
+    soft.assertThat(mutable).isInstanceOf(StoreIndexImpl.class).isEqualTo(indexTestSet.keyIndex());
+    soft.assertThat(mutable.isModified()).isFalse();
+    soft.assertThat(mutable.getObjId()).isEqualTo(id);
+    soft.assertThat(mutable.isMutable()).isTrue();
+    List<StoreIndex<CommitOp>> parts = index.divide(3);
+    soft.assertThat(parts).hasSize(3);
+    soft.assertThat(parts.stream().flatMap(i -> i.asKeyList().stream()))
+        .containsExactlyElementsOf(indexTestSet.keyIndex().asKeyList());
+  }
+
+  @Test
+  public void invalidSerialized() {
+    Stream.of(
+            new byte[] {2},
+            new byte[] {2, 16, 0, 0},
+            new byte[] {2, 0, 0, 0, 0, 0},
+            new byte[] {2, 16, 0, 0, 0, 1})
+        .forEach(
+            bytes ->
+                soft.assertThatIllegalArgumentException()
+                    .isThrownBy(
+                        () ->
+                            deserializeStoreIndex(
+                                ByteString.copyFrom(bytes), COMMIT_OP_SERIALIZER)));
+  }
+}
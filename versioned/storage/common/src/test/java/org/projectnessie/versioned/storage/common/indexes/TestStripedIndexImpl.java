@@ -18,6 +18,7 @@ package org.projectnessie.versioned.storage.common.indexes;
 import static com.google.common.collect.Lists.newArrayList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static java.util.Spliterators.spliteratorUnknownSize;
 import static java.util.stream.StreamSupport.stream;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
@@ -37,11 +38,15 @@ import static org.projectnessie.versioned.storage.commontests.KeyIndexTestSet.ba
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nonnull;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
 import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
@@ -208,6 +213,146 @@ public class TestStripedIndexImpl {
     }
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 3, 4, 10})
+  public void iteratorReadAhead(int readAhead) {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    int numStripes = 10;
+    List<StoreIndex<CommitOp>> stripes = indexTestSet.keyIndex().divide(numStripes);
+    List<StoreKey> firstLastKeys =
+        stripes.stream().flatMap(s -> Stream.of(s.first(), s.last())).collect(Collectors.toList());
+
+    boolean[] individualLoads = new boolean[numStripes];
+    List<List<Integer>> bulkLoads = new ArrayList<>();
+
+    List<StoreIndex<CommitOp>> lazyStripes = new ArrayList<>(numStripes);
+    for (int i = 0; i < numStripes; i++) {
+      StoreIndex<CommitOp> stripe = stripes.get(i);
+      int index = i;
+      lazyStripes.add(
+          lazyStoreIndex(
+              () -> {
+                individualLoads[index] = true;
+                return stripe;
+              }));
+    }
+
+    StoreIndex<CommitOp> striped =
+        indexFromSplits(
+            lazyStripes,
+            firstLastKeys,
+            indexes -> {
+              @SuppressWarnings("unchecked")
+              StoreIndex<CommitOp>[] r = new StoreIndex[indexes.length];
+              List<Integer> loaded = new ArrayList<>();
+              for (int i = 0; i < indexes.length; i++) {
+                if (indexes[i] != null) {
+                  loaded.add(i);
+                  r[i] = stripes.get(i);
+                }
+              }
+              bulkLoads.add(loaded);
+              return r;
+            },
+            readAhead);
+
+    // Start iterating in the middle of the 3rd stripe
+    StoreKey begin = stripes.get(2).asKeyList().get(1);
+    StoreIndex<CommitOp> reference = indexTestSet.keyIndex();
+    soft.assertThat(newArrayList(striped.iterator(begin, null, false)))
+        .containsExactlyElementsOf(newArrayList(reference.iterator(begin, null, false)));
+
+    // Entering a stripe starts loading the not yet requested stripes of the read-ahead window
+    List<List<Integer>> expectedBulkLoads = new ArrayList<>();
+    if (readAhead > 0) {
+      List<Integer> expected = new ArrayList<>();
+      for (int j = 3; j <= Math.min(2 + readAhead, numStripes - 1); j++) {
+        expected.add(j);
+      }
+      expectedBulkLoads.add(expected);
+      for (int i = 3; i + readAhead < numStripes; i++) {
+        expectedBulkLoads.add(singletonList(i + readAhead));
+      }
+    }
+    soft.assertThat(bulkLoads).containsExactlyElementsOf(expectedBulkLoads);
+
+    boolean[] expectIndividualLoads = new boolean[numStripes];
+    expectIndividualLoads[2] = true;
+    if (readAhead == 0) {
+      Arrays.fill(expectIndividualLoads, 2, numStripes, true);
+    }
+    soft.assertThat(individualLoads).containsExactly(expectIndividualLoads);
+  }
+
+  @Test
+  public void iteratorReadAheadAsync() {
+    KeyIndexTestSet<CommitOp> indexTestSet = basicIndexTestSet();
+    int numStripes = 6;
+    int readAhead = 2;
+    List<StoreIndex<CommitOp>> stripes = indexTestSet.keyIndex().divide(numStripes);
+    List<StoreKey> firstLastKeys =
+        stripes.stream().flatMap(s -> Stream.of(s.first(), s.last())).collect(Collectors.toList());
+
+    List<StoreIndex<CommitOp>> lazyStripes = new ArrayList<>(numStripes);
+    for (int i = 0; i < numStripes; i++) {
+      StoreIndex<CommitOp> stripe = stripes.get(i);
+      lazyStripes.add(lazyStoreIndex(() -> stripe));
+    }
+
+    List<CompletableFuture<StoreIndex<CommitOp>[]>> requested = new ArrayList<>();
+    IndexLoader<CommitOp> loader =
+        new IndexLoader<CommitOp>() {
+          @Nonnull
+          @Override
+          public StoreIndex<CommitOp>[] loadIndexes(@Nonnull StoreIndex<CommitOp>[] indexes) {
+            throw new UnsupportedOperationException();
+          }
+
+          @Nonnull
+          @Override
+          public CompletionStage<StoreIndex<CommitOp>[]> loadIndexesAsync(
+              @Nonnull StoreIndex<CommitOp>[] indexes) {
+            CompletableFuture<StoreIndex<CommitOp>[]> future = new CompletableFuture<>();
+            requested.add(future);
+            return future;
+          }
+        };
+
+    Iterator<StoreIndexElement<CommitOp>> iter =
+        indexFromSplits(lazyStripes, firstLastKeys, loader, readAhead)
+            .iterator(null, null, false);
+
+    // Consuming the first stripe does not wait for the stripes being read ahead
+    for (int i = 0; i < stripes.get(0).elementCount(); i++) {
+      soft.assertThat(iter.next().key()).isEqualTo(stripes.get(0).asKeyList().get(i));
+    }
+    soft.assertThat(requested).hasSize(1);
+
+    @SuppressWarnings("unchecked")
+    StoreIndex<CommitOp>[] loaded = new StoreIndex[numStripes];
+    loaded[1] = stripes.get(1);
+    loaded[2] = stripes.get(2);
+    requested.get(0).complete(loaded);
+
+    // Entering the 2nd stripe starts reading the 4th stripe
+    soft.assertThat(iter.next().key()).isEqualTo(stripes.get(1).first());
+    soft.assertThat(requested).hasSize(2);
+
+    requested
+        .get(1)
+        .completeExceptionally(new IllegalStateException("Reference index segments not found"));
+
+    // The 3rd stripe is available, the failure surfaces when the iteration reaches the 4th stripe
+    soft.assertThatThrownBy(
+            () -> {
+              while (true) {
+                iter.next();
+              }
+            })
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Reference index segments not found");
+  }
+
   @SuppressWarnings("ConstantConditions")
   @ParameterizedTest
   @ValueSource(ints = {2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16})
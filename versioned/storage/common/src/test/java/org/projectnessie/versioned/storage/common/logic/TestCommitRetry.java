@@ -28,9 +28,14 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.projectnessie.versioned.storage.common.logic.CommitRetry.commitRetry;
+import static org.projectnessie.versioned.storage.common.logic.CommitRetryMetrics.OTHER_REFERENCES;
 
+import com.google.common.base.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
@@ -347,6 +352,132 @@ public class TestCommitRetry {
     soft.assertThat(tryLoopState.retry(0L)).isFalse();
   }
 
+  @Test
+  public void retryContention() {
+    RetryContention contention = new RetryContention(5L, 100L);
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(5L);
+
+    contention.contended();
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(10L);
+    contention.contended();
+    contention.contended();
+    contention.contended();
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(80L);
+    contention.contended();
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(100L);
+
+    contention.uncontended();
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(95L);
+    for (int i = 0; i < 50; i++) {
+      contention.uncontended();
+    }
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(5L);
+  }
+
+  @Test
+  public void adaptiveInitialSleep() {
+    int retries = 3;
+    MonotonicClock clock = mockedClock(retries);
+
+    RetryContention contention = new RetryContention(5L, 250L);
+    contention.contended();
+    contention.contended();
+    contention.contended();
+
+    CommitRetry.TryLoopState tryLoopState =
+        new CommitRetry.TryLoopState(
+            mockedConfig(retries, Long.MAX_VALUE, 5L, 25L, 250L),
+            clock,
+            "ref",
+            contention,
+            null);
+
+    // initial bounds are shifted from [5, 25] to [40, 60]
+    soft.assertThat(tryLoopState.retry(0L)).isTrue();
+    verify(clock).sleepMillis(longThat(v -> v >= 40L && v <= 60L));
+
+    // the failed attempt increased the contention
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(80L);
+
+    tryLoopState.success();
+    soft.assertThat(contention.initialSleepMillis()).isEqualTo(75L);
+  }
+
+  @Test
+  public void metrics() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CommitRetryMetrics metrics = new CommitRetryMetrics(registry);
+
+    CommitRetry.TryLoopState tryLoopState =
+        new CommitRetry.TryLoopState(
+            mockedConfig(1, 42L), mockedClock(3), "refs/heads/main", null, metrics);
+    soft.assertThat(tryLoopState.retry(0L)).isTrue();
+    soft.assertThat(tryLoopState.retry(0L)).isFalse();
+    tryLoopState.timeout();
+
+    soft.assertThat(
+            registry
+                .get("nessie.storage.commit-retry.retries")
+                .tag("reference", "refs/heads/main")
+                .counter()
+                .count())
+        .isEqualTo(1d);
+    soft.assertThat(
+            registry
+                .get("nessie.storage.commit-retry.sleep")
+                .tag("reference", "refs/heads/main")
+                .timer()
+                .count())
+        .isEqualTo(1L);
+    soft.assertThat(
+            registry
+                .get("nessie.storage.commit-retry.timeouts")
+                .tag("reference", "refs/heads/main")
+                .counter()
+                .count())
+        .isEqualTo(1d);
+  }
+
+  @Test
+  public void metricsReferenceTagBounded() {
+    AtomicLong nanos = new AtomicLong();
+    Ticker ticker =
+        new Ticker() {
+          @Override
+          public long read() {
+            return nanos.get();
+          }
+        };
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    CommitRetryMetrics metrics =
+        new CommitRetryMetrics(registry, 2, Duration.ofMinutes(1), ticker);
+
+    soft.assertThat(metrics.referenceTag("refs/heads/main")).isEqualTo("refs/heads/main");
+    soft.assertThat(metrics.referenceTag("refs/heads/a")).isEqualTo("refs/heads/a");
+    soft.assertThat(metrics.referenceTag("refs/heads/b")).isEqualTo(OTHER_REFERENCES);
+    soft.assertThat(metrics.referenceTag("refs/heads/main")).isEqualTo("refs/heads/main");
+
+    nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+    soft.assertThat(metrics.referenceTag("refs/heads/main")).isEqualTo("refs/heads/main");
+    nanos.addAndGet(Duration.ofSeconds(45).toNanos());
+
+    // 'refs/heads/a' expired, which frees a tag value and removes its meters
+    soft.assertThat(metrics.referenceTag("refs/heads/b")).isEqualTo("refs/heads/b");
+    soft.assertThat(
+            registry
+                .find("nessie.storage.commit-retry.retries")
+                .tag("reference", "refs/heads/a")
+                .counter())
+        .isNull();
+    soft.assertThat(
+            registry
+                .find("nessie.storage.commit-retry.retries")
+                .tag("reference", "refs/heads/b")
+                .counter())
+        .isNotNull();
+    soft.assertThat(metrics.referenceTag("refs/heads/a")).isEqualTo(OTHER_REFERENCES);
+  }
+
   MonotonicClock mockedClock(int retries) {
     Long[] times = new Long[retries];
     Arrays.fill(times, 0L);
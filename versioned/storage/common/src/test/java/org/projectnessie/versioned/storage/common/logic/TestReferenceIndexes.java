@@ -27,6 +27,14 @@ import static java.util.stream.StreamSupport.stream;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.list;
 import static org.assertj.core.api.InstanceOfAssertFactories.type;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.projectnessie.nessie.relocated.protobuf.ByteString.copyFromUtf8;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MAX_INCREMENTAL_INDEX_SIZE;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_MAX_REFERENCE_STRIPES_PER_COMMIT;
@@ -37,6 +45,7 @@ import static org.projectnessie.versioned.storage.common.indexes.StoreKey.key;
 import static org.projectnessie.versioned.storage.common.indexes.StoreKey.keyFromString;
 import static org.projectnessie.versioned.storage.common.logic.CreateCommit.Add.commitAdd;
 import static org.projectnessie.versioned.storage.common.logic.CreateCommit.Remove.commitRemove;
+import static org.projectnessie.versioned.storage.common.logic.DiffQuery.diffQuery;
 import static org.projectnessie.versioned.storage.common.logic.Logics.commitLogic;
 import static org.projectnessie.versioned.storage.common.logic.Logics.indexesLogic;
 import static org.projectnessie.versioned.storage.common.objtypes.CommitObj.commitBuilder;
@@ -60,8 +69,11 @@ import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.BiFunction;
 import java.util.function.IntFunction;
 import java.util.stream.Collectors;
@@ -571,4 +583,122 @@ public class TestReferenceIndexes {
       soft.assertThat(newArrayList(updatedIndex)).isEqualTo(newArrayList(completeIndex));
     }
   }
+
+  /**
+   * Verifies that diffs between commits that share reference index stripes, which only walk the
+   * stripes that differ, yield the same result as a diff over the complete indexes.
+   */
+  @Test
+  public void structuralDiff(
+      @NessieStoreConfig(name = CONFIG_MAX_INCREMENTAL_INDEX_SIZE, value = "1024")
+          @NessieStoreConfig(name = CONFIG_MAX_SERIALIZED_INDEX_SIZE, value = "2048")
+          @NessiePersist
+          Persist persist)
+      throws Exception {
+    CommitLogic commitLogic = commitLogic(persist);
+    IndexesLogic indexesLogic = indexesLogic(persist);
+
+    @SuppressWarnings("InlineMeInliner")
+    String suffix = Strings.repeat("1234567890", 5);
+
+    Map<StoreKey, ObjId> knownKeys = new TreeMap<>();
+    List<Map<StoreKey, ObjId>> keysPerCommit = new ArrayList<>();
+    List<CommitObj> commits = new ArrayList<>();
+
+    ObjId tip = EMPTY_OBJ_ID;
+    for (int i = 0; i < 80; i++) {
+      CreateCommit.Builder createCommit = stdCommit().parentCommitId(tip);
+
+      List<StoreKey> existing = new ArrayList<>(knownKeys.keySet());
+      if (existing.size() > 10) {
+        StoreKey updated = existing.get((i * 7) % existing.size());
+        ObjId value = randomObjId();
+        createCommit.addAdds(commitAdd(updated, 0, value, knownKeys.get(updated), null));
+        knownKeys.put(updated, value);
+
+        StoreKey removed = existing.get((i * 13 + 5) % existing.size());
+        if (!removed.equals(updated)) {
+          createCommit.addRemoves(commitRemove(removed, 0, knownKeys.get(removed), null));
+          knownKeys.remove(removed);
+        }
+      }
+      for (int k = 0; k < 5; k++) {
+        StoreKey key = key(format("%03d-%d", (i * 31 + k * 17) % 1000, i) + suffix);
+        ObjId value = randomObjId();
+        createCommit.addAdds(commitAdd(key, 0, value, null, null));
+        knownKeys.put(key, value);
+      }
+
+      tip = requireNonNull(commitLogic.doCommit(createCommit.build(), emptyList())).id();
+      commits.add(requireNonNull(commitLogic.fetchCommit(tip)));
+      keysPerCommit.add(new TreeMap<>(knownKeys));
+    }
+
+    soft.assertThat(indexesLogic.referenceIndexStripes(commits.get(commits.size() - 1)))
+        .hasSizeGreaterThan(1);
+
+    for (int from = 0; from < commits.size(); from += 3) {
+      for (int to = from; to < commits.size(); to += 5) {
+        Map<StoreKey, ObjId> fromKeys = keysPerCommit.get(from);
+        Map<StoreKey, ObjId> toKeys = keysPerCommit.get(to);
+        Set<StoreKey> allKeys = new TreeSet<>(fromKeys.keySet());
+        allKeys.addAll(toKeys.keySet());
+        List<String> expected =
+            allKeys.stream()
+                .filter(k -> !Objects.equals(fromKeys.get(k), toKeys.get(k)))
+                .map(k -> k + " " + fromKeys.get(k) + " " + toKeys.get(k))
+                .collect(toList());
+
+        soft.assertThat(
+                newArrayList(
+                    commitLogic.diff(diffQuery(commits.get(from), commits.get(to), false))))
+            .map(d -> d.key() + " " + d.fromId() + " " + d.toId())
+            .describedAs("from %d to %d", from, to)
+            .containsExactlyElementsOf(expected);
+        soft.assertThat(
+                newArrayList(
+                    commitLogic.diff(diffQuery(commits.get(to), commits.get(from), false))))
+            .map(d -> d.key() + " " + d.toId() + " " + d.fromId())
+            .describedAs("from %d to %d", to, from)
+            .containsExactlyElementsOf(expected);
+      }
+    }
+  }
+
+  /**
+   * Verifies that a commit, which spills out its incremental index to the reference index, stores
+   * the new index stripes and the commit in a single batch.
+   */
+  @Test
+  public void spillOutStoresSingleBatch(
+      @NessieStoreConfig(name = CONFIG_MAX_INCREMENTAL_INDEX_SIZE, value = "1024") @NessiePersist
+          Persist persist)
+      throws Exception {
+    // Not a spy, the bulk operations of a spied Persist may call the single-object operations.
+    Persist persistSpy = mock(Persist.class, delegatesTo(persist));
+    CommitLogic commitLogic = commitLogic(persistSpy);
+
+    @SuppressWarnings("InlineMeInliner")
+    String suffix = Strings.repeat("1234567890", 5);
+
+    ObjId tip = EMPTY_OBJ_ID;
+    boolean spilled = false;
+    for (int i = 0; i < 50 && !spilled; i++) {
+      clearInvocations(persistSpy);
+
+      CreateCommit.Builder createCommit = stdCommit().parentCommitId(tip);
+      for (int k = 0; k < 5; k++) {
+        StoreKey key = key(format("%03d-%d", k, i) + suffix);
+        createCommit.addAdds(commitAdd(key, 0, randomObjId(), null, null));
+      }
+
+      CommitObj commit = requireNonNull(commitLogic.doCommit(createCommit.build(), emptyList()));
+      tip = commit.id();
+      spilled = commit.hasReferenceIndex();
+    }
+
+    soft.assertThat(spilled).isTrue();
+    verify(persistSpy, times(1)).storeObjs(any());
+    verify(persistSpy, never()).storeObj(any(Obj.class), anyBoolean());
+  }
 }
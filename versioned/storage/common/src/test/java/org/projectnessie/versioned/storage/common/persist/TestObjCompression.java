@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.common.persist;
+
+import static org.junit.jupiter.params.provider.EnumSource.Mode.EXCLUDE;
+import static org.projectnessie.versioned.storage.common.objtypes.ContentValueObj.contentValue;
+import static org.projectnessie.versioned.storage.common.objtypes.IndexObj.index;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.compress;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.compressObj;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.decompress;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.decompressObj;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.isCompressed;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+import static org.projectnessie.versioned.storage.commontests.KeyIndexTestSet.basicIndexTestSet;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.projectnessie.nessie.relocated.protobuf.ByteString;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
+import org.projectnessie.versioned.storage.common.objtypes.Compression;
+import org.projectnessie.versioned.storage.common.objtypes.ContentValueObj;
+import org.projectnessie.versioned.storage.common.objtypes.IndexObj;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestObjCompression {
+  @InjectSoftAssertions protected SoftAssertions soft;
+
+  @ParameterizedTest
+  @EnumSource(value = Compression.class, mode = EXCLUDE, names = "NONE")
+  public void compressDecompress(Compression compression) {
+    ByteString data = basicIndexTestSet().serialized();
+
+    ByteString compressed = compress(compression, data);
+    soft.assertThat(isCompressed(compressed)).isTrue();
+    soft.assertThat(isCompressed(data)).isFalse();
+    soft.assertThat(compressed.size()).isLessThan(data.size());
+    soft.assertThat(decompress(compressed)).isEqualTo(data);
+
+    soft.assertThat(decompress(compress(compression, ByteString.EMPTY)))
+        .isEqualTo(ByteString.EMPTY);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = Compression.class, mode = EXCLUDE, names = "NONE")
+  public void compressObjs(Compression compression) {
+    StoreConfig config =
+        StoreConfig.Adjustable.empty()
+            .withIndexCompression(compression)
+            .withValueCompression(compression);
+
+    ByteString data = basicIndexTestSet().serialized();
+
+    IndexObj index = index(randomObjId(), data);
+    Obj compressedIndex = compressObj(index, config);
+    soft.assertThat(compressedIndex)
+        .isInstanceOf(IndexObj.class)
+        .extracting(Obj::id)
+        .isEqualTo(index.id());
+    soft.assertThat(isCompressed(((IndexObj) compressedIndex).index())).isTrue();
+    soft.assertThat(decompressObj(compressedIndex)).isEqualTo(index);
+
+    ContentValueObj value = contentValue(randomObjId(), "cid", 42, data);
+    Obj compressedValue = compressObj(value, config);
+    soft.assertThat(compressedValue)
+        .isInstanceOf(ContentValueObj.class)
+        .extracting(Obj::id)
+        .isEqualTo(value.id());
+    soft.assertThat(isCompressed(((ContentValueObj) compressedValue).data())).isTrue();
+    soft.assertThat(decompressObj(compressedValue)).isEqualTo(value);
+  }
+
+  @Test
+  public void notCompressed() {
+    ByteString data = basicIndexTestSet().serialized();
+    IndexObj index = index(randomObjId(), data);
+
+    // compression disabled
+    StoreConfig config = StoreConfig.Adjustable.empty();
+    soft.assertThat(compressObj(index, config)).isSameAs(index);
+
+    // payload smaller than the threshold
+    config =
+        StoreConfig.Adjustable.empty()
+            .withIndexCompression(Compression.DEFLATE)
+            .withCompressionMinSize(data.size() + 1);
+    soft.assertThat(compressObj(index, config)).isSameAs(index);
+
+    // compressed payload not smaller than the uncompressed one
+    byte[] random = new byte[2048];
+    ThreadLocalRandom.current().nextBytes(random);
+    random[0] = 1;
+    IndexObj randomIndex = index(randomObjId(), ByteString.copyFrom(random));
+    config = StoreConfig.Adjustable.empty().withIndexCompression(Compression.DEFLATE);
+    soft.assertThat(compressObj(randomIndex, config)).isSameAs(randomIndex);
+
+    // uncompressed objects are returned as they are
+    soft.assertThat(decompressObj(index)).isSameAs(index);
+    soft.assertThat(decompressObj(null)).isNull();
+  }
+
+  @Test
+  public void unsupported() {
+    soft.assertThatIllegalArgumentException()
+        .isThrownBy(() -> compress(Compression.NONE, basicIndexTestSet().serialized()));
+  }
+}
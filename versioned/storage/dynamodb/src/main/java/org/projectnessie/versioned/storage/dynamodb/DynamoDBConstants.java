@@ -66,6 +66,7 @@ final class DynamoDBConstants {
   static final String COL_STRIPES_FIRST_KEY = "f";
   static final String COL_STRIPES_LAST_KEY = "l";
   static final String COL_STRIPES_SEGMENT = "s";
+  static final String COL_STRIPES_KEY_FILTER = "k";
 
   static final String COL_INDEX_INDEX = "i";
 
@@ -31,6 +31,8 @@ import static org.projectnessie.versioned.storage.common.objtypes.IndexStripe.in
 import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
 import static org.projectnessie.versioned.storage.common.objtypes.StringObj.stringData;
 import static org.projectnessie.versioned.storage.common.objtypes.TagObj.tag;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.compressObj;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.decompressObj;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.objIdFromByteBuffer;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.objIdFromString;
 import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
@@ -67,6 +69,7 @@ import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL
 import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL_STRING_PREDECESSORS;
 import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL_STRING_TEXT;
 import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL_STRIPES_FIRST_KEY;
+import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL_STRIPES_KEY_FILTER;
 import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL_STRIPES_LAST_KEY;
 import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL_STRIPES_SEGMENT;
 import static org.projectnessie.versioned.storage.dynamodb.DynamoDBConstants.COL_TAG;
@@ -594,7 +597,7 @@ public class DynamoDBPersist implements Persist {
     StoreObjDesc storeObj = STORE_OBJ_TYPE.get(type);
     checkState(storeObj != null, "Cannot deserialize object type %s", type);
     Map<String, AttributeValue> inner = item.get(storeObj.typeName).m();
-    return storeObj.fromMap(id, inner);
+    return decompressObj(storeObj.fromMap(id, inner));
   }
 
   @SuppressWarnings("unchecked")
@@ -616,7 +619,7 @@ public class DynamoDBPersist implements Persist {
         ignoreSoftSizeRestrictions ? Integer.MAX_VALUE : effectiveIncrementalIndexSizeLimit();
     int indexSizeLimit =
         ignoreSoftSizeRestrictions ? Integer.MAX_VALUE : effectiveIndexSegmentSizeLimit();
-    storeObj.toMap(obj, inner, incrementalIndexSizeLimit, indexSizeLimit);
+    storeObj.toMap(compressObj(obj, config), inner, incrementalIndexSizeLimit, indexSizeLimit);
     item.put(storeObj.typeName, fromM(inner));
     return item;
   }
@@ -910,7 +913,8 @@ public class DynamoDBPersist implements Persist {
             indexStripe(
                 keyFromString(attributeToString(m, COL_STRIPES_FIRST_KEY)),
                 keyFromString(attributeToString(m, COL_STRIPES_LAST_KEY)),
-                attributeToObjId(m, COL_STRIPES_SEGMENT)));
+                attributeToObjId(m, COL_STRIPES_SEGMENT),
+                attributeToBytes(m, COL_STRIPES_KEY_FILTER)));
       }
     }
   }
@@ -922,6 +926,10 @@ public class DynamoDBPersist implements Persist {
       sv.put(COL_STRIPES_FIRST_KEY, fromS(stripe.firstKey().rawString()));
       sv.put(COL_STRIPES_LAST_KEY, fromS(stripe.lastKey().rawString()));
       objIdToAttribute(sv, COL_STRIPES_SEGMENT, stripe.segment());
+      ByteString keyFilter = stripe.keyFilter();
+      if (keyFilter != null) {
+        bytesAttribute(sv, COL_STRIPES_KEY_FILTER, keyFilter);
+      }
       stripeAttr.add(fromM(sv));
     }
     return fromL(stripeAttr);
@@ -28,6 +28,8 @@ import static org.projectnessie.versioned.storage.common.objtypes.IndexStripe.in
 import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
 import static org.projectnessie.versioned.storage.common.objtypes.StringObj.stringData;
 import static org.projectnessie.versioned.storage.common.objtypes.TagObj.tag;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.compressObj;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.decompressObj;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.objIdFromByteBuffer;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.objIdFromString;
 import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
@@ -422,7 +424,7 @@ abstract class AbstractJdbcPersist implements Persist {
     @SuppressWarnings("rawtypes")
     StoreObjDesc objDesc = STORE_OBJ_TYPE.get(type);
     checkState(objDesc != null, "Cannot deserialize object type %s", objType);
-    return objDesc.deserialize(rs, id);
+    return decompressObj(objDesc.deserialize(rs, id));
   }
 
   protected final boolean storeObj(
@@ -495,6 +497,7 @@ abstract class AbstractJdbcPersist implements Persist {
         if (obj == null) {
           continue;
         }
+        obj = compressObj(obj, config);
 
         ObjId id = obj.id();
         ObjType type = obj.type();
@@ -661,12 +664,7 @@ abstract class AbstractJdbcPersist implements Persist {
 
             Stripes.Builder b = Stripes.newBuilder();
             obj.referenceIndexStripes().stream()
-                .map(
-                    s ->
-                        Stripe.newBuilder()
-                            .setFirstKey(s.firstKey().rawString())
-                            .setLastKey(s.lastKey().rawString())
-                            .setSegment(s.segment().asBytes()))
+                .map(AbstractJdbcPersist::serializeStripe)
                 .forEach(b::addStripes);
             serializeBytes(ps, idx++, b.build().toByteString());
 
@@ -715,12 +713,7 @@ abstract class AbstractJdbcPersist implements Persist {
             try {
               Stripes stripes = Stripes.parseFrom(rs.getBytes(COL_COMMIT_REFERENCE_INDEX_STRIPES));
               stripes.getStripesList().stream()
-                  .map(
-                      s ->
-                          indexStripe(
-                              keyFromString(s.getFirstKey()),
-                              keyFromString(s.getLastKey()),
-                              objIdFromByteBuffer(s.getSegment().asReadOnlyByteBuffer())))
+                  .map(AbstractJdbcPersist::deserializeStripe)
                   .forEach(b::addReferenceIndexStripes);
             } catch (IOException e) {
               throw new RuntimeException(e);
@@ -816,12 +809,7 @@ abstract class AbstractJdbcPersist implements Persist {
               throws SQLException {
             Stripes.Builder b = Stripes.newBuilder();
             obj.stripes().stream()
-                .map(
-                    s ->
-                        Stripe.newBuilder()
-                            .setFirstKey(s.firstKey().rawString())
-                            .setLastKey(s.lastKey().rawString())
-                            .setSegment(s.segment().asBytes()))
+                .map(AbstractJdbcPersist::serializeStripe)
                 .forEach(b::addStripes);
             serializeBytes(ps, idx++, b.build().toByteString());
             return idx;
@@ -833,12 +821,7 @@ abstract class AbstractJdbcPersist implements Persist {
               Stripes stripes = Stripes.parseFrom(rs.getBytes(COL_SEGMENTS_STRIPES));
               List<IndexStripe> stripeList =
                   stripes.getStripesList().stream()
-                      .map(
-                          s ->
-                              indexStripe(
-                                  keyFromString(s.getFirstKey()),
-                                  keyFromString(s.getLastKey()),
-                                  objIdFromByteBuffer(s.getSegment().asReadOnlyByteBuffer())))
+                      .map(AbstractJdbcPersist::deserializeStripe)
                       .collect(Collectors.toList());
               return indexSegments(id, stripeList);
             } catch (IOException e) {
@@ -1053,6 +1036,28 @@ abstract class AbstractJdbcPersist implements Persist {
     }
   }
 
+  private static Stripe serializeStripe(IndexStripe s) {
+    Stripe.Builder b =
+        Stripe.newBuilder()
+            .setFirstKey(s.firstKey().rawString())
+            .setLastKey(s.lastKey().rawString())
+            .setSegment(s.segment().asBytes());
+    ByteString keyFilter = s.keyFilter();
+    if (keyFilter != null) {
+      b.setKeyFilter(keyFilter);
+    }
+    return b.build();
+  }
+
+  private static IndexStripe deserializeStripe(Stripe s) {
+    ByteString keyFilter = s.getKeyFilter();
+    return indexStripe(
+        keyFromString(s.getFirstKey()),
+        keyFromString(s.getLastKey()),
+        objIdFromByteBuffer(s.getSegment().asReadOnlyByteBuffer()),
+        keyFilter.isEmpty() ? null : keyFilter);
+  }
+
   @VisibleForTesting
   static String sqlSelectMultiple(String sql, int count) {
     if (count == 1) {
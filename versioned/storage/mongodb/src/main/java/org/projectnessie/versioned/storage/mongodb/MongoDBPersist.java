@@ -35,6 +35,8 @@ import static org.projectnessie.versioned.storage.common.objtypes.IndexSegmentsO
 import static org.projectnessie.versioned.storage.common.objtypes.IndexStripe.indexStripe;
 import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
 import static org.projectnessie.versioned.storage.common.objtypes.TagObj.tag;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.compressObj;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.decompressObj;
 import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_COMMIT;
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_COMMIT_CREATED;
@@ -69,6 +71,7 @@ import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_S
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_STRING_PREDECESSORS;
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_STRING_TEXT;
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_STRIPES_FIRST_KEY;
+import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_STRIPES_KEY_FILTER;
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_STRIPES_LAST_KEY;
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_STRIPES_SEGMENT;
 import static org.projectnessie.versioned.storage.mongodb.MongoDBConstants.COL_TAG;
@@ -648,7 +651,7 @@ public class MongoDBPersist implements Persist {
   private Obj docToObj(@Nonnull @jakarta.annotation.Nonnull ObjId id, Document doc) {
     StoreObjDesc<?> storeObj = objTypeFromDoc(doc);
     Document inner = doc.get(storeObj.typeName, Document.class);
-    return storeObj.docToObj(id, inner);
+    return decompressObj(storeObj.docToObj(id, inner));
   }
 
   @SuppressWarnings("unchecked")
@@ -671,7 +674,7 @@ public class MongoDBPersist implements Persist {
         ignoreSoftSizeRestrictions ? Integer.MAX_VALUE : effectiveIncrementalIndexSizeLimit();
     int indexSizeLimit =
         ignoreSoftSizeRestrictions ? Integer.MAX_VALUE : effectiveIndexSegmentSizeLimit();
-    storeObj.objToDoc(obj, inner, incrementalIndexSizeLimit, indexSizeLimit);
+    storeObj.objToDoc(compressObj(obj, config), inner, incrementalIndexSizeLimit, indexSizeLimit);
     doc.put(storeObj.typeName, inner);
     return doc;
   }
@@ -943,11 +946,13 @@ public class MongoDBPersist implements Persist {
     List<Document> refIndexStripes = doc.getList(attrName, Document.class);
     if (refIndexStripes != null) {
       for (Document seg : refIndexStripes) {
+        Binary keyFilter = seg.get(COL_STRIPES_KEY_FILTER, Binary.class);
         consumer.accept(
             indexStripe(
                 keyFromString(seg.getString(COL_STRIPES_FIRST_KEY)),
                 keyFromString(seg.getString(COL_STRIPES_LAST_KEY)),
-                binaryToObjId(seg.get(COL_STRIPES_SEGMENT, Binary.class))));
+                binaryToObjId(seg.get(COL_STRIPES_SEGMENT, Binary.class)),
+                keyFilter != null ? binaryToBytes(keyFilter) : null));
       }
     }
   }
@@ -961,6 +966,10 @@ public class MongoDBPersist implements Persist {
       sv.put(COL_STRIPES_FIRST_KEY, stripe.firstKey().rawString());
       sv.put(COL_STRIPES_LAST_KEY, stripe.lastKey().rawString());
       sv.put(COL_STRIPES_SEGMENT, objIdToBinary(stripe.segment()));
+      ByteString keyFilter = stripe.keyFilter();
+      if (keyFilter != null) {
+        sv.put(COL_STRIPES_KEY_FILTER, bytesToBinary(keyFilter));
+      }
       stripesDocs.add(sv);
     }
     return stripesDocs;
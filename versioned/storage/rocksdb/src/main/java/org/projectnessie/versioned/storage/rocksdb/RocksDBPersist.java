@@ -17,6 +17,8 @@ package org.projectnessie.versioned.storage.rocksdb;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Collections.singleton;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.compressObj;
+import static org.projectnessie.versioned.storage.common.persist.ObjCompression.decompressObj;
 import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
 import static org.projectnessie.versioned.storage.rocksdb.RocksDBBackend.keyPrefix;
 import static org.projectnessie.versioned.storage.rocksdb.RocksDBBackend.rocksDbException;
@@ -278,7 +280,7 @@ class RocksDBPersist implements Persist {
       if (obj == null) {
         throw new ObjNotFoundException(id);
       }
-      return deserializeObj(id, obj);
+      return decompressObj(deserializeObj(id, obj));
     } catch (RocksDBException e) {
       throw rocksDbException(e);
     }
@@ -341,7 +343,7 @@ class RocksDBPersist implements Persist {
               }
               notFound.add(id);
             } else {
-              r[i] = deserializeObj(id, obj);
+              r[i] = decompressObj(deserializeObj(id, obj));
             }
           }
         }
@@ -378,7 +380,8 @@ class RocksDBPersist implements Persist {
           ignoreSoftSizeRestrictions ? Integer.MAX_VALUE : effectiveIncrementalIndexSizeLimit();
       int indexSizeLimit =
           ignoreSoftSizeRestrictions ? Integer.MAX_VALUE : effectiveIndexSegmentSizeLimit();
-      byte[] serialized = serializeObj(obj, incrementalIndexSizeLimit, indexSizeLimit);
+      byte[] serialized =
+          serializeObj(compressObj(obj, config), incrementalIndexSizeLimit, indexSizeLimit);
 
       db.put(cf, key, serialized);
       return true;
@@ -441,7 +444,10 @@ class RocksDBPersist implements Persist {
       byte[] key = dbKey(id);
 
       byte[] serialized =
-          serializeObj(obj, effectiveIncrementalIndexSizeLimit(), effectiveIndexSegmentSizeLimit());
+          serializeObj(
+              compressObj(obj, config),
+              effectiveIncrementalIndexSizeLimit(),
+              effectiveIndexSegmentSizeLimit());
 
       db.put(cf, key, serialized);
     } catch (RocksDBException e) {
@@ -529,7 +535,7 @@ class RocksDBPersist implements Persist {
         }
 
         ObjId id = deserializeObjId(key.substring(keyPrefix.size()));
-        Obj o = deserializeObj(id, obj);
+        Obj o = decompressObj(deserializeObj(id, obj));
 
         if (filter.test(o.type())) {
           return o;
@@ -43,6 +43,7 @@ dependencies {
   compileOnly(libs.errorprone.annotations)
 
   implementation(libs.guava)
+  implementation(libs.micrometer.core)
   implementation(libs.slf4j.api)
 
   compileOnly(libs.immutables.builder)
@@ -29,6 +29,7 @@ import static org.projectnessie.versioned.storage.common.logic.CommitRetry.commi
 import static org.projectnessie.versioned.storage.common.logic.Logics.commitLogic;
 import static org.projectnessie.versioned.storage.common.logic.Logics.indexesLogic;
 import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
+import static org.projectnessie.versioned.storage.versionstore.RefMapping.REFS_HEADS;
 import static org.projectnessie.versioned.storage.versionstore.RefMapping.commitConflictToConflict;
 import static org.projectnessie.versioned.storage.versionstore.RefMapping.referenceConflictException;
 import static org.projectnessie.versioned.storage.versionstore.RefMapping.referenceNotFound;
@@ -83,6 +84,7 @@ import org.projectnessie.versioned.storage.common.indexes.StoreIndexElement;
 import org.projectnessie.versioned.storage.common.indexes.StoreKey;
 import org.projectnessie.versioned.storage.common.logic.CommitLogic;
 import org.projectnessie.versioned.storage.common.logic.CommitRetry.RetryException;
+import org.projectnessie.versioned.storage.common.logic.CommitRetryMetrics;
 import org.projectnessie.versioned.storage.common.logic.ConflictHandler.ConflictResolution;
 import org.projectnessie.versioned.storage.common.logic.CreateCommit;
 import org.projectnessie.versioned.storage.common.logic.IndexesLogic;
@@ -190,17 +192,52 @@ class BaseCommitHelper {
       @Nonnull @jakarta.annotation.Nonnull BranchName branch,
       @Nonnull @jakarta.annotation.Nonnull Optional<Hash> referenceHash,
       @Nonnull @jakarta.annotation.Nonnull Persist persist,
+      @Nullable @jakarta.annotation.Nullable CommitRetryMetrics retryMetrics,
+      @Nullable @jakarta.annotation.Nullable CommitSequencer sequencer,
+      @Nonnull @jakarta.annotation.Nonnull CommitterSupplier<I> committerSupplier,
+      @Nonnull @jakarta.annotation.Nonnull CommittingFunction<R, I> committingFunction)
+      throws ReferenceConflictException, ReferenceNotFoundException {
+    if (sequencer == null) {
+      return committingOperation(
+          operationName,
+          branch,
+          referenceHash,
+          persist,
+          retryMetrics,
+          committerSupplier,
+          committingFunction);
+    }
+    try (CommitSequencer.Sequenced ignored = sequencer.sequence(branch)) {
+      return committingOperation(
+          operationName,
+          branch,
+          referenceHash,
+          persist,
+          retryMetrics,
+          committerSupplier,
+          committingFunction);
+    }
+  }
+
+  private static <R, I> R committingOperation(
+      @Nonnull @jakarta.annotation.Nonnull String operationName,
+      @Nonnull @jakarta.annotation.Nonnull BranchName branch,
+      @Nonnull @jakarta.annotation.Nonnull Optional<Hash> referenceHash,
+      @Nonnull @jakarta.annotation.Nonnull Persist persist,
+      @Nullable @jakarta.annotation.Nullable CommitRetryMetrics retryMetrics,
       @Nonnull @jakarta.annotation.Nonnull CommitterSupplier<I> committerSupplier,
       @Nonnull @jakarta.annotation.Nonnull CommittingFunction<R, I> committingFunction)
       throws ReferenceConflictException, ReferenceNotFoundException {
     try {
       return commitRetry(
           persist,
+          REFS_HEADS + branch.getName(),
+          retryMetrics,
           (p, retryState) -> {
             RefMapping refMapping = new RefMapping(p);
             Reference reference;
             try {
-              reference = refMapping.resolveNamedRef(branch);
+              reference = refMapping.resolveNamedRefForUpdate(branch);
             } catch (ReferenceNotFoundException e) {
               throw new CommitWrappedException(e);
             }
@@ -232,16 +269,26 @@ class BaseCommitHelper {
       }
       throw new RuntimeException(c);
     } catch (RetryTimeoutException e) {
-      long millis = NANOSECONDS.toMillis(e.getTimeNanos());
-      String msg =
-          format(
-              "The %s operation could not be performed after %d retries within the configured commit timeout after %d milliseconds",
-              operationName, e.getRetry(), millis);
-      LOGGER.warn("Operation timeout: {}", msg);
-      throw new ReferenceRetryFailureException(msg, e.getRetry(), millis);
+      throw retryFailure(operationName, e);
     }
   }
 
+  /**
+   * Converts the {@link RetryTimeoutException} of a committing operation to the {@link
+   * ReferenceRetryFailureException} reported to the client, logging the timeout.
+   */
+  static ReferenceRetryFailureException retryFailure(
+      @Nonnull @jakarta.annotation.Nonnull String operationName,
+      @Nonnull @jakarta.annotation.Nonnull RetryTimeoutException e) {
+    long millis = NANOSECONDS.toMillis(e.getTimeNanos());
+    String msg =
+        format(
+            "The %s operation could not be performed after %d retries within the configured commit timeout after %d milliseconds",
+            operationName, e.getRetry(), millis);
+    LOGGER.warn("Operation timeout: {}", msg);
+    return new ReferenceRetryFailureException(msg, e.getRetry(), millis);
+  }
+
   void validateNamespaces(
       Map<ContentKey, Content> newContent,
       Object2IntHashMap<ContentKey> allKeysToDelete,
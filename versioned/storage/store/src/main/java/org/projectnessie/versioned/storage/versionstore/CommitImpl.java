@@ -17,6 +17,7 @@ package org.projectnessie.versioned.storage.versionstore;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.collect.Sets.newHashSetWithExpectedSize;
 import static java.util.Objects.requireNonNull;
 import static org.agrona.collections.Hashing.DEFAULT_LOAD_FACTOR;
@@ -145,6 +146,26 @@ class CommitImpl extends BaseCommitHelper {
           ReferenceConflictException,
           RetryException,
           ObjTooLargeException {
+    CommitRetryState commitRetryState =
+        retryState.map(x -> (CommitRetryState) x).orElseGet(CommitRetryState::new);
+
+    CommitObj newHead = storeCommit(commitRetryState, metadata, operations, validator);
+
+    bumpReferencePointer(newHead.id(), Optional.of(commitRetryState));
+
+    return commitResult(newHead, commitRetryState, addedContents);
+  }
+
+  /**
+   * Validates and persists a new commit on top of the current HEAD of this committer, but does
+   * <em>not</em> update the reference pointer.
+   */
+  CommitObj storeCommit(
+      @Nonnull @jakarta.annotation.Nonnull CommitRetryState commitRetryState,
+      @Nonnull @jakarta.annotation.Nonnull CommitMeta metadata,
+      @Nonnull @jakarta.annotation.Nonnull List<Operation> operations,
+      @Nonnull @jakarta.annotation.Nonnull Callable<Void> validator)
+      throws ReferenceNotFoundException, ReferenceConflictException, ObjTooLargeException {
     try {
       validator.call();
     } catch (RuntimeException e) {
@@ -157,9 +178,6 @@ class CommitImpl extends BaseCommitHelper {
     CreateCommit.Builder commit = newCommitBuilder().parentCommitId(headId());
     List<Obj> objectsToStore = new ArrayList<>(operations.size());
 
-    CommitRetryState commitRetryState =
-        retryState.map(x -> (CommitRetryState) x).orElseGet(CommitRetryState::new);
-
     Consumer<Obj> valueConsumer =
         obj -> {
           if (commitRetryState.storedContents.add(obj.id())) {
@@ -183,17 +201,27 @@ class CommitImpl extends BaseCommitHelper {
           "Hash collision detected, a commit with the same parent commit, commit message, "
               + "headers/commit-metadata and operations already exists");
 
-      bumpReferencePointer(newHead.id(), Optional.of(commitRetryState));
+      return newHead;
+    } catch (CommitConflictException e) {
+      throw referenceConflictException(e);
+    } catch (ObjNotFoundException e) {
+      throw referenceNotFound(e);
+    }
+  }
 
-      commitRetryState.generatedContentIds.forEach(addedContents);
+  /** Builds the result for a commit that has been made visible via the reference pointer. */
+  CommitResult<Commit> commitResult(
+      @Nonnull @jakarta.annotation.Nonnull CommitObj newHead,
+      @Nonnull @jakarta.annotation.Nonnull CommitRetryState commitRetryState,
+      @Nonnull @jakarta.annotation.Nonnull BiConsumer<ContentKey, String> addedContents)
+      throws ReferenceNotFoundException {
+    commitRetryState.generatedContentIds.forEach(addedContents);
 
+    try {
       return ImmutableCommitResult.<Commit>builder()
           .commit(contentMapping.commitObjToCommit(true, newHead))
           .targetBranch((BranchName) RefMapping.referenceToNamedRef(reference))
           .build();
-
-    } catch (CommitConflictException e) {
-      throw referenceConflictException(e);
     } catch (ObjNotFoundException e) {
       throw referenceNotFound(e);
     }
@@ -226,6 +254,8 @@ class CommitImpl extends BaseCommitHelper {
       headIndex().loadIfNecessary(storeKeysForHead);
     }
 
+    Map<ObjId, String> existingContentIds = existingContentIds(operations, storeKeys);
+
     Map<UUID, StoreKey> deleted = new HashMap<>();
     Map<ContentKey, Content> newContent = new HashMap<>();
     Object2IntHashMap<ContentKey> deletedKeysAndPayload =
@@ -243,7 +273,8 @@ class CommitImpl extends BaseCommitHelper {
             contentToStore,
             commitRetryState,
             deleted,
-            newContent::put);
+            newContent::put,
+            existingContentIds);
       } else if (operation instanceof Delete) {
         commitAddDelete(
             expectedIndex(),
@@ -260,6 +291,36 @@ class CommitImpl extends BaseCommitHelper {
     validateNamespaces(newContent, deletedKeysAndPayload, headIndex());
   }
 
+  /**
+   * Loads the content values of the existing keys that are updated by a {@link Put}, but have no
+   * content ID in the index, which is the case for keys of imported or legacy repositories. All
+   * those content values are fetched with a single round trip.
+   *
+   * @return content IDs keyed by content value ID
+   */
+  private Map<ObjId, String> existingContentIds(
+      List<Operation> operations, List<StoreKey> storeKeys) throws ObjNotFoundException {
+    List<ObjId> valueIds = new ArrayList<>();
+    for (int i = 0; i < operations.size(); i++) {
+      if (operations.get(i) instanceof Put) {
+        StoreIndexElement<CommitOp> existing = expectedIndex().get(storeKeys.get(i));
+        if (existing != null) {
+          CommitOp content = existing.content();
+          if (content.action().exists() && content.contentId() == null) {
+            valueIds.add(requireNonNull(content.value()));
+          }
+        }
+      }
+    }
+
+    List<Content> contents = contentMapping.fetchContents(valueIds);
+    Map<ObjId, String> contentIds = newHashMapWithExpectedSize(valueIds.size());
+    for (int i = 0; i < valueIds.size(); i++) {
+      contentIds.put(valueIds.get(i), contents.get(i).getId());
+    }
+    return contentIds;
+  }
+
   private static void commitAddUnchanged(
       StoreIndex<CommitOp> headIndex,
       StoreIndex<CommitOp> expectedIndex,
@@ -343,7 +404,8 @@ class CommitImpl extends BaseCommitHelper {
       Consumer<Obj> contentToStore,
       CommitRetryState commitRetryState,
       Map<UUID, StoreKey> deleted,
-      BiConsumer<ContentKey, Content> newContent)
+      BiConsumer<ContentKey, Content> newContent,
+      Map<ObjId, String> existingContentIds)
       throws ObjNotFoundException {
     Content putValue = put.getValue();
     ContentKey putKey = put.getKey();
@@ -374,7 +436,7 @@ class CommitImpl extends BaseCommitHelper {
         expectedContentIDString =
             existingContentID != null
                 ? existingContentID.toString()
-                : contentIdFromContent(existingValue);
+                : contentIdFromContent(existingValue, existingContentIds);
 
         checkArgument(
             putValueId != null, "New value to update existing key '%s' has no content ID", putKey);
@@ -415,10 +477,15 @@ class CommitImpl extends BaseCommitHelper {
     commit.addAdds(commitAdd(storeKey, payload, valueId, existingValue, contentId));
   }
 
-  private String contentIdFromContent(@Nonnull @jakarta.annotation.Nonnull ObjId contentValueId)
+  private String contentIdFromContent(
+      @Nonnull @jakarta.annotation.Nonnull ObjId contentValueId,
+      @Nonnull @jakarta.annotation.Nonnull Map<ObjId, String> existingContentIds)
       throws ObjNotFoundException {
-    // TODO pre-load these objects, so they are bulk-loaded and in turn available via the cache
-    // https://github.com/projectnessie/nessie/issues/6673
+    String contentId = existingContentIds.get(contentValueId);
+    if (contentId != null) {
+      return contentId;
+    }
+    // Fallback, in case the content value has not been pre-loaded by existingContentIds()
     return contentMapping.fetchContent(contentValueId).getId();
   }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.versionstore;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nonnull;
+import org.projectnessie.versioned.BranchName;
+
+/**
+ * Sequences committing operations against the same branch within this Nessie instance.
+ *
+ * <p>Only one committing operation per branch is in flight at any time, other operations wait in
+ * a fair queue. This prevents committing operations of the same Nessie instance from competing
+ * against each other via the reference pointer update, which would otherwise lead to commit
+ * retries and back-off sleeps.
+ */
+final class CommitSequencer {
+
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  private final Timer waitTime;
+
+  CommitSequencer(@Nonnull @jakarta.annotation.Nonnull MeterRegistry registry) {
+    Gauge.builder("nessie.storage.commit-sequencer.queue-depth", queueDepth, AtomicInteger::get)
+        .description("Number of committing operations waiting for their branch")
+        .register(registry);
+    this.waitTime =
+        Timer.builder("nessie.storage.commit-sequencer.wait")
+            .description("Time committing operations waited for their branch")
+            .register(registry);
+  }
+
+  /** Per-branch locks, weakly referenced so that locks of idle branches can be collected. */
+  private final ConcurrentMap<String, ReentrantLock> locks =
+      CacheBuilder.newBuilder().weakValues().<String, ReentrantLock>build().asMap();
+
+  /**
+   * Waits until no other committing operation against the given branch is in flight. The returned
+   * {@link Sequenced} must be closed when the committing operation has finished.
+   */
+  Sequenced sequence(@Nonnull @jakarta.annotation.Nonnull BranchName branch) {
+    ReentrantLock lock = locks.computeIfAbsent(branch.getName(), b -> new ReentrantLock(true));
+
+    long start = System.nanoTime();
+    queueDepth.incrementAndGet();
+    try {
+      lock.lock();
+    } finally {
+      queueDepth.decrementAndGet();
+      waitTime.record(System.nanoTime() - start, NANOSECONDS);
+    }
+
+    return lock::unlock;
+  }
+
+  @FunctionalInterface
+  interface Sequenced extends AutoCloseable {
+    @Override
+    void close();
+  }
+}
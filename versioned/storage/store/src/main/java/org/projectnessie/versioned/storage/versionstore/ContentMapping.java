@@ -16,6 +16,8 @@
 package org.projectnessie.versioned.storage.versionstore;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 import static org.projectnessie.versioned.storage.common.logic.Logics.indexesLogic;
 import static org.projectnessie.versioned.storage.common.objtypes.ContentValueObj.contentValue;
@@ -29,7 +31,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
-import org.projectnessie.model.CommitMeta;
 import org.projectnessie.model.Content;
 import org.projectnessie.model.ContentKey;
 import org.projectnessie.nessie.relocated.protobuf.ByteString;
@@ -86,6 +87,52 @@ public final class ContentMapping {
     return r;
   }
 
+  /**
+   * Bulk version of {@link #fetchContent(ObjId)}, fetches the content values for all given IDs with
+   * a single {@link Persist#fetchObjs(ObjId[])} call.
+   *
+   * @return contents in the same order as {@code ids}
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public List<Content> fetchContents(@Nonnull @jakarta.annotation.Nonnull List<ObjId> ids)
+      throws ObjNotFoundException {
+    ContentValueObj[] contentValues = fetchContentValues(ids);
+    List<Content> r = new ArrayList<>(contentValues.length);
+    for (ContentValueObj contentValue : contentValues) {
+      r.add(valueToContent(contentValue));
+    }
+    return r;
+  }
+
+  /**
+   * Fetches the content values for the given IDs with a single {@link Persist#fetchObjs(ObjId[])}
+   * call, the returned array has the same order as {@code ids}.
+   */
+  private ContentValueObj[] fetchContentValues(List<ObjId> ids) throws ObjNotFoundException {
+    ContentValueObj[] r = new ContentValueObj[ids.size()];
+    if (ids.isEmpty()) {
+      return r;
+    }
+
+    // The same content value can be referenced more than once, fetch it only once
+    Map<ObjId, ContentValueObj> contentValues = new HashMap<>();
+    ids.forEach(id -> contentValues.put(id, null));
+    ObjId[] distinctIds = contentValues.keySet().toArray(new ObjId[0]);
+    Obj[] objs = persist.fetchObjs(distinctIds);
+    for (int i = 0; i < distinctIds.length; i++) {
+      Obj obj = objs[i];
+      checkState(
+          obj instanceof ContentValueObj, "Expected a content value object, but got %s", obj);
+      contentValues.put(distinctIds[i], (ContentValueObj) obj);
+    }
+
+    for (int i = 0; i < r.length; i++) {
+      r[i] = contentValues.get(ids.get(i));
+    }
+    return r;
+  }
+
   private static Content valueToContent(ContentValueObj contentValue) {
     return STORE_WORKER.valueFromStore((byte) contentValue.payload(), contentValue.data());
   }
@@ -125,43 +172,82 @@ public final class ContentMapping {
       @Nonnull @jakarta.annotation.Nonnull CommitObj commitObj,
       @Nonnull @jakarta.annotation.Nonnull ObjId commitId)
       throws ObjNotFoundException {
-    ImmutableCommit.Builder commit =
-        Commit.builder()
-            .hash(objIdToHash(commitId))
-            .parentHash(objIdToHash(commitObj.directParent()));
-
-    CommitMeta commitMeta = toCommitMeta(commitObj);
-
-    if (fetchAdditionalInfo) {
-      IndexesLogic indexesLogic = indexesLogic(persist);
-      List<ObjId> ids = new ArrayList<>();
-      List<ContentKey> keys = new ArrayList<>();
-      for (StoreIndexElement<CommitOp> op : indexesLogic.commitOperations(commitObj)) {
-        ContentKey key = storeKeyToKey(op.key());
-        // Note: key==null, if not the "main universe" or not a "content" discriminator
-        if (key != null) {
-          CommitOp c = op.content();
-          if (c.action().exists()) {
-            ObjId objId = requireNonNull(c.value(), "Required value pointer is null");
-            ids.add(objId);
-            keys.add(key);
-          } else {
-            commit.addOperations(Delete.of(key));
+    return commitObjsToCommits(
+            fetchAdditionalInfo, singletonList(commitObj), singletonList(commitId))
+        .get(0);
+  }
+
+  /**
+   * Bulk version of {@link #commitObjToCommit(boolean, CommitObj)}. If {@code fetchAdditionalInfo}
+   * is {@code true}, the content values of the operations of all given commits are fetched with a
+   * single {@link Persist#fetchObjs(ObjId[])} call.
+   *
+   * @return commits in the same order as {@code commitObjs}
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public List<Commit> commitObjsToCommits(
+      boolean fetchAdditionalInfo,
+      @Nonnull @jakarta.annotation.Nonnull List<CommitObj> commitObjs)
+      throws ObjNotFoundException {
+    List<ObjId> commitIds = new ArrayList<>(commitObjs.size());
+    for (CommitObj commitObj : commitObjs) {
+      commitIds.add(commitObj.id());
+    }
+    return commitObjsToCommits(fetchAdditionalInfo, commitObjs, commitIds);
+  }
+
+  private List<Commit> commitObjsToCommits(
+      boolean fetchAdditionalInfo, List<CommitObj> commitObjs, List<ObjId> commitIds)
+      throws ObjNotFoundException {
+    int size = commitObjs.size();
+    List<ImmutableCommit.Builder> builders = new ArrayList<>(size);
+    int[] putsPerCommit = new int[size];
+    List<ObjId> ids = new ArrayList<>();
+    List<ContentKey> keys = new ArrayList<>();
+
+    IndexesLogic indexesLogic = fetchAdditionalInfo ? indexesLogic(persist) : null;
+    for (int i = 0; i < size; i++) {
+      CommitObj commitObj = commitObjs.get(i);
+      ImmutableCommit.Builder commit =
+          Commit.builder()
+              .hash(objIdToHash(commitIds.get(i)))
+              .parentHash(objIdToHash(commitObj.directParent()))
+              .commitMeta(toCommitMeta(commitObj));
+      builders.add(commit);
+
+      if (indexesLogic != null) {
+        for (StoreIndexElement<CommitOp> op : indexesLogic.commitOperations(commitObj)) {
+          ContentKey key = storeKeyToKey(op.key());
+          // Note: key==null, if not the "main universe" or not a "content" discriminator
+          if (key != null) {
+            CommitOp c = op.content();
+            if (c.action().exists()) {
+              ObjId objId = requireNonNull(c.value(), "Required value pointer is null");
+              ids.add(objId);
+              keys.add(key);
+              putsPerCommit[i]++;
+            } else {
+              commit.addOperations(Delete.of(key));
+            }
           }
         }
       }
-      if (!ids.isEmpty()) {
-        Obj[] objs = persist.fetchObjs(ids.toArray(new ObjId[0]));
-        for (int i = 0; i < objs.length; i++) {
-          Obj obj = objs[i];
-          ContentKey key = keys.get(i);
-          assert obj instanceof ContentValueObj;
-          ContentValueObj contentValue = (ContentValueObj) obj;
-          commit.addOperations(Put.ofLazy(key, contentValue.payload(), contentValue.data()));
-        }
-      }
     }
 
-    return commit.commitMeta(commitMeta).build();
+    // The Put operations of all commits are resolved with a single round trip, the content values
+    // are in the order of the commits.
+    ContentValueObj[] contentValues = fetchContentValues(ids);
+    List<Commit> commits = new ArrayList<>(size);
+    int v = 0;
+    for (int i = 0; i < size; i++) {
+      ImmutableCommit.Builder commit = builders.get(i);
+      for (int n = 0; n < putsPerCommit[i]; n++, v++) {
+        ContentValueObj contentValue = contentValues[v];
+        commit.addOperations(Put.ofLazy(keys.get(v), contentValue.payload(), contentValue.data()));
+      }
+      commits.add(commit.build());
+    }
+    return commits;
   }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.versionstore;
+
+import static org.projectnessie.versioned.storage.common.logic.CommitRetry.commitRetry;
+import static org.projectnessie.versioned.storage.common.logic.Logics.commitLogic;
+import static org.projectnessie.versioned.storage.versionstore.BaseCommitHelper.retryFailure;
+import static org.projectnessie.versioned.storage.versionstore.RefMapping.REFS_HEADS;
+import static org.projectnessie.versioned.storage.versionstore.RefMapping.referenceConflictException;
+import static org.projectnessie.versioned.storage.versionstore.RefMapping.referenceNotFound;
+
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.projectnessie.model.CommitMeta;
+import org.projectnessie.model.ContentKey;
+import org.projectnessie.versioned.BranchName;
+import org.projectnessie.versioned.Commit;
+import org.projectnessie.versioned.CommitResult;
+import org.projectnessie.versioned.Hash;
+import org.projectnessie.versioned.Operation;
+import org.projectnessie.versioned.ReferenceConflictException;
+import org.projectnessie.versioned.ReferenceNotFoundException;
+import org.projectnessie.versioned.storage.common.exceptions.CommitConflictException;
+import org.projectnessie.versioned.storage.common.exceptions.CommitWrappedException;
+import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
+import org.projectnessie.versioned.storage.common.exceptions.ObjTooLargeException;
+import org.projectnessie.versioned.storage.common.exceptions.RefConditionFailedException;
+import org.projectnessie.versioned.storage.common.exceptions.RefNotFoundException;
+import org.projectnessie.versioned.storage.common.exceptions.RetryTimeoutException;
+import org.projectnessie.versioned.storage.common.logic.CommitRetry.RetryException;
+import org.projectnessie.versioned.storage.common.logic.CommitRetryMetrics;
+import org.projectnessie.versioned.storage.common.objtypes.CommitObj;
+import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.common.persist.Reference;
+import org.projectnessie.versioned.storage.versionstore.CommitImpl.CommitRetryState;
+
+/**
+ * Applies concurrent commits against the same branch as a group.
+ *
+ * <p>Every commit is queued per branch. The first thread that acquires the branch's lock becomes
+ * the leader and applies up to {@link
+ * org.projectnessie.versioned.storage.common.config.StoreConfig#groupCommitMaxCommits()} queued
+ * commits as a chain of commits on top of the current HEAD, followed by a single reference pointer
+ * update. Threads whose commits have been applied by another leader just pick up their result.
+ *
+ * <p>Commits that fail validation or conflict only fail themselves, the remaining commits of the
+ * group are still applied. If the reference pointer update fails, because another Nessie instance
+ * changed the branch, the whole group is re-applied on top of the new HEAD, honoring the configured
+ * commit retry settings.
+ */
+final class GroupCommits {
+  private final Persist persist;
+  @Nullable private final CommitRetryMetrics retryMetrics;
+  @Nullable private final CommitSequencer sequencer;
+  private final int maxCommits;
+
+  /** Per-branch queues, weakly referenced so that queues of idle branches can be collected. */
+  private final ConcurrentMap<String, BranchQueue> queues =
+      CacheBuilder.newBuilder().weakValues().<String, BranchQueue>build().asMap();
+
+  GroupCommits(
+      @Nonnull @jakarta.annotation.Nonnull Persist persist,
+      @Nullable @jakarta.annotation.Nullable CommitRetryMetrics retryMetrics,
+      @Nullable @jakarta.annotation.Nullable CommitSequencer sequencer,
+      int maxCommits) {
+    this.persist = persist;
+    this.retryMetrics = retryMetrics;
+    this.sequencer = sequencer;
+    this.maxCommits = maxCommits;
+  }
+
+  CommitResult<Commit> commit(
+      @Nonnull @jakarta.annotation.Nonnull BranchName branch,
+      @Nonnull @jakarta.annotation.Nonnull Optional<Hash> referenceHash,
+      @Nonnull @jakarta.annotation.Nonnull CommitMeta metadata,
+      @Nonnull @jakarta.annotation.Nonnull List<Operation> operations,
+      @Nonnull @jakarta.annotation.Nonnull Callable<Void> validator,
+      @Nonnull @jakarta.annotation.Nonnull BiConsumer<ContentKey, String> addedContents)
+      throws ReferenceNotFoundException, ReferenceConflictException {
+    PendingCommit pending = new PendingCommit(referenceHash, metadata, operations, validator);
+
+    BranchQueue queue = queues.computeIfAbsent(branch.getName(), b -> new BranchQueue());
+    queue.pending.add(pending);
+
+    queue.lock.lock();
+    try {
+      while (!pending.done) {
+        List<PendingCommit> group = new ArrayList<>(maxCommits);
+        for (PendingCommit c; group.size() < maxCommits && (c = queue.pending.poll()) != null; ) {
+          group.add(c);
+        }
+        if (sequencer == null) {
+          applyGroup(branch, group);
+        } else {
+          try (CommitSequencer.Sequenced ignored = sequencer.sequence(branch)) {
+            applyGroup(branch, group);
+          }
+        }
+      }
+    } finally {
+      queue.lock.unlock();
+    }
+
+    return pending.result(addedContents);
+  }
+
+  private void applyGroup(BranchName branch, List<PendingCommit> group) {
+    try {
+      commitRetry(
+          persist,
+          REFS_HEADS + branch.getName(),
+          retryMetrics,
+          (p, retryState) -> {
+            applyGroupAttempt(p, branch, group);
+            return null;
+          });
+    } catch (CommitConflictException e) {
+      failRemaining(group, referenceConflictException(e));
+    } catch (CommitWrappedException e) {
+      failRemaining(group, e.getCause());
+    } catch (RetryTimeoutException e) {
+      failRemaining(group, retryFailure("commit", e));
+    } catch (RuntimeException e) {
+      failRemaining(group, e);
+    } finally {
+      group.forEach(c -> c.done = true);
+    }
+  }
+
+  private static void applyGroupAttempt(Persist p, BranchName branch, List<PendingCommit> group)
+      throws CommitWrappedException, RetryException {
+    Reference reference;
+    CommitObj head;
+    try {
+      reference = new RefMapping(p).resolveNamedRefForUpdate(branch);
+      head = commitLogic(p).headCommit(reference);
+    } catch (ReferenceNotFoundException e) {
+      throw new CommitWrappedException(e);
+    } catch (ObjNotFoundException e) {
+      throw new CommitWrappedException(referenceNotFound(e));
+    }
+
+    boolean anyApplied = false;
+    for (PendingCommit c : group) {
+      // The outcome of a previous attempt is not relevant, the chain is built from scratch.
+      c.committer = null;
+      c.newHead = null;
+      c.failure = null;
+      try {
+        CommitImpl committer = new CommitImpl(branch, c.referenceHash, p, reference, head);
+        CommitObj newHead =
+            committer.storeCommit(c.retryState, c.metadata, c.operations, c.validator);
+        c.committer = committer;
+        c.newHead = newHead;
+        head = newHead;
+        anyApplied = true;
+      } catch (ReferenceNotFoundException
+          | ReferenceConflictException
+          | ObjTooLargeException
+          | RuntimeException e) {
+        c.failure = e;
+      }
+    }
+
+    if (anyApplied) {
+      try {
+        p.updateReferencePointer(reference, head.id());
+      } catch (RefConditionFailedException e) {
+        throw new RetryException();
+      } catch (RefNotFoundException e) {
+        throw new RuntimeException("Internal reference not found", e);
+      }
+    }
+  }
+
+  private static void failRemaining(List<PendingCommit> group, Throwable failure) {
+    for (PendingCommit c : group) {
+      if (c.failure == null) {
+        c.newHead = null;
+        c.failure = failure;
+      }
+    }
+  }
+
+  private static final class BranchQueue {
+    final ReentrantLock lock = new ReentrantLock();
+    final Queue<PendingCommit> pending = new ConcurrentLinkedQueue<>();
+  }
+
+  /**
+   * State of a single commit request. Fields are written by the leader while holding the branch
+   * lock and read by the requesting thread after it acquired the same lock.
+   */
+  private static final class PendingCommit {
+    final Optional<Hash> referenceHash;
+    final CommitMeta metadata;
+    final List<Operation> operations;
+    final Callable<Void> validator;
+    final CommitRetryState retryState = new CommitRetryState();
+
+    boolean done;
+    CommitImpl committer;
+    CommitObj newHead;
+    Throwable failure;
+
+    PendingCommit(
+        Optional<Hash> referenceHash,
+        CommitMeta metadata,
+        List<Operation> operations,
+        Callable<Void> validator) {
+      this.referenceHash = referenceHash;
+      this.metadata = metadata;
+      this.operations = operations;
+      this.validator = validator;
+    }
+
+    CommitResult<Commit> result(BiConsumer<ContentKey, String> addedContents)
+        throws ReferenceNotFoundException, ReferenceConflictException {
+      if (failure != null) {
+        if (failure instanceof ReferenceNotFoundException) {
+          throw (ReferenceNotFoundException) failure;
+        }
+        if (failure instanceof ReferenceConflictException) {
+          throw (ReferenceConflictException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+          throw (RuntimeException) failure;
+        }
+        throw new RuntimeException(failure);
+      }
+      return committer.commitResult(newHead, retryState, addedContents);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2023 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.versionstore;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+
+/**
+ * Bounded cache of the common ancestors of two commits, used to compute the common ancestor and
+ * ahead/behind information when listing references.
+ *
+ * <p>Commits are immutable, so the common ancestor of two commits never changes and cached entries
+ * never need to be invalidated.
+ */
+final class MergeBaseCache {
+
+  private final Cache<CommitPair, MergeBase> cache;
+
+  MergeBaseCache(int maxSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+  }
+
+  @Nullable
+  @jakarta.annotation.Nullable
+  MergeBase get(
+      @Nonnull @jakarta.annotation.Nonnull ObjId baseId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId headId) {
+    return cache.getIfPresent(new CommitPair(baseId, headId));
+  }
+
+  void put(
+      @Nonnull @jakarta.annotation.Nonnull ObjId baseId,
+      @Nonnull @jakarta.annotation.Nonnull ObjId headId,
+      @Nonnull @jakarta.annotation.Nonnull MergeBase mergeBase) {
+    cache.put(new CommitPair(baseId, headId), mergeBase);
+  }
+
+  /**
+   * The ID and sequence number of the common ancestor of two commits. The sequence number is {@link
+   * #UNKNOWN_SEQ}, if the common ancestor commit has not been fetched.
+   */
+  static final class MergeBase {
+    static final long UNKNOWN_SEQ = -1L;
+
+    final ObjId commonAncestor;
+    final long commonAncestorSeq;
+
+    MergeBase(ObjId commonAncestor, long commonAncestorSeq) {
+      this.commonAncestor = commonAncestor;
+      this.commonAncestorSeq = commonAncestorSeq;
+    }
+
+    boolean hasSeq() {
+      return commonAncestorSeq != UNKNOWN_SEQ;
+    }
+  }
+
+  /**
+   * Cache key, the common ancestor of two commits does not depend on their order, so both orders
+   * yield the same key.
+   */
+  private static final class CommitPair {
+    private final ObjId first;
+    private final ObjId second;
+
+    CommitPair(ObjId a, ObjId b) {
+      boolean swap = a.hashCode() > b.hashCode();
+      this.first = swap ? b : a;
+      this.second = swap ? a : b;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CommitPair)) {
+        return false;
+      }
+      CommitPair other = (CommitPair) o;
+      return (first.equals(other.first) && second.equals(other.second))
+          || (first.equals(other.second) && second.equals(other.first));
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * first.hashCode() + second.hashCode();
+    }
+  }
+}
@@ -270,6 +270,23 @@ public class RefMapping {
     }
   }
 
+  /**
+   * Like {@link #resolveNamedRef(NamedRef)}, but always resolves the current state of the
+   * reference, bypassing any reference cache.
+   */
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public Reference resolveNamedRefForUpdate(@Nonnull @jakarta.annotation.Nonnull NamedRef namedRef)
+      throws ReferenceNotFoundException {
+    String refName = namedRefToRefName(namedRef);
+    ReferenceLogic referenceLogic = referenceLogic(persist);
+    try {
+      return referenceLogic.getReferenceForUpdate(refName);
+    } catch (RefNotFoundException e) {
+      throw referenceNotFound(namedRef);
+    }
+  }
+
   public Reference resolveNamedRef(@Nonnull @jakarta.annotation.Nonnull String refName)
       throws ReferenceNotFoundException {
     ReferenceLogic referenceLogic = referenceLogic(persist);
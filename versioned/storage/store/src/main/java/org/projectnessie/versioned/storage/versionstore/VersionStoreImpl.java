@@ -54,6 +54,11 @@ import static org.projectnessie.versioned.storage.versionstore.TypeMapping.store
 import static org.projectnessie.versioned.storage.versionstore.TypeMapping.toCommitMeta;
 import static org.projectnessie.versioned.store.DefaultStoreWorker.contentTypeForPayload;
 
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -107,6 +112,7 @@ import org.projectnessie.versioned.TagName;
 import org.projectnessie.versioned.VersionStore;
 import org.projectnessie.versioned.paging.FilteringPaginationIterator;
 import org.projectnessie.versioned.paging.PaginationIterator;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
 import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
 import org.projectnessie.versioned.storage.common.exceptions.RefAlreadyExistsException;
 import org.projectnessie.versioned.storage.common.exceptions.RefConditionFailedException;
@@ -116,6 +122,7 @@ import org.projectnessie.versioned.storage.common.indexes.StoreIndex;
 import org.projectnessie.versioned.storage.common.indexes.StoreIndexElement;
 import org.projectnessie.versioned.storage.common.indexes.StoreKey;
 import org.projectnessie.versioned.storage.common.logic.CommitLogic;
+import org.projectnessie.versioned.storage.common.logic.CommitRetryMetrics;
 import org.projectnessie.versioned.storage.common.logic.DiffEntry;
 import org.projectnessie.versioned.storage.common.logic.IndexesLogic;
 import org.projectnessie.versioned.storage.common.logic.PagedResult;
@@ -128,10 +135,28 @@ import org.projectnessie.versioned.storage.common.persist.ObjId;
 import org.projectnessie.versioned.storage.common.persist.Persist;
 import org.projectnessie.versioned.storage.common.persist.Reference;
 import org.projectnessie.versioned.storage.versionstore.BaseCommitHelper.CommitterSupplier;
+import org.projectnessie.versioned.storage.versionstore.MergeBaseCache.MergeBase;
 
 public class VersionStoreImpl implements VersionStore {
 
+  /**
+   * Maximum number of references resolved together when listing named references. Batches start
+   * with a single reference and double in size up to this number, so that a small page does not
+   * resolve more references than it returns.
+   */
+  static final int NAMED_REFS_BATCH_SIZE = 50;
+
+  /** Number of keys mapped together when listing keys. */
+  static final int KEYS_BATCH_SIZE = 50;
+
+  /** Number of commits mapped together when listing commits including their operations. */
+  static final int COMMITS_BATCH_SIZE = 50;
+
   private final Persist persist;
+  private final CommitRetryMetrics commitRetryMetrics;
+  private final CommitSequencer commitSequencer;
+  private final GroupCommits groupCommits;
+  private final MergeBaseCache mergeBaseCache;
 
   @SuppressWarnings("unused")
   public VersionStoreImpl() {
@@ -139,7 +164,29 @@ public class VersionStoreImpl implements VersionStore {
   }
 
   public VersionStoreImpl(Persist persist) {
+    this(persist, Metrics.globalRegistry);
+  }
+
+  /**
+   * Creates a version store using the given Micrometer registry for its own meters, for example
+   * those of the {@link StoreConfig#commitSequencing() commit sequencer} and of {@link
+   * CommitRetryMetrics commit retries}.
+   */
+  public VersionStoreImpl(Persist persist, MeterRegistry registry) {
     this.persist = persist;
+    this.commitRetryMetrics = new CommitRetryMetrics(registry);
+    this.commitSequencer =
+        persist != null && persist.config().commitSequencing()
+            ? new CommitSequencer(registry)
+            : null;
+    int groupCommitMaxCommits = persist != null ? persist.config().groupCommitMaxCommits() : 0;
+    this.groupCommits =
+        groupCommitMaxCommits > 1
+            ? new GroupCommits(
+                persist, commitRetryMetrics, commitSequencer, groupCommitMaxCommits)
+            : null;
+    int mergeBaseCacheSize = persist != null ? persist.config().mergeBaseCacheSize() : 0;
+    this.mergeBaseCache = mergeBaseCacheSize > 0 ? new MergeBaseCache(mergeBaseCacheSize) : null;
   }
 
   @Nonnull
@@ -169,7 +216,12 @@ public class VersionStoreImpl implements VersionStore {
   public Hash hashOnReference(NamedRef namedRef, Optional<Hash> hashOnReference)
       throws ReferenceNotFoundException {
     RefMapping refMapping = new RefMapping(persist);
-    CommitObj head = refMapping.resolveNamedRefHead(namedRef);
+    // Reads pinned to a commit hash must see the current HEAD, the commit might have been just
+    // created by another Nessie instance.
+    CommitObj head =
+        hashOnReference.isPresent()
+            ? refMapping.resolveNamedRefHead(refMapping.resolveNamedRefForUpdate(namedRef))
+            : refMapping.resolveNamedRefHead(namedRef);
 
     CommitObj commit = refMapping.commitInChain(namedRef, head, hashOnReference);
     return commit != null ? objIdToHash(commit.id()) : NO_ANCESTOR;
@@ -196,7 +248,7 @@ public class VersionStoreImpl implements VersionStore {
               ? asBranchName(namedRef.getName())
               : asTagName(namedRef.getName());
       try {
-        referenceLogic.getReference(mustNotExist);
+        referenceLogic.getReferenceForUpdate(mustNotExist);
         // A tag with the same name as the branch being created (or a branch with the same name
         // as the tag being created) already exists.
         throw referenceAlreadyExists(namedRef);
@@ -224,7 +276,7 @@ public class VersionStoreImpl implements VersionStore {
     ReferenceLogic referenceLogic = referenceLogic(persist);
     Reference expected;
     try {
-      expected = referenceLogic.getReference(refName);
+      expected = referenceLogic.getReferenceForUpdate(refName);
     } catch (RefNotFoundException e) {
       throw referenceNotFound(namedRef);
     }
@@ -270,7 +322,7 @@ public class VersionStoreImpl implements VersionStore {
       expected =
           hash.isPresent()
               ? hashToObjId(hash.get())
-              : referenceLogic.getReference(refName).pointer();
+              : referenceLogic.getReferenceForUpdate(refName).pointer();
       referenceLogic.deleteReference(refName, expected);
       return ImmutableReferenceDeletedResult.builder()
           .namedRef(namedRef)
@@ -302,7 +354,15 @@ public class VersionStoreImpl implements VersionStore {
 
     CommitLogic commitLogic = commitLogic(persist);
     try {
-      return buildReferenceInfo(params, baseRefHead, commitLogic, namedRef, head);
+      Map<ObjId, MergeBase> mergeBases =
+          head != null && baseRefHead.isPresent() && needsMergeBase(params, namedRef)
+              ? mergeBases(
+                  commitLogic,
+                  baseRefHead.get(),
+                  singleton(head),
+                  retrieveOptions(params, namedRef).isComputeAheadBehind())
+              : emptyMap();
+      return buildReferenceInfo(params, baseRefHead, namedRef, head, mergeBases);
     } catch (ObjNotFoundException e) {
       throw referenceNotFound(e);
     }
@@ -349,22 +409,21 @@ public class VersionStoreImpl implements VersionStore {
 
     CommitLogic commitLogic = commitLogic(persist);
 
-    return new FilteringPaginationIterator<Reference, ReferenceInfo<CommitMeta>>(
-        result,
-        reference -> {
-          try {
-            NamedRef namedRef = referenceToNamedRef(reference);
-            CommitObj head = commitLogic(persist).headCommit(reference);
-            return buildReferenceInfo(params, baseRefHead, commitLogic, namedRef, head);
-          } catch (ReferenceNotFoundException | ObjNotFoundException e) {
-            throw new RuntimeException("Could not resolve reference " + reference, e);
-          }
-        }) {
+    // Resolve the references in batches, so that the HEAD commits and common ancestors of a batch
+    // are fetched with one round trip each instead of one per reference.
+    Iterator<ReferenceInfo<CommitMeta>> infos =
+        Iterators.concat(
+            Iterators.transform(
+                growingPartition(result, NAMED_REFS_BATCH_SIZE),
+                batch -> referenceInfos(params, baseRefHead, commitLogic, batch).iterator()));
+
+    return new FilteringPaginationIterator<ReferenceInfo<CommitMeta>, ReferenceInfo<CommitMeta>>(
+        infos, Function.identity()) {
 
       @Override
       protected String computeTokenForCurrent() {
-        Reference c = current();
-        return c != null ? tokenFor(c.name()) : null;
+        ReferenceInfo<CommitMeta> c = current();
+        return c != null ? tokenForEntry(c) : null;
       }
 
       @Override
@@ -378,23 +437,102 @@ public class VersionStoreImpl implements VersionStore {
     };
   }
 
-  private ReferenceInfo<CommitMeta> buildReferenceInfo(
+  /**
+   * Like {@link Iterators#partition(Iterator, int)}, but the first partition contains a single
+   * element and each following partition twice as many elements as the previous one, up to {@code
+   * maxSize} elements. Partitions are only built when requested.
+   */
+  static <T> Iterator<List<T>> growingPartition(Iterator<T> source, int maxSize) {
+    return new AbstractIterator<List<T>>() {
+      private int size = 1;
+
+      @Override
+      protected List<T> computeNext() {
+        if (!source.hasNext()) {
+          return endOfData();
+        }
+        List<T> partition = new ArrayList<>(size);
+        while (partition.size() < size && source.hasNext()) {
+          partition.add(source.next());
+        }
+        size = Math.min(size * 2, maxSize);
+        return partition;
+      }
+    };
+  }
+
+  /** Builds the {@link ReferenceInfo}s for a batch of references. */
+  private List<ReferenceInfo<CommitMeta>> referenceInfos(
       GetNamedRefsParams params,
       Optional<CommitObj> baseRefHead,
       CommitLogic commitLogic,
+      List<Reference> references) {
+    int size = references.size();
+    NamedRef[] namedRefs = new NamedRef[size];
+    ObjId[] pointers = new ObjId[size];
+    for (int i = 0; i < size; i++) {
+      Reference reference = references.get(i);
+      namedRefs[i] = referenceToNamedRef(reference);
+      pointers[i] = reference.pointer();
+    }
+
+    try {
+      CommitObj[] heads = commitLogic.fetchCommits(pointers);
+
+      Map<ObjId, MergeBase> mergeBases = emptyMap();
+      if (baseRefHead.isPresent()) {
+        List<CommitObj> mergeBaseHeads = new ArrayList<>(size);
+        boolean aheadBehind = false;
+        for (int i = 0; i < size; i++) {
+          if (heads[i] != null && needsMergeBase(params, namedRefs[i])) {
+            mergeBaseHeads.add(heads[i]);
+            aheadBehind |= retrieveOptions(params, namedRefs[i]).isComputeAheadBehind();
+          }
+        }
+        mergeBases = mergeBases(commitLogic, baseRefHead.get(), mergeBaseHeads, aheadBehind);
+      }
+
+      List<ReferenceInfo<CommitMeta>> infos = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        infos.add(buildReferenceInfo(params, baseRefHead, namedRefs[i], heads[i], mergeBases));
+      }
+      return infos;
+    } catch (ObjNotFoundException e) {
+      throw new RuntimeException("Could not resolve references " + references, e);
+    }
+  }
+
+  private static RetrieveOptions retrieveOptions(GetNamedRefsParams params, NamedRef namedRef) {
+    return namedRef instanceof TagName
+        ? params.getTagRetrieveOptions()
+        : params.getBranchRetrieveOptions();
+  }
+
+  private static boolean needsMergeBase(GetNamedRefsParams params, NamedRef namedRef) {
+    RetrieveOptions opts = retrieveOptions(params, namedRef);
+    return !namedRef.equals(params.getBaseReference())
+        && (opts.isComputeAheadBehind() || opts.isComputeCommonAncestor());
+  }
+
+  /**
+   * Builds the {@link ReferenceInfo} for a named reference.
+   *
+   * @param mergeBases common ancestors with the base reference's HEAD, keyed by HEAD commit ID, as
+   *     returned by {@link #mergeBases(CommitLogic, CommitObj, Collection, boolean)}
+   */
+  private static ReferenceInfo<CommitMeta> buildReferenceInfo(
+      GetNamedRefsParams params,
+      Optional<CommitObj> baseRefHead,
       NamedRef namedRef,
-      CommitObj head)
-      throws ObjNotFoundException, ReferenceNotFoundException {
+      CommitObj head,
+      Map<ObjId, MergeBase> mergeBases) {
     ImmutableReferenceInfo.Builder<CommitMeta> refInfo =
         ReferenceInfo.<CommitMeta>builder().namedRef(namedRef);
 
     if (head != null) {
       refInfo.hash(objIdToHash(head.id()));
 
-      RetrieveOptions opts = params.getBranchRetrieveOptions();
-      if (namedRef instanceof TagName) {
-        opts = params.getTagRetrieveOptions();
-      }
+      RetrieveOptions opts = retrieveOptions(params, namedRef);
 
       if (opts.isRetrieveCommitMetaForHead()) {
         refInfo.addParentHashes(objIdToHash(head.directParent()));
@@ -402,24 +540,21 @@ public class VersionStoreImpl implements VersionStore {
         refInfo.headCommitMeta(toCommitMeta(head)).commitSeq(head.seq());
       }
 
-      if (!namedRef.equals(params.getBaseReference())
-          && (opts.isComputeAheadBehind() || opts.isComputeCommonAncestor())) {
+      if (needsMergeBase(params, namedRef)) {
         if (baseRefHead.isPresent()) {
           CommitObj baseHead = baseRefHead.get();
-          try {
-            ObjId commonAncestorId = commitLogic.findCommonAncestor(baseHead.id(), head.id());
-            refInfo.commonAncestor(objIdToHash(commonAncestorId));
+          MergeBase mergeBase = mergeBases.get(head.id());
+          if (mergeBase != null) {
+            refInfo.commonAncestor(objIdToHash(mergeBase.commonAncestor));
 
             if (opts.isComputeAheadBehind()) {
-              CommitObj commonAncestor =
-                  persist.fetchTypedObj(commonAncestorId, COMMIT, CommitObj.class);
-              long commonAncestorSeq = commonAncestor.seq();
+              long commonAncestorSeq = mergeBase.commonAncestorSeq;
               refInfo.aheadBehind(
                   CommitsAheadBehind.of(
                       (int) (head.seq() - commonAncestorSeq),
                       (int) (baseHead.seq() - commonAncestorSeq)));
             }
-          } catch (NoSuchElementException e) {
+          } else {
             // no common ancestor
             refInfo.commonAncestor(NO_ANCESTOR);
 
@@ -442,6 +577,84 @@ public class VersionStoreImpl implements VersionStore {
     return refInfo.build();
   }
 
+  /**
+   * Returns the common ancestors of {@code baseHead} and each of the {@code heads}, keyed by head
+   * commit ID, served from the {@link MergeBaseCache}, if enabled. Head commits without a common
+   * ancestor are not contained in the returned map.
+   *
+   * <p>The sequence numbers of the common ancestors are only needed to compute ahead/behind
+   * information. If {@code withSeq} is {@code true}, the common ancestor commits, that are neither
+   * one of the given commits nor cached with their sequence number, are fetched with a single round
+   * trip. Otherwise no common ancestor commit is fetched and the returned sequence numbers may be
+   * {@link MergeBase#UNKNOWN_SEQ}.
+   */
+  private Map<ObjId, MergeBase> mergeBases(
+      CommitLogic commitLogic, CommitObj baseHead, Collection<CommitObj> heads, boolean withSeq)
+      throws ObjNotFoundException {
+    MergeBaseCache cache = mergeBaseCache;
+    ObjId baseId = baseHead.id();
+    Map<ObjId, MergeBase> mergeBases = new HashMap<>();
+    Map<ObjId, ObjId> commonAncestorIds = new HashMap<>();
+    for (CommitObj head : heads) {
+      ObjId headId = head.id();
+      if (mergeBases.containsKey(headId) || commonAncestorIds.containsKey(headId)) {
+        continue;
+      }
+      MergeBase mergeBase = cache != null ? cache.get(baseId, headId) : null;
+      if (mergeBase != null && (mergeBase.hasSeq() || !withSeq)) {
+        mergeBases.put(headId, mergeBase);
+        continue;
+      }
+
+      ObjId commonAncestor;
+      if (mergeBase != null) {
+        commonAncestor = mergeBase.commonAncestor;
+      } else {
+        try {
+          commonAncestor = commitLogic.findCommonAncestor(baseHead, head);
+        } catch (NoSuchElementException e) {
+          // no common ancestor
+          continue;
+        }
+      }
+
+      long commonAncestorSeq;
+      if (commonAncestor.equals(headId)) {
+        commonAncestorSeq = head.seq();
+      } else if (commonAncestor.equals(baseId)) {
+        commonAncestorSeq = baseHead.seq();
+      } else if (withSeq) {
+        commonAncestorIds.put(headId, commonAncestor);
+        continue;
+      } else {
+        commonAncestorSeq = MergeBase.UNKNOWN_SEQ;
+      }
+      mergeBase = new MergeBase(commonAncestor, commonAncestorSeq);
+      mergeBases.put(headId, mergeBase);
+      if (cache != null) {
+        cache.put(baseId, headId, mergeBase);
+      }
+    }
+
+    if (!commonAncestorIds.isEmpty()) {
+      ObjId[] headIds = commonAncestorIds.keySet().toArray(new ObjId[0]);
+      ObjId[] commonAncestors = new ObjId[headIds.length];
+      for (int i = 0; i < headIds.length; i++) {
+        commonAncestors[i] = commonAncestorIds.get(headIds[i]);
+      }
+      CommitObj[] commonAncestorCommits = commitLogic.fetchCommits(commonAncestors);
+      for (int i = 0; i < headIds.length; i++) {
+        MergeBase mergeBase = new MergeBase(commonAncestors[i], commonAncestorCommits[i].seq());
+        mergeBases.put(headIds[i], mergeBase);
+        if (cache != null) {
+          cache.put(baseId, headIds[i], mergeBase);
+        }
+      }
+    }
+
+    return mergeBases;
+  }
+
   static <R> R emptyOrNotFound(Ref ref, R namedRefResult) throws ReferenceNotFoundException {
     if (ref instanceof Hash && !NO_ANCESTOR.equals(ref)) {
       throw RefMapping.hashNotFound((Hash) ref);
@@ -462,19 +675,28 @@ public class VersionStoreImpl implements VersionStore {
 
     ContentMapping contentMapping = new ContentMapping(persist);
 
-    return new FilteringPaginationIterator<CommitObj, Commit>(
-        result,
-        commitObj -> {
-          try {
-            return contentMapping.commitObjToCommit(fetchAdditionalInfo, commitObj);
-          } catch (ObjNotFoundException e) {
-            throw new RuntimeException("Could not map commit", e);
-          }
-        }) {
+    // Map the commits in windows, if the commit operations are needed, so that the content values
+    // of a window are fetched with one round trip instead of one per commit. Windows start small
+    // and grow, so that a small page does not load commit operations that are never returned.
+    Iterator<Commit> commits =
+        Iterators.concat(
+            Iterators.transform(
+                growingPartition(result, fetchAdditionalInfo ? COMMITS_BATCH_SIZE : 1),
+                window -> {
+                  try {
+                    return contentMapping
+                        .commitObjsToCommits(fetchAdditionalInfo, window)
+                        .iterator();
+                  } catch (ObjNotFoundException e) {
+                    throw new RuntimeException("Could not map commit", e);
+                  }
+                }));
+
+    return new FilteringPaginationIterator<Commit, Commit>(commits, Function.identity()) {
       @Override
       protected String computeTokenForCurrent() {
-        CommitObj c = current();
-        return c != null ? pagingToken(c.id().asBytes()).asString() : null;
+        Commit c = current();
+        return c != null ? tokenForEntry(c) : null;
       }
 
       @Override
@@ -530,36 +752,38 @@ public class VersionStoreImpl implements VersionStore {
       stopPredicate = x -> false;
     }
 
-    return new FilteringPaginationIterator<StoreIndexElement<CommitOp>, KeyEntry>(
-        result,
-        indexElement -> {
-          try {
-            ContentKey key = storeKeyToKey(indexElement.key());
-            CommitOp commitOp = indexElement.content();
-            Content.Type contentType = contentTypeForPayload((byte) commitOp.payload());
-
-            if (withContent) {
-              Content c =
-                  contentMapping.fetchContent(
-                      requireNonNull(
-                          indexElement.content().value(), "Required value pointer is null"));
-              return KeyEntry.of(contentType, key, c);
+    Predicate<StoreIndexElement<CommitOp>> sourcePredicate = keyPredicate;
+    Iterator<StoreIndexElement<CommitOp>> elements =
+        new AbstractIterator<StoreIndexElement<CommitOp>>() {
+          @Override
+          protected StoreIndexElement<CommitOp> computeNext() {
+            while (result.hasNext()) {
+              StoreIndexElement<CommitOp> indexElement = result.next();
+              if (stopPredicate.test(indexElement)) {
+                break;
+              }
+              if (sourcePredicate.test(indexElement)) {
+                return indexElement;
+              }
             }
-
-            UUID contentId = commitOp.contentId();
-            String contentIdString =
-                contentId != null ? contentId.toString() : contentIdFromContent(commitOp);
-            return KeyEntry.of(contentType, key, contentIdString);
-          } catch (ObjNotFoundException e) {
-            throw new RuntimeException("Could not fetch or map content", e);
+            return endOfData();
           }
-        },
-        keyPredicate,
-        stopPredicate) {
+        };
+
+    // Map the index elements in windows, so that the content values needed by a window are fetched
+    // with one round trip instead of one per key. Windows start small and grow, so that a small
+    // page does not fetch content values for keys that are never returned.
+    Iterator<KeyEntry> entries =
+        Iterators.concat(
+            Iterators.transform(
+                growingPartition(elements, KEYS_BATCH_SIZE),
+                window -> keyEntries(contentMapping, withContent, window).iterator()));
+
+    return new FilteringPaginationIterator<KeyEntry, KeyEntry>(entries, Function.identity()) {
       @Override
       protected String computeTokenForCurrent() {
-        StoreIndexElement<CommitOp> c = current();
-        return c != null ? token(c.key()) : null;
+        KeyEntry c = current();
+        return c != null ? tokenForEntry(c) : null;
       }
 
       @Override
@@ -573,10 +797,45 @@ public class VersionStoreImpl implements VersionStore {
     };
   }
 
-  private String contentIdFromContent(CommitOp commitOp) throws ObjNotFoundException {
-    return new ContentMapping(persist)
-        .fetchContent(requireNonNull(commitOp.value(), "Required value pointer is null"))
-        .getId();
+  /**
+   * Maps a window of index elements to {@link KeyEntry}s. Fetches the content values, either for
+   * all elements, if {@code withContent} is {@code true}, or for the legacy elements without a
+   * content ID, with a single round trip.
+   */
+  private static List<KeyEntry> keyEntries(
+      ContentMapping contentMapping,
+      boolean withContent,
+      List<StoreIndexElement<CommitOp>> window) {
+    List<ObjId> valueIds = new ArrayList<>(window.size());
+    for (StoreIndexElement<CommitOp> indexElement : window) {
+      CommitOp commitOp = indexElement.content();
+      if (withContent || commitOp.contentId() == null) {
+        valueIds.add(requireNonNull(commitOp.value(), "Required value pointer is null"));
+      }
+    }
+
+    Iterator<Content> contents;
+    try {
+      contents = contentMapping.fetchContents(valueIds).iterator();
+    } catch (ObjNotFoundException e) {
+      throw new RuntimeException("Could not fetch or map content", e);
+    }
+
+    List<KeyEntry> entries = new ArrayList<>(window.size());
+    for (StoreIndexElement<CommitOp> indexElement : window) {
+      ContentKey key = storeKeyToKey(indexElement.key());
+      CommitOp commitOp = indexElement.content();
+      Content.Type contentType = contentTypeForPayload((byte) commitOp.payload());
+
+      if (withContent) {
+        entries.add(KeyEntry.of(contentType, key, contents.next()));
+      } else {
+        UUID contentId = commitOp.contentId();
+        String contentIdString = contentId != null ? contentId.toString() : contents.next().getId();
+        entries.add(KeyEntry.of(contentType, key, contentIdString));
+      }
+    }
+    return entries;
   }
 
   @Override
@@ -652,11 +911,17 @@ public class VersionStoreImpl implements VersionStore {
       @Nonnull @jakarta.annotation.Nonnull Callable<Void> validator,
       @Nonnull @jakarta.annotation.Nonnull BiConsumer<ContentKey, String> addedContents)
       throws ReferenceNotFoundException, ReferenceConflictException {
+    if (groupCommits != null) {
+      return groupCommits.commit(
+          branch, referenceHash, metadata, operations, validator, addedContents);
+    }
     return committingOperation(
         "commit",
         branch,
         referenceHash,
         persist,
+        commitRetryMetrics,
+        commitSequencer,
         CommitImpl::new,
         (commitImpl, retryState) ->
             commitImpl.commit(retryState, metadata, operations, validator, addedContents));
@@ -692,6 +957,8 @@ public class VersionStoreImpl implements VersionStore {
             toBranch,
             expectedHash,
             persist,
+            commitRetryMetrics,
+            dryRun ? null : commitSequencer,
             supplier,
             (merge, retryState) ->
                 merge.merge(
@@ -730,6 +997,8 @@ public class VersionStoreImpl implements VersionStore {
             targetBranch,
             referenceHash,
             persist,
+            commitRetryMetrics,
+            dryRun ? null : commitSequencer,
             supplier,
             (transplant, retryState) ->
                 transplant.transplant(
@@ -16,6 +16,7 @@
 package org.projectnessie.versioned.storage.versionstore;
 
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Nonnull;
 import org.projectnessie.versioned.storage.common.config.StoreConfig;
 import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
@@ -110,6 +111,19 @@ public class PersistDelegate implements Persist {
     return delegate.fetchReferences(names);
   }
 
+  @Override
+  public Reference fetchReferenceForUpdate(@Nonnull @jakarta.annotation.Nonnull String name) {
+    return delegate.fetchReferenceForUpdate(name);
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public Reference[] fetchReferencesForUpdate(
+      @Nonnull @jakarta.annotation.Nonnull String[] names) {
+    return delegate.fetchReferencesForUpdate(names);
+  }
+
   @Override
   @Nonnull
   @jakarta.annotation.Nonnull
@@ -196,4 +210,43 @@ public class PersistDelegate implements Persist {
   public void erase() {
     delegate.erase();
   }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Reference> fetchReferenceAsync(
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    return delegate.fetchReferenceAsync(name);
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Reference> updateReferencePointerAsync(
+      @Nonnull @jakarta.annotation.Nonnull Reference reference,
+      @Nonnull @jakarta.annotation.Nonnull ObjId newPointer) {
+    return delegate.updateReferencePointerAsync(reference, newPointer);
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Obj> fetchObjAsync(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    return delegate.fetchObjAsync(id);
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Obj[]> fetchObjsAsync(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids) {
+    return delegate.fetchObjsAsync(ids);
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<boolean[]> storeObjsAsync(
+      @Nonnull @jakarta.annotation.Nonnull Obj[] objs) {
+    return delegate.storeObjsAsync(objs);
+  }
 }
@@ -16,30 +16,76 @@
 package org.projectnessie.versioned.storage.versionstore;
 
 import static java.util.Collections.singletonList;
+import static java.util.Objects.requireNonNull;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.projectnessie.model.CommitMeta.fromMessage;
+import static org.projectnessie.versioned.GetNamedRefsParams.RetrieveOptions.BASE_REFERENCE_RELATED_AND_COMMIT_META;
+import static org.projectnessie.versioned.GetNamedRefsParams.RetrieveOptions.OMIT;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_RETRIES;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_SEQUENCING;
 import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_COMMIT_TIMEOUT_MILLIS;
+import static org.projectnessie.versioned.storage.common.config.StoreConfig.CONFIG_GROUP_COMMIT_MAX_COMMITS;
+import static org.projectnessie.versioned.storage.common.logic.CreateCommit.Add.commitAdd;
+import static org.projectnessie.versioned.storage.common.logic.CreateCommit.newCommitBuilder;
+import static org.projectnessie.versioned.storage.common.logic.Logics.commitLogic;
+import static org.projectnessie.versioned.storage.common.objtypes.CommitHeaders.EMPTY_COMMIT_HEADERS;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.EMPTY_OBJ_ID;
+import static org.projectnessie.versioned.storage.versionstore.TypeMapping.keyToStoreKey;
+import static org.projectnessie.versioned.store.DefaultStoreWorker.payloadForContent;
 
+import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import javax.annotation.Nonnull;
 import org.assertj.core.api.SoftAssertions;
 import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
 import org.junit.jupiter.api.Test;
+import org.projectnessie.model.CommitMeta;
+import org.projectnessie.model.Content;
 import org.projectnessie.model.ContentKey;
 import org.projectnessie.model.IcebergTable;
 import org.projectnessie.versioned.BranchName;
+import org.projectnessie.versioned.Commit;
+import org.projectnessie.versioned.Delete;
+import org.projectnessie.versioned.GetNamedRefsParams;
+import org.projectnessie.versioned.GetNamedRefsParams.RetrieveOptions;
 import org.projectnessie.versioned.Hash;
+import org.projectnessie.versioned.KeyEntry;
+import org.projectnessie.versioned.Operation;
 import org.projectnessie.versioned.Put;
 import org.projectnessie.versioned.ReferenceConflictException;
+import org.projectnessie.versioned.ReferenceInfo;
+import org.projectnessie.versioned.ReferenceInfo.CommitsAheadBehind;
 import org.projectnessie.versioned.ReferenceNotFoundException;
 import org.projectnessie.versioned.ReferenceRetryFailureException;
 import org.projectnessie.versioned.VersionStore;
+import org.projectnessie.versioned.paging.PaginationIterator;
+import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
 import org.projectnessie.versioned.storage.common.exceptions.RefConditionFailedException;
 import org.projectnessie.versioned.storage.common.exceptions.RefNotFoundException;
+import org.projectnessie.versioned.storage.common.logic.CreateCommit;
+import org.projectnessie.versioned.storage.common.objtypes.CommitObj;
+import org.projectnessie.versioned.storage.common.objtypes.ContentValueObj;
+import org.projectnessie.versioned.storage.common.persist.Obj;
 import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.ObjType;
 import org.projectnessie.versioned.storage.common.persist.Persist;
 import org.projectnessie.versioned.storage.common.persist.Reference;
 import org.projectnessie.versioned.storage.commontests.AbstractVersionStoreTests;
@@ -160,4 +206,496 @@ public class TestVersionStoreImpl extends AbstractVersionStoreTests {
         fromMessage("commit foo"),
         singletonList(Put.of(ContentKey.of("some-key"), IcebergTable.of("meta", 42, 43, 44, 45))));
   }
+
+  @Test
+  public void groupCommits(
+      @NessieStoreConfig(name = CONFIG_GROUP_COMMIT_MAX_COMMITS, value = "8") @NessiePersist
+          Persist persist)
+      throws Exception {
+    VersionStore store = new VersionStoreImpl(persist);
+
+    BranchName branch = BranchName.of("branch1");
+    store.create(branch, Optional.empty());
+    Hash initial = commit(store, branch, "same-key");
+
+    int numCommits = 32;
+    ExecutorService executor = Executors.newFixedThreadPool(numCommits);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Hash>> futures = new ArrayList<>();
+      for (int i = 0; i < numCommits + 2; i++) {
+        // The last two commits delete the same key, only one of them can succeed.
+        Operation operation =
+            i < numCommits
+                ? Put.of(ContentKey.of("key-" + i), IcebergTable.of("meta", 42, 43, 44, 45))
+                : Delete.of(ContentKey.of("same-key"));
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return store
+                      .commit(
+                          branch,
+                          Optional.empty(),
+                          fromMessage("commit " + operation.getKey()),
+                          singletonList(operation))
+                      .getCommitHash();
+                }));
+      }
+      start.countDown();
+
+      Set<Hash> hashes = new HashSet<>();
+      hashes.add(initial);
+      int conflicts = 0;
+      for (Future<Hash> future : futures) {
+        try {
+          hashes.add(future.get());
+        } catch (ExecutionException e) {
+          soft.assertThat(e.getCause()).isInstanceOf(ReferenceConflictException.class);
+          conflicts++;
+        }
+      }
+
+      soft.assertThat(conflicts).isEqualTo(1);
+      soft.assertThat(hashes).hasSize(numCommits + 2);
+      soft.assertThat(store.getCommits(branch, false))
+          .toIterable()
+          .extracting(Commit::getHash)
+          .containsExactlyInAnyOrderElementsOf(hashes);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void commitSequencing(
+      @NessieStoreConfig(name = CONFIG_COMMIT_SEQUENCING, value = "true") @NessiePersist
+          Persist persist)
+      throws Exception {
+    AtomicInteger pointerUpdates = new AtomicInteger();
+    AtomicInteger failedPointerUpdates = new AtomicInteger();
+    Persist tested =
+        new PersistDelegate(persist) {
+          @Nonnull
+          @jakarta.annotation.Nonnull
+          @Override
+          public Reference updateReferencePointer(
+              @Nonnull @jakarta.annotation.Nonnull Reference reference,
+              @Nonnull @jakarta.annotation.Nonnull ObjId newPointer)
+              throws RefNotFoundException, RefConditionFailedException {
+            pointerUpdates.incrementAndGet();
+            try {
+              return super.updateReferencePointer(reference, newPointer);
+            } catch (RefConditionFailedException e) {
+              failedPointerUpdates.incrementAndGet();
+              throw e;
+            }
+          }
+        };
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+    VersionStore store = new VersionStoreImpl(tested, registry);
+
+    BranchName branch = BranchName.of("branch1");
+    store.create(branch, Optional.empty());
+    pointerUpdates.set(0);
+
+    int numCommits = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(numCommits);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Hash>> futures = new ArrayList<>();
+      for (int i = 0; i < numCommits; i++) {
+        String key = "key-" + i;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return store
+                      .commit(
+                          branch,
+                          Optional.empty(),
+                          fromMessage("commit " + key),
+                          singletonList(
+                              Put.of(ContentKey.of(key), IcebergTable.of("meta", 42, 43, 44, 45))))
+                      .getCommitHash();
+                }));
+      }
+      start.countDown();
+
+      for (Future<Hash> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // Local commits do not compete for the reference pointer update.
+    soft.assertThat(failedPointerUpdates).hasValue(0);
+    soft.assertThat(pointerUpdates).hasValue(numCommits);
+    soft.assertThat(registry.get("nessie.storage.commit-sequencer.wait").timer().count())
+        .isEqualTo(numCommits);
+    soft.assertThat(registry.get("nessie.storage.commit-sequencer.queue-depth").gauge().value())
+        .isEqualTo(0d);
+  }
+
+  @Test
+  public void mergeBaseCache(@NessiePersist Persist persist) throws Exception {
+    VersionStore setup = new VersionStoreImpl(persist);
+
+    BranchName main = BranchName.of("base");
+    BranchName feature = BranchName.of("feature");
+    setup.create(main, Optional.empty());
+    commit(setup, main, "main-0");
+    Hash forkPoint = commit(setup, main, "main-1");
+    setup.create(feature, Optional.of(forkPoint));
+    for (int i = 0; i < 3; i++) {
+      commit(setup, feature, "feature-" + i);
+    }
+    commit(setup, main, "main-after-fork");
+    ObjId forkPointId = ObjId.objIdFromString(forkPoint.asString());
+
+    CountingPersist tested = countingPersist(persist, obj -> forkPointId.equals(obj.id()));
+    VersionStore store = new VersionStoreImpl(tested);
+
+    GetNamedRefsParams commonAncestorOnly =
+        GetNamedRefsParams.builder()
+            .baseReference(main)
+            .branchRetrieveOptions(RetrieveOptions.builder().isComputeCommonAncestor(true).build())
+            .tagRetrieveOptions(OMIT)
+            .build();
+
+    try (PaginationIterator<ReferenceInfo<CommitMeta>> refs =
+        store.getNamedRefs(commonAncestorOnly, null)) {
+      soft.assertThat(Lists.newArrayList(refs))
+          .filteredOn(r -> r.getNamedRef().equals(feature))
+          .singleElement()
+          .satisfies(
+              r -> {
+                assertThat(r.getCommonAncestor()).isEqualTo(forkPoint);
+                assertThat(r.getAheadBehind()).isNull();
+              });
+    }
+    // Without ahead/behind, the sequence number of the fork point commit is not needed
+    soft.assertThat(tested.singleFetches).hasValue(0);
+    soft.assertThat(tested.bulkFetches).hasValue(0);
+
+    GetNamedRefsParams params =
+        GetNamedRefsParams.builder()
+            .baseReference(main)
+            .branchRetrieveOptions(BASE_REFERENCE_RELATED_AND_COMMIT_META)
+            .tagRetrieveOptions(OMIT)
+            .build();
+
+    for (int i = 0; i < 2; i++) {
+      tested.reset();
+      try (PaginationIterator<ReferenceInfo<CommitMeta>> refs = store.getNamedRefs(params, null)) {
+        soft.assertThat(Lists.newArrayList(refs))
+            .filteredOn(r -> r.getNamedRef().equals(feature))
+            .singleElement()
+            .satisfies(
+                r -> {
+                  assertThat(r.getCommonAncestor()).isEqualTo(forkPoint);
+                  assertThat(r.getAheadBehind()).isEqualTo(CommitsAheadBehind.of(3, 1));
+                });
+      }
+      if (i == 1) {
+        // Served from the merge-base cache, the fork point commit is not needed
+        soft.assertThat(tested.singleFetches).hasValue(0);
+        soft.assertThat(tested.bulkFetches).hasValue(0);
+      }
+    }
+  }
+
+  @Test
+  public void namedRefsBatchedHeads(@NessiePersist Persist persist) throws Exception {
+    VersionStore setup = new VersionStoreImpl(persist);
+
+    BranchName main = BranchName.of("main");
+    Hash forkPoint = commit(setup, main, "main-0");
+
+    int numBranches = 2 * VersionStoreImpl.NAMED_REFS_BATCH_SIZE + 10;
+    Set<ObjId> heads = new HashSet<>();
+    for (int i = 0; i < numBranches; i++) {
+      BranchName branch = BranchName.of("branch-" + i);
+      setup.create(branch, Optional.of(forkPoint));
+      heads.add(ObjId.objIdFromString(commit(setup, branch, "branch-" + i).asString()));
+    }
+
+    CountingPersist tested = countingPersist(persist, obj -> heads.contains(obj.id()));
+    VersionStore store = new VersionStoreImpl(tested);
+
+    GetNamedRefsParams params =
+        GetNamedRefsParams.builder()
+            .baseReference(main)
+            .branchRetrieveOptions(BASE_REFERENCE_RELATED_AND_COMMIT_META)
+            .tagRetrieveOptions(OMIT)
+            .build();
+
+    try (PaginationIterator<ReferenceInfo<CommitMeta>> refs = store.getNamedRefs(params, null)) {
+      soft.assertThat(Lists.newArrayList(refs))
+          .hasSize(numBranches + 1)
+          .filteredOn(r -> !r.getNamedRef().equals(main))
+          .allSatisfy(
+              r -> {
+                assertThat(r.getCommonAncestor()).isEqualTo(forkPoint);
+                assertThat(r.getAheadBehind()).isEqualTo(CommitsAheadBehind.of(1, 0));
+              });
+    }
+
+    // HEAD commits are fetched per batch of references, never one by one, batches grow from a
+    // single reference up to NAMED_REFS_BATCH_SIZE references
+    int expectedBatches = 0;
+    for (int remaining = numBranches + 1, size = 1; remaining > 0; ) {
+      expectedBatches++;
+      remaining -= size;
+      size = Math.min(size * 2, VersionStoreImpl.NAMED_REFS_BATCH_SIZE);
+    }
+    soft.assertThat(tested.singleFetches).hasValue(0);
+    soft.assertThat(tested.bulkFetches).hasValue(expectedBatches);
+    soft.assertThat(tested.bulkFetchedObjs).hasValue(numBranches);
+
+    // A small page only resolves about as many references as it returns
+    int pageSize = 3;
+    tested.reset();
+    try (PaginationIterator<ReferenceInfo<CommitMeta>> refs = store.getNamedRefs(params, null)) {
+      for (int i = 0; i < pageSize; i++) {
+        refs.next();
+      }
+      refs.hasNext();
+    }
+    soft.assertThat(tested.bulkFetchedObjs.get()).isLessThanOrEqualTo(2 * pageSize + 1);
+  }
+
+  @Test
+  public void keysWithContentBatched(@NessiePersist Persist persist) throws Exception {
+    CountingPersist tested = countingPersist(persist, ContentValueObj.class::isInstance);
+    VersionStore store = new VersionStoreImpl(tested);
+
+    BranchName main = BranchName.of("main");
+    int numKeys = VersionStoreImpl.KEYS_BATCH_SIZE + 10;
+    List<Operation> puts = new ArrayList<>();
+    for (int i = 0; i < numKeys; i++) {
+      puts.add(Put.of(ContentKey.of("key-" + i), IcebergTable.of("meta-" + i, 42, 43, 44, 45)));
+    }
+    store.commit(main, Optional.empty(), fromMessage("keys"), puts);
+
+    tested.reset();
+    try (PaginationIterator<KeyEntry> keys =
+        store.getKeys(main, null, true, null, null, null, null)) {
+      soft.assertThat(Lists.newArrayList(keys))
+          .hasSize(numKeys)
+          .allSatisfy(
+              e ->
+                  assertThat(e.getContent())
+                      .isInstanceOf(IcebergTable.class)
+                      .extracting(Content::getId)
+                      .isEqualTo(e.getContentId()));
+    }
+    // Content values are fetched per window of keys, never one by one, in windows of 1, 2, 4, 8,
+    // 16 and the remaining 29 keys
+    soft.assertThat(tested.singleFetches).hasValue(0);
+    soft.assertThat(tested.bulkFetches).hasValue(6);
+
+    // A small page only fetches the content values of the keys it returns
+    tested.reset();
+    try (PaginationIterator<KeyEntry> keys =
+        store.getKeys(main, null, true, null, null, null, null)) {
+      keys.next();
+    }
+    soft.assertThat(tested.bulkFetchedObjs).hasValue(1);
+
+    tested.reset();
+    try (PaginationIterator<KeyEntry> keys =
+        store.getKeys(main, null, false, null, null, null, null)) {
+      soft.assertThat(Lists.newArrayList(keys)).hasSize(numKeys);
+    }
+    // Content IDs are present in the index, no content value needed
+    soft.assertThat(tested.singleFetches).hasValue(0);
+    soft.assertThat(tested.bulkFetches).hasValue(0);
+  }
+
+  @Test
+  public void commitPreloadsLegacyContentIds(@NessiePersist Persist persist) throws Exception {
+    CountingPersist tested = countingPersist(persist, ContentValueObj.class::isInstance);
+    // Simulate keys of an imported repository, which have no content ID in the index, content IDs
+    // of legacy repositories are not necessarily UUIDs
+    ContentMapping contentMapping = new ContentMapping(persist);
+    CreateCommit.Builder legacy =
+        newCommitBuilder()
+            .parentCommitId(EMPTY_OBJ_ID)
+            .headers(EMPTY_COMMIT_HEADERS)
+            .message("legacy");
+    List<Obj> values = new ArrayList<>();
+    List<String> contentIds = new ArrayList<>();
+    int numKeys = 20;
+    for (int i = 0; i < numKeys; i++) {
+      String contentId = "legacy-content-" + i;
+      IcebergTable table = IcebergTable.of("meta-" + i, 42, 43, 44, 45, contentId);
+      int payload = payloadForContent(table);
+      ContentValueObj value = contentMapping.buildContent(table, payload);
+      values.add(value);
+      contentIds.add(contentId);
+      legacy.addAdds(
+          commitAdd(
+              keyToStoreKey(ContentKey.of("key-" + i)),
+              payload,
+              requireNonNull(value.id()),
+              null,
+              null));
+    }
+    CommitObj legacyCommit = requireNonNull(commitLogic(persist).doCommit(legacy.build(), values));
+    persist.updateReferencePointer(
+        requireNonNull(persist.fetchReference("refs/heads/main")), legacyCommit.id());
+
+    VersionStore store = new VersionStoreImpl(tested);
+
+    List<Operation> updates = new ArrayList<>();
+    for (int i = 0; i < numKeys; i++) {
+      updates.add(
+          Put.of(
+              ContentKey.of("key-" + i),
+              IcebergTable.of("meta2-" + i, 42, 43, 44, 45, contentIds.get(i))));
+    }
+    store.commit(BranchName.of("main"), Optional.empty(), fromMessage("update"), updates);
+
+    // The existing content values are bulk-loaded to resolve the content IDs
+    soft.assertThat(tested.singleFetches).hasValue(0);
+
+    soft.assertThat(store.getValues(BranchName.of("main"), singletonList(ContentKey.of("key-0"))))
+        .extractingByKey(ContentKey.of("key-0"))
+        .isEqualTo(IcebergTable.of("meta2-0", 42, 43, 44, 45, contentIds.get(0)));
+  }
+
+  @Test
+  public void commitLogOperationsBatched(@NessiePersist Persist persist) throws Exception {
+    CountingPersist tested = countingPersist(persist, ContentValueObj.class::isInstance);
+    VersionStore store = new VersionStoreImpl(tested);
+
+    BranchName main = BranchName.of("main");
+    int numCommits = VersionStoreImpl.COMMITS_BATCH_SIZE + 10;
+    for (int i = 0; i < numCommits; i++) {
+      commit(store, main, "key-" + i);
+    }
+
+    tested.reset();
+    try (PaginationIterator<Commit> commits = store.getCommits(main, true)) {
+      soft.assertThat(Lists.newArrayList(commits))
+          .hasSize(numCommits)
+          .allSatisfy(
+              c ->
+                  assertThat(c.getOperations())
+                      .singleElement()
+                      .isInstanceOf(Put.class)
+                      .extracting(op -> op.getKey().getName())
+                      .isEqualTo(c.getCommitMeta().getMessage().substring("commit ".length())));
+    }
+    // Operations are resolved per window of commits, not per commit, in windows of 1, 2, 4, 8, 16
+    // and the remaining 29 commits
+    soft.assertThat(tested.bulkFetches).hasValue(6);
+
+    // A small page only loads the operations of the commits it returns
+    tested.reset();
+    try (PaginationIterator<Commit> commits = store.getCommits(main, true)) {
+      commits.next();
+    }
+    soft.assertThat(tested.bulkFetchedObjs).hasValue(1);
+  }
+
+  /**
+   * Returns a {@link Persist} that counts the fetches of objects matching {@code predicate},
+   * individually and in bulk.
+   */
+  private static CountingPersist countingPersist(Persist persist, Predicate<Obj> predicate) {
+    return new CountingPersist(persist, predicate);
+  }
+
+  private static final class CountingPersist extends PersistDelegate {
+    private final Predicate<Obj> predicate;
+
+    /** Number of matching objects fetched individually. */
+    final AtomicInteger singleFetches = new AtomicInteger();
+
+    /** Number of bulk fetches that returned at least one matching object. */
+    final AtomicInteger bulkFetches = new AtomicInteger();
+
+    /** Number of matching objects fetched in bulk. */
+    final AtomicInteger bulkFetchedObjs = new AtomicInteger();
+
+    CountingPersist(Persist delegate, Predicate<Obj> predicate) {
+      super(delegate);
+      this.predicate = predicate;
+    }
+
+    void reset() {
+      singleFetches.set(0);
+      bulkFetches.set(0);
+      bulkFetchedObjs.set(0);
+    }
+
+    private <T extends Obj> T single(T obj) {
+      if (obj != null && predicate.test(obj)) {
+        singleFetches.incrementAndGet();
+      }
+      return obj;
+    }
+
+    private Obj[] bulk(Obj[] objs) {
+      int matching = (int) Arrays.stream(objs).filter(Objects::nonNull).filter(predicate).count();
+      if (matching > 0) {
+        bulkFetches.incrementAndGet();
+        bulkFetchedObjs.addAndGet(matching);
+      }
+      return objs;
+    }
+
+    @Nonnull
+    @jakarta.annotation.Nonnull
+    @Override
+    public Obj fetchObj(@Nonnull @jakarta.annotation.Nonnull ObjId id)
+        throws ObjNotFoundException {
+      return single(super.fetchObj(id));
+    }
+
+    @Nonnull
+    @jakarta.annotation.Nonnull
+    @Override
+    public <T extends Obj> T fetchTypedObj(
+        @Nonnull @jakarta.annotation.Nonnull ObjId id, ObjType type, Class<T> typeClass)
+        throws ObjNotFoundException {
+      return single(super.fetchTypedObj(id, type, typeClass));
+    }
+
+    @Nonnull
+    @jakarta.annotation.Nonnull
+    @Override
+    public Obj[] fetchObjs(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids)
+        throws ObjNotFoundException {
+      return bulk(super.fetchObjs(ids));
+    }
+
+    @Nonnull
+    @jakarta.annotation.Nonnull
+    @Override
+    public CompletionStage<Obj> fetchObjAsync(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+      return super.fetchObjAsync(id).thenApply(this::single);
+    }
+
+    @Nonnull
+    @jakarta.annotation.Nonnull
+    @Override
+    public CompletionStage<Obj[]> fetchObjsAsync(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids) {
+      return super.fetchObjsAsync(ids).thenApply(this::bulk);
+    }
+  }
+
+  private static Hash commit(VersionStore store, BranchName branch, String key) throws Exception {
+    return store
+        .commit(
+            branch,
+            Optional.empty(),
+            fromMessage("commit " + key),
+            singletonList(Put.of(ContentKey.of(key), IcebergTable.of("meta", 42, 43, 44, 45))))
+        .getCommitHash();
+  }
 }
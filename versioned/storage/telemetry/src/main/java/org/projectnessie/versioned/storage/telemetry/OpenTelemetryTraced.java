@@ -26,6 +26,7 @@ final class OpenTelemetryTraced implements Traced {
 
   private final Span span;
   private final Scope scope;
+  private boolean scopeClosed;
 
   @SuppressWarnings("MustBeClosedChecker")
   OpenTelemetryTraced(Tracer tracer, String spanName) {
@@ -36,12 +37,20 @@ final class OpenTelemetryTraced implements Traced {
   @Override
   public void close() {
     try {
-      scope.close();
+      closeScope();
     } finally {
       span.end();
     }
   }
 
+  @Override
+  public void closeScope() {
+    if (!scopeClosed) {
+      scopeClosed = true;
+      scope.close();
+    }
+  }
+
   @Override
   public void event(String eventName) {
     span.addEvent(eventName);
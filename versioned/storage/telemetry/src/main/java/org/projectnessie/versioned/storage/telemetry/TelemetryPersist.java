@@ -18,10 +18,14 @@ package org.projectnessie.versioned.storage.telemetry;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.counting;
 import static java.util.stream.Collectors.groupingBy;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.unwrap;
 
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import org.projectnessie.versioned.storage.common.config.StoreConfig;
 import org.projectnessie.versioned.storage.common.exceptions.ObjNotFoundException;
@@ -158,6 +162,36 @@ final class TelemetryPersist implements Persist {
     }
   }
 
+  @Override
+  public Reference fetchReferenceForUpdate(@Nonnull @jakarta.annotation.Nonnull String name) {
+    try (Traced trace = traced("fetchReferenceForUpdate")) {
+      try {
+        Reference result = persist.fetchReferenceForUpdate(name);
+        trace.attribute("found", result != null);
+        return result;
+      } catch (RuntimeException e) {
+        throw trace.unhandledError(e);
+      }
+    }
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public Reference[] fetchReferencesForUpdate(
+      @Nonnull @jakarta.annotation.Nonnull String[] names) {
+    try (Traced trace =
+        traced("fetchReferencesForUpdate").attribute("names.length", names.length)) {
+      try {
+        Reference[] result = persist.fetchReferencesForUpdate(names);
+        trace.attribute("result.length", stream(result).filter(Objects::nonNull).count());
+        return result;
+      } catch (RuntimeException e) {
+        throw trace.unhandledError(e);
+      }
+    }
+  }
+
   @Override
   @Nonnull
   @jakarta.annotation.Nonnull
@@ -347,6 +381,115 @@ final class TelemetryPersist implements Persist {
     }
   }
 
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Reference> fetchReferenceAsync(
+      @Nonnull @jakarta.annotation.Nonnull String name) {
+    return tracedAsync(
+        traced("fetchReferenceAsync"),
+        () -> persist.fetchReferenceAsync(name),
+        (trace, result) -> trace.attribute("found", result != null));
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Reference> updateReferencePointerAsync(
+      @Nonnull @jakarta.annotation.Nonnull Reference reference,
+      @Nonnull @jakarta.annotation.Nonnull ObjId newPointer) {
+    return tracedAsync(
+        traced("updateReferencePointerAsync"),
+        () -> persist.updateReferencePointerAsync(reference, newPointer),
+        (trace, result) -> {});
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Obj> fetchObjAsync(@Nonnull @jakarta.annotation.Nonnull ObjId id) {
+    return tracedAsync(
+        traced("fetchObjAsync"),
+        () -> persist.fetchObjAsync(id),
+        (trace, o) -> trace.attribute("type", o.type().name()));
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<Obj[]> fetchObjsAsync(@Nonnull @jakarta.annotation.Nonnull ObjId[] ids) {
+    return tracedAsync(
+        traced("fetchObjsAsync").attribute("ids.length", ids.length),
+        () -> persist.fetchObjsAsync(ids),
+        (trace, objs) ->
+            stream(objs)
+                .filter(Objects::nonNull)
+                .collect(groupingBy(Obj::type, counting()))
+                .forEach((t, c) -> trace.attribute("type." + t.name() + ".count", c)));
+  }
+
+  @Override
+  @Nonnull
+  @jakarta.annotation.Nonnull
+  public CompletionStage<boolean[]> storeObjsAsync(
+      @Nonnull @jakarta.annotation.Nonnull Obj[] objs) {
+    Traced traced = traced("storeObjsAsync").attribute("objs.length", objs.length);
+    stream(objs)
+        .collect(groupingBy(Obj::type, counting()))
+        .forEach((t, c) -> traced.attribute("type." + t.name() + ".count", c));
+    return tracedAsync(
+        traced,
+        () -> persist.storeObjsAsync(objs),
+        (trace, result) -> {
+          int successes = 0;
+          for (boolean b : result) {
+            if (b) {
+              successes++;
+            }
+          }
+          trace.attribute("created.count", successes);
+        });
+  }
+
+  /**
+   * Starts the given asynchronous operation and ends the trace when the returned stage completes.
+   * The scope of the trace is left right after starting the operation, because the stage may
+   * complete on another thread.
+   */
+  private static <R> CompletionStage<R> tracedAsync(
+      Traced trace, Supplier<CompletionStage<R>> operation, BiConsumer<Traced, R> onResult) {
+    CompletionStage<R> stage;
+    try {
+      stage = operation.get();
+    } catch (RuntimeException e) {
+      trace.unhandledError(e);
+      trace.close();
+      throw e;
+    }
+    trace.closeScope();
+    return stage.whenComplete(
+        (result, failure) -> {
+          try {
+            if (failure == null) {
+              onResult.accept(trace, result);
+              return;
+            }
+            Throwable cause = unwrap(failure);
+            if (cause instanceof ObjNotFoundException || cause instanceof RefNotFoundException) {
+              trace.attribute("error", "not found");
+            } else if (cause instanceof RefConditionFailedException) {
+              trace.attribute("error", "conditional update failed");
+            } else if (cause instanceof ObjTooLargeException) {
+              trace.attribute("error", "too large");
+            } else if (cause instanceof RuntimeException) {
+              trace.unhandledError((RuntimeException) cause);
+            }
+          } finally {
+            trace.close();
+          }
+        });
+  }
+
   // Simple delegates
 
   @Override
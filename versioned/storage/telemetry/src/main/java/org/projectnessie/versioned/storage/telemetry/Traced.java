@@ -26,6 +26,12 @@ interface Traced extends Closeable {
   @Override
   void close();
 
+  /**
+   * Leaves the scope of this trace on the current thread, but keeps it open until {@link #close()}
+   * is called, for asynchronous operations that complete on another thread.
+   */
+  void closeScope();
+
   void event(String eventName);
 
   Traced attribute(String tag, String value);
@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2022 Dremio
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.projectnessie.versioned.storage.telemetry;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.projectnessie.versioned.storage.common.objtypes.RefObj.ref;
+import static org.projectnessie.versioned.storage.common.persist.CompletionStages.failed;
+import static org.projectnessie.versioned.storage.common.persist.ObjId.randomObjId;
+import static org.projectnessie.versioned.storage.common.persist.Reference.reference;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.assertj.core.api.SoftAssertions;
+import org.assertj.core.api.junit.jupiter.InjectSoftAssertions;
+import org.assertj.core.api.junit.jupiter.SoftAssertionsExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.projectnessie.versioned.storage.common.config.StoreConfig;
+import org.projectnessie.versioned.storage.common.exceptions.RefConditionFailedException;
+import org.projectnessie.versioned.storage.common.persist.Obj;
+import org.projectnessie.versioned.storage.common.persist.ObjId;
+import org.projectnessie.versioned.storage.common.persist.Persist;
+import org.projectnessie.versioned.storage.common.persist.Reference;
+
+@ExtendWith(SoftAssertionsExtension.class)
+public class TestTelemetryPersist {
+  @InjectSoftAssertions protected SoftAssertions soft;
+
+  @Test
+  public void asyncFunctionsReachDelegate() throws Exception {
+    Obj obj = ref("foo", randomObjId(), 42L);
+    ObjId id = obj.id();
+    Reference reference = reference("refs/heads/main", id, false);
+
+    Persist delegate = mock(Persist.class);
+    when(delegate.config()).thenReturn(StoreConfig.Adjustable.empty());
+    when(delegate.fetchObjAsync(id)).thenReturn(completedFuture(obj));
+    when(delegate.fetchObjsAsync(any())).thenReturn(completedFuture(new Obj[] {obj}));
+    when(delegate.storeObjsAsync(any())).thenReturn(completedFuture(new boolean[] {true}));
+    when(delegate.fetchReferenceAsync(reference.name())).thenReturn(completedFuture(reference));
+    when(delegate.updateReferencePointerAsync(reference, id))
+        .thenReturn(failed(new RefConditionFailedException(reference)));
+
+    List<RecordingTraced> traces = new ArrayList<>();
+    Persist persist =
+        new TelemetryPersist(
+            delegate,
+            spanName -> {
+              RecordingTraced traced = new RecordingTraced(spanName);
+              traces.add(traced);
+              return traced;
+            });
+
+    soft.assertThat(persist.fetchObjAsync(id).toCompletableFuture().get()).isSameAs(obj);
+    soft.assertThat(persist.fetchObjsAsync(new ObjId[] {id}).toCompletableFuture().get())
+        .containsExactly(obj);
+    soft.assertThat(persist.storeObjsAsync(new Obj[] {obj}).toCompletableFuture().get())
+        .containsExactly(true);
+    soft.assertThat(persist.fetchReferenceAsync(reference.name()).toCompletableFuture().get())
+        .isSameAs(reference);
+    soft.assertThat(persist.updateReferencePointerAsync(reference, id).toCompletableFuture())
+        .failsWithin(Duration.ofSeconds(5))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(RefConditionFailedException.class);
+
+    verify(delegate).fetchObjAsync(id);
+    verify(delegate).fetchObjsAsync(new ObjId[] {id});
+    verify(delegate).storeObjsAsync(new Obj[] {obj});
+    verify(delegate).fetchReferenceAsync(reference.name());
+    verify(delegate).updateReferencePointerAsync(reference, id);
+    verify(delegate, never()).fetchObj(any());
+    verify(delegate, never()).fetchObjs(any());
+    verify(delegate, never()).storeObjs(any());
+    verify(delegate, never()).fetchReference(any());
+    verify(delegate, never()).updateReferencePointer(any(), any());
+
+    soft.assertThat(traces)
+        .extracting(t -> t.spanName)
+        .containsExactly(
+            "fetchObjAsync",
+            "fetchObjsAsync",
+            "storeObjsAsync",
+            "fetchReferenceAsync",
+            "updateReferencePointerAsync");
+    soft.assertThat(traces).allMatch(t -> t.closed && t.scopeClosed);
+    soft.assertThat(traces.get(0).attributes).contains("type=REF");
+    soft.assertThat(traces.get(3).attributes).contains("found=true");
+    soft.assertThat(traces.get(4).attributes).contains("error=conditional update failed");
+  }
+
+  static final class RecordingTraced implements Traced {
+    final String spanName;
+    final List<String> attributes = new ArrayList<>();
+    boolean scopeClosed;
+    boolean closed;
+
+    RecordingTraced(String spanName) {
+      this.spanName = spanName;
+    }
+
+    @Override
+    public void close() {
+      scopeClosed = true;
+      closed = true;
+    }
+
+    @Override
+    public void closeScope() {
+      scopeClosed = true;
+    }
+
+    @Override
+    public void event(String eventName) {}
+
+    @Override
+    public Traced attribute(String tag, String value) {
+      attributes.add(tag + "=" + value);
+      return this;
+    }
+
+    @Override
+    public Traced attribute(String tag, boolean value) {
+      attributes.add(tag + "=" + value);
+      return this;
+    }
+
+    @Override
+    public Traced attribute(String tag, int value) {
+      attributes.add(tag + "=" + value);
+      return this;
+    }
+
+    @Override
+    public Traced attribute(String tag, long value) {
+      attributes.add(tag + "=" + value);
+      return this;
+    }
+
+    @Override
+    public RuntimeException unhandledError(RuntimeException e) {
+      attributes.add("unhandled=" + e);
+      return e;
+    }
+  }
+}
@@ -31,4 +31,22 @@ import java.lang.annotation.Target;
 @Inherited
 public @interface NessiePersistCache {
   long capacity() default 1024 * 1024;
+
+  /** Whether the cache holds serialized objects instead of deserialized objects. */
+  boolean serialized() default false;
+
+  /** Whether the cache holds serialized objects in direct memory. */
+  boolean offHeap() default false;
+
+  /** Whether objects loaded from the database are only cached on their second access. */
+  boolean scanResistant() default false;
+
+  /** Duration in milliseconds for which references are cached, {@code 0} disables the cache. */
+  long referenceTtlMillis() default 0L;
+
+  /**
+   * Duration in milliseconds for which the absence of objects is cached, {@code 0} disables the
+   * "not found" cache.
+   */
+  long notFoundTtlMillis() default 0L;
 }